@@ -88,6 +88,7 @@ public class Util {
     public static final String ENABLED = "enabled";
     public static final String EXECUTE = "execute";
     public static final String EXPRESSIONS_ALLOWED = "expressions-allowed";
+    public static final String EXTENSION = "extension";
     public static final String FAILURE_DESCRIPTION = "failure-description";
     public static final String FULL_REPLACE_DEPLOYMENT = "full-replace-deployment";
     public static final String FALSE = "false";
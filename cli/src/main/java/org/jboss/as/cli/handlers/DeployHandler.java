@@ -46,6 +46,7 @@ import org.jboss.as.cli.accesscontrol.PerNodeOperationAccess;
 import org.jboss.as.cli.impl.ArgumentWithValue;
 import org.jboss.as.cli.impl.ArgumentWithoutValue;
 import org.jboss.as.cli.impl.CommaSeparatedCompleter;
+import org.jboss.as.cli.impl.DescriptionCache;
 import org.jboss.as.cli.impl.FileSystemPathArgument;
 import org.jboss.as.cli.operation.OperationFormatException;
 import org.jboss.as.cli.operation.ParsedCommandLine;
@@ -305,6 +306,7 @@ public class DeployHandler extends DeploymentHandler {
 
             try {
                 final ModelNode result = client.execute(request);
+                DescriptionCache.invalidate(ctx);
                 if(Util.isSuccess(result)) {
                     return;
                 } else {
@@ -438,6 +440,7 @@ public class DeployHandler extends DeploymentHandler {
 
         try {
             final ModelNode result = client.execute(deployRequest);
+            DescriptionCache.invalidate(ctx);
             if (!Util.isSuccess(result)) {
                 throw new CommandFormatException(Util.getFailureDescription(result));
             }
@@ -726,6 +729,8 @@ public class DeployHandler extends DeploymentHandler {
         } catch (Exception e) {
             throw new CommandFormatException("Failed to add the deployment content to the repository: " + e.getLocalizedMessage());
         }
+        // The deployment registers the descriptions of its subsystem resources
+        DescriptionCache.invalidate(ctx);
         if (!Util.isSuccess(result)) {
             throw new CommandFormatException(Util.getFailureDescription(result));
         }
@@ -36,6 +36,7 @@ import org.jboss.as.cli.CommandHandler;
 import org.jboss.as.cli.CommandLineException;
 import org.jboss.as.cli.OperationCommand;
 import org.jboss.as.cli.Util;
+import org.jboss.as.cli.impl.DescriptionCache;
 import org.jboss.as.cli.operation.OperationFormatException;
 import org.jboss.as.cli.operation.impl.DefaultCallbackHandler;
 import org.jboss.as.controller.client.ModelControllerClient;
@@ -82,6 +83,9 @@ public class OperationRequestHandler implements CommandHandler, OperationCommand
 
         try {
             final ModelNode result = client.execute(request);
+            if(DescriptionCache.changesDescriptions(request)) {
+                DescriptionCache.invalidate(ctx);
+            }
             if(Util.isSuccess(result)) {
                 ctx.printLine(result.toString());
             } else {
@@ -161,7 +165,7 @@ public class OperationRequestHandler implements CommandHandler, OperationCommand
 
         final ModelNode outcome;
         try {
-            outcome = client.execute(opDescrReq);
+            outcome = DescriptionCache.execute(ctx, opDescrReq);
         } catch(Exception e) {
             throw new CommandFormatException("Failed to perform " + Util.READ_OPERATION_DESCRIPTION + " to validate the request: " + e.getLocalizedMessage());
         }
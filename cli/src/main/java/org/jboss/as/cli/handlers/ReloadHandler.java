@@ -35,6 +35,7 @@ import org.jboss.as.cli.accesscontrol.PerNodeOperationAccess;
 import org.jboss.as.cli.impl.ArgumentWithValue;
 import org.jboss.as.cli.impl.CLIModelControllerClient;
 import org.jboss.as.cli.impl.CommaSeparatedCompleter;
+import org.jboss.as.cli.impl.DescriptionCache;
 import org.jboss.as.cli.operation.ParsedCommandLine;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.protocol.StreamUtils;
@@ -136,6 +137,8 @@ public class ReloadHandler extends BaseOperationCommand {
         final CLIModelControllerClient cliClient = (CLIModelControllerClient) client;
 
         final ModelNode op = this.buildRequestWithoutHeaders(ctx);
+        // The reloaded controller may have a different management model
+        DescriptionCache.invalidate(ctx);
         try {
             final ModelNode response = cliClient.execute(op, true);
             if(!Util.isSuccess(response)) {
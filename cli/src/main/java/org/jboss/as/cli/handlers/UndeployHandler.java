@@ -43,6 +43,7 @@ import org.jboss.as.cli.accesscontrol.AccessRequirementBuilder;
 import org.jboss.as.cli.impl.ArgumentWithValue;
 import org.jboss.as.cli.impl.ArgumentWithoutValue;
 import org.jboss.as.cli.impl.CommaSeparatedCompleter;
+import org.jboss.as.cli.impl.DescriptionCache;
 import org.jboss.as.cli.impl.FileSystemPathArgument;
 import org.jboss.as.cli.operation.OperationFormatException;
 import org.jboss.as.cli.operation.ParsedCommandLine;
@@ -251,6 +252,7 @@ public class UndeployHandler extends DeploymentHandler {
             }
             try {
                 final ModelNode result = client.execute(request);
+                DescriptionCache.invalidate(ctx);
                 if(Util.isSuccess(result)) {
                     return;
                 } else {
@@ -276,6 +278,7 @@ public class UndeployHandler extends DeploymentHandler {
         } catch (Exception e) {
             throw new CommandFormatException("Undeploy failed: " + e.getLocalizedMessage());
         }
+        DescriptionCache.invalidate(ctx);
         if (!Util.isSuccess(result)) {
             throw new CommandFormatException("Undeploy failed: " + Util.getFailureDescription(result));
         }
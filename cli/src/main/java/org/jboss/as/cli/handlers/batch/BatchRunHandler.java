@@ -40,6 +40,7 @@ import org.jboss.as.cli.handlers.FilenameTabCompleter;
 import org.jboss.as.cli.handlers.WindowsFilenameTabCompleter;
 import org.jboss.as.cli.impl.ArgumentWithValue;
 import org.jboss.as.cli.impl.ArgumentWithoutValue;
+import org.jboss.as.cli.impl.DescriptionCache;
 import org.jboss.as.cli.impl.FileSystemPathArgument;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.dmr.ModelNode;
@@ -80,6 +81,9 @@ public class BatchRunHandler extends BaseOperationCommand {
                 response = client.execute(request);
             } catch(Exception e) {
                 throw new CommandFormatException("Failed to perform operation: " + e.getLocalizedMessage());
+            } finally {
+                // The steps of the batch are not inspected, any of them could have changed the management model
+                DescriptionCache.invalidate(ctx);
             }
             if (!Util.isSuccess(response)) {
                 throw new CommandFormatException(Util.getFailureDescription(response));
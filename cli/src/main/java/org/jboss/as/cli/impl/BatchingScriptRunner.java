@@ -0,0 +1,363 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cli.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.as.cli.CommandContext;
+import org.jboss.as.cli.CommandFormatException;
+import org.jboss.as.cli.Util;
+import org.jboss.as.cli.batch.BatchManager;
+import org.jboss.as.cli.batch.BatchedCommand;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Executes the lines of a script, pipelining consecutive read-only operations and, if enabled, grouping consecutive
+ * modifications into batches.
+ * <p>
+ * An operation is read-only if its {@link Util#READ_OPERATION_DESCRIPTION description} says so. Consecutive read-only
+ * operations are sent without waiting for the previous responses, the responses are printed in the order of the
+ * operations. A failed read-only operation is reported with its response, it is not executed again, and the script
+ * ends there. A response which is not received within the timeout is reported as a failure as well.
+ * <p>
+ * Grouping modifications into batches is opt-in, as a batch is executed as a single composite operation: if one of
+ * its commands fails, none of them is applied, while the same commands executed one by one leave the preceding
+ * modifications in place. Consecutive commands which can be added to a batch are then collected in a batch of the
+ * {@link BatchManager} and executed once the batch size is reached or a command which cannot be batched follows.
+ * <p>
+ * Any other command is executed as usual once the pending batch or operations have completed, so a command always
+ * sees the effects of the preceding ones. The execution time of each command, or each batch, is printed after its
+ * outcome.
+ */
+public class BatchingScriptRunner {
+
+    /**
+     * The default time in milliseconds to wait for the response to a read-only operation.
+     */
+    public static final long DEFAULT_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
+    // Operations which cannot be part of a composite operation or which affect the subsequent commands
+    private static final Set<String> NOT_BATCHED = new HashSet<String>(Arrays.asList(
+            Util.COMPOSITE, Util.RELOAD, Util.SHUTDOWN));
+
+    private final CommandContext ctx;
+    private final int batchSize;
+    private final boolean batchWrites;
+    private final long timeout;
+    private final List<PendingRead> pendingReads = new ArrayList<PendingRead>();
+    private boolean batching;
+    private long batchStart;
+    private StringBuilder lineBuffer;
+    private boolean failed;
+
+    /**
+     * Creates a new runner waiting at most {@link #DEFAULT_TIMEOUT} for the response to a read-only operation.
+     *
+     * @param ctx         the command context to execute the commands in
+     * @param batchSize   the maximum number of commands in a batch and of read-only operations in progress
+     * @param batchWrites {@code true} to group consecutive modifications into batches
+     */
+    public BatchingScriptRunner(final CommandContext ctx, final int batchSize, final boolean batchWrites) {
+        this(ctx, batchSize, batchWrites, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates a new runner.
+     *
+     * @param ctx         the command context to execute the commands in
+     * @param batchSize   the maximum number of commands in a batch and of read-only operations in progress
+     * @param batchWrites {@code true} to group consecutive modifications into batches
+     * @param timeout     the time in milliseconds to wait for the response to a read-only operation
+     */
+    public BatchingScriptRunner(final CommandContext ctx, final int batchSize, final boolean batchWrites, final long timeout) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be a positive integer: " + batchSize);
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("The timeout must not be negative: " + timeout);
+        }
+        this.ctx = ctx;
+        this.batchSize = batchSize;
+        this.batchWrites = batchWrites;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns the exit code of the script so far, i.e. {@code 1} if a pipelined read-only operation failed, otherwise
+     * the exit code of the command context.
+     *
+     * @return the exit code
+     */
+    public int getExitCode() {
+        return failed ? 1 : ctx.getExitCode();
+    }
+
+    /**
+     * Handles the next line of the script. The line may be executed later, the {@link #getExitCode() exit code} only
+     * reflects the outcome of the commands executed so far.
+     *
+     * @param line the line
+     */
+    public void handle(String line) {
+        line = line.trim();
+        if (line.isEmpty() || line.charAt(0) == '#') {
+            return;
+        }
+        // Join lines continued with a backslash, the command is only classified once complete
+        if (line.charAt(line.length() - 1) == '\\') {
+            if (lineBuffer == null) {
+                lineBuffer = new StringBuilder();
+            }
+            lineBuffer.append(line, 0, line.length() - 1).append(' ');
+            return;
+        } else if (lineBuffer != null) {
+            line = lineBuffer.append(line).toString();
+            lineBuffer = null;
+        }
+        if (getExitCode() != 0) {
+            return;
+        }
+
+        final BatchManager batchManager = ctx.getBatchManager();
+        if (ctx.isBatchMode() && !batching) {
+            // A batch started by the script itself
+            ctx.handleSafe(line);
+            return;
+        }
+
+        ModelNode request = null;
+        try {
+            request = ctx.buildRequest(line);
+        } catch (CommandFormatException e) {
+            // Not an operation, e.g. cd or set
+        }
+        final ModelNode description = request == null ? null : describe(request);
+
+        if (description != null && description.get(Util.READ_ONLY).asBoolean(false)) {
+            flushBatch();
+            if (isOperation(line) && hasDescribedProperties(request, description)) {
+                if (pendingReads.size() >= batchSize) {
+                    flushReads();
+                }
+                if (getExitCode() == 0) {
+                    read(line, request);
+                }
+            } else {
+                // A command formatting the response itself, or a request the operation handler rejects
+                flushReads();
+                if (getExitCode() == 0) {
+                    execute(line);
+                }
+            }
+            return;
+        }
+
+        flushReads();
+        if (batchWrites && request != null && !NOT_BATCHED.contains(request.get(Util.OPERATION).asString())
+                && !DescriptionCache.changesDescriptions(request)) {
+            final BatchedCommand command;
+            try {
+                command = ctx.toBatchedCommand(line);
+            } catch (CommandFormatException e) {
+                // The command is not allowed in a batch
+                flushBatch();
+                if (getExitCode() == 0) {
+                    execute(line);
+                }
+                return;
+            }
+            if (ctx.getExitCode() != 0) {
+                return;
+            }
+            if (!batching) {
+                batchManager.activateNewBatch();
+                batching = true;
+                batchStart = System.nanoTime();
+            }
+            batchManager.getActiveBatch().add(command);
+            if (batchManager.getActiveBatch().size() >= batchSize) {
+                flushBatch();
+            }
+            return;
+        }
+
+        flushBatch();
+        if (getExitCode() == 0) {
+            execute(line);
+        }
+    }
+
+    /**
+     * Executes the pending batch and waits for the outcomes of the pending operations.
+     */
+    public void finish() {
+        if (lineBuffer != null) {
+            final String line = lineBuffer.toString();
+            lineBuffer = null;
+            handle(line);
+        }
+        flushReads();
+        flushBatch();
+    }
+
+    private void execute(final String line) {
+        final long start = System.nanoTime();
+        ctx.handleSafe(line);
+        printTime("'" + line + "'", start);
+    }
+
+    private void read(final String line, final ModelNode request) {
+        final ModelControllerClient client = ctx.getModelControllerClient();
+        if (client == null) {
+            // Let the operation handler report the missing connection
+            execute(line);
+            return;
+        }
+        final long start = System.nanoTime();
+        pendingReads.add(new PendingRead(line, start, client.executeAsync(request, OperationMessageHandler.DISCARD)));
+    }
+
+    private void flushReads() {
+        for (PendingRead read : pendingReads) {
+            if (failed || ctx.getExitCode() != 0) {
+                read.response.cancel(true);
+                continue;
+            }
+            final long remaining = timeout - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - read.start);
+            final ModelNode response;
+            try {
+                response = read.response.get(Math.max(0, remaining), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                read.response.cancel(true);
+                fail("No response to '" + read.line + "' within " + timeout + " ms");
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                read.response.cancel(true);
+                fail("Interrupted while waiting for the response to '" + read.line + "'");
+                continue;
+            } catch (CancellationException e) {
+                fail("The result couldn't be retrieved (perhaps the task was cancelled");
+                continue;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    ctx.disconnectController();
+                }
+                fail("Communication error: " + Util.getMessagesFromThrowable(e.getCause()));
+                continue;
+            }
+            if (Util.isSuccess(response)) {
+                ctx.printLine(response.toString());
+                printTime("'" + read.line + "'", read.start);
+            } else {
+                // Reported as the operation handler reports it, the operation is not executed again
+                fail(response.toString());
+            }
+        }
+        pendingReads.clear();
+    }
+
+    private void flushBatch() {
+        if (!batching) {
+            return;
+        }
+        final BatchManager batchManager = ctx.getBatchManager();
+        final int size = batchManager.getActiveBatch().size();
+        batching = false;
+        ctx.handleSafe("run-batch");
+        if (batchManager.isBatchActive()) {
+            // The batch failed, the script ends here
+            batchManager.discardActiveBatch();
+        }
+        printTime("batch of " + size + " commands", batchStart);
+    }
+
+    private void fail(final String message) {
+        failed = true;
+        ctx.printLine(message);
+    }
+
+    private void printTime(final String executed, final long start) {
+        ctx.printLine("Executed " + executed + " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    // Returns the description of the requested operation or null if it is not available
+    private ModelNode describe(final ModelNode request) {
+        if (ctx.getModelControllerClient() == null || !request.hasDefined(Util.OPERATION)) {
+            return null;
+        }
+        final ModelNode descriptionRequest = new ModelNode();
+        descriptionRequest.get(Util.ADDRESS).set(request.get(Util.ADDRESS));
+        descriptionRequest.get(Util.OPERATION).set(Util.READ_OPERATION_DESCRIPTION);
+        descriptionRequest.get(Util.NAME).set(request.get(Util.OPERATION));
+        final ModelNode outcome;
+        try {
+            outcome = DescriptionCache.execute(ctx, descriptionRequest);
+        } catch (IOException e) {
+            // Reported when the command is executed
+            return null;
+        }
+        return Util.isSuccess(outcome) && outcome.hasDefined(Util.RESULT) ? outcome.get(Util.RESULT) : null;
+    }
+
+    // Checks that the operation handler would accept the properties of the request
+    private static boolean hasDescribedProperties(final ModelNode request, final ModelNode description) {
+        final Set<String> described = description.hasDefined(Util.REQUEST_PROPERTIES)
+                ? description.get(Util.REQUEST_PROPERTIES).keys() : new HashSet<String>();
+        for (String key : request.keys()) {
+            if (!Util.ADDRESS.equals(key) && !Util.OPERATION.equals(key) && !Util.OPERATION_HEADERS.equals(key)
+                    && !described.contains(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isOperation(final String line) {
+        final char c = line.charAt(0);
+        return c == ':' || c == '/' || c == '.';
+    }
+
+    private static class PendingRead {
+        private final String line;
+        private final long start;
+        private final Future<ModelNode> response;
+
+        PendingRead(final String line, final long start, final Future<ModelNode> response) {
+            this.line = line;
+            this.start = start;
+            this.response = response;
+        }
+    }
+}
@@ -63,6 +63,8 @@ public class CliLauncher {
             char[] password = null;
             boolean noLocalAuth = false;
             int connectionTimeout = -1;
+            int batchSize = 0;
+            boolean batchWrites = false;
 
             for(String arg : args) {
                 if(arg.startsWith("--controller=") || arg.startsWith("controller=")) {
@@ -174,6 +176,28 @@ public class CliLauncher {
                         argError = "'=' is missing after --timeout";
                         break;
                     }
+                } else if (arg.startsWith("--batch-size")) {
+                    if (batchSize > 0) {
+                        argError = "Duplicate argument '--batch-size'";
+                        break;
+                    }
+                    if(arg.length() > 12 && arg.charAt(12) == '=') {
+                        final String value = arg.substring(13);
+                        try {
+                            batchSize = Integer.parseInt(value);
+                        } catch (final NumberFormatException e) {
+                            //
+                        }
+                        if (batchSize <= 0) {
+                            argError = "The batch size must be a valid positive integer: '" + value + "'";
+                            break;
+                        }
+                    } else {
+                        argError = "'=' is missing after --batch-size";
+                        break;
+                    }
+                } else if (arg.equals("--batch-writes")) {
+                    batchWrites = true;
                 } else if (arg.equals("--help") || arg.equals("-h")) {
                     commands = Collections.singletonList("help");
                 } else if (arg.startsWith("--properties=")) {
@@ -234,6 +258,13 @@ public class CliLauncher {
                 }
             }
 
+            if(argError == null && batchSize > 0 && file == null && commands == null) {
+                argError = "Argument '--batch-size' requires '--file', '--commands' or '--command'.";
+            }
+            if(argError == null && batchWrites && batchSize <= 0) {
+                argError = "Argument '--batch-writes' requires '--batch-size'.";
+            }
+
             if(argError != null) {
                 System.err.println(argError);
                 exitCode = 1;
@@ -248,13 +279,13 @@ public class CliLauncher {
 
             if(file != null) {
                 cmdCtx = initCommandContext(defaultController, username, password, noLocalAuth, false, connect, connectionTimeout);
-                processFile(file, cmdCtx);
+                exitCode = processFile(file, cmdCtx, batchSize, batchWrites);
                 return;
             }
 
             if(commands != null) {
                 cmdCtx = initCommandContext(defaultController, username, password, noLocalAuth, false, connect, connectionTimeout);
-                processCommands(commands, cmdCtx);
+                exitCode = processCommands(commands, cmdCtx, batchSize, batchWrites);
                 return;
             }
 
@@ -304,24 +335,54 @@ public class CliLauncher {
         }
     }
 
-    private static void processCommands(List<String> commands, CommandContext cmdCtx) {
+    // returns the exit code of a script run with a batch size, otherwise 0 as the exit code is the one of the context
+    private static int processCommands(List<String> commands, CommandContext cmdCtx, int batchSize, boolean batchWrites) {
+        if (batchSize > 0) {
+            final BatchingScriptRunner runner = new BatchingScriptRunner(cmdCtx, batchSize, batchWrites);
+            int i = 0;
+            while (runner.getExitCode() == 0 && i < commands.size() && !cmdCtx.isTerminated()) {
+                runner.handle(commands.get(i));
+                ++i;
+            }
+            if (runner.getExitCode() == 0 && !cmdCtx.isTerminated()) {
+                runner.finish();
+            }
+            return runner.getExitCode();
+        }
         int i = 0;
         while (cmdCtx.getExitCode() == 0 && i < commands.size() && !cmdCtx.isTerminated()) {
             cmdCtx.handleSafe(commands.get(i));
             ++i;
         }
+        return 0;
     }
 
     private static void processFile(File file, final CommandContext cmdCtx) {
+        processFile(file, cmdCtx, 0, false);
+    }
+
+    // returns the exit code of a script run with a batch size, otherwise 0 as the exit code is the one of the context
+    private static int processFile(File file, final CommandContext cmdCtx, int batchSize, boolean batchWrites) {
 
         BufferedReader reader = null;
         try {
             reader = new BufferedReader(new FileReader(file));
+            final BatchingScriptRunner runner = batchSize > 0 ? new BatchingScriptRunner(cmdCtx, batchSize, batchWrites) : null;
             String line = reader.readLine();
             while (cmdCtx.getExitCode() == 0 && !cmdCtx.isTerminated() && line != null) {
-                cmdCtx.handleSafe(line.trim());
+                if (runner == null) {
+                    cmdCtx.handleSafe(line.trim());
+                } else if (runner.getExitCode() == 0) {
+                    runner.handle(line);
+                } else {
+                    break;
+                }
                 line = reader.readLine();
             }
+            if (runner != null && runner.getExitCode() == 0 && !cmdCtx.isTerminated()) {
+                runner.finish();
+            }
+            return runner == null ? 0 : runner.getExitCode();
         } catch (Throwable e) {
             throw new IllegalStateException("Failed to process file '" + file.getAbsolutePath() + "'", e);
         } finally {
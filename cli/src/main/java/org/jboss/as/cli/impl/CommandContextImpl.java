@@ -922,6 +922,8 @@ class CommandContextImpl implements CommandContext, ModelControllerClientFactory
             }
 
             client = newClient;
+            // The descriptions cached for another connection may not apply
+            DescriptionCache.invalidate(this);
             this.currentAddress = address;
             this.connInfoBean = conInfo;
 
@@ -1047,6 +1049,7 @@ class CommandContextImpl implements CommandContext, ModelControllerClientFactory
             // this.controllerPort);
             // }
             client = null;
+            DescriptionCache.invalidate(this);
             this.currentAddress = null;
             domainMode = false;
             notifyListeners(CliEvent.DISCONNECTED);
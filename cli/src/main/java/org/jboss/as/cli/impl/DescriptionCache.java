@@ -0,0 +1,178 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cli.impl;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.cli.CommandContext;
+import org.jboss.as.cli.Util;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Caches the outcomes of the description requests used for tab completion and for the validation of operation
+ * requests, so repeated completions do not require a round-trip to the controller.
+ * <p>
+ * The outcomes are keyed by the release version of the controller and the request. The cache is bound to the client
+ * of the command context and is {@link #invalidate(CommandContext) invalidated} when the command context connects to
+ * or disconnects from a controller, as well as by operations which can change the management model descriptions, i.e.
+ * adding or removing an extension, deploying, undeploying or replacing a deployment, since deployments register the
+ * descriptions of their subsystem resources, reloading the controller or an arbitrary composite.
+ */
+public class DescriptionCache {
+
+    private static final String KEY = "DESCRIPTION_CACHE";
+
+    private static final int MAX_ENTRIES = 2048;
+
+    private static final Set<String> CACHED_OPERATIONS = new HashSet<String>(Arrays.asList(
+            Util.READ_CHILDREN_TYPES,
+            Util.READ_OPERATION_DESCRIPTION,
+            Util.READ_OPERATION_NAMES,
+            Util.READ_RESOURCE_DESCRIPTION));
+
+    private static final Set<String> DEPLOYMENT_OPERATIONS = new HashSet<String>(Arrays.asList(
+            Util.DEPLOY,
+            Util.FULL_REPLACE_DEPLOYMENT,
+            Util.REDEPLOY,
+            "replace-deployment",
+            Util.UNDEPLOY));
+
+    private final ModelControllerClient client;
+    private final String releaseVersion;
+    private final Map<String, ModelNode> outcomes = new LinkedHashMap<String, ModelNode>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, ModelNode> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private DescriptionCache(final ModelControllerClient client, final String releaseVersion) {
+        this.client = client;
+        this.releaseVersion = releaseVersion;
+    }
+
+    /**
+     * Executes the request, or returns the outcome of an equal request executed before if the request is a
+     * description request. Only successful outcomes are cached.
+     *
+     * @param ctx     the command context
+     * @param request the request to execute
+     *
+     * @return the outcome of the request
+     *
+     * @throws IOException if the request could not be executed
+     */
+    public static ModelNode execute(final CommandContext ctx, final ModelNode request) throws IOException {
+        final ModelControllerClient client = ctx.getModelControllerClient();
+        if (client == null) {
+            throw new IOException("No connection to the controller.");
+        }
+        if (!isCacheable(request)) {
+            return client.execute(request);
+        }
+        final DescriptionCache cache = getCache(ctx, client);
+        final String key = cache.releaseVersion + ':' + request.toString();
+        ModelNode outcome;
+        synchronized (cache.outcomes) {
+            outcome = cache.outcomes.get(key);
+        }
+        if (outcome == null) {
+            outcome = client.execute(request);
+            if (!Util.isSuccess(outcome)) {
+                return outcome;
+            }
+            synchronized (cache.outcomes) {
+                cache.outcomes.put(key, outcome);
+            }
+        }
+        // Callers may modify the outcome
+        return outcome.clone();
+    }
+
+    /**
+     * Invalidates the cached outcomes.
+     *
+     * @param ctx the command context
+     */
+    public static void invalidate(final CommandContext ctx) {
+        ctx.remove(KEY);
+    }
+
+    /**
+     * Checks whether the request can change the descriptions of the management model, in which case the cache needs
+     * to be {@link #invalidate(CommandContext) invalidated} once the request was executed.
+     *
+     * @param request the request
+     *
+     * @return {@code true} if the request can change the descriptions
+     */
+    public static boolean changesDescriptions(final ModelNode request) {
+        final String operationName = request.get(Util.OPERATION).asString();
+        if (Util.RELOAD.equals(operationName) || Util.SHUTDOWN.equals(operationName) || Util.COMPOSITE.equals(operationName)
+                || DEPLOYMENT_OPERATIONS.contains(operationName)) {
+            return true;
+        }
+        // Adding or removing an extension or a deployment registers or unregisters resource descriptions
+        if ((Util.ADD.equals(operationName) || Util.REMOVE.equals(operationName)) && request.hasDefined(Util.ADDRESS)) {
+            for (ModelNode element : request.get(Util.ADDRESS).asList()) {
+                final String type = element.asProperty().getName();
+                if (Util.EXTENSION.equals(type) || Util.DEPLOYMENT.equals(type)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCacheable(final ModelNode request) {
+        // Requests with headers could be affected by the headers, e.g. the roles to run as
+        return request.hasDefined(Util.OPERATION) && CACHED_OPERATIONS.contains(request.get(Util.OPERATION).asString())
+                && !request.hasDefined(Util.OPERATION_HEADERS);
+    }
+
+    private static DescriptionCache getCache(final CommandContext ctx, final ModelControllerClient client) throws IOException {
+        synchronized (ctx) {
+            DescriptionCache cache = (DescriptionCache) ctx.get(KEY);
+            // A new client is a new connection, possibly to a different controller
+            if (cache == null || cache.client != client) {
+                cache = new DescriptionCache(client, readReleaseVersion(client));
+                ctx.set(KEY, cache);
+            }
+            return cache;
+        }
+    }
+
+    private static String readReleaseVersion(final ModelControllerClient client) throws IOException {
+        final ModelNode request = new ModelNode();
+        request.get(Util.OPERATION).set(Util.READ_ATTRIBUTE);
+        request.get(Util.ADDRESS).setEmptyList();
+        request.get(Util.NAME).set(Util.RELEASE_VERSION);
+        final ModelNode outcome = client.execute(request);
+        return Util.isSuccess(outcome) ? outcome.get(Util.RESULT).asString() : null;
+    }
+}
@@ -33,6 +33,7 @@ import org.jboss.as.cli.CommandFormatException;
 import org.jboss.as.cli.CommandLineCompleter;
 import org.jboss.as.cli.Util;
 import org.jboss.as.cli.handlers.SimpleTabCompleter;
+import org.jboss.as.cli.impl.DescriptionCache;
 import org.jboss.as.cli.impl.ValueTypeCompleter;
 import org.jboss.as.cli.operation.OperationCandidatesProvider;
 import org.jboss.as.cli.operation.OperationFormatException;
@@ -188,12 +189,50 @@ public class DefaultOperationCandidatesProvider implements OperationCandidatesPr
      */
     @Override
     public List<String> getNodeTypes(CommandContext ctx, OperationRequestAddress prefix) {
-        return Util.getNodeTypes(ctx.getModelControllerClient(), prefix);
+        if(prefix.endsOnType()) {
+            throw new IllegalArgumentException("The prefix isn't expected to end on a type.");
+        }
+        return getCachedList(ctx, prefix, Util.READ_CHILDREN_TYPES);
     }
 
     @Override
     public List<String> getOperationNames(CommandContext ctx, OperationRequestAddress prefix) {
-        return Util.getOperationNames(ctx, prefix);
+        if(prefix.endsOnType()) {
+            throw new IllegalArgumentException("The prefix isn't expected to end on a type.");
+        }
+        return getCachedList(ctx, prefix, Util.READ_OPERATION_NAMES);
+    }
+
+    /**
+     * Executes a description request through the {@link DescriptionCache}, so repeated completions of the same
+     * address do not require a round-trip to the controller.
+     */
+    private static List<String> getCachedList(CommandContext ctx, OperationRequestAddress address, String operationName) {
+        if(ctx.getModelControllerClient() == null) {
+            return Collections.emptyList();
+        }
+
+        final ModelNode request;
+        final DefaultOperationRequestBuilder builder = new DefaultOperationRequestBuilder(address);
+        try {
+            builder.setOperationName(operationName);
+            request = builder.buildRequest();
+        } catch (OperationFormatException e1) {
+            throw new IllegalStateException("Failed to build operation", e1);
+        }
+
+        if(Util.READ_OPERATION_NAMES.equals(operationName) && ctx.getConfig().isAccessControl()) {
+            request.get(Util.ACCESS_CONTROL).set(true);
+        }
+
+        try {
+            final ModelNode outcome = DescriptionCache.execute(ctx, request);
+            if (Util.isSuccess(outcome)) {
+                return Util.getList(outcome);
+            }
+        } catch (Exception e) {
+        }
+        return Collections.emptyList();
     }
 
     @Override
@@ -222,7 +261,7 @@ public class DefaultOperationCandidatesProvider implements OperationCandidatesPr
 
         List<CommandArgument> result;
         try {
-            ModelNode outcome = client.execute(request);
+            ModelNode outcome = DescriptionCache.execute(ctx, request);
             if (!Util.isSuccess(outcome)) {
                 result = Collections.emptyList();
             } else {
@@ -150,6 +150,10 @@ public class MockCommandContext implements CommandContext {
         return mcc;
     }
 
+    public void setModelControllerClient(ModelControllerClient client) {
+        this.mcc = client;
+    }
+
     /* (non-Javadoc)
      * @see org.jboss.as.cli.CommandContext#getOperationRequestParser()
      */
@@ -354,8 +358,7 @@ public class MockCommandContext implements CommandContext {
 
     @Override
     public Object remove(String key) {
-        // TODO Auto-generated method stub
-        return null;
+        return map.remove(key);
     }
 
     public boolean isResolveParameterValues() {
@@ -0,0 +1,279 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cli.impl.test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.jboss.as.cli.CommandFormatException;
+import org.jboss.as.cli.Util;
+import org.jboss.as.cli.completion.mock.MockCommandContext;
+import org.jboss.as.cli.impl.BatchingScriptRunner;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link BatchingScriptRunner}.
+ */
+public class BatchingScriptRunnerTestCase {
+
+    private static final String FAILED = "failed";
+    private static final String READ_RESOURCE = ":read-resource";
+    private static final String READ_ATTRIBUTE = ":read-attribute(name=x)";
+    private static final String READ_UNDESCRIBED = ":read-resource(foo=bar)";
+    private static final String WRITE_ATTRIBUTE = ":write-attribute(name=x,value=y)";
+
+    private final List<String> events = new ArrayList<String>();
+    private final List<FutureTask<ModelNode>> sent = new ArrayList<FutureTask<ModelNode>>();
+    private boolean complete = true;
+    private boolean fail;
+
+    @Test
+    public void testReadsPipelined() {
+        final TestCommandContext ctx = new TestCommandContext();
+        final BatchingScriptRunner runner = new BatchingScriptRunner(ctx, 2, false);
+
+        runner.handle(READ_RESOURCE);
+        runner.handle(READ_ATTRIBUTE);
+        // Both sent, no response awaited yet
+        Assert.assertEquals(2, sent.size());
+        Assert.assertTrue(events.isEmpty());
+
+        // At most two in flight, the pending responses are printed before the third is sent
+        runner.handle(READ_RESOURCE);
+        Assert.assertEquals(3, sent.size());
+        Assert.assertEquals(2, events.size());
+
+        runner.finish();
+        Assert.assertEquals(0, runner.getExitCode());
+        Assert.assertEquals(3, events.size());
+        Assert.assertEquals("print:" + Util.READ_RESOURCE, events.get(0));
+        Assert.assertEquals("print:" + Util.READ_ATTRIBUTE, events.get(1));
+        Assert.assertEquals("print:" + Util.READ_RESOURCE, events.get(2));
+    }
+
+    @Test
+    public void testFailedReadNotExecutedAgain() {
+        final TestCommandContext ctx = new TestCommandContext();
+        final BatchingScriptRunner runner = new BatchingScriptRunner(ctx, 5, false);
+
+        runner.handle(READ_RESOURCE);
+        fail = true;
+        runner.handle(READ_ATTRIBUTE);
+        runner.finish();
+
+        Assert.assertEquals(1, runner.getExitCode());
+        Assert.assertEquals(2, sent.size());
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals("print:" + Util.READ_RESOURCE, events.get(0));
+        Assert.assertTrue(events.get(1), events.get(1).startsWith("print:") && events.get(1).contains(FAILED));
+
+        // The script ends with the failure
+        runner.handle(READ_RESOURCE);
+        Assert.assertEquals(2, sent.size());
+    }
+
+    @Test
+    public void testTimeout() {
+        final TestCommandContext ctx = new TestCommandContext();
+        final BatchingScriptRunner runner = new BatchingScriptRunner(ctx, 5, false, 10);
+
+        complete = false;
+        runner.handle(READ_RESOURCE);
+        runner.handle(READ_RESOURCE);
+        runner.finish();
+
+        Assert.assertEquals(1, runner.getExitCode());
+        Assert.assertEquals(1, events.size());
+        for (Future<ModelNode> response : sent) {
+            Assert.assertTrue(response.isCancelled());
+        }
+    }
+
+    @Test
+    public void testWritesExecutedInOrder() {
+        final TestCommandContext ctx = new TestCommandContext();
+        final BatchingScriptRunner runner = new BatchingScriptRunner(ctx, 5, false);
+
+        runner.handle(READ_RESOURCE);
+        runner.handle(WRITE_ATTRIBUTE);
+        runner.handle(WRITE_ATTRIBUTE);
+        runner.handle(READ_ATTRIBUTE);
+        runner.finish();
+
+        Assert.assertEquals(0, runner.getExitCode());
+        Assert.assertEquals(2, sent.size());
+        Assert.assertEquals(4, events.size());
+        Assert.assertEquals("print:" + Util.READ_RESOURCE, events.get(0));
+        Assert.assertEquals("handle:" + WRITE_ATTRIBUTE, events.get(1));
+        Assert.assertEquals("handle:" + WRITE_ATTRIBUTE, events.get(2));
+        Assert.assertEquals("print:" + Util.READ_ATTRIBUTE, events.get(3));
+    }
+
+    @Test
+    public void testUndescribedPropertyHandled() {
+        final TestCommandContext ctx = new TestCommandContext();
+        final BatchingScriptRunner runner = new BatchingScriptRunner(ctx, 5, false);
+
+        runner.handle(READ_UNDESCRIBED);
+        runner.finish();
+
+        // The operation handler reports the invalid property
+        Assert.assertEquals(0, sent.size());
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals("handle:" + READ_UNDESCRIBED, events.get(0));
+    }
+
+    private ModelControllerClient createClient() {
+        return (ModelControllerClient) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ModelControllerClient.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if ("execute".equals(method.getName()) && args.length == 1 && args[0] instanceof ModelNode) {
+                    return describe((ModelNode) args[0]);
+                }
+                if ("executeAsync".equals(method.getName()) && args.length == 2 && args[0] instanceof ModelNode) {
+                    return createResponse((ModelNode) args[0]);
+                }
+                if ("close".equals(method.getName())) {
+                    return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private ModelNode describe(final ModelNode request) {
+        final ModelNode outcome = new ModelNode();
+        outcome.get(Util.OUTCOME).set(Util.SUCCESS);
+        if (Util.READ_OPERATION_DESCRIPTION.equals(request.get(Util.OPERATION).asString())) {
+            final String operationName = request.get(Util.NAME).asString();
+            final ModelNode result = outcome.get(Util.RESULT);
+            result.get(Util.READ_ONLY).set(!Util.WRITE_ATTRIBUTE.equals(operationName));
+            if (Util.READ_RESOURCE.equals(operationName)) {
+                result.get(Util.REQUEST_PROPERTIES, "recursive").get(Util.TYPE).set("BOOLEAN");
+            } else {
+                result.get(Util.REQUEST_PROPERTIES, Util.NAME).get(Util.TYPE).set("STRING");
+            }
+        } else {
+            outcome.get(Util.RESULT).set("1.0.0");
+        }
+        return outcome;
+    }
+
+    @SuppressWarnings("unchecked")
+    private AsyncFuture<ModelNode> createResponse(final ModelNode request) {
+        final boolean failed = fail;
+        final FutureTask<ModelNode> task = new FutureTask<ModelNode>(new Callable<ModelNode>() {
+            @Override
+            public ModelNode call() {
+                final ModelNode response = new ModelNode();
+                if (failed) {
+                    response.get(Util.OUTCOME).set(FAILED);
+                    response.get(Util.FAILURE_DESCRIPTION).set("failure");
+                } else {
+                    response.get(Util.OUTCOME).set(Util.SUCCESS);
+                    response.get(Util.RESULT).set(request.get(Util.OPERATION));
+                }
+                return response;
+            }
+        });
+        if (complete) {
+            task.run();
+        }
+        sent.add(task);
+        return (AsyncFuture<ModelNode>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {AsyncFuture.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+                final Method delegate;
+                try {
+                    delegate = Future.class.getMethod(method.getName(), method.getParameterTypes());
+                } catch (NoSuchMethodException e) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                try {
+                    return delegate.invoke(task, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+    }
+
+    private class TestCommandContext extends MockCommandContext {
+
+        private final Map<String, ModelNode> requests = new HashMap<String, ModelNode>();
+
+        TestCommandContext() {
+            setModelControllerClient(createClient());
+            requests.put(READ_RESOURCE, createRequest(Util.READ_RESOURCE));
+            requests.put(READ_ATTRIBUTE, createRequest(Util.READ_ATTRIBUTE, Util.NAME, "x"));
+            requests.put(READ_UNDESCRIBED, createRequest(Util.READ_RESOURCE, "foo", "bar"));
+            requests.put(WRITE_ATTRIBUTE, createRequest(Util.WRITE_ATTRIBUTE, Util.NAME, "x", Util.VALUE, "y"));
+        }
+
+        @Override
+        public ModelNode buildRequest(final String line) throws CommandFormatException {
+            final ModelNode request = requests.get(line);
+            if (request == null) {
+                throw new CommandFormatException(line);
+            }
+            return request.clone();
+        }
+
+        @Override
+        public void handleSafe(final String line) {
+            events.add("handle:" + line);
+        }
+
+        @Override
+        public void printLine(final String message) {
+            if (message.startsWith("Executed ")) {
+                return;
+            }
+            // Successful responses are recorded as the name of the operation
+            final boolean success = message.startsWith("{") && !message.contains(FAILED);
+            events.add("print:" + (success ? ModelNode.fromString(message).get(Util.RESULT).asString() : message));
+        }
+
+        private ModelNode createRequest(final String operationName, final String... properties) {
+            final ModelNode request = new ModelNode();
+            request.get(Util.OPERATION).set(operationName);
+            request.get(Util.ADDRESS).setEmptyList();
+            for (int i = 0; i < properties.length; i += 2) {
+                request.get(properties[i]).set(properties[i + 1]);
+            }
+            return request;
+        }
+    }
+}
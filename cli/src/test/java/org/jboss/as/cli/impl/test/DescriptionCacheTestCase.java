@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cli.impl.test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.cli.Util;
+import org.jboss.as.cli.completion.mock.MockCommandContext;
+import org.jboss.as.cli.impl.DescriptionCache;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link DescriptionCache}.
+ */
+public class DescriptionCacheTestCase {
+
+    private final List<ModelNode> executed = new ArrayList<ModelNode>();
+    private String releaseVersion = "1.0.0";
+
+    @Test
+    public void testDescriptionRequestsCached() throws Exception {
+        final MockCommandContext ctx = createContext();
+        final ModelNode request = createRequest(Util.READ_OPERATION_NAMES, "subsystem", "logging");
+
+        final ModelNode outcome = DescriptionCache.execute(ctx, request);
+        // Modifying the outcome does not modify the cached outcome
+        outcome.get(Util.RESULT).add("modified");
+        Assert.assertEquals(createOutcome(request), DescriptionCache.execute(ctx, request));
+        Assert.assertEquals(1, count(Util.READ_OPERATION_NAMES));
+        Assert.assertEquals(1, count(Util.READ_ATTRIBUTE));
+
+        // Other requests are not cached
+        final ModelNode readResource = createRequest(Util.READ_RESOURCE, "subsystem", "logging");
+        DescriptionCache.execute(ctx, readResource);
+        DescriptionCache.execute(ctx, readResource);
+        Assert.assertEquals(2, count(Util.READ_RESOURCE));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        final MockCommandContext ctx = createContext();
+        final ModelNode request = createRequest(Util.READ_CHILDREN_TYPES, "subsystem", "logging");
+        DescriptionCache.execute(ctx, request);
+
+        DescriptionCache.invalidate(ctx);
+        DescriptionCache.execute(ctx, request);
+        Assert.assertEquals(2, count(Util.READ_CHILDREN_TYPES));
+    }
+
+    @Test
+    public void testNewClient() throws Exception {
+        final MockCommandContext ctx = createContext();
+        final ModelNode request = createRequest(Util.READ_RESOURCE_DESCRIPTION, "subsystem", "logging");
+        DescriptionCache.execute(ctx, request);
+
+        // A new connection to a controller of another release reads the descriptions again
+        releaseVersion = "2.0.0";
+        ctx.setModelControllerClient(createClient());
+        DescriptionCache.execute(ctx, request);
+        DescriptionCache.execute(ctx, request);
+        Assert.assertEquals(2, count(Util.READ_RESOURCE_DESCRIPTION));
+        Assert.assertEquals(2, count(Util.READ_ATTRIBUTE));
+    }
+
+    @Test
+    public void testChangesDescriptions() {
+        Assert.assertTrue(DescriptionCache.changesDescriptions(createRequest(Util.ADD, Util.EXTENSION, "org.jboss.as.logging")));
+        Assert.assertTrue(DescriptionCache.changesDescriptions(createRequest(Util.REMOVE, Util.EXTENSION, "org.jboss.as.logging")));
+        Assert.assertTrue(DescriptionCache.changesDescriptions(createRequest(Util.RELOAD)));
+        Assert.assertTrue(DescriptionCache.changesDescriptions(createRequest(Util.COMPOSITE)));
+        Assert.assertTrue(DescriptionCache.changesDescriptions(createRequest(Util.ADD, Util.DEPLOYMENT, "test.war")));
+        Assert.assertTrue(DescriptionCache.changesDescriptions(createRequest(Util.REMOVE, Util.DEPLOYMENT, "test.war")));
+        Assert.assertTrue(DescriptionCache.changesDescriptions(createRequest(Util.DEPLOY, Util.DEPLOYMENT, "test.war")));
+        Assert.assertTrue(DescriptionCache.changesDescriptions(createRequest(Util.UNDEPLOY, Util.DEPLOYMENT, "test.war")));
+        Assert.assertTrue(DescriptionCache.changesDescriptions(createRequest(Util.REDEPLOY, Util.DEPLOYMENT, "test.war")));
+        Assert.assertTrue(DescriptionCache.changesDescriptions(createRequest(Util.FULL_REPLACE_DEPLOYMENT)));
+        Assert.assertFalse(DescriptionCache.changesDescriptions(createRequest(Util.READ_RESOURCE, Util.EXTENSION, "org.jboss.as.logging")));
+        Assert.assertFalse(DescriptionCache.changesDescriptions(createRequest(Util.WRITE_ATTRIBUTE, Util.EXTENSION, "org.jboss.as.logging")));
+        Assert.assertFalse(DescriptionCache.changesDescriptions(createRequest(Util.ADD, "subsystem", "logging")));
+        Assert.assertFalse(DescriptionCache.changesDescriptions(createRequest(Util.READ_RESOURCE, Util.DEPLOYMENT, "test.war")));
+    }
+
+    private MockCommandContext createContext() {
+        final MockCommandContext ctx = new MockCommandContext();
+        ctx.setModelControllerClient(createClient());
+        return ctx;
+    }
+
+    private ModelControllerClient createClient() {
+        return (ModelControllerClient) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ModelControllerClient.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if ("execute".equals(method.getName()) && args.length == 1 && args[0] instanceof ModelNode) {
+                    final ModelNode request = (ModelNode) args[0];
+                    executed.add(request);
+                    return createOutcome(request);
+                }
+                if ("close".equals(method.getName())) {
+                    return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private ModelNode createOutcome(final ModelNode request) {
+        final ModelNode outcome = new ModelNode();
+        outcome.get(Util.OUTCOME).set(Util.SUCCESS);
+        if (Util.READ_ATTRIBUTE.equals(request.get(Util.OPERATION).asString())) {
+            outcome.get(Util.RESULT).set(releaseVersion);
+        } else {
+            outcome.get(Util.RESULT).add(request.get(Util.OPERATION).asString());
+        }
+        return outcome;
+    }
+
+    private int count(final String operationName) {
+        int count = 0;
+        for (ModelNode request : executed) {
+            if (operationName.equals(request.get(Util.OPERATION).asString())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static ModelNode createRequest(final String operationName, final String... address) {
+        final ModelNode request = new ModelNode();
+        request.get(Util.OPERATION).set(operationName);
+        final ModelNode addr = request.get(Util.ADDRESS).setEmptyList();
+        for (int i = 0; i < address.length; i += 2) {
+            addr.add(address[i], address[i + 1]);
+        }
+        return request;
+    }
+}
@@ -76,6 +76,7 @@ public enum MeasurementUnit {
     PER_MINUTE("/m", Family.RATE, Scale.PER_MIN), //
     PER_HOUR("/h", Family.RATE, Scale.PER_HOUR), //
     PER_DAY(" /d", Family.RATE, Scale.PER_DAY), //
+    BYTES_PER_SECOND("B/s", Family.RATE, Scale.PER_SEC), //
 
     // Temperature
     CELSIUS("C", Family.TEMPERATURE, Scale.ONE), //
@@ -0,0 +1,184 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client.helpers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+
+/**
+ * Executes many independent operations over a single {@link ModelControllerClient} without waiting for the response
+ * of an operation before sending the next one. The number of operations in flight is bounded by a window, so a large
+ * number of submitted operations does not overrun the request queue of the server.
+ * <p/>
+ * The operations are executed concurrently and may complete in any order, so only operations which do not depend on
+ * each other should be submitted to the same executor.
+ * <p/>
+ * <b>Example:</b> Read a number of resources
+ * <pre>
+ *     <code>
+ *
+ *          final PipelinedOperationExecutor executor = new PipelinedOperationExecutor(client);
+ *          final List&lt;ModelNode&gt; results = executor.executeAll(operations);
+ *     </code>
+ * </pre>
+ */
+public class PipelinedOperationExecutor {
+
+    /** The default maximum number of operations in flight. */
+    public static final int DEFAULT_WINDOW_SIZE = 32;
+
+    private final ModelControllerClient client;
+    private final int windowSize;
+    private final Semaphore window;
+
+    /**
+     * Create an executor using the {@link #DEFAULT_WINDOW_SIZE default window size}.
+     *
+     * @param client the client used to execute the operations
+     */
+    public PipelinedOperationExecutor(final ModelControllerClient client) {
+        this(client, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Create an executor.
+     *
+     * @param client     the client used to execute the operations
+     * @param windowSize the maximum number of operations in flight
+     */
+    public PipelinedOperationExecutor(final ModelControllerClient client, final int windowSize) {
+        if (client == null) {
+            throw new IllegalArgumentException("client is null");
+        }
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be greater than 0");
+        }
+        this.client = client;
+        this.windowSize = windowSize;
+        this.window = new Semaphore(windowSize);
+    }
+
+    /**
+     * Submit an operation for execution, blocking while the window is full.
+     *
+     * @param operation the operation to execute
+     * @return the future result of the operation
+     * @throws InterruptedException if interrupted while waiting for the window
+     */
+    public AsyncFuture<ModelNode> submit(final ModelNode operation) throws InterruptedException {
+        return submit(new OperationBuilder(operation).build(), null);
+    }
+
+    /**
+     * Submit an operation for execution, blocking while the window is full.
+     *
+     * @param operation      the operation to execute
+     * @param messageHandler the message handler to use for operation progress reporting, or {@code null} for none
+     * @return the future result of the operation
+     * @throws InterruptedException if interrupted while waiting for the window
+     */
+    public AsyncFuture<ModelNode> submit(final Operation operation, final OperationMessageHandler messageHandler) throws InterruptedException {
+        window.acquire();
+        final AsyncFuture<ModelNode> future;
+        try {
+            future = client.executeAsync(operation, messageHandler);
+        } catch (RuntimeException e) {
+            window.release();
+            throw e;
+        }
+        future.addListener(new AsyncFuture.Listener<ModelNode, Semaphore>() {
+            @Override
+            public void handleComplete(AsyncFuture<? extends ModelNode> future, Semaphore attachment) {
+                attachment.release();
+            }
+
+            @Override
+            public void handleFailed(AsyncFuture<? extends ModelNode> future, Throwable cause, Semaphore attachment) {
+                attachment.release();
+            }
+
+            @Override
+            public void handleCancelled(AsyncFuture<? extends ModelNode> future, Semaphore attachment) {
+                attachment.release();
+            }
+        }, window);
+        return future;
+    }
+
+    /**
+     * Execute all the given operations, pipelining them over the client.
+     *
+     * @param operations the operations to execute
+     * @return the results of the operations, in the order of the operations
+     * @throws IOException if an operation could not be executed
+     * @throws InterruptedException if interrupted while waiting for the results
+     */
+    public List<ModelNode> executeAll(final List<ModelNode> operations) throws IOException, InterruptedException {
+        final List<AsyncFuture<ModelNode>> futures = new ArrayList<AsyncFuture<ModelNode>>(operations.size());
+        try {
+            for (final ModelNode operation : operations) {
+                futures.add(submit(operation));
+            }
+            final List<ModelNode> results = new ArrayList<ModelNode>(operations.size());
+            for (final AsyncFuture<ModelNode> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            cancelAll(futures);
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            cancelAll(futures);
+            throw e;
+        } catch (RuntimeException e) {
+            cancelAll(futures);
+            throw e;
+        }
+    }
+
+    /**
+     * Wait until all submitted operations completed.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitCompletion() throws InterruptedException {
+        window.acquire(windowSize);
+        window.release(windowSize);
+    }
+
+    private static void cancelAll(final List<AsyncFuture<ModelNode>> futures) {
+        for (final AsyncFuture<ModelNode> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client.helpers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.jboss.threads.AsyncFutureTask;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link PipelinedOperationExecutor}.
+ */
+public class PipelinedOperationExecutorTestCase {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testResultsInOrderWithinWindow() throws Exception {
+        final TestClient client = new TestClient();
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        for (int i = 0; i < 100; i++) {
+            final ModelNode operation = Operations.createReadAttributeOperation(new ModelNode().setEmptyList(), "attr");
+            operation.get("value").set(i);
+            operations.add(operation);
+        }
+        final List<ModelNode> results = new PipelinedOperationExecutor(client, 4).executeAll(operations);
+        Assert.assertEquals(100, results.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, Operations.readResult(results.get(i)).asInt());
+        }
+        Assert.assertTrue(client.maxInFlight.get() <= 4);
+        Assert.assertTrue(client.maxInFlight.get() > 1);
+    }
+
+    private class TestClient implements ModelControllerClient {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(final Operation operation, final OperationMessageHandler messageHandler) {
+            final int current = inFlight.incrementAndGet();
+            int max;
+            while ((max = maxInFlight.get()) < current && !maxInFlight.compareAndSet(max, current)) {
+                // retry
+            }
+            final TestFuture future = new TestFuture();
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    final ModelNode result = new ModelNode();
+                    result.get(ClientConstants.OUTCOME).set(ClientConstants.SUCCESS);
+                    result.get(ClientConstants.RESULT).set(operation.getOperation().get("value"));
+                    inFlight.decrementAndGet();
+                    future.done(result);
+                }
+            });
+            return future;
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(final ModelNode operation, final OperationMessageHandler messageHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncFuture<OperationResponse> executeOperationAsync(final Operation operation, final OperationMessageHandler messageHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ModelNode execute(final ModelNode operation) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ModelNode execute(final ModelNode operation, final OperationMessageHandler messageHandler) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation, final OperationMessageHandler messageHandler) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OperationResponse executeOperation(final Operation operation, final OperationMessageHandler messageHandler) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    private static class TestFuture extends AsyncFutureTask<ModelNode> {
+
+        private TestFuture() {
+            super(null);
+        }
+
+        void done(final ModelNode result) {
+            setResult(result);
+        }
+    }
+}
@@ -23,6 +23,7 @@
 package org.jboss.as.controller;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BLOCKING_TIMEOUT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
@@ -34,7 +35,7 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  *
  * @author Brian Stansberry (c) 2014 Red Hat Inc.
  */
-class BlockingTimeout {
+public class BlockingTimeout {
 
     public static final String SYSTEM_PROPERTY = "jboss.as.management.blocking.timeout";
     private static final int DEFAULT_TIMEOUT = 300;  // seconds
@@ -83,6 +84,21 @@ class BlockingTimeout {
         return defaultValue;
     }
 
+    /**
+     * Gets the maximum period, in ms, to wait for the remote processes executing a domain-wide operation to respond
+     * in each phase of the operation. This is twice the blocking timeout of the operation, leaving the remote
+     * processes the time to block and to respond afterwards.
+     *
+     * @param operation the operation. Cannot be {@code null}
+     * @return the maximum period. Will be a value greater than zero.
+     *
+     * @throws IllegalStateException if the operation's blocking timeout header is invalid
+     */
+    public static long getDomainBlockingTimeout(final ModelNode operation) {
+        final ModelNode headerValue = operation.hasDefined(OPERATION_HEADERS, BLOCKING_TIMEOUT) ? operation.get(OPERATION_HEADERS, BLOCKING_TIMEOUT) : null;
+        return 2L * new BlockingTimeout(headerValue).blockingTimeout;
+    }
+
     /**
      * Gets the maximum period, in ms, a blocking call should block.
      * @return the maximum period. Will be a value greater than zero.
@@ -54,6 +54,7 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -111,7 +112,7 @@ import org.wildfly.security.manager.action.GetAccessControlContextAction;
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
-class ModelControllerImpl implements ModelController {
+class ModelControllerImpl implements ModelController, OperationFlagsProvider {
 
     private static final String INITIAL_BOOT_OPERATION = "initial-boot-operation";
     private static final String POST_EXTENSION_BOOT_OPERATION = "post-extension-boot-operation";
@@ -802,6 +803,12 @@ class ModelControllerImpl implements ModelController {
         return notificationSupport.getNotificationRegistry();
     }
 
+    @Override
+    public Set<OperationEntry.Flag> getOperationFlags(final PathAddress address, final String operationName) {
+        final OperationEntry entry = managementModel.get().getRootResourceRegistration().getOperationEntry(address, operationName);
+        return entry == null ? null : Collections.unmodifiableSet(entry.getFlags());
+    }
+
     NotificationSupport getNotificationSupport() {
         return notificationSupport;
     }
@@ -1177,62 +1184,100 @@ class ModelControllerImpl implements ModelController {
         }
 
         private void publish() {
+            capabilityRegistry.published();
             ModelControllerImpl.this.managementModel.set(this);
             ControllerLogger.MGMT_OP_LOGGER.tracef("published %s", this);
             published = true;
         }
     }
 
-    /** Capability registry implementation. */
+    /**
+     * Capability registry implementation.
+     * <p>
+     * Copies of the registry share the registrations until they get modified, so {@link #copy()} does not depend on the
+     * number of registrations. A registry replaces a shared state with its own before the first modification, and only
+     * copies the individual registrations and requirement maps it modifies afterwards. The published registries are never
+     * modified, so readers do not lock.
+     */
     static class CapabilityRegistryImpl implements RuntimeCapabilityRegistry {
 
-        private final Map<CapabilityId, RuntimeCapabilityRegistration> capabilities = new HashMap<>();
-        private final Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> requirements = new HashMap<>();
         private final boolean forServer;
-        private final Map<CapabilityContext, Set<CapabilityContext>> satisfiedByMap;
+        private volatile State state;
+        // Whether the state is shared with another registry. Guarded by this
+        private boolean shared;
+        // The registrations, requirement maps and context sets which are not shared with another registry. Guarded by this
+        private final Set<Object> owned = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        // The capabilities which gained requirements and the capabilities which were removed since this registry was
+        // created. Only their requirements need validation. Guarded by this
+        private final Set<CapabilityId> modifiedDependents = new HashSet<>();
+        private final Set<CapabilityId> removedCapabilities = new HashSet<>();
 
         CapabilityRegistryImpl(boolean forServer) {
             this.forServer =  forServer;
-            satisfiedByMap = forServer ? null : new HashMap<CapabilityContext, Set<CapabilityContext>>();
+            this.state = new State(forServer);
+        }
+
+        private CapabilityRegistryImpl(boolean forServer, State state) {
+            this.forServer = forServer;
+            this.state = state;
+            this.shared = true;
         }
 
         @Override
         public synchronized void registerCapability(RuntimeCapabilityRegistration capabilityRegistration) {
 
+            final State state = writableState();
             CapabilityId capabilityId = capabilityRegistration.getCapabilityId();
             RegistrationPoint rp = capabilityRegistration.getOldestRegistrationPoint();
-            RuntimeCapabilityRegistration currentRegistration = capabilities.get(capabilityId);
+            RuntimeCapabilityRegistration currentRegistration = state.capabilities.get(capabilityId);
             if (currentRegistration != null) {
                 // The actual capability must be the same, and we must not already have a registration
                 // from this resource
-                if (!Objects.equals(capabilityRegistration.getCapability(), currentRegistration.getCapability())
-                        || !currentRegistration.addRegistrationPoint(rp)) {
+                if (!Objects.equals(capabilityRegistration.getCapability(), currentRegistration.getCapability())) {
+                    throw ControllerLogger.MGMT_OP_LOGGER.capabilityAlreadyRegisteredInContext(capabilityId.getName(),
+                            capabilityId.getContext().getName());
+                }
+                final RuntimeCapabilityRegistration registration = owned.contains(currentRegistration)
+                        ? currentRegistration : new RuntimeCapabilityRegistration(currentRegistration);
+                if (!registration.addRegistrationPoint(rp)) {
                     throw ControllerLogger.MGMT_OP_LOGGER.capabilityAlreadyRegisteredInContext(capabilityId.getName(),
                             capabilityId.getContext().getName());
                 }
                 // else it was ok, and we just recorded the additional registration point
+                if (registration != currentRegistration) {
+                    state.capabilities.put(capabilityId, registration);
+                    owned.add(registration);
+                }
             } else {
-                capabilities.put(capabilityId, capabilityRegistration);
+                state.capabilities.put(capabilityId, capabilityRegistration);
+                owned.add(capabilityRegistration);
             }
 
             // Add any hard requirements
             for (String req : capabilityRegistration.getCapability().getRequirements()) {
-                registerRequirement(new RuntimeRequirementRegistration(req, capabilityId.getName(),
+                registerRequirement(state, new RuntimeRequirementRegistration(req, capabilityId.getName(),
                         capabilityId.getContext(), rp));
             }
 
             if (!forServer) {
                 CapabilityContext capContext = capabilityId.getContext();
-                if (!satisfiedByMap.containsKey(capContext)) {
+                if (!state.satisfiedByMap.containsKey(capContext)) {
                     // Figure out who we can satisfy and who satisfies us
-                    Set<CapabilityContext> satisfiesUs = new HashSet<>();
-                    satisfiedByMap.put(capContext, satisfiesUs);
-                    for (Map.Entry<CapabilityContext, Set<CapabilityContext>> entry : satisfiedByMap.entrySet()) {
+                    Set<CapabilityContext> satisfiesUs = newConcurrentSet();
+                    owned.add(satisfiesUs);
+                    state.satisfiedByMap.put(capContext, satisfiesUs);
+                    for (Map.Entry<CapabilityContext, Set<CapabilityContext>> entry : state.satisfiedByMap.entrySet()) {
                         if (entry.getKey().canSatisfyRequirements(capContext)) {
                             satisfiesUs.add(entry.getKey());
                         }
                         if (capContext.canSatisfyRequirements(entry.getKey())) {
-                            entry.getValue().add(capContext);
+                            Set<CapabilityContext> satisfied = entry.getValue();
+                            if (!owned.contains(satisfied)) {
+                                satisfied = newConcurrentSet(satisfied);
+                                owned.add(satisfied);
+                            }
+                            satisfied.add(capContext);
+                            state.satisfiedByMap.put(entry.getKey(), satisfied);
                         }
                     }
                 }
@@ -1241,80 +1286,109 @@ class ModelControllerImpl implements ModelController {
 
         @Override
         public synchronized void registerAdditionalCapabilityRequirement(RuntimeRequirementRegistration requirement) {
-            registerRequirement(requirement);
+            registerRequirement(writableState(), requirement);
         }
 
-        private void registerRequirement(RuntimeRequirementRegistration requirement) {
+        private void registerRequirement(State state, RuntimeRequirementRegistration requirement) {
             CapabilityId dependentId = requirement.getDependentId();
-            if (!capabilities.containsKey(dependentId)) {
+            if (!state.capabilities.containsKey(dependentId)) {
                 throw ControllerLogger.MGMT_OP_LOGGER.unknownCapabilityInContext(dependentId.getName(),
                         dependentId.getContext().getName());
             }
-            Map<String, RuntimeRequirementRegistration> dependents = requirements.get(dependentId);
-            if (dependents == null) {
-                dependents = new HashMap<>();
-                requirements.put(dependentId, dependents);
-            }
+            Map<String, RuntimeRequirementRegistration> dependents = writableRequirements(state, dependentId);
             RuntimeRequirementRegistration existing = dependents.get(requirement.getRequiredName());
             if (existing == null) {
                 dependents.put(requirement.getRequiredName(), requirement);
+                owned.add(requirement);
+                Set<CapabilityId> requiredBy = state.dependents.get(requirement.getRequiredName());
+                if (requiredBy == null || !owned.contains(requiredBy)) {
+                    requiredBy = requiredBy == null ? CapabilityRegistryImpl.<CapabilityId>newConcurrentSet() : newConcurrentSet(requiredBy);
+                    owned.add(requiredBy);
+                    state.dependents.put(requirement.getRequiredName(), requiredBy);
+                }
+                requiredBy.add(dependentId);
             } else {
-                existing.addRegistrationPoint(requirement.getOldestRegistrationPoint());
+                writableRequirement(dependents, existing).addRegistrationPoint(requirement.getOldestRegistrationPoint());
             }
+            modifiedDependents.add(dependentId);
         }
 
         @Override
         public synchronized void removeCapabilityRequirement(RuntimeRequirementRegistration requirementRegistration) {
-            removeRequirement(requirementRegistration);
+            removeRequirement(writableState(), requirementRegistration);
         }
 
         @Override
         public synchronized RuntimeCapabilityRegistration removeCapability(String capabilityName, CapabilityContext context,
                                                                            PathAddress registrationPoint) {
+            final State state = writableState();
             CapabilityId capabilityId = new CapabilityId(capabilityName, context);
             RuntimeCapabilityRegistration removed = null;
-            RuntimeCapabilityRegistration candidate = capabilities.get(capabilityId);
+            RuntimeCapabilityRegistration candidate = state.capabilities.get(capabilityId);
             if (candidate != null) {
                 RegistrationPoint rp = new RegistrationPoint(registrationPoint, null);
+                if (!owned.contains(candidate)) {
+                    candidate = new RuntimeCapabilityRegistration(candidate);
+                }
                 if (candidate.removeRegistrationPoint(rp)) {
                     for (String req : candidate.getCapability().getRequirements()) {
-                        removeRequirement(new RuntimeRequirementRegistration(req, capabilityName, context, rp));
+                        removeRequirement(state, new RuntimeRequirementRegistration(req, capabilityName, context, rp));
                     }
                     for (String req : candidate.getCapability().getOptionalRequirements()) {
-                        removeRequirement(new RuntimeRequirementRegistration(req, capabilityName, context, rp));
+                        removeRequirement(state, new RuntimeRequirementRegistration(req, capabilityName, context, rp));
                     }
                     if (candidate.getRegistrationPointCount() == 0) {
-                        removed = capabilities.remove(capabilityId);
+                        state.capabilities.remove(capabilityId);
+                        owned.remove(candidate);
+                        removed = candidate;
+                        removedCapabilities.add(capabilityId);
+                    } else if (owned.add(candidate)) {
+                        state.capabilities.put(capabilityId, candidate);
                     }
                 }
             }
             return removed;
         }
 
-        private synchronized void removeRequirement(RuntimeRequirementRegistration requirementRegistration) {
-            Map<String, RuntimeRequirementRegistration> dependents = requirements.get(requirementRegistration.getDependentId());
-            if (dependents != null) {
-                RuntimeRequirementRegistration rrr = dependents.get(requirementRegistration.getRequiredName());
-                if (rrr != null) {
-                    rrr.removeRegistrationPoint(requirementRegistration.getOldestRegistrationPoint());
-                    if (rrr.getRegistrationPointCount() == 0) {
-                        dependents.remove(requirementRegistration.getRequiredName());
-                    }
-                    if (dependents.size() == 0) {
-                        requirements.remove(requirementRegistration.getDependentId());
+        private void removeRequirement(State state, RuntimeRequirementRegistration requirementRegistration) {
+            CapabilityId dependentId = requirementRegistration.getDependentId();
+            String requiredName = requirementRegistration.getRequiredName();
+            if (state.requirements.containsKey(dependentId) && state.requirements.get(dependentId).containsKey(requiredName)) {
+                Map<String, RuntimeRequirementRegistration> dependents = writableRequirements(state, dependentId);
+                RuntimeRequirementRegistration rrr = writableRequirement(dependents, dependents.get(requiredName));
+                rrr.removeRegistrationPoint(requirementRegistration.getOldestRegistrationPoint());
+                if (rrr.getRegistrationPointCount() == 0) {
+                    dependents.remove(requiredName);
+                    owned.remove(rrr);
+                    Set<CapabilityId> requiredBy = state.dependents.get(requiredName);
+                    if (requiredBy != null && requiredBy.contains(dependentId)) {
+                        if (requiredBy.size() == 1) {
+                            owned.remove(state.dependents.remove(requiredName));
+                        } else {
+                            if (!owned.contains(requiredBy)) {
+                                requiredBy = newConcurrentSet(requiredBy);
+                                owned.add(requiredBy);
+                                state.dependents.put(requiredName, requiredBy);
+                            }
+                            requiredBy.remove(dependentId);
+                        }
                     }
                 }
+                if (dependents.size() == 0) {
+                    owned.remove(state.requirements.remove(dependentId));
+                }
             }
         }
 
         @Override
-        public synchronized boolean hasCapability(String capabilityName, CapabilityContext capabilityContext) {
-            return findSatisfactoryCapability(capabilityName, capabilityContext) != null;
+        public boolean hasCapability(String capabilityName, CapabilityContext capabilityContext) {
+            return findSatisfactoryCapability(state, capabilityName, capabilityContext) != null;
         }
 
         @Override
-        public synchronized  <T> T getCapabilityRuntimeAPI(String capabilityName, CapabilityContext capabilityContext, Class<T> apiType) {
-            CapabilityId capabilityId = findSatisfactoryCapability(capabilityName, capabilityContext);
+        public <T> T getCapabilityRuntimeAPI(String capabilityName, CapabilityContext capabilityContext, Class<T> apiType) {
+            final State state = this.state;
+            CapabilityId capabilityId = findSatisfactoryCapability(state, capabilityName, capabilityContext);
             if (capabilityId == null) {
                 if (forServer) {
                     throw ControllerLogger.MGMT_OP_LOGGER.unknownCapability(capabilityName);
@@ -1322,7 +1396,7 @@ class ModelControllerImpl implements ModelController {
                     throw ControllerLogger.MGMT_OP_LOGGER.unknownCapabilityInContext(capabilityName, capabilityContext.getName());
                 }
             }
-            RuntimeCapabilityRegistration reg = capabilities.get(capabilityId);
+            RuntimeCapabilityRegistration reg = state.capabilities.get(capabilityId);
             Object api = reg.getCapability().getRuntimeAPI();
             if (api == null) {
                 throw ControllerLogger.MGMT_OP_LOGGER.capabilityDoesNotExposeRuntimeAPI(capabilityName);
@@ -1331,60 +1405,163 @@ class ModelControllerImpl implements ModelController {
         }
 
         synchronized CapabilityRegistryImpl copy() {
-            CapabilityRegistryImpl result = new CapabilityRegistryImpl(forServer);
-            result.capabilities.putAll(this.capabilities);
-            for (Map.Entry<CapabilityId, Map<String, RuntimeRequirementRegistration>> entry : this.requirements.entrySet()) {
-                Map<String, RuntimeRequirementRegistration> mapCopy = new HashMap<>();
-                for (Map.Entry<String, RuntimeRequirementRegistration> innerEntry : entry.getValue().entrySet()) {
-                    mapCopy.put(innerEntry.getKey(), new RuntimeRequirementRegistration(innerEntry.getValue()));
-                }
-                result.requirements.put(entry.getKey(), mapCopy);
-            }
-            if (!forServer) {
-                result.satisfiedByMap.putAll(this.satisfiedByMap);
-            }
+            // Neither registry may modify what is shared from now on
+            shared = true;
+            owned.clear();
+            CapabilityRegistryImpl result = new CapabilityRegistryImpl(forServer, state);
+            // Changes not yet published still need to be validated
+            result.modifiedDependents.addAll(modifiedDependents);
+            result.removedCapabilities.addAll(removedCapabilities);
             return result;
         }
 
+        /**
+         * Records that the registry got published, so its changes do not need to be validated anymore.
+         */
+        synchronized void published() {
+            modifiedDependents.clear();
+            removedCapabilities.clear();
+        }
+
+        /**
+         * Gets the requirements which are not satisfied. Only the requirements added and the requirements of the
+         * capabilities removed since the last published registry are checked, as that registry was valid.
+         *
+         * @return the missing requirements
+         */
         synchronized Map<CapabilityId, Set<RuntimeRequirementRegistration>> getMissingRequirements() {
+            final State state = this.state;
             Map<CapabilityId, Set<RuntimeRequirementRegistration>> result = new HashMap<>();
-            for (Map.Entry<CapabilityId, Map<String, RuntimeRequirementRegistration>> entry : requirements.entrySet()) {
-                CapabilityContext dependentContext = entry.getKey().getContext();
-                for (RuntimeRequirementRegistration req : entry.getValue().values()) {
-                    CapabilityId satisfiesId = findSatisfactoryCapability(req.getRequiredName(), dependentContext);
-                    if (satisfiesId == null) {
-                        CapabilityId basicId = new CapabilityId(req.getRequiredName(), dependentContext);
-                        Set<RuntimeRequirementRegistration> set = result.get(basicId);
-                        if (set == null) {
-                            set = new HashSet<>();
-                            result.put(basicId, set);
+            for (CapabilityId dependentId : modifiedDependents) {
+                Map<String, RuntimeRequirementRegistration> dependents = state.requirements.get(dependentId);
+                if (dependents != null) {
+                    for (RuntimeRequirementRegistration req : dependents.values()) {
+                        addIfMissing(state, req, result);
+                    }
+                }
+            }
+            for (CapabilityId removedId : removedCapabilities) {
+                Set<CapabilityId> requiredBy = state.dependents.get(removedId.getName());
+                if (requiredBy != null) {
+                    for (CapabilityId dependentId : requiredBy) {
+                        Map<String, RuntimeRequirementRegistration> dependents = state.requirements.get(dependentId);
+                        RuntimeRequirementRegistration req = dependents == null ? null : dependents.get(removedId.getName());
+                        if (req != null) {
+                            addIfMissing(state, req, result);
                         }
-                        set.add(req);
                     }
                 }
             }
             return result;
         }
 
-        private CapabilityId findSatisfactoryCapability(String capabilityName, CapabilityContext capabilityContext) {
+        private void addIfMissing(State state, RuntimeRequirementRegistration req, Map<CapabilityId, Set<RuntimeRequirementRegistration>> result) {
+            CapabilityContext dependentContext = req.getDependentContext();
+            CapabilityId satisfiesId = findSatisfactoryCapability(state, req.getRequiredName(), dependentContext);
+            if (satisfiesId == null) {
+                CapabilityId basicId = new CapabilityId(req.getRequiredName(), dependentContext);
+                Set<RuntimeRequirementRegistration> set = result.get(basicId);
+                if (set == null) {
+                    set = new HashSet<>();
+                    result.put(basicId, set);
+                }
+                set.add(req);
+            }
+        }
+
+        private CapabilityId findSatisfactoryCapability(State state, String capabilityName, CapabilityContext capabilityContext) {
 
             // Check for a simple match
             CapabilityId requestedId = new CapabilityId(capabilityName, capabilityContext);
-            if (capabilities.containsKey(requestedId)) {
+            if (state.capabilities.containsKey(requestedId)) {
                 return requestedId;
             }
 
             if (!forServer) {
                 // Try other contexts that satisfy the requested one
-                for (CapabilityContext satisfies : satisfiedByMap.get(capabilityContext)) {
-                    CapabilityId satisfiesId = new CapabilityId(capabilityName, satisfies);
-                    if (capabilities.containsKey(satisfiesId)) {
-                        return satisfiesId;
+                Set<CapabilityContext> satisfiedBy = state.satisfiedByMap.get(capabilityContext);
+                if (satisfiedBy != null) {
+                    for (CapabilityContext satisfies : satisfiedBy) {
+                        CapabilityId satisfiesId = new CapabilityId(capabilityName, satisfies);
+                        if (state.capabilities.containsKey(satisfiesId)) {
+                            return satisfiesId;
+                        }
                     }
                 }
             }
             return null;
         }
+
+        /**
+         * Gets the state this registry may modify, replacing the state shared with other registries if needed.
+         * Must be called holding the registry's monitor.
+         */
+        private State writableState() {
+            if (shared) {
+                state = new State(state);
+                shared = false;
+            }
+            return state;
+        }
+
+        private Map<String, RuntimeRequirementRegistration> writableRequirements(State state, CapabilityId dependentId) {
+            Map<String, RuntimeRequirementRegistration> dependents = state.requirements.get(dependentId);
+            if (dependents == null || !owned.contains(dependents)) {
+                dependents = dependents == null ? new ConcurrentHashMap<String, RuntimeRequirementRegistration>()
+                        : new ConcurrentHashMap<>(dependents);
+                owned.add(dependents);
+                state.requirements.put(dependentId, dependents);
+            }
+            return dependents;
+        }
+
+        private RuntimeRequirementRegistration writableRequirement(Map<String, RuntimeRequirementRegistration> dependents,
+                                                                   RuntimeRequirementRegistration requirement) {
+            if (owned.contains(requirement)) {
+                return requirement;
+            }
+            RuntimeRequirementRegistration copy = new RuntimeRequirementRegistration(requirement);
+            owned.add(copy);
+            dependents.put(copy.getRequiredName(), copy);
+            return copy;
+        }
+
+        private static <T> Set<T> newConcurrentSet() {
+            return Collections.newSetFromMap(new ConcurrentHashMap<T, Boolean>());
+        }
+
+        private static <T> Set<T> newConcurrentSet(Set<T> toCopy) {
+            Set<T> result = newConcurrentSet();
+            result.addAll(toCopy);
+            return result;
+        }
+
+        /**
+         * The registrations of a registry. Readers may access the maps concurrently with the owning registry
+         * modifying them.
+         */
+        private static final class State {
+            private final ConcurrentMap<CapabilityId, RuntimeCapabilityRegistration> capabilities;
+            private final ConcurrentMap<CapabilityId, Map<String, RuntimeRequirementRegistration>> requirements;
+            // The capabilities requiring a capability, by name of the required capability
+            private final ConcurrentMap<String, Set<CapabilityId>> dependents;
+            private final ConcurrentMap<CapabilityContext, Set<CapabilityContext>> satisfiedByMap;
+
+            private State(boolean forServer) {
+                capabilities = new ConcurrentHashMap<>();
+                requirements = new ConcurrentHashMap<>();
+                dependents = new ConcurrentHashMap<>();
+                satisfiedByMap = forServer ? null : new ConcurrentHashMap<CapabilityContext, Set<CapabilityContext>>();
+            }
+
+            private State(State toCopy) {
+                capabilities = new ConcurrentHashMap<>(toCopy.capabilities);
+                requirements = new ConcurrentHashMap<>(toCopy.requirements);
+                dependents = new ConcurrentHashMap<>(toCopy.dependents);
+                satisfiedByMap = toCopy.satisfiedByMap == null ? null
+                        : new ConcurrentHashMap<>(toCopy.satisfiedByMap);
+            }
+        }
     }
 
     private static class OperationResponseImpl implements OperationResponse {
@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.Set;
+
+import org.jboss.as.controller.registry.OperationEntry;
+
+/**
+ * Exposes the {@link OperationEntry.Flag flags} operations were registered with, so that callers can decide how to
+ * dispatch an operation before executing it.
+ */
+public interface OperationFlagsProvider {
+
+    /**
+     * Get the flags of a registered operation.
+     *
+     * @param address the address of the target resource
+     * @param operationName the name of the operation
+     * @return the flags of the operation, or {@code null} if no such operation is registered
+     */
+    Set<OperationEntry.Flag> getOperationFlags(PathAddress address, String operationName);
+}
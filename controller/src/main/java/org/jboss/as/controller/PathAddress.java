@@ -155,6 +155,9 @@ public class PathAddress implements Iterable<PathElement> {
     }
 
     private final List<PathElement> pathAddressList;
+    // lazily computed, the address is immutable so racing threads compute the same values
+    private int hashCode;
+    private String string;
 
     PathAddress(final List<PathElement> pathAddressList) {
         assert pathAddressList != null : ControllerLogger.ROOT_LOGGER.nullVar("pathAddressList").getLocalizedMessage();
@@ -348,7 +351,12 @@ public class PathAddress implements Iterable<PathElement> {
 
     @Override
     public int hashCode() {
-        return pathAddressList.hashCode();
+        int hash = hashCode;
+        if (hash == 0) {
+            hash = pathAddressList.hashCode();
+            hashCode = hash;
+        }
+        return hash;
     }
 
     /**
@@ -369,12 +377,17 @@ public class PathAddress implements Iterable<PathElement> {
      * @return {@code true} if they are equal, {@code false} otherwise
      */
     public boolean equals(PathAddress other) {
-        return this == other || other != null && pathAddressList.equals(other.pathAddressList);
+        return this == other || other != null && hashCode() == other.hashCode() && pathAddressList.equals(other.pathAddressList);
     }
 
     @Override
     public String toString() {
-        return toModelNode().toString();
+        String result = string;
+        if (result == null) {
+            result = toModelNode().toString();
+            string = result;
+        }
+        return result;
     }
 
     public String toCLIStyleString() {
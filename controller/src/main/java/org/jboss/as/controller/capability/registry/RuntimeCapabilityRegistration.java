@@ -47,6 +47,13 @@ public class RuntimeCapabilityRegistration extends CapabilityRegistration<Runtim
         this.registrationPoints.put(registrationPoint.getAddress(), registrationPoint);
     }
 
+    public RuntimeCapabilityRegistration(RuntimeCapabilityRegistration toCopy) {
+        super(toCopy.getCapability(), toCopy.getCapabilityContext());
+        synchronized (toCopy) {
+            this.registrationPoints.putAll(toCopy.registrationPoints);
+        }
+    }
+
     /**
      * Gets the registration point that been associated with the registration for the longest period.
      * @return the initial registration point, or {@code null} if there are no longer any registration points
@@ -233,6 +233,7 @@ public class ModelDescriptionConstants {
     public static final String MASK = "mask";
     public static final String MASTER = "master";
     public static final String MAX = "max";
+    public static final String MAX_CONCURRENT_SERVERS = "max-concurrent-servers";
     public static final String MAX_FAILED_SERVERS = "max-failed-servers";
     public static final String MAX_FAILURE_COUNT = "max-failure-count";
     public static final String MAX_FAILURE_PERCENTAGE = "max-failure-percentage";
@@ -240,6 +241,7 @@ public class ModelDescriptionConstants {
     public static final String MAX_OCCURS = "max-occurs";
     public static final String MAX_THREADS = "max-threads";
     public static final String MESSAGE_TRANSFER = "message-transfer";
+    public static final String METRICS = "metrics";
     public static final String MIME_TYPE = "mime-type";
     public static final String MIN = "min";
     public static final String MIN_LENGTH = "min-length";
@@ -308,6 +310,7 @@ public class ModelDescriptionConstants {
     public static final String READ_CHILDREN_RESOURCES_OPERATION = "read-children-resources";
     public static final String READ_CONFIG_AS_XML_OPERATION = "read-config-as-xml";
     public static final String READ_CONTENT = "read-content";
+    public static final String READ_METRICS_OPERATION = "read-metrics";
     public static final String READ_ONLY = "read-only";
     public static final String READ_OPERATION_DESCRIPTION_OPERATION = "read-operation-description";
     public static final String READ_OPERATION_NAMES_OPERATION = "read-operation-names";
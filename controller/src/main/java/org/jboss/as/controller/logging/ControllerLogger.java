@@ -3287,4 +3287,14 @@ public interface ControllerLogger extends BasicLogger {
 
     @Message(id = 380, value="Attribute '%s' needs to be set or passed before attribute '%s' can be correctly set")
     OperationFailedException requiredAttributeNotSet(String required, String name);
+
+    @LogMessage(level = WARN)
+    @Message(id = 381, value = "Failed to store the boot operation cache %s")
+    void failedToStoreBootOperationCache(@Cause Throwable cause, File file);
+
+    @Message(id = 382, value = "Failed to marshal subsystem %s")
+    XMLStreamException failedToMarshalSubsystem(@Cause Throwable cause, String name);
+
+    @Message(id = 383, value = "Interrupted awaiting marshalling of subsystem %s")
+    XMLStreamException subsystemMarshallingInterrupted(String name);
 }
@@ -69,6 +69,7 @@ public class GlobalOperationHandlers {
         set.add(ReadChildrenNamesHandler.DEFINITION.getName());
         set.add(ReadChildrenTypesHandler.DEFINITION.getName());
         set.add(ReadChildrenResourcesHandler.DEFINITION.getName());
+        set.add(ReadMetricsHandler.DEFINITION.getName());
         set.add(ReadOperationNamesHandler.DEFINITION.getName());
         set.add(ReadOperationDescriptionHandler.DEFINITION.getName());
         set.add(ReadResourceDescriptionHandler.CheckResourceAccessHandler.DEFINITION.getName());
@@ -104,6 +105,8 @@ public class GlobalOperationHandlers {
         root.registerOperationHandler(ReadChildrenResourcesHandler.DEFINITION, ReadChildrenResourcesHandler.INSTANCE, true);
         root.registerOperationHandler(ReadOperationNamesHandler.DEFINITION, ReadOperationNamesHandler.INSTANCE, true);
         root.registerOperationHandler(ReadOperationDescriptionHandler.DEFINITION, ReadOperationDescriptionHandler.INSTANCE, true);
+        // bulk read with addresses relative to the root, so not inherited
+        root.registerOperationHandler(ReadMetricsHandler.DEFINITION, ReadMetricsHandler.INSTANCE, false);
         //map operations
         root.registerOperationHandler(MapOperations.MAP_PUT_DEFINITION, MapOperations.MAP_PUT_HANDLER, true);
         root.registerOperationHandler(MapOperations.MAP_GET_DEFINITION, MapOperations.MAP_GET_HANDLER, true);
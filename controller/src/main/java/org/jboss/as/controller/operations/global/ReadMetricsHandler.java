@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.operations.global;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_METRICS_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PrimitiveListAttributeDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.descriptions.common.ControllerResolver;
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * {@link org.jboss.as.controller.OperationStepHandler} reading a number of attributes, typically metrics, of
+ * different resources in a single operation. Each element of the "metrics" parameter holds the "address" of the
+ * resource, relative to the address of the operation and possibly containing wildcards, and the "name" of the
+ * attribute. The result is the list of the attribute values, in the order of the requested metrics.
+ * <p>
+ * The {@code read-attribute} handler of each distinct address is only resolved once, and the values are read by
+ * steps executed within this operation, so no composite operation needs to be built around a large number of
+ * {@code read-attribute} operations.
+ */
+public class ReadMetricsHandler implements OperationStepHandler {
+
+    private static final AttributeDefinition METRICS = new PrimitiveListAttributeDefinition.Builder(ModelDescriptionConstants.METRICS, ModelType.OBJECT)
+            .build();
+
+    static final OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(READ_METRICS_OPERATION, ControllerResolver.getResolver("global"))
+            .setParameters(METRICS)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .setReplyType(ModelType.LIST)
+            .build();
+
+    static final OperationStepHandler INSTANCE = new ReadMetricsHandler();
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        METRICS.validateOperation(operation);
+
+        final PathAddress address = context.getCurrentAddress();
+        final ImmutableManagementResourceRegistration registry = context.getResourceRegistration();
+        final List<ModelNode> metrics = operation.get(METRICS.getName()).asList();
+        final int size = metrics.size();
+
+        final ModelNode[] operations = new ModelNode[size];
+        final OperationStepHandler[] handlers = new OperationStepHandler[size];
+        final Map<PathAddress, OperationStepHandler> resolved = new HashMap<PathAddress, OperationStepHandler>();
+        for (int i = 0; i < size; i++) {
+            final ModelNode metric = metrics.get(i);
+            if (!metric.hasDefined(NAME)) {
+                throw new OperationFailedException(ControllerLogger.ROOT_LOGGER.required(NAME));
+            }
+            final PathAddress relativeAddress = metric.hasDefined(ADDRESS) ? PathAddress.pathAddress(metric.get(ADDRESS)) : PathAddress.EMPTY_ADDRESS;
+            OperationStepHandler handler = resolved.get(relativeAddress);
+            if (handler == null) {
+                handler = registry.getOperationHandler(relativeAddress, READ_ATTRIBUTE_OPERATION);
+                if (handler == null) {
+                    final PathAddress targetAddress = address.append(relativeAddress);
+                    if (registry.getSubModel(relativeAddress) == null) {
+                        throw new OperationFailedException(ControllerLogger.ROOT_LOGGER.noSuchResourceType(targetAddress));
+                    }
+                    throw new OperationFailedException(ControllerLogger.ROOT_LOGGER.noHandlerForOperation(READ_ATTRIBUTE_OPERATION, targetAddress));
+                }
+                resolved.put(relativeAddress, handler);
+            }
+            final ModelNode readOp = new ModelNode();
+            readOp.get(OP).set(READ_ATTRIBUTE_OPERATION);
+            readOp.get(OP_ADDR).set(address.append(relativeAddress).toModelNode());
+            readOp.get(NAME).set(metric.get(NAME));
+            operations[i] = readOp;
+            handlers[i] = handler;
+        }
+
+        final ModelNode[] responses = new ModelNode[size];
+        // Last to execute is the handler that assembles the overall result once all values are read
+        context.addStep(new ReadMetricsAssemblyHandler(responses), OperationContext.Stage.MODEL, true);
+        for (int i = size - 1; i >= 0; i--) {
+            responses[i] = new ModelNode();
+            context.addStep(responses[i], operations[i], handlers[i], OperationContext.Stage.MODEL, true);
+        }
+    }
+
+    /**
+     * Assembles the result from the responses of the individual attribute reads.
+     */
+    private static class ReadMetricsAssemblyHandler implements OperationStepHandler {
+
+        private final ModelNode[] responses;
+
+        private ReadMetricsAssemblyHandler(final ModelNode[] responses) {
+            this.responses = responses;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            // Metrics are typically read in runtime steps, so wait for those before assembling the result
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    for (ModelNode response : responses) {
+                        if (response.hasDefined(FAILURE_DESCRIPTION)) {
+                            context.getFailureDescription().set(response.get(FAILURE_DESCRIPTION));
+                            return;
+                        }
+                    }
+                    final ModelNode result = context.getResult().setEmptyList();
+                    for (ModelNode response : responses) {
+                        result.add(response.get(RESULT));
+                    }
+                }
+            }, OperationContext.Stage.VERIFY);
+        }
+    }
+}
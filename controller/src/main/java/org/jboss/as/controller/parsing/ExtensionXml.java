@@ -34,12 +34,14 @@ import static org.jboss.as.controller.parsing.ParseUtils.requireNamespace;
 import static org.jboss.as.controller.parsing.ParseUtils.requireNoAttributes;
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedElement;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -49,6 +51,7 @@ import javax.xml.stream.XMLStreamException;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.Extension;
 import org.jboss.as.controller.extension.ExtensionRegistry;
+import org.jboss.as.controller.persistence.BootOperationCache;
 import org.jboss.dmr.ModelNode;
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleIdentifier;
@@ -172,17 +175,105 @@ public class ExtensionXml {
         list.add(add);
     }
 
+    /**
+     * Loads the given extension modules and initializes their parsers, without parsing an {@code extensions} element.
+     * Used when the boot operations are not parsed from the configuration file.
+     *
+     * @param moduleNames the names of the extension modules
+     * @param xmlMapper the mapper to register the parsers with
+     * @return the {@link #getFingerprints(Collection) fingerprints} of the extension modules
+     * @throws XMLStreamException if a module cannot be loaded
+     */
+    public Map<String, String> initializeParsers(final Collection<String> moduleNames, final XMLMapper xmlMapper) throws XMLStreamException {
+        final Map<String, String> fingerprints = new ConcurrentHashMap<String, String>();
+        if (bootExecutor != null) {
+            final Map<String, Future<XMLStreamException>> loadFutures = new LinkedHashMap<String, Future<XMLStreamException>>();
+            for (final String moduleName : moduleNames) {
+                loadFutures.put(moduleName, bootExecutor.submit(new Callable<XMLStreamException>() {
+                    @Override
+                    public XMLStreamException call() throws Exception {
+                        return loadModule(moduleName, xmlMapper, fingerprints);
+                    }
+                }));
+            }
+            for (Map.Entry<String, Future<XMLStreamException>> entry : loadFutures.entrySet()) {
+                try {
+                    XMLStreamException xse = entry.getValue().get();
+                    if (xse != null) {
+                        throw xse;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw ControllerLogger.ROOT_LOGGER.moduleLoadingInterrupted(entry.getKey());
+                } catch (ExecutionException e) {
+                    throw ControllerLogger.ROOT_LOGGER.failedToLoadModule(e, entry.getKey());
+                }
+            }
+        } else {
+            for (final String moduleName : moduleNames) {
+                XMLStreamException xse = loadModule(moduleName, xmlMapper, fingerprints);
+                if (xse != null) {
+                    throw xse;
+                }
+            }
+        }
+        return toFingerprintMap(moduleNames, fingerprints);
+    }
+
+    /**
+     * Gets a fingerprint for each of the given extension modules, identifying the code of the extensions
+     * provided by the module. A module whose extensions are not loaded from a file has a {@code null} fingerprint.
+     *
+     * @param moduleNames the names of the extension modules
+     * @return the fingerprints, keyed by module name in the iteration order of {@code moduleNames}
+     * @throws XMLStreamException if a module cannot be loaded
+     */
+    public Map<String, String> getFingerprints(final Collection<String> moduleNames) throws XMLStreamException {
+        final Map<String, String> fingerprints = new ConcurrentHashMap<String, String>();
+        for (final String moduleName : moduleNames) {
+            XMLStreamException xse = loadModule(moduleName, null, fingerprints);
+            if (xse != null) {
+                throw xse;
+            }
+        }
+        return toFingerprintMap(moduleNames, fingerprints);
+    }
+
+    private static Map<String, String> toFingerprintMap(final Collection<String> moduleNames, final Map<String, String> fingerprints) {
+        final Map<String, String> result = new LinkedHashMap<String, String>();
+        for (final String moduleName : moduleNames) {
+            result.put(moduleName, fingerprints.get(moduleName));
+        }
+        return result;
+    }
+
     private XMLStreamException loadModule(final String moduleName, final XMLMapper xmlMapper) throws XMLStreamException {
+        return loadModule(moduleName, xmlMapper, null);
+    }
+
+    private XMLStreamException loadModule(final String moduleName, final XMLMapper xmlMapper, final Map<String, String> fingerprints) throws XMLStreamException {
         // Register element handlers for this extension
         try {
             final Module module = moduleLoader.loadModule(ModuleIdentifier.fromString(moduleName));
             boolean initialized = false;
+            final StringBuilder fingerprint = new StringBuilder();
+            boolean fingerprinted = true;
             for (final Extension extension : module.loadService(Extension.class)) {
-                ClassLoader oldTccl = WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(extension.getClass());
-                try {
-                    extension.initializeParsers(extensionRegistry.getExtensionParsingContext(moduleName, xmlMapper));
-                } finally {
-                    WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(oldTccl);
+                if (xmlMapper != null) {
+                    ClassLoader oldTccl = WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(extension.getClass());
+                    try {
+                        extension.initializeParsers(extensionRegistry.getExtensionParsingContext(moduleName, xmlMapper));
+                    } finally {
+                        WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(oldTccl);
+                    }
+                }
+                if (fingerprints != null) {
+                    final String extensionFingerprint = BootOperationCache.fingerprint(extension.getClass());
+                    if (extensionFingerprint == null) {
+                        fingerprinted = false;
+                    } else {
+                        fingerprint.append(extension.getClass().getName()).append('@').append(extensionFingerprint).append(';');
+                    }
                 }
                 if (!initialized) {
                     initialized = true;
@@ -191,6 +282,9 @@ public class ExtensionXml {
             if (!initialized) {
                 throw ControllerLogger.ROOT_LOGGER.notFound("META-INF/services/", Extension.class.getName(), module.getIdentifier());
             }
+            if (fingerprints != null && fingerprinted) {
+                fingerprints.put(moduleName, fingerprint.toString());
+            }
             return null;
         } catch (final ModuleLoadException e) {
             throw ControllerLogger.ROOT_LOGGER.failedToLoadModule(e);
@@ -0,0 +1,267 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.security.AccessController;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.controller.parsing.ExtensionXml;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.staxmapper.XMLMapper;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Binary cache of the boot operations parsed from a configuration file. The cache is only used if the
+ * configuration file content, the root parser and all extension modules referenced by the cached operations are
+ * unchanged since the cache was written; in any other case the configuration file is parsed as usual and the
+ * cache is rewritten once the process has booted successfully.
+ * <p>
+ * The extension modules are still loaded and their parsers initialized when the cached operations are used, so
+ * that the extension registry has the same information available as after a regular parse.
+ */
+public class BootOperationCache {
+
+    /** System property which can be set to {@code false} to disable the boot operation cache. */
+    public static final String ENABLED_PROPERTY = "jboss.config.boot-operation-cache";
+
+    private static final int MAGIC = 0x424f4f54; // BOOT
+    private static final int VERSION = 1;
+
+    private final File cacheFile;
+    private final ExtensionXml extensionXml;
+    private volatile byte[] pending;
+
+    /**
+     * Create a new boot operation cache.
+     *
+     * @param cacheFile the file used to store the cached operations
+     * @param extensionXml the extension parsing support used to load and initialize the extension modules
+     */
+    public BootOperationCache(final File cacheFile, final ExtensionXml extensionXml) {
+        this.cacheFile = cacheFile;
+        this.extensionXml = extensionXml;
+    }
+
+    /**
+     * Whether the boot operation cache is enabled for this process.
+     *
+     * @return {@code true} unless disabled using the {@link #ENABLED_PROPERTY} system property
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(ENABLED_PROPERTY, "true"));
+    }
+
+    /**
+     * Get the cached boot operations, if they are still valid for the given configuration.
+     *
+     * @param configFile the configuration file
+     * @param content the current content of the configuration file
+     * @param rootParser the type of the root parser
+     * @param xmlMapper the mapper to initialize the extension parsers with
+     * @return the boot operations, {@code null} if there is no valid cache
+     */
+    List<ModelNode> load(final File configFile, final byte[] content, final Class<?> rootParser, final XMLMapper xmlMapper) {
+        if (!cacheFile.exists()) {
+            return null;
+        }
+        final long start = System.currentTimeMillis();
+        try {
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+            try {
+                if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                    return null;
+                }
+                if (!configFile.getAbsolutePath().equals(input.readUTF())
+                        || !hash(content).equals(input.readUTF())
+                        || !input.readUTF().equals(fingerprint(rootParser))) {
+                    return null;
+                }
+                final int moduleCount = input.readInt();
+                final Map<String, String> fingerprints = new LinkedHashMap<String, String>();
+                for (int i = 0; i < moduleCount; i++) {
+                    fingerprints.put(input.readUTF(), input.readUTF());
+                }
+                if (!fingerprints.equals(extensionXml.initializeParsers(fingerprints.keySet(), xmlMapper))) {
+                    return null;
+                }
+                final int operationCount = input.readInt();
+                final List<ModelNode> operations = new ArrayList<ModelNode>(operationCount);
+                for (int i = 0; i < operationCount; i++) {
+                    final ModelNode operation = new ModelNode();
+                    operation.readExternal(input);
+                    operations.add(operation);
+                }
+                ROOT_LOGGER.debugf("Loaded %d cached boot operations for %s in [%d] ms", operationCount, configFile, System.currentTimeMillis() - start);
+                return operations;
+            } finally {
+                StreamUtils.safeClose(input);
+            }
+        } catch (Exception e) {
+            ROOT_LOGGER.debugf(e, "Ignoring boot operation cache %s", cacheFile);
+            return null;
+        }
+    }
+
+    /**
+     * Prepare the cache for the operations parsed from the given configuration file. The operations are serialized
+     * immediately, as they may get modified during execution; the cache file is only written by {@link #store()}.
+     *
+     * @param configFile the configuration file
+     * @param content the content of the configuration file the operations were parsed from
+     * @param rootParser the type of the root parser
+     * @param operations the parsed boot operations
+     */
+    void prepare(final File configFile, final byte[] content, final Class<?> rootParser, final List<ModelNode> operations) {
+        pending = null;
+        try {
+            final String rootFingerprint = fingerprint(rootParser);
+            final Map<String, String> fingerprints = extensionXml.getFingerprints(getExtensionModules(operations));
+            if (rootFingerprint == null || fingerprints.containsValue(null)) {
+                return;
+            }
+            final ExposedByteArrayOutputStream bytes = new ExposedByteArrayOutputStream(operations.size() * 256);
+            final DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeUTF(configFile.getAbsolutePath());
+            output.writeUTF(hash(content));
+            output.writeUTF(rootFingerprint);
+            output.writeInt(fingerprints.size());
+            for (final Map.Entry<String, String> entry : fingerprints.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeUTF(entry.getValue());
+            }
+            output.writeInt(operations.size());
+            for (final ModelNode operation : operations) {
+                operation.writeExternal(output);
+            }
+            output.close();
+            pending = bytes.toByteArray();
+        } catch (Exception e) {
+            ROOT_LOGGER.debugf(e, "Cannot cache boot operations for %s", configFile);
+        }
+    }
+
+    /**
+     * Write the operations prepared during this boot to the cache file, if any.
+     */
+    void store() {
+        final byte[] bytes = pending;
+        if (bytes == null) {
+            return;
+        }
+        pending = null;
+        final File tempFile = FilePersistenceUtils.createTempFile(cacheFile);
+        try {
+            final BufferedOutputStream output = new BufferedOutputStream(new FileOutputStream(tempFile));
+            try {
+                output.write(bytes);
+                output.close();
+            } finally {
+                StreamUtils.safeClose(output);
+            }
+            FilePersistenceUtils.moveTempFileToMain(tempFile, cacheFile);
+        } catch (Exception e) {
+            ROOT_LOGGER.failedToStoreBootOperationCache(e, cacheFile);
+        }
+    }
+
+    /**
+     * Get a fingerprint of the code source of the given type, consisting of the location, size and modification
+     * time of the file containing it.
+     *
+     * @param type the type
+     * @return the fingerprint, or {@code null} if the code source is not a file
+     */
+    public static String fingerprint(final Class<?> type) {
+        final ProtectionDomain domain = WildFlySecurityManager.isChecking()
+                ? AccessController.doPrivileged(new PrivilegedAction<ProtectionDomain>() {
+                    @Override
+                    public ProtectionDomain run() {
+                        return type.getProtectionDomain();
+                    }
+                }) : type.getProtectionDomain();
+        final CodeSource codeSource = domain == null ? null : domain.getCodeSource();
+        final URL location = codeSource == null ? null : codeSource.getLocation();
+        if (location == null || !"file".equals(location.getProtocol())) {
+            return null;
+        }
+        try {
+            final File file = new File(location.toURI());
+            return file.getAbsolutePath() + ':' + file.length() + ':' + file.lastModified();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Set<String> getExtensionModules(final List<ModelNode> operations) {
+        final Set<String> modules = new LinkedHashSet<String>();
+        for (final ModelNode operation : operations) {
+            if (ADD.equals(operation.get(OP).asString()) && operation.hasDefined(OP_ADDR)) {
+                final List<Property> address = operation.get(OP_ADDR).asPropertyList();
+                if (address.size() == 1 && EXTENSION.equals(address.get(0).getName())) {
+                    modules.add(address.get(0).getValue().asString());
+                }
+            }
+        }
+        return Collections.unmodifiableSet(modules);
+    }
+
+    private static String hash(final byte[] content) throws NoSuchAlgorithmException {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        final byte[] hash = digest.digest(content);
+        final StringBuilder builder = new StringBuilder(hash.length * 2);
+        for (final byte b : hash) {
+            builder.append(Character.forDigit((b >> 4) & 0xf, 16));
+            builder.append(Character.forDigit(b & 0xf, 16));
+        }
+        return builder.toString();
+    }
+}
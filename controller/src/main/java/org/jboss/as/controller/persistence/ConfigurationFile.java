@@ -51,6 +51,8 @@ public class ConfigurationFile {
     private static final String INITIAL_SUFFIX = INITIAL + ".xml";
     private static final String ORIGINAL_SUFFIX = BOOT + ".xml";
 
+    private static final String BOOT_OPERATION_CACHE = "boot-operations.dmr";
+
     private static final int CURRENT_HISTORY_LENGTH = 100;
     private static final int HISTORY_DAYS = 30;
     private static final String CURRENT_HISTORY_LENGTH_PROPERTY = "jboss.config.current-history-length";
@@ -171,6 +173,14 @@ public class ConfigurationFile {
         return bootFile;
     }
 
+    /**
+     * Gets the file in which the boot operations parsed from the configuration are cached.
+     * @return the file. Will not be {@code null}
+     */
+    public File getBootOperationCacheFile() {
+        return new File(historyRoot, BOOT_OPERATION_CACHE);
+    }
+
     /**
      * Given {@code name}, determine the intended main configuration file. Handles special cases, including
      * "last", "initial", "boot", "v1", and, if persistence to the original file is not supported, absolute paths.
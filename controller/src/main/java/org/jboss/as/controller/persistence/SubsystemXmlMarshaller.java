@@ -0,0 +1,377 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+
+/**
+ * Marshals the subsystems of a configuration document, running the subsystem writers in parallel.
+ * <p>
+ * Each subsystem writer writes to its own recording writer, and the recorded events are replayed in order on the
+ * writer of the document, so the formatting and the namespace handling stay with the document writer. The events of
+ * a subsystem are reused as long as the model of the subsystem and its writer do not change.
+ */
+public final class SubsystemXmlMarshaller {
+
+    private final ExecutorService executorService;
+    private volatile Map<String, Map<String, Fragment>> cache = Collections.emptyMap();
+
+    /**
+     * Creates a new marshaller.
+     *
+     * @param executorService the executor running the subsystem writers, or {@code null} to run them on the calling thread
+     */
+    public SubsystemXmlMarshaller(final ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    /**
+     * Runs the writers of the given subsystems. The writer must not be used until this method returns.
+     *
+     * @param writer     the writer of the document the subsystems will be written to
+     * @param subsystems the {@code subsystem} model nodes keyed by the name of their scope, e.g. the profile name
+     * @param context    the marshalling context providing the subsystem writers
+     * @return the marshalled subsystems
+     * @throws XMLStreamException if a subsystem writer fails
+     */
+    public MarshalledSubsystems marshal(final XMLExtendedStreamWriter writer, final Map<String, ModelNode> subsystems,
+                                        final ModelMarshallingContext context) throws XMLStreamException {
+
+        final String defaultNamespace = writer.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
+        final Map<String, Map<String, Fragment>> previous = cache;
+        final Map<String, Map<String, Fragment>> result = new LinkedHashMap<String, Map<String, Fragment>>();
+        // Writers are not required to be thread safe, so the scopes using a writer are recorded by a single task
+        final Map<XMLElementWriter<SubsystemMarshallingContext>, List<Fragment>> pending = new LinkedHashMap<XMLElementWriter<SubsystemMarshallingContext>, List<Fragment>>();
+        final Object lock = new Object();
+
+        for (final Map.Entry<String, ModelNode> scope : subsystems.entrySet()) {
+            final Map<String, Fragment> fragments = new LinkedHashMap<String, Fragment>();
+            final Map<String, Fragment> cached = previous.containsKey(scope.getKey()) ? previous.get(scope.getKey()) : Collections.<String, Fragment>emptyMap();
+            final ModelNode scopeNode = scope.getValue();
+            if (scopeNode.isDefined()) {
+                for (final String subsystemName : scopeNode.keys()) {
+                    final XMLElementWriter<SubsystemMarshallingContext> subsystemWriter = context.getSubsystemWriter(subsystemName);
+                    if (subsystemWriter == null) { // FIXME -- remove when extensions are doing the registration
+                        continue;
+                    }
+                    final ModelNode model = scopeNode.get(subsystemName);
+                    final Fragment existing = cached.get(subsystemName);
+                    if (existing != null && existing.isValid(subsystemWriter, model, defaultNamespace)) {
+                        fragments.put(subsystemName, existing);
+                    } else {
+                        final Fragment fragment = new Fragment(subsystemName, subsystemWriter, model.clone(), defaultNamespace);
+                        List<Fragment> writerFragments = pending.get(subsystemWriter);
+                        if (writerFragments == null) {
+                            writerFragments = new ArrayList<Fragment>();
+                            pending.put(subsystemWriter, writerFragments);
+                        }
+                        writerFragments.add(fragment);
+                        fragments.put(subsystemName, fragment);
+                    }
+                }
+            }
+            result.put(scope.getKey(), fragments);
+        }
+
+        if (executorService != null && pending.size() > 1) {
+            final Map<String, Future<Void>> futures = new LinkedHashMap<String, Future<Void>>();
+            for (final List<Fragment> writerFragments : pending.values()) {
+                futures.put(writerFragments.get(0).subsystemName, executorService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws XMLStreamException {
+                        record(writer, lock, writerFragments);
+                        return null;
+                    }
+                }));
+            }
+            for (final Map.Entry<String, Future<Void>> future : futures.entrySet()) {
+                try {
+                    future.getValue().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw ControllerLogger.ROOT_LOGGER.subsystemMarshallingInterrupted(future.getKey());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof XMLStreamException) {
+                        throw (XMLStreamException) e.getCause();
+                    }
+                    throw ControllerLogger.ROOT_LOGGER.failedToMarshalSubsystem(e.getCause(), future.getKey());
+                }
+            }
+        } else {
+            for (final List<Fragment> writerFragments : pending.values()) {
+                record(writer, lock, writerFragments);
+            }
+        }
+        cache = result;
+        return new MarshalledSubsystems(result);
+    }
+
+    private static void record(final XMLExtendedStreamWriter target, final Object lock, final List<Fragment> fragments) throws XMLStreamException {
+        for (final Fragment fragment : fragments) {
+            final Recorder recorder = new Recorder(target, lock);
+            final XMLExtendedStreamWriter writer = (XMLExtendedStreamWriter) Proxy.newProxyInstance(XMLExtendedStreamWriter.class.getClassLoader(),
+                    new Class<?>[] {XMLExtendedStreamWriter.class}, recorder);
+            fragment.writer.writeContent(writer, new SubsystemMarshallingContext(fragment.model, writer));
+            fragment.events = Collections.unmodifiableList(recorder.events);
+        }
+    }
+
+    /**
+     * The subsystems marshalled by {@link #marshal(XMLExtendedStreamWriter, Map, ModelMarshallingContext)}.
+     */
+    public static final class MarshalledSubsystems {
+
+        private final Map<String, Map<String, Fragment>> fragments;
+
+        private MarshalledSubsystems(final Map<String, Map<String, Fragment>> fragments) {
+            this.fragments = fragments;
+        }
+
+        /**
+         * Writes the subsystems of a scope.
+         *
+         * @param writer the writer
+         * @param scope  the name of the scope
+         * @throws XMLStreamException if the subsystems cannot be written
+         */
+        public void write(final XMLExtendedStreamWriter writer, final String scope) throws XMLStreamException {
+            final Map<String, Fragment> scopeFragments = fragments.get(scope);
+            if (scopeFragments == null || scopeFragments.isEmpty()) {
+                return;
+            }
+            final String defaultNamespace = writer.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
+            for (final Fragment fragment : scopeFragments.values()) {
+                try {
+                    for (final Event event : fragment.events) {
+                        event.replay(writer);
+                    }
+                } finally {
+                    writer.setDefaultNamespace(defaultNamespace);
+                }
+            }
+        }
+    }
+
+    private static final class Fragment {
+        private final String subsystemName;
+        private final XMLElementWriter<SubsystemMarshallingContext> writer;
+        private final ModelNode model;
+        private final String defaultNamespace;
+        private volatile List<Event> events;
+
+        private Fragment(final String subsystemName, final XMLElementWriter<SubsystemMarshallingContext> writer, final ModelNode model,
+                         final String defaultNamespace) {
+            this.subsystemName = subsystemName;
+            this.writer = writer;
+            this.model = model;
+            this.defaultNamespace = defaultNamespace;
+        }
+
+        boolean isValid(final XMLElementWriter<SubsystemMarshallingContext> writer, final ModelNode model, final String defaultNamespace) {
+            return events != null && this.writer == writer
+                    && (this.defaultNamespace == null ? defaultNamespace == null : this.defaultNamespace.equals(defaultNamespace))
+                    && this.model.equals(model);
+        }
+    }
+
+    private static final class Event {
+        private final Method method;
+        private final Object[] args;
+
+        private Event(final Method method, final Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+
+        void replay(final XMLExtendedStreamWriter writer) throws XMLStreamException {
+            try {
+                method.invoke(writer, args);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof XMLStreamException) {
+                    throw (XMLStreamException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new XMLStreamException(cause);
+            }
+        }
+    }
+
+    /**
+     * Records the calls to a writer. Queries are answered from the namespaces bound by the recorded calls, and
+     * otherwise from the document writer, which is idle while the subsystems are recorded.
+     */
+    private static final class Recorder implements InvocationHandler, NamespaceContext {
+
+        private final XMLExtendedStreamWriter target;
+        private final Object lock;
+        private final List<Event> events = new ArrayList<Event>();
+        private final Deque<Map<String, String>> bindings = new ArrayDeque<Map<String, String>>();
+
+        private Recorder(final XMLExtendedStreamWriter target, final Object lock) {
+            this.target = target;
+            this.lock = lock;
+            bindings.push(new HashMap<String, String>());
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String name = method.getName();
+            if (method.getDeclaringClass() == Object.class) {
+                if ("equals".equals(name)) {
+                    return proxy == args[0];
+                } else if ("hashCode".equals(name)) {
+                    return System.identityHashCode(proxy);
+                }
+                return "Recording" + XMLExtendedStreamWriter.class.getSimpleName();
+            }
+            switch (name) {
+                case "getNamespaceContext":
+                    return this;
+                case "getPrefix":
+                    return getPrefix((String) args[0]);
+                case "getProperty":
+                    synchronized (lock) {
+                        return target.getProperty((String) args[0]);
+                    }
+                case "flush":
+                case "close":
+                    // The document writer is flushed and closed by its owner
+                    return null;
+                case "setDefaultNamespace":
+                    bindings.peek().put(XMLConstants.DEFAULT_NS_PREFIX, (String) args[0]);
+                    break;
+                case "setPrefix":
+                    bindings.peek().put((String) args[0], (String) args[1]);
+                    break;
+                case "writeStartElement":
+                    bindings.push(new HashMap<String, String>());
+                    break;
+                case "writeEndElement":
+                    if (bindings.size() > 1) {
+                        bindings.pop();
+                    }
+                    break;
+                default:
+                    break;
+            }
+            events.add(new Event(method, copy(args)));
+            return null;
+        }
+
+        @Override
+        public String getNamespaceURI(final String prefix) {
+            for (final Map<String, String> scope : bindings) {
+                if (scope.containsKey(prefix)) {
+                    return scope.get(prefix);
+                }
+            }
+            synchronized (lock) {
+                return target.getNamespaceContext().getNamespaceURI(prefix);
+            }
+        }
+
+        @Override
+        public String getPrefix(final String namespaceURI) {
+            for (final Map<String, String> scope : bindings) {
+                for (final Map.Entry<String, String> binding : scope.entrySet()) {
+                    if (namespaceURI.equals(binding.getValue())) {
+                        return binding.getKey();
+                    }
+                }
+            }
+            synchronized (lock) {
+                return target.getNamespaceContext().getPrefix(namespaceURI);
+            }
+        }
+
+        @Override
+        public Iterator<?> getPrefixes(final String namespaceURI) {
+            final List<Object> prefixes = new ArrayList<Object>();
+            for (final Map<String, String> scope : bindings) {
+                for (final Map.Entry<String, String> binding : scope.entrySet()) {
+                    if (namespaceURI.equals(binding.getValue())) {
+                        prefixes.add(binding.getKey());
+                    }
+                }
+            }
+            synchronized (lock) {
+                final Iterator<?> parent = target.getNamespaceContext().getPrefixes(namespaceURI);
+                while (parent.hasNext()) {
+                    prefixes.add(parent.next());
+                }
+            }
+            return prefixes.iterator();
+        }
+
+        private static Object[] copy(final Object[] args) {
+            if (args == null) {
+                return null;
+            }
+            final Object[] copy = args.clone();
+            for (int i = 0; i < copy.length; i++) {
+                if (copy[i] instanceof char[]) {
+                    copy[i] = ((char[]) copy[i]).clone();
+                } else if (copy[i] instanceof String[]) {
+                    copy[i] = ((String[]) copy[i]).clone();
+                } else if (copy[i] instanceof Iterable) {
+                    final List<Object> values = new ArrayList<Object>();
+                    for (final Object value : (Iterable<?>) copy[i]) {
+                        values.add(value);
+                    }
+                    copy[i] = values;
+                }
+            }
+            return copy;
+        }
+    }
+}
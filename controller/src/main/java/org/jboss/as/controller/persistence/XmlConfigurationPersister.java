@@ -25,9 +25,12 @@ package org.jboss.as.controller.persistence;
 import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -56,6 +59,7 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
     private final QName rootElement;
     private final XMLElementReader<List<ModelNode>> rootParser;
     private final Map<QName, XMLElementReader<List<ModelNode>>> additionalParsers;
+    private volatile BootOperationCache bootOperationCache;
 
     /**
      * Construct a new instance.
@@ -79,6 +83,16 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         }
     }
 
+    /**
+     * Use a cache of the parsed boot operations, which is used instead of parsing the configuration file when it
+     * is still valid and is updated after a {@link #successfulBoot() successful boot}.
+     *
+     * @param bootOperationCache the cache, or {@code null} to always parse the configuration file
+     */
+    public void setBootOperationCache(final BootOperationCache bootOperationCache) {
+        this.bootOperationCache = bootOperationCache;
+    }
+
     /** {@inheritDoc} */
     @Override
     public PersistenceResource store(final ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
@@ -95,25 +109,50 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
                 mapper.registerRootElement(entry.getKey(), entry.getValue());
             }
         }
-        final List<ModelNode> updates = new ArrayList<ModelNode>();
-        try {
-            final FileInputStream fis = new FileInputStream(fileName);
+        final BootOperationCache cache = bootOperationCache;
+        if (cache == null) {
+            final List<ModelNode> updates = new ArrayList<ModelNode>();
             try {
-                BufferedInputStream input = new BufferedInputStream(fis);
-                XMLStreamReader streamReader = XMLInputFactory.newInstance().createXMLStreamReader(input);
-                mapper.parseDocument(updates, streamReader);
-                streamReader.close();
-                input.close();
-                fis.close();
-            } finally {
-                safeClose(fis);
+                final FileInputStream fis = new FileInputStream(fileName);
+                try {
+                    parse(mapper, new BufferedInputStream(fis), updates);
+                    fis.close();
+                } finally {
+                    safeClose(fis);
+                }
+            } catch (Exception e) {
+                throw ControllerLogger.ROOT_LOGGER.failedToParseConfiguration(e);
             }
+            return updates;
+        }
+
+        final byte[] content;
+        try {
+            content = Files.readAllBytes(fileName.toPath());
+        } catch (Exception e) {
+            throw ControllerLogger.ROOT_LOGGER.failedToParseConfiguration(e);
+        }
+        final List<ModelNode> cached = cache.load(fileName, content, rootParser.getClass(), mapper);
+        if (cached != null) {
+            return cached;
+        }
+        final List<ModelNode> updates = new ArrayList<ModelNode>();
+        try {
+            parse(mapper, new ByteArrayInputStream(content), updates);
         } catch (Exception e) {
             throw ControllerLogger.ROOT_LOGGER.failedToParseConfiguration(e);
         }
+        cache.prepare(fileName, content, rootParser.getClass(), updates);
         return updates;
     }
 
+    private static void parse(final XMLMapper mapper, final InputStream input, final List<ModelNode> updates) throws Exception {
+        XMLStreamReader streamReader = XMLInputFactory.newInstance().createXMLStreamReader(input);
+        mapper.parseDocument(updates, streamReader);
+        streamReader.close();
+        input.close();
+    }
+
     private static void safeClose(final Closeable closeable) {
         if (closeable != null) try {
             closeable.close();
@@ -126,6 +165,14 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
 
     }
 
+    @Override
+    public void successfulBoot() throws ConfigurationPersistenceException {
+        final BootOperationCache cache = bootOperationCache;
+        if (cache != null) {
+            cache.store();
+        }
+    }
+
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
         return "";
@@ -31,6 +31,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jboss.as.controller.OperationDefinition;
 import org.jboss.as.controller.OperationStepHandler;
@@ -56,16 +57,21 @@ import org.jboss.dmr.ModelNode;
 @SuppressWarnings("deprecation")
 abstract class AbstractResourceRegistration implements ManagementResourceRegistration {
 
+    private static final int MAX_CACHED_OPERATION_ENTRIES = 4096;
+
     private final String valueString;
     private final NodeSubregistry parent;
     private final PathAddress pathAddress;
     private RootInvocation rootInvocation;
+    /** Resolved operation entries by address and operation name, only used by the root registration */
+    private volatile Map<OperationKey, OperationEntry> operationEntries;
 
     AbstractResourceRegistration(final String valueString, final NodeSubregistry parent) {
         checkPermission();
         this.valueString = valueString;
         this.parent = parent;
         this.pathAddress = parent == null ? PathAddress.EMPTY_ADDRESS : parent.getPathAddress(valueString);
+        this.operationEntries = parent == null ? createOperationEntryCache() : null;
     }
 
     static void checkPermission() {
@@ -196,17 +202,45 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
         }
         // else we are the root
 
+        // the cache is replaced on every change of the registry, so a lookup racing with a change can at worst
+        // populate a cache which is already discarded
+        final Map<OperationKey, OperationEntry> cache = operationEntries;
+        final OperationKey key = new OperationKey(pathAddress, operationName);
+        OperationEntry result = cache.get(key);
+        if (result != null) {
+            checkPermission();
+            return result;
+        }
         OperationEntry inheritable = getInheritableOperationEntry(operationName);
-        OperationEntry result =  getOperationEntry(pathAddress.iterator(), operationName, inheritable);
+        result =  getOperationEntry(pathAddress.iterator(), operationName, inheritable);
         NodeSubregistry ancestorSubregistry = parent;
         while (result == null && ancestorSubregistry != null) {
             AbstractResourceRegistration ancestor = ancestorSubregistry.getParent();
             result = ancestor.getInheritableOperationEntry(operationName);
             ancestorSubregistry = ancestor.parent;
         }
+        if (result != null && cache.size() < MAX_CACHED_OPERATION_ENTRIES) {
+            cache.put(key, result);
+        }
         return result;
     }
 
+    /**
+     * Discard the resolved operation entries cached by the root registration. Must be called whenever operations
+     * or child registrations are added or removed.
+     */
+    void registryChanged() {
+        getRootResourceRegistration().operationEntries = createOperationEntryCache();
+    }
+
+    /**
+     * Create the cache of resolved operation entries. Reads don't lock; once the cache is full no further entries
+     * are added until the registry changes, which bounds its size however many distinct addresses are looked up.
+     */
+    private static Map<OperationKey, OperationEntry> createOperationEntryCache() {
+        return new ConcurrentHashMap<OperationKey, OperationEntry>(64);
+    }
+
     abstract OperationEntry getOperationEntry(ListIterator<PathElement> iterator, String operationName, OperationEntry inherited);
     abstract OperationEntry getInheritableOperationEntry(String operationName);
 
@@ -514,6 +548,30 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
         return pathAddress;
     }
 
+    private static final class OperationKey {
+        private final PathAddress address;
+        private final String operationName;
+
+        private OperationKey(final PathAddress address, final String operationName) {
+            this.address = address;
+            this.operationName = operationName;
+        }
+
+        @Override
+        public int hashCode() {
+            return address.hashCode() * 31 + operationName.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof OperationKey)) {
+                return false;
+            }
+            final OperationKey other = (OperationKey) obj;
+            return operationName.equals(other.operationName) && address.equals(other.address);
+        }
+    }
+
     private static class RootInvocation {
         final AbstractResourceRegistration root;
         final PathAddress pathAddress;
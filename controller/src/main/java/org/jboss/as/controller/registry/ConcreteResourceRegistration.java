@@ -173,6 +173,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 definition.getFlags(), definition.getAccessConstraints())) != null) {
             throw alreadyRegistered("operation handler", definition.getName());
         }
+        registryChanged();
         registerOperationAccessConstraints(definition);
     }
 
@@ -253,6 +254,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, descriptionProvider, inherited, entryType)) != null) {
             throw alreadyRegistered("operation handler", operationName);
         }
+        registryChanged();
     }
 
     @Override
@@ -261,6 +263,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, descriptionProvider, inherited, entryType, flags, null)) != null) {
             throw alreadyRegistered("operation handler", operationName);
         }
+        registryChanged();
     }
 
     @Override
@@ -269,6 +272,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (operationsUpdater.remove(this, operationName) == null) {
             throw operationNotRegisteredException(operationName, resourceDefinition.getPathElement());
         }
+        registryChanged();
     }
 
     @Override
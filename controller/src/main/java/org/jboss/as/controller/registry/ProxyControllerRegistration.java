@@ -138,6 +138,7 @@ final class ProxyControllerRegistration extends AbstractResourceRegistration imp
         if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, descriptionProvider, inherited, entryType)) != null) {
             throw alreadyRegistered("operation handler", operationName);
         }
+        registryChanged();
     }
 
     @Override
@@ -145,6 +146,7 @@ final class ProxyControllerRegistration extends AbstractResourceRegistration imp
         if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, descriptionProvider, inherited, entryType, flags, null)) != null) {
             throw alreadyRegistered("operation handler", operationName);
         }
+        registryChanged();
     }
 
     @Override
@@ -153,6 +155,7 @@ final class ProxyControllerRegistration extends AbstractResourceRegistration imp
                 inherited, definition.getEntryType(), definition.getFlags(), definition.getAccessConstraints())) != null) {
             throw alreadyRegistered("operation handler", definition.getName());
         }
+        registryChanged();
     }
 
     @Override
@@ -160,6 +163,7 @@ final class ProxyControllerRegistration extends AbstractResourceRegistration imp
         if (operationsUpdater.remove(this, operationName) == null) {
             throw operationNotRegisteredException(operationName, proxyController.getProxyNodeAddress().getLastElement());
         }
+        registryChanged();
     }
 
     @Override
@@ -44,6 +44,7 @@ import java.io.DataInput;
 import java.io.IOException;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
@@ -56,10 +57,12 @@ import javax.security.auth.Subject;
 
 import org.jboss.as.controller.AccessAuditContext;
 import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.OperationFlagsProvider;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
 import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.core.security.AccessMechanism;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
@@ -94,6 +97,7 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
 
     private final ManagementChannelAssociation channelAssociation;
     private final Executor clientRequestExecutor;
+    private final Executor readOnlyRequestExecutor;
     private final Subject subject;
     private final ResponseAttachmentInputStreamSupport responseAttachmentSupport;
 
@@ -107,6 +111,23 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
                                                  final ManagementChannelAssociation channelAssociation,
                                                  final ResponseAttachmentInputStreamSupport responseAttachmentSupport,
                                                  final Subject subject) {
+        this(controller, channelAssociation, responseAttachmentSupport, subject, null);
+    }
+
+    /**
+     * Create a handler executing read-only requests on the given executor, so pipelined reads are not queued behind
+     * writes waiting for the controller lock.
+     *
+     * @param controller the model controller
+     * @param channelAssociation the channel association
+     * @param responseAttachmentSupport the response attachment support
+     * @param subject the subject
+     * @param readOnlyRequestExecutor the executor for read-only requests, or {@code null} to execute them like any other request
+     */
+    public ModelControllerClientOperationHandler(final ModelController controller,
+                                                 final ManagementChannelAssociation channelAssociation,
+                                                 final ResponseAttachmentInputStreamSupport responseAttachmentSupport,
+                                                 final Subject subject, final Executor readOnlyRequestExecutor) {
         this.controller = controller;
         this.channelAssociation = channelAssociation;
         this.responseAttachmentSupport = responseAttachmentSupport;
@@ -120,6 +141,7 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
         // Allow the core threads to time out as well
         executor.allowCoreThreadTimeOut(true);
         this.clientRequestExecutor = executor;
+        this.readOnlyRequestExecutor = readOnlyRequestExecutor;
     }
 
     @Override
@@ -174,7 +196,7 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
                         throw e.getException();
                     }
                 }
-            }, clientRequestExecutor);
+            }, readOnlyRequestExecutor != null && isReadOnly(operation, attachmentsLength) ? readOnlyRequestExecutor : clientRequestExecutor);
         }
 
         private void doExecute(final ModelNode operation, final int attachmentsLength,
@@ -237,6 +259,30 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
 
     }
 
+    /**
+     * Determine whether an operation only reads the model, so it can be executed concurrently with other read-only
+     * operations without waiting for operations holding the controller lock. An operation is read-only if it was
+     * registered with the {@link OperationEntry.Flag#READ_ONLY} flag.
+     *
+     * @param operation the operation to be executed
+     * @param attachmentsLength the number of input streams attached to the operation
+     * @return {@code true} if the operation is read-only, {@code false} otherwise
+     */
+    private boolean isReadOnly(final ModelNode operation, final int attachmentsLength) {
+        if (attachmentsLength != 0 || !operation.hasDefined(OP) || !(controller instanceof OperationFlagsProvider)) {
+            return false;
+        }
+        final PathAddress address;
+        try {
+            address = operation.hasDefined(OP_ADDR) ? PathAddress.pathAddress(operation.get(OP_ADDR)) : PathAddress.EMPTY_ADDRESS;
+        } catch (IllegalArgumentException e) {
+            // let the controller report the invalid address
+            return false;
+        }
+        final Set<OperationEntry.Flag> flags = ((OperationFlagsProvider) controller).getOperationFlags(address, operation.get(OP).asString());
+        return flags != null && flags.contains(OperationEntry.Flag.READ_ONLY);
+    }
+
     /**
      * Determine whether the prepared response should be sent, before the operation completed. This is needed in order
      * that operations like :reload() can be executed without causing communication failures.
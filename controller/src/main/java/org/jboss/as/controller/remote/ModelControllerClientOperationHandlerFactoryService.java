@@ -49,7 +49,7 @@ public class ModelControllerClientOperationHandlerFactoryService extends Abstrac
             subject = new Subject();
         }
 
-        handler.addHandlerFactory(new ModelControllerClientOperationHandler(getController(), handler, getResponseAttachmentSupport(), subject));
+        handler.addHandlerFactory(new ModelControllerClientOperationHandler(getController(), handler, getResponseAttachmentSupport(), subject, getExecutor()));
 
         channel.receiveMessage(handler.getReceiver());
         return handler;
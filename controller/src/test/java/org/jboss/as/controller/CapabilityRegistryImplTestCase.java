@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.capability.registry.CapabilityContext;
+import org.jboss.as.controller.capability.registry.CapabilityId;
+import org.jboss.as.controller.capability.registry.RegistrationPoint;
+import org.jboss.as.controller.capability.registry.RuntimeCapabilityRegistration;
+import org.jboss.as.controller.capability.registry.RuntimeRequirementRegistration;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the copy on write {@link ModelControllerImpl.CapabilityRegistryImpl}.
+ */
+public class CapabilityRegistryImplTestCase {
+
+    private static final PathAddress A = PathAddress.pathAddress("subsystem", "a");
+    private static final PathAddress B = PathAddress.pathAddress("subsystem", "b");
+
+    @Test
+    public void testCopyIsolated() {
+        final ModelControllerImpl.CapabilityRegistryImpl original = new ModelControllerImpl.CapabilityRegistryImpl(true);
+        original.registerCapability(registration(new RuntimeCapability<>("test", "api"), A));
+        original.published();
+
+        final ModelControllerImpl.CapabilityRegistryImpl copy = original.copy();
+        copy.registerCapability(registration(new RuntimeCapability<>("test", "api"), B));
+        Assert.assertNull(copy.removeCapability("test", CapabilityContext.GLOBAL, A));
+        copy.registerCapability(registration(new RuntimeCapability<>("other", "api"), A));
+
+        // The original still has its single registration point and does not see the new capability
+        Assert.assertNotNull(original.removeCapability("test", CapabilityContext.GLOBAL, A));
+        Assert.assertFalse(original.hasCapability("other", CapabilityContext.GLOBAL));
+        Assert.assertTrue(copy.hasCapability("test", CapabilityContext.GLOBAL));
+        Assert.assertEquals("api", copy.getCapabilityRuntimeAPI("other", CapabilityContext.GLOBAL, String.class));
+    }
+
+    @Test
+    public void testMissingRequirementAdded() {
+        final ModelControllerImpl.CapabilityRegistryImpl registry = new ModelControllerImpl.CapabilityRegistryImpl(true);
+        registry.registerCapability(registration(new RuntimeCapability<>("dependent", null, "required"), A));
+
+        final Map<CapabilityId, Set<RuntimeRequirementRegistration>> missing = registry.getMissingRequirements();
+        Assert.assertEquals(1, missing.size());
+        Assert.assertTrue(missing.containsKey(new CapabilityId("required", CapabilityContext.GLOBAL)));
+
+        registry.registerCapability(registration(new RuntimeCapability<>("required", null), B));
+        Assert.assertTrue(registry.getMissingRequirements().isEmpty());
+    }
+
+    @Test
+    public void testMissingRequirementRemoved() {
+        final ModelControllerImpl.CapabilityRegistryImpl registry = new ModelControllerImpl.CapabilityRegistryImpl(true);
+        registry.registerCapability(registration(new RuntimeCapability<>("required", null), B));
+        registry.registerCapability(registration(new RuntimeCapability<>("dependent", null, "required"), A));
+        Assert.assertTrue(registry.getMissingRequirements().isEmpty());
+        registry.published();
+
+        final ModelControllerImpl.CapabilityRegistryImpl copy = registry.copy();
+        Assert.assertTrue(copy.getMissingRequirements().isEmpty());
+        Assert.assertNotNull(copy.removeCapability("required", CapabilityContext.GLOBAL, B));
+        final Map<CapabilityId, Set<RuntimeRequirementRegistration>> missing = copy.getMissingRequirements();
+        Assert.assertEquals(1, missing.size());
+        Assert.assertTrue(missing.containsKey(new CapabilityId("required", CapabilityContext.GLOBAL)));
+        Assert.assertTrue(registry.getMissingRequirements().isEmpty());
+        Assert.assertTrue(registry.hasCapability("required", CapabilityContext.GLOBAL));
+    }
+
+    private static RuntimeCapabilityRegistration registration(final RuntimeCapability<?> capability, final PathAddress address) {
+        return new RuntimeCapabilityRegistration(capability, CapabilityContext.GLOBAL, new RegistrationPoint(address, null));
+    }
+}
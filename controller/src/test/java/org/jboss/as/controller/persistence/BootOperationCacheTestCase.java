@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.parsing.ExtensionXml;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link BootOperationCache}.
+ */
+public class BootOperationCacheTestCase {
+
+    private static final QName ROOT = new QName("urn:test:boot-cache", "root");
+
+    private File dir;
+    private File configFile;
+    private File cacheFile;
+
+    @Before
+    public void setup() throws Exception {
+        dir = new File("target", "boot-operation-cache-test");
+        dir.mkdirs();
+        configFile = new File(dir, "test.xml");
+        cacheFile = new File(dir, "boot-operations.dmr");
+        cacheFile.delete();
+        writeConfig("one");
+    }
+
+    @After
+    public void cleanup() {
+        configFile.delete();
+        cacheFile.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void testCachedOperationsUsed() throws Exception {
+        final TestParser parser = new TestParser();
+        final List<ModelNode> parsed = createPersister(parser).load();
+        Assert.assertEquals(1, parser.count.get());
+        Assert.assertFalse(cacheFile.exists());
+
+        XmlConfigurationPersister persister = createPersister(parser);
+        persister.load();
+        Assert.assertEquals(2, parser.count.get());
+        persister.successfulBoot();
+        Assert.assertTrue(cacheFile.exists());
+
+        final List<ModelNode> cached = createPersister(parser).load();
+        Assert.assertEquals(2, parser.count.get());
+        Assert.assertEquals(parsed, cached);
+    }
+
+    @Test
+    public void testChangedConfigurationParsed() throws Exception {
+        final TestParser parser = new TestParser();
+        XmlConfigurationPersister persister = createPersister(parser);
+        persister.load();
+        persister.successfulBoot();
+        Assert.assertEquals(1, parser.count.get());
+
+        writeConfig("two");
+        final List<ModelNode> operations = createPersister(parser).load();
+        Assert.assertEquals(2, parser.count.get());
+        Assert.assertEquals("two", operations.get(0).get("value").asString());
+    }
+
+    private XmlConfigurationPersister createPersister(final TestParser parser) {
+        final XmlConfigurationPersister persister = new XmlConfigurationPersister(configFile, ROOT, parser, null);
+        persister.setBootOperationCache(new BootOperationCache(cacheFile, new ExtensionXml(null, null, null)));
+        return persister;
+    }
+
+    private void writeConfig(final String value) throws IOException {
+        final FileWriter writer = new FileWriter(configFile);
+        try {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<root xmlns=\"urn:test:boot-cache\" value=\"" + value + "\"/>\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static class TestParser implements XMLElementReader<List<ModelNode>> {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void readElement(final XMLExtendedStreamReader reader, final List<ModelNode> value) throws XMLStreamException {
+            count.incrementAndGet();
+            final ModelNode operation = new ModelNode();
+            operation.get("operation").set("test");
+            operation.get("address").setEmptyList();
+            operation.get("value").set(reader.getAttributeValue(null, "value"));
+            value.add(operation);
+            reader.nextTag();
+        }
+    }
+}
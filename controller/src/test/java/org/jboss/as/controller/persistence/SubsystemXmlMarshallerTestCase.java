@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.jboss.staxmapper.XMLMapper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link SubsystemXmlMarshaller}.
+ */
+public class SubsystemXmlMarshallerTestCase {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws Exception {
+        final ModelNode model = createModel("value");
+        final String sequential = marshal(new SubsystemXmlMarshaller(null), model, createWriters(null));
+        final String parallel = marshal(new SubsystemXmlMarshaller(executor), model, createWriters(null));
+        Assert.assertEquals(sequential, parallel);
+        Assert.assertTrue(parallel, parallel.indexOf("urn:test:one") < parallel.indexOf("urn:test:two"));
+        Assert.assertTrue(parallel, parallel.contains("name=\"b\""));
+    }
+
+    @Test
+    public void testUnchangedSubsystemsReused() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final Map<String, XMLElementWriter<SubsystemMarshallingContext>> writers = createWriters(count);
+        final SubsystemXmlMarshaller marshaller = new SubsystemXmlMarshaller(executor);
+
+        final String first = marshal(marshaller, createModel("value"), writers);
+        Assert.assertEquals(4, count.get());
+        Assert.assertEquals(first, marshal(marshaller, createModel("value"), writers));
+        Assert.assertEquals(4, count.get());
+
+        final ModelNode changed = createModel("value");
+        changed.get("b", "one", "attr").set("changed");
+        final String second = marshal(marshaller, changed, writers);
+        Assert.assertEquals(5, count.get());
+        Assert.assertTrue(second, second.contains("changed"));
+    }
+
+    private static ModelNode createModel(final String value) {
+        final ModelNode model = new ModelNode();
+        for (final String scope : new String[] {"a", "b"}) {
+            model.get(scope, "one", "attr").set(value);
+            model.get(scope, "two", "attr").set(value);
+        }
+        return model;
+    }
+
+    private static Map<String, XMLElementWriter<SubsystemMarshallingContext>> createWriters(final AtomicInteger count) {
+        final Map<String, XMLElementWriter<SubsystemMarshallingContext>> writers = new LinkedHashMap<String, XMLElementWriter<SubsystemMarshallingContext>>();
+        for (final String name : new String[] {"one", "two"}) {
+            writers.put(name, new XMLElementWriter<SubsystemMarshallingContext>() {
+                @Override
+                public void writeContent(final XMLExtendedStreamWriter writer, final SubsystemMarshallingContext context) throws XMLStreamException {
+                    if (count != null) {
+                        count.incrementAndGet();
+                    }
+                    context.startSubsystemElement("urn:test:" + name, false);
+                    writer.writeStartElement("setting");
+                    writer.writeAttribute("attr", context.getModelNode().get("attr").asString());
+                    writer.writeEndElement();
+                    writer.writeEndElement();
+                }
+            });
+        }
+        return writers;
+    }
+
+    private static String marshal(final SubsystemXmlMarshaller marshaller, final ModelNode model,
+                                  final Map<String, XMLElementWriter<SubsystemMarshallingContext>> writers) throws Exception {
+        final ModelMarshallingContext context = new ModelMarshallingContext() {
+            @Override
+            public ModelNode getModelNode() {
+                return model;
+            }
+
+            @Override
+            public XMLElementWriter<SubsystemMarshallingContext> getSubsystemWriter(final String subsystemName) {
+                return writers.get(subsystemName);
+            }
+        };
+        final XMLElementWriter<ModelMarshallingContext> rootWriter = new XMLElementWriter<ModelMarshallingContext>() {
+            @Override
+            public void writeContent(final XMLExtendedStreamWriter writer, final ModelMarshallingContext context) throws XMLStreamException {
+                writer.writeStartDocument();
+                writer.setDefaultNamespace("urn:test:root");
+                writer.writeStartElement("root");
+                writer.writeDefaultNamespace("urn:test:root");
+                final Map<String, ModelNode> subsystems = new LinkedHashMap<String, ModelNode>();
+                for (final String scope : context.getModelNode().keys()) {
+                    subsystems.put(scope, context.getModelNode().get(scope));
+                }
+                final SubsystemXmlMarshaller.MarshalledSubsystems marshalled = marshaller.marshal(writer, subsystems, context);
+                for (final String scope : subsystems.keySet()) {
+                    writer.writeStartElement("profile");
+                    writer.writeAttribute("name", scope);
+                    marshalled.write(writer, scope);
+                    writer.writeEndElement();
+                }
+                writer.writeEndElement();
+                writer.writeEndDocument();
+            }
+        };
+        final StringWriter output = new StringWriter();
+        final XMLStreamWriter streamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(output);
+        XMLMapper.Factory.create().deparseDocument(rootWriter, context, streamWriter);
+        streamWriter.close();
+        return output.toString();
+    }
+}
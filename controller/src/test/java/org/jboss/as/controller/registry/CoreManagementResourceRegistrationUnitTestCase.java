@@ -117,6 +117,43 @@ public class CoreManagementResourceRegistrationUnitTestCase {
         assertNull(twoHandler);
     }
 
+    @Test
+    public void testCachedHandlersUpdatedOnRegistryChange() throws Exception {
+
+        ManagementResourceRegistration child = rootRegistration.registerSubModel(new SimpleResourceDefinition(childElement, new NonResolvingResourceDescriptionResolver()));
+        child.registerOperationHandler(getOpDef("one"), TestHandler.ONE);
+        assertSame(TestHandler.ONE, rootRegistration.getOperationHandler(fullChildAddress, "one"));
+
+        child.unregisterOperationHandler("one");
+        assertNull(rootRegistration.getOperationHandler(fullChildAddress, "one"));
+
+        child.registerOperationHandler(getOpDef("one"), TestHandler.TWO);
+        assertSame(TestHandler.TWO, rootRegistration.getOperationHandler(fullChildAddress, "one"));
+
+        ManagementResourceRegistration specific = rootRegistration.registerSubModel(new SimpleResourceDefinition(fullChildElement, new NonResolvingResourceDescriptionResolver()));
+        specific.registerOperationHandler(getOpDef("one"), TestHandler.ONE);
+        assertSame(TestHandler.ONE, rootRegistration.getOperationHandler(fullChildAddress, "one"));
+
+        rootRegistration.unregisterSubModel(fullChildElement);
+        assertSame(TestHandler.TWO, rootRegistration.getOperationHandler(fullChildAddress, "one"));
+    }
+
+    @Test
+    public void testCachedHandlersBeyondCacheSize() throws Exception {
+
+        ManagementResourceRegistration child = rootRegistration.registerSubModel(new SimpleResourceDefinition(childElement, new NonResolvingResourceDescriptionResolver()));
+        child.registerOperationHandler(getOpDef("one"), TestHandler.ONE);
+        // addresses which no longer fit in the cache are still resolved
+        for (int i = 0; i < 10000; i++) {
+            assertSame(TestHandler.ONE, rootRegistration.getOperationHandler(PathAddress.pathAddress(PathElement.pathElement("child", "c" + i)), "one"));
+            assertSame(TestHandler.ONE, rootRegistration.getOperationHandler(fullChildAddress, "one"));
+        }
+        assertNull(rootRegistration.getOperationHandler(fullChildAddress, "two"));
+        // a change of the registry discards the full cache
+        child.registerOperationHandler(getOpDef("two"), TestHandler.TWO);
+        assertSame(TestHandler.TWO, rootRegistration.getOperationHandler(PathAddress.pathAddress(PathElement.pathElement("child", "c9999")), "two"));
+    }
+
     @Test
     public void testHandlerInheritance() throws Exception {
 
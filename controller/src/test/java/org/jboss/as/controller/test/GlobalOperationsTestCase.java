@@ -21,12 +21,14 @@
  */
 package org.jboss.as.controller.test;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES_ONLY;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTE_VALUE_WRITTEN_NOTIFICATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILD_TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_DEFAULTS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INHERITED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.METRICS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NOTIFICATIONS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NOTIFICATION_TYPE;
@@ -37,6 +39,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REA
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_NAMES_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_RESOURCES_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_TYPES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_METRICS_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_OPERATION_DESCRIPTION_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_OPERATION_NAMES_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
@@ -62,6 +65,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.Property;
@@ -270,6 +274,42 @@ public class GlobalOperationsTestCase extends AbstractGlobalOperationsTestCase {
         assertEquals(ModelType.INT, result.getType());
     }
 
+    @Test
+    public void testReadMetrics() throws Exception {
+        final PathAddress subsystem1 = PathAddress.pathAddress("profile", "profileA").append("subsystem", "subsystem1");
+        final PathAddress subsystem2 = PathAddress.pathAddress("profile", "profileA").append("subsystem", "subsystem2");
+        ModelNode operation = createOperation(READ_METRICS_OPERATION);
+        addMetric(operation, subsystem2, "int");
+        addMetric(operation, subsystem1, "metric1");
+        addMetric(operation, subsystem2, "string1");
+
+        ModelNode result = executeForResult(operation);
+        assertNotNull(result);
+        assertEquals(ModelType.LIST, result.getType());
+        List<ModelNode> list = result.asList();
+        assertEquals(3, list.size());
+        assertEquals(102, list.get(0).asInt());
+        assertEquals(ModelType.INT, list.get(1).getType());
+        assertEquals("s1", list.get(2).asString());
+
+        addMetric(operation, subsystem2, "non-existent-attribute");
+        try {
+            executeForResult(operation);
+            fail("Expected error for non-existent attribute");
+        } catch (OperationFailedException expected) {
+        }
+
+        operation = createOperation(READ_METRICS_OPERATION);
+        addMetric(operation, PathAddress.pathAddress("profile", "profileA").append("non-existent", "child"), "int");
+        executeForFailure(operation);
+    }
+
+    private static void addMetric(ModelNode operation, PathAddress address, String name) {
+        final ModelNode metric = operation.get(METRICS).add();
+        metric.get(ADDRESS).set(address.toModelNode());
+        metric.get(NAME).set(name);
+    }
+
     @Test
     public void testWriteAttributeValue() throws Exception {
         ModelNode read = createOperation(READ_ATTRIBUTE_OPERATION, "profile", "profileA", "subsystem", "subsystem2");
@@ -27,8 +27,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -361,6 +364,8 @@ public interface ContentRepository {
                 }
                 Path parent = file.getParent();
                 try {
+                    // remove anything kept next to the content, e.g. the indexes of the deployment's resource roots
+                    deleteChildren(parent);
                     Files.deleteIfExists(parent);
                 } catch (IOException ex) {
                     DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, parent.toString());
@@ -443,6 +448,30 @@ public interface ContentRepository {
                 return localReferences;
             }
 
+            private static void deleteChildren(final Path dir) throws IOException {
+                if (!Files.isDirectory(dir)) {
+                    return;
+                }
+                Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                        Files.delete(file);
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult postVisitDirectory(Path current, IOException exc) throws IOException {
+                        if (exc != null) {
+                            throw exc;
+                        }
+                        if (!current.equals(dir)) {
+                            Files.delete(current);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            }
+
             protected static void safeClose(final Closeable closeable) {
                 if (closeable != null) {
                     try {
@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.repository;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of files transferred to remote repositories concurrently, and records the throughput of the
+ * transfers.
+ * <p>
+ * Transfers exceeding the limit are queued and started once a running transfer completes, so that a large number of
+ * remote repositories requesting content at the same time share the bandwidth instead of all transfers slowing down
+ * together. No thread waits for a queued transfer to start.
+ */
+public final class OutboundFileTransfers {
+
+    private final int maxConcurrentTransfers;
+    private final Queue<Runnable> queuedTransfers = new ArrayDeque<Runnable>();
+    private int activeTransfers;
+    private final AtomicLong completedTransfers = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong transferNanos = new AtomicLong();
+
+    /**
+     * Creates a new limit.
+     *
+     * @param maxConcurrentTransfers the maximum number of concurrent transfers
+     */
+    public OutboundFileTransfers(final int maxConcurrentTransfers) {
+        if (maxConcurrentTransfers < 1) {
+            throw new IllegalArgumentException(Integer.toString(maxConcurrentTransfers));
+        }
+        this.maxConcurrentTransfers = maxConcurrentTransfers;
+    }
+
+    /**
+     * Starts the transfer, or queues it if the maximum number of transfers is in progress. A started transfer must
+     * call {@link #end(long, long)} once complete, or {@link #abort()} if it could not be started.
+     *
+     * @param transfer starts the transfer, must not block
+     */
+    void start(final Runnable transfer) {
+        synchronized (this) {
+            if (activeTransfers >= maxConcurrentTransfers) {
+                queuedTransfers.add(transfer);
+                return;
+            }
+            activeTransfers++;
+        }
+        transfer.run();
+    }
+
+    void end(final long bytes, final long nanos) {
+        completedTransfers.incrementAndGet();
+        bytesSent.addAndGet(bytes);
+        transferNanos.addAndGet(nanos);
+        startNext();
+    }
+
+    void abort() {
+        startNext();
+    }
+
+    private void startNext() {
+        final Runnable next;
+        synchronized (this) {
+            next = queuedTransfers.poll();
+            if (next == null) {
+                activeTransfers--;
+                return;
+            }
+        }
+        // The completed transfer hands its slot over
+        next.run();
+    }
+
+    /**
+     * Gets the maximum number of concurrent transfers.
+     *
+     * @return the maximum number of concurrent transfers
+     */
+    public int getMaxConcurrentTransfers() {
+        return maxConcurrentTransfers;
+    }
+
+    /**
+     * Gets the number of transfers in progress.
+     *
+     * @return the number of transfers in progress
+     */
+    public synchronized int getActiveTransfers() {
+        return activeTransfers;
+    }
+
+    /**
+     * Gets the number of transfers queued until a running transfer completes.
+     *
+     * @return the number of queued transfers
+     */
+    public synchronized int getQueuedTransfers() {
+        return queuedTransfers.size();
+    }
+
+    /**
+     * Gets the number of completed transfers, including the failed ones.
+     *
+     * @return the number of completed transfers
+     */
+    public long getCompletedTransfers() {
+        return completedTransfers.get();
+    }
+
+    /**
+     * Gets the number of bytes sent by the completed transfers.
+     *
+     * @return the number of bytes sent
+     */
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    /**
+     * Gets the average throughput of a single transfer.
+     *
+     * @return the average throughput in bytes per second, 0 if no transfer completed yet
+     */
+    public long getAverageThroughput() {
+        final long nanos = transferNanos.get();
+        return nanos == 0 ? 0 : (long) (bytesSent.get() / ((double) nanos / TimeUnit.SECONDS.toNanos(1)));
+    }
+}
@@ -25,15 +25,30 @@ import static org.jboss.as.protocol.mgmt.ProtocolUtils.expectHeader;
 
 import java.io.BufferedOutputStream;
 import java.io.DataInput;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
 
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
@@ -41,26 +56,49 @@ import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
 import org.jboss.as.protocol.mgmt.RequestProcessingException;
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
 import org.jboss.logging.BasicLogger;
 
 
 /**
  * Common protocol code for getting files from master->slave HC and HC->server.
+ * <p>
+ * If the protocol supports it, see {@link ChunkedProtocolIdMapper}, and the requesting side announces its support,
+ * the files are sent in chunks which are verified against their checksum before they are written. The files are
+ * received in a staging directory, so a request failing part way through can be resumed from the chunks already
+ * received, and only become visible once complete.
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  */
 public abstract class RemoteFileRequestAndHandler {
 
+    private static final int CHUNK_SIZE = 64 * 1024;
+
     private final RemoteFileProtocolIdMapper protocol;
     private final Executor asyncExecutor;
+    private final OutboundFileTransfers transfers;
 
     protected RemoteFileRequestAndHandler(RemoteFileProtocolIdMapper protocol) {
         this(protocol, null);
     }
 
     protected RemoteFileRequestAndHandler(RemoteFileProtocolIdMapper protocol, Executor asyncExecutor) {
+        this(protocol, asyncExecutor, null);
+    }
+
+    /**
+     * @param protocol      the protocol ids
+     * @param asyncExecutor the executor to write the responses, {@code null} to use the executor of the channel
+     * @param transfers     the limit of the concurrent transfers when handling requests, {@code null} if unlimited,
+     *                      requires an executor to write the responses
+     */
+    protected RemoteFileRequestAndHandler(RemoteFileProtocolIdMapper protocol, Executor asyncExecutor, OutboundFileTransfers transfers) {
+        if (transfers != null && asyncExecutor == null) {
+            throw new IllegalArgumentException("asyncExecutor is null");
+        }
         this.protocol = protocol;
         this.asyncExecutor = asyncExecutor;
+        this.transfers = transfers;
     }
 
     public void sendRequest(FlushableDataOutput output, byte rootId, String filePath) throws IOException{
@@ -71,9 +109,78 @@ public abstract class RemoteFileRequestAndHandler {
 
     }
 
+    /**
+     * Sends the request, announcing the support of chunked responses if the protocol supports them. Handlers not
+     * supporting chunked responses ignore the announcement.
+     *
+     * @param output      the output
+     * @param rootId      the id of the root of the file
+     * @param filePath    the path of the file
+     * @param stagingPath the directory the file is received in before it is moved to its local path
+     * @param resume      {@code true} to resume from the files received in the staging directory by a previous request,
+     *                    which is only safe if the content of the file cannot change, {@code false} to receive the
+     *                    complete file
+     *
+     * @throws IOException if an error occurs writing the request
+     */
+    public void sendRequest(FlushableDataOutput output, byte rootId, String filePath, File stagingPath, boolean resume) throws IOException {
+        sendRequest(output, rootId, filePath);
+        if (!(protocol instanceof ChunkedProtocolIdMapper)) {
+            return;
+        }
+        if (!resume) {
+            deleteRecursively(stagingPath);
+        }
+        final List<File> staged = stagingPath.isDirectory() ? getChildFiles(stagingPath) : Collections.<File>emptyList();
+        output.writeByte(((ChunkedProtocolIdMapper) protocol).paramChunked());
+        output.writeInt(staged.size());
+        for (File file : staged) {
+            output.writeUTF(getRelativePath(stagingPath, file));
+            output.writeLong(file.length());
+        }
+    }
+
     public void handleResponse(DataInput input, File localPath, BasicLogger log, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context)
             throws IOException, CannotCreateLocalDirectoryException, DidNotReadEntireFileException{
-        expectHeader(input, protocol.paramNumFiles());
+        handleResponse(input, localPath, null, null, log, resultHandler, context);
+    }
+
+    /**
+     * Handles the response to a request sent with
+     * {@link #sendRequest(FlushableDataOutput, byte, String, File, boolean)}.
+     *
+     * @param input         the input
+     * @param localPath     the local path of the file
+     * @param stagingPath   the staging directory the request was sent with
+     * @param verifier      verifies the content received before it becomes visible, may be {@code null}
+     * @param log           the logger
+     * @param resultHandler the result handler
+     * @param context       the request context
+     */
+    public void handleResponse(DataInput input, File localPath, File stagingPath, ContentVerifier verifier, BasicLogger log,
+                               ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context)
+            throws IOException, CannotCreateLocalDirectoryException, DidNotReadEntireFileException{
+        final byte header = input.readByte();
+        if (stagingPath != null && protocol instanceof ChunkedProtocolIdMapper
+                && header == ((ChunkedProtocolIdMapper) protocol).paramNumFilesChunked()) {
+            readChunkedFiles(input, localPath, stagingPath, verifier, log, (ChunkedProtocolIdMapper) protocol);
+        } else {
+            expectHeader(header, protocol.paramNumFiles());
+            readFiles(input, localPath, log);
+            if (verifier != null && localPath.exists()) {
+                try {
+                    verifier.verify(localPath);
+                } catch (IOException e) {
+                    deleteRecursively(localPath);
+                    throw e;
+                }
+            }
+        }
+        resultHandler.done(localPath);
+    }
+
+    private void readFiles(DataInput input, File localPath, BasicLogger log)
+            throws IOException, CannotCreateLocalDirectoryException, DidNotReadEntireFileException{
         int numFiles = input.readInt();
         log.debugf("Received %d files for %s", numFiles, localPath);
         switch (numFiles) {
@@ -122,7 +229,142 @@ public abstract class RemoteFileRequestAndHandler {
                 }
             }
         }
-        resultHandler.done(localPath);
+    }
+
+    private void readChunkedFiles(DataInput input, File localPath, File stagingPath, ContentVerifier verifier, BasicLogger log, ChunkedProtocolIdMapper protocol)
+            throws IOException, CannotCreateLocalDirectoryException {
+        int numFiles = input.readInt();
+        log.debugf("Received %d files for %s", numFiles, localPath);
+        switch (numFiles) {
+            case -1: { // Not found on DC
+                deleteRecursively(stagingPath);
+                break;
+            }
+            case 0: { // Found on DC, but was an empty dir
+                deleteRecursively(stagingPath);
+                if (!localPath.mkdirs()) {
+                    throw new CannotCreateLocalDirectoryException(localPath);
+                }
+                break;
+            }
+            default: { // Found on DC
+                final Set<String> paths = new HashSet<String>();
+                for (int i = 0; i < numFiles; i++) {
+                    paths.add(readChunkedFile(input, stagingPath, log, protocol));
+                }
+                // Files of a previous request which are no longer part of the content
+                for (File file : getChildFiles(stagingPath)) {
+                    if (!paths.contains(getRelativePath(stagingPath, file))) {
+                        deleteRecursively(file);
+                    }
+                }
+                if (verifier != null) {
+                    try {
+                        verifier.verify(stagingPath);
+                    } catch (IOException e) {
+                        // Resuming would not help
+                        deleteRecursively(stagingPath);
+                        throw e;
+                    }
+                }
+                publish(stagingPath, localPath);
+            }
+        }
+    }
+
+    private String readChunkedFile(DataInput input, File stagingPath, BasicLogger log, ChunkedProtocolIdMapper protocol)
+            throws IOException, CannotCreateLocalDirectoryException {
+        expectHeader(input, protocol.fileStart());
+        expectHeader(input, protocol.paramFilePath());
+        final String path = input.readUTF();
+        expectHeader(input, protocol.paramFileSize());
+        final long length = input.readLong();
+        expectHeader(input, protocol.paramFileOffset());
+        final long offset = input.readLong();
+        log.debugf("Received file [%s] of length %d from offset %d", path, length, offset);
+        final File file = new File(stagingPath, path);
+        if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+            throw new CannotCreateLocalDirectoryException(file.getParentFile());
+        }
+        final RandomAccessFile fileOut = new RandomAccessFile(file, "rw");
+        try {
+            // Only verified chunks are written, so the file can be resumed from its length if the transfer fails
+            fileOut.setLength(offset);
+            fileOut.seek(offset);
+            final byte[] buffer = new byte[CHUNK_SIZE];
+            final CRC32 checksum = new CRC32();
+            long position = offset;
+            while (position < length) {
+                expectHeader(input, protocol.fileChunk());
+                final int len = input.readInt();
+                if (len < 1 || len > buffer.length || len > length - position) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidChunkLength(len, position, path);
+                }
+                input.readFully(buffer, 0, len);
+                checksum.reset();
+                checksum.update(buffer, 0, len);
+                if (checksum.getValue() != input.readLong()) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.chunkChecksumMismatch(position, path);
+                }
+                fileOut.write(buffer, 0, len);
+                position += len;
+            }
+        } finally {
+            fileOut.close();
+        }
+        expectHeader(input, protocol.fileEnd());
+        return path;
+    }
+
+    private void publish(File stagingPath, File localPath) throws IOException, CannotCreateLocalDirectoryException {
+        final File parent = localPath.getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new CannotCreateLocalDirectoryException(parent);
+        }
+        // The content is first moved next to its local path, so it is published by renaming it within the same directory
+        final File published = new File(parent, localPath.getName() + ".published");
+        deleteRecursively(published);
+        try {
+            Files.move(stagingPath.toPath(), published.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Not on the same file store
+            copyRecursively(stagingPath, published);
+            deleteRecursively(stagingPath);
+        }
+        if (!localPath.exists()) {
+            // The complete content becomes visible at once
+            Files.move(published.toPath(), localPath.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            return;
+        }
+        // Replace the previous content as a whole, it is restored if the new content cannot be moved in its place
+        final File replaced = new File(parent, localPath.getName() + ".replaced");
+        deleteRecursively(replaced);
+        Files.move(localPath.toPath(), replaced.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        try {
+            Files.move(published.toPath(), localPath.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(replaced.toPath(), localPath.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            deleteRecursively(published);
+            throw e;
+        }
+        deleteRecursively(replaced);
+    }
+
+    private static void copyRecursively(final File source, final File target) throws IOException, CannotCreateLocalDirectoryException {
+        if (source.isDirectory()) {
+            if (!target.mkdirs()) {
+                throw new CannotCreateLocalDirectoryException(target);
+            }
+            final String[] names = source.list();
+            if (names == null) {
+                throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotReadDirectory(source.getAbsolutePath());
+            }
+            for (String name : names) {
+                copyRecursively(new File(source, name), new File(target, name));
+            }
+        } else {
+            Files.copy(source.toPath(), target.toPath());
+        }
     }
 
     public void handleRequest(final DataInput input, final RootFileReader reader, final ManagementRequestContext<Void> context) throws IOException {
@@ -130,43 +372,120 @@ public abstract class RemoteFileRequestAndHandler {
         final byte rootId = input.readByte();
         expectHeader(input, protocol.paramFilePath());
         final String filePath = input.readUTF();
+        final Map<String, Long> offsets = readChunkedRequest(input);
 
-        ManagementRequestContext.AsyncTask<Void> task = new ManagementRequestContext.AsyncTask<Void>() {
+        final ManagementRequestContext.AsyncTask<Void> task = new ManagementRequestContext.AsyncTask<Void>() {
             @Override
             public void execute(ManagementRequestContext<Void> context) throws Exception {
-                final File localPath = reader.readRootFile(rootId, filePath);
-                //final FlushableDataOutput output = writeGenericResponseHeader(context);
-                FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
+                final long start = System.nanoTime();
+                long bytes = 0;
                 try {
-                    writeResponse(localPath, output);
-                    output.close();
+                    final File localPath = reader.readRootFile(rootId, filePath);
+                    //final FlushableDataOutput output = writeGenericResponseHeader(context);
+                    FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
+                    try {
+                        if (offsets == null) {
+                            bytes = writeResponse(localPath, output);
+                        } else {
+                            bytes = writeChunkedResponse(localPath, offsets, output, (ChunkedProtocolIdMapper) protocol);
+                        }
+                        output.close();
+                    } finally {
+                        StreamUtils.safeClose(output);
+                    }
                 } finally {
-                    StreamUtils.safeClose(output);
+                    if (transfers != null) {
+                        final long nanos = System.nanoTime() - start;
+                        transfers.end(bytes, nanos);
+                        DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Sent %d bytes of %s in %d ms, %d transfers in progress, %d queued",
+                                bytes, filePath, TimeUnit.NANOSECONDS.toMillis(nanos), transfers.getActiveTransfers(), transfers.getQueuedTransfers());
+                    }
                 }
             }
         };
 
-        if (asyncExecutor == null) {
+        if (transfers != null) {
+            // A queued transfer is started by the transfer completing before it, in its thread
+            transfers.start(new Runnable() {
+                @Override
+                public void run() {
+                    context.executeAsync(task, new Executor() {
+                        @Override
+                        public void execute(Runnable command) {
+                            try {
+                                asyncExecutor.execute(command);
+                            } catch (RejectedExecutionException e) {
+                                // The task will not end the transfer, the context reports the rejection
+                                transfers.abort();
+                                throw e;
+                            }
+                        }
+                    });
+                }
+            });
+        } else if (asyncExecutor == null) {
             context.executeAsync(task);
         } else {
             context.executeAsync(task, asyncExecutor);
         }
     }
 
-    private void writeResponse(final File localPath, final FlushableDataOutput output) throws IOException {
+    // Returns the offsets to resume the files from if the requesting side supports chunked responses, null otherwise
+    private Map<String, Long> readChunkedRequest(final DataInput input) throws IOException {
+        if (!(protocol instanceof ChunkedProtocolIdMapper)) {
+            return null;
+        }
+        final byte param;
+        try {
+            param = input.readByte();
+        } catch (EOFException e) {
+            // A request of a previous version
+            return null;
+        }
+        expectHeader(param, ((ChunkedProtocolIdMapper) protocol).paramChunked());
+        final int numFiles = input.readInt();
+        final Map<String, Long> offsets = new HashMap<String, Long>();
+        for (int i = 0; i < numFiles; i++) {
+            offsets.put(input.readUTF(), input.readLong());
+        }
+        return offsets;
+    }
+
+    private long writeResponse(final File localPath, final FlushableDataOutput output) throws IOException {
         output.writeByte(protocol.paramNumFiles());
+        long bytes = 0;
         if (localPath == null || !localPath.exists()) {
             output.writeInt(-1);
         } else if (localPath.isFile()) {
             output.writeInt(1);
-            writeFile(localPath, localPath, output);
+            bytes += writeFile(localPath, localPath, output);
         } else {
             final List<File> childFiles = getChildFiles(localPath);
             output.writeInt(childFiles.size());
             for (File child : childFiles) {
-                writeFile(localPath, child, output);
+                bytes += writeFile(localPath, child, output);
             }
         }
+        return bytes;
+    }
+
+    private long writeChunkedResponse(final File localPath, final Map<String, Long> offsets, final FlushableDataOutput output,
+                                      final ChunkedProtocolIdMapper protocol) throws IOException {
+        output.writeByte(protocol.paramNumFilesChunked());
+        long bytes = 0;
+        if (localPath == null || !localPath.exists()) {
+            output.writeInt(-1);
+        } else if (localPath.isFile()) {
+            output.writeInt(1);
+            bytes += writeChunkedFile(localPath, localPath, offsets, output, protocol);
+        } else {
+            final List<File> childFiles = getChildFiles(localPath);
+            output.writeInt(childFiles.size());
+            for (File child : childFiles) {
+                bytes += writeChunkedFile(localPath, child, offsets, output, protocol);
+            }
+        }
+        return bytes;
     }
 
     private List<File> getChildFiles(final File base) {
@@ -176,7 +495,11 @@ public abstract class RemoteFileRequestAndHandler {
     }
 
     private void getChildFiles(final File base, final List<File> childFiles) {
-        for (File child : base.listFiles()) {
+        final File[] children = base.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
             if (child.isFile()) {
                 childFiles.add(child);
             } else {
@@ -189,12 +512,13 @@ public abstract class RemoteFileRequestAndHandler {
         return child.getAbsolutePath().substring(parent.getAbsolutePath().length()+1);
     }
 
-    private void writeFile(final File localPath, final File file, final FlushableDataOutput output) throws IOException {
+    private long writeFile(final File localPath, final File file, final FlushableDataOutput output) throws IOException {
+        final long length = file.length();
         output.writeByte(protocol.fileStart());
         output.writeByte(protocol.paramFilePath());
         output.writeUTF(getRelativePath(localPath, file));
         output.writeByte(protocol.paramFileSize());
-        output.writeLong(file.length());
+        output.writeLong(length);
         InputStream inputStream = null;
         try {
             inputStream = new FileInputStream(file);
@@ -212,6 +536,93 @@ public abstract class RemoteFileRequestAndHandler {
             }
         }
         output.writeByte(protocol.fileEnd());
+        return length;
+    }
+
+    private long writeChunkedFile(final File localPath, final File file, final Map<String, Long> offsets, final FlushableDataOutput output,
+                                  final ChunkedProtocolIdMapper protocol) throws IOException {
+        final String path = getRelativePath(localPath, file);
+        final long length = file.length();
+        final Long staged = offsets.get(path);
+        // A longer staged file cannot be a prefix of this one
+        final long offset = staged == null || staged > length ? 0 : staged;
+        output.writeByte(protocol.fileStart());
+        output.writeByte(protocol.paramFilePath());
+        output.writeUTF(path);
+        output.writeByte(protocol.paramFileSize());
+        output.writeLong(length);
+        output.writeByte(protocol.paramFileOffset());
+        output.writeLong(offset);
+        final RandomAccessFile fileIn = new RandomAccessFile(file, "r");
+        try {
+            fileIn.seek(offset);
+            final byte[] buffer = new byte[CHUNK_SIZE];
+            final CRC32 checksum = new CRC32();
+            long position = offset;
+            while (position < length) {
+                final int len = (int) Math.min(buffer.length, length - position);
+                fileIn.readFully(buffer, 0, len);
+                checksum.reset();
+                checksum.update(buffer, 0, len);
+                output.writeByte(protocol.fileChunk());
+                output.writeInt(len);
+                output.write(buffer, 0, len);
+                output.writeLong(checksum.getValue());
+                position += len;
+            }
+        } finally {
+            StreamUtils.safeClose(fileIn);
+        }
+        output.writeByte(protocol.fileEnd());
+        return length - offset;
+    }
+
+    private static void deleteRecursively(final File file) {
+        if (file.exists()) {
+            final String[] names = file.isDirectory() ? file.list() : null;
+            if (names != null) {
+                for (String name : names) {
+                    deleteRecursively(new File(file, name));
+                }
+            }
+            file.delete();
+        }
+    }
+
+    /**
+     * Creates a verifier checking that the content of a deployment matches its hash.
+     *
+     * @param hash the SHA-1 hash of the deployment content
+     *
+     * @return the verifier
+     */
+    public static ContentVerifier deploymentContentVerifier(final byte[] hash) {
+        return new ContentVerifier() {
+            @Override
+            public void verify(File root) throws IOException {
+                final MessageDigest messageDigest;
+                try {
+                    messageDigest = MessageDigest.getInstance("SHA-1");
+                } catch (NoSuchAlgorithmException e) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
+                }
+                // The content file of the deployment root, see ContentRepository
+                final InputStream in = new FileInputStream(new File(root, "content"));
+                try {
+                    final byte[] buffer = new byte[8192];
+                    int len;
+                    while ((len = in.read(buffer)) != -1) {
+                        messageDigest.update(buffer, 0, len);
+                    }
+                } finally {
+                    StreamUtils.safeClose(in);
+                }
+                final byte[] actual = messageDigest.digest();
+                if (!Arrays.equals(hash, actual)) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.contentHashMismatch(HashUtil.bytesToHexString(hash), HashUtil.bytesToHexString(actual));
+                }
+            }
+        };
     }
 
     /**
@@ -226,6 +637,16 @@ public abstract class RemoteFileRequestAndHandler {
         byte fileEnd();
     }
 
+    /**
+     * Maps the protocol codes of the chunked responses to the actual protocol
+     */
+    public interface ChunkedProtocolIdMapper extends RemoteFileProtocolIdMapper {
+        byte paramChunked();
+        byte paramNumFilesChunked();
+        byte paramFileOffset();
+        byte fileChunk();
+    }
+
     /**
      * Reads the root file being got
      */
@@ -233,6 +654,13 @@ public abstract class RemoteFileRequestAndHandler {
         File readRootFile(byte rootId, String filePath) throws RequestProcessingException;
     }
 
+    /**
+     * Verifies the content received before it becomes visible
+     */
+    public interface ContentVerifier {
+        void verify(File root) throws IOException;
+    }
+
     /**
      *  Indicates a directory could not be created
      */
@@ -26,6 +26,8 @@ import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.INFO;
 import static org.jboss.logging.Logger.Level.WARN;
 
+import java.io.IOException;
+
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.LogMessage;
@@ -121,4 +123,48 @@ public interface DeploymentRepositoryLogger extends BasicLogger {
     @LogMessage(level = ERROR)
     @Message(id = 10, value = "Couldn't delete content %s")
     void contentDeletionError(@Cause Throwable cause, String name);
+
+    /**
+     * Creates an exception indicating a chunk of a file received from a remote repository does not match its checksum.
+     *
+     * @param offset the offset of the chunk.
+     * @param path   the path of the file.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 11, value = "Checksum mismatch in the chunk at offset %d of %s")
+    IOException chunkChecksumMismatch(long offset, String path);
+
+    /**
+     * Creates an exception indicating the content received from a remote repository does not match its hash.
+     *
+     * @param expected the expected hash.
+     * @param actual   the hash of the content received.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 12, value = "The content received does not match its hash, expected %s but was %s")
+    IOException contentHashMismatch(String expected, String actual);
+
+    /**
+     * Creates an exception indicating a chunk of a file received from a remote repository has an invalid length.
+     *
+     * @param length the length of the chunk.
+     * @param offset the offset of the chunk.
+     * @param path   the path of the file.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 13, value = "Invalid chunk length %d at offset %d of %s")
+    IOException invalidChunkLength(int length, long offset, String path);
+
+    /**
+     * Creates an exception indicating the files of a directory could not be listed.
+     *
+     * @param path the path of the directory.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 14, value = "Cannot read the directory %s")
+    IOException cannotReadDirectory(String path);
 }
@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link OutboundFileTransfers}.
+ */
+public class OutboundFileTransfersTestCase {
+
+    private final List<Integer> started = new ArrayList<Integer>();
+
+    @Test
+    public void testTransfersQueued() {
+        final OutboundFileTransfers transfers = new OutboundFileTransfers(2);
+        transfers.start(transfer(1));
+        transfers.start(transfer(2));
+        transfers.start(transfer(3));
+        transfers.start(transfer(4));
+
+        // The calling thread is not blocked by the queued transfers
+        Assert.assertEquals(2, started.size());
+        Assert.assertEquals(2, transfers.getActiveTransfers());
+        Assert.assertEquals(2, transfers.getQueuedTransfers());
+
+        // A completed transfer starts the next one in order
+        transfers.end(100, 1000);
+        Assert.assertEquals(3, started.size());
+        Assert.assertEquals(Integer.valueOf(3), started.get(2));
+        Assert.assertEquals(2, transfers.getActiveTransfers());
+        Assert.assertEquals(1, transfers.getQueuedTransfers());
+
+        // A transfer which could not be started hands its slot over as well
+        transfers.abort();
+        Assert.assertEquals(4, started.size());
+        Assert.assertEquals(0, transfers.getQueuedTransfers());
+
+        transfers.end(100, 1000);
+        transfers.end(100, 1000);
+        Assert.assertEquals(0, transfers.getActiveTransfers());
+        Assert.assertEquals(3, transfers.getCompletedTransfers());
+        Assert.assertEquals(300, transfers.getBytesSent());
+
+        transfers.start(transfer(5));
+        Assert.assertEquals(5, started.size());
+        Assert.assertEquals(1, transfers.getActiveTransfers());
+    }
+
+    private Runnable transfer(final int id) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                started.add(id);
+            }
+        };
+    }
+}
@@ -0,0 +1,388 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import org.jboss.as.protocol.mgmt.ActiveOperation;
+import org.jboss.as.protocol.mgmt.FlushableDataOutput;
+import org.jboss.as.protocol.mgmt.ManagementProtocol;
+import org.jboss.as.protocol.mgmt.ManagementRequestContext;
+import org.jboss.as.protocol.mgmt.ManagementRequestHeader;
+import org.jboss.as.protocol.mgmt.RequestProcessingException;
+import org.jboss.logging.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the chunked file transfers of the {@link RemoteFileRequestAndHandler}.
+ */
+public class RemoteFileRequestAndHandlerTestCase {
+
+    private static final byte ROOT_ID = 1;
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final Logger LOG = Logger.getLogger(RemoteFileRequestAndHandlerTestCase.class);
+
+    private static final RemoteFileRequestAndHandler.RemoteFileProtocolIdMapper PLAIN = new PlainMapper();
+    private static final RemoteFileRequestAndHandler.ChunkedProtocolIdMapper CHUNKED = new ChunkedMapper();
+
+    private static final Executor INLINE = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final File baseDir = new File("target", "remote-files");
+    private final File masterPath = new File(baseDir, "master");
+    private final File localPath = new File(baseDir, "local" + File.separator + "content-root");
+    private final File stagingPath = new File(baseDir, "staging");
+    private byte[] content;
+    private byte[] small;
+
+    @Before
+    public void createContent() throws IOException {
+        deleteRecursively(baseDir);
+        final Random random = new Random(42);
+        content = new byte[200 * 1024];
+        random.nextBytes(content);
+        small = new byte[100];
+        random.nextBytes(small);
+        write(new File(masterPath, "content"), content, content.length);
+        write(new File(masterPath, "sub" + File.separator + "small"), small, small.length);
+    }
+
+    @After
+    public void deleteContent() {
+        deleteRecursively(baseDir);
+    }
+
+    @Test
+    public void testChunkedTransfer() throws Exception {
+        final RemoteFileRequestAndHandler slave = new TestHandler(CHUNKED);
+        final RemoteFileRequestAndHandler master = new TestHandler(CHUNKED);
+
+        receive(slave, respond(master, request(slave, false)), null);
+
+        assertContent();
+        Assert.assertFalse(stagingPath.exists());
+        Assert.assertEquals(1, localPath.getParentFile().list().length);
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        // The first chunk was received by a previous request
+        write(new File(stagingPath, "content"), content, CHUNK_SIZE);
+        final OutboundFileTransfers transfers = new OutboundFileTransfers(1);
+        final RemoteFileRequestAndHandler slave = new TestHandler(CHUNKED);
+        final RemoteFileRequestAndHandler master = new TestHandler(CHUNKED, transfers);
+
+        receive(slave, respond(master, request(slave, true)), null);
+
+        assertContent();
+        Assert.assertEquals(1, transfers.getCompletedTransfers());
+        Assert.assertEquals(content.length - CHUNK_SIZE + small.length, transfers.getBytesSent());
+        Assert.assertEquals(0, transfers.getActiveTransfers());
+    }
+
+    @Test
+    public void testNoResume() throws Exception {
+        // Content which can change is received again
+        write(new File(stagingPath, "content"), content, CHUNK_SIZE);
+        final OutboundFileTransfers transfers = new OutboundFileTransfers(1);
+        final RemoteFileRequestAndHandler slave = new TestHandler(CHUNKED);
+
+        receive(slave, respond(new TestHandler(CHUNKED, transfers), request(slave, false)), null);
+
+        assertContent();
+        Assert.assertEquals(content.length + small.length, transfers.getBytesSent());
+    }
+
+    @Test
+    public void testChecksumMismatch() throws Exception {
+        final RemoteFileRequestAndHandler slave = new TestHandler(CHUNKED);
+        final byte[] response = respond(new TestHandler(CHUNKED), request(slave, false));
+        // A byte of the last chunk, followed by its checksum and the end of the file
+        response[response.length - 20] ^= 1;
+
+        try {
+            receive(slave, response, null);
+            Assert.fail("The corrupted chunk was accepted");
+        } catch (IOException expected) {
+            // expected
+        }
+        Assert.assertFalse(localPath.exists());
+        // The verified chunks are kept to resume from
+        Assert.assertTrue(stagingPath.exists());
+
+        receive(slave, respond(new TestHandler(CHUNKED), request(slave, true)), null);
+        assertContent();
+    }
+
+    @Test
+    public void testReplace() throws Exception {
+        write(new File(localPath, "obsolete"), small, small.length);
+        final RemoteFileRequestAndHandler slave = new TestHandler(CHUNKED);
+
+        receive(slave, respond(new TestHandler(CHUNKED), request(slave, false)), null);
+
+        assertContent();
+        Assert.assertFalse(new File(localPath, "obsolete").exists());
+        Assert.assertEquals(1, localPath.getParentFile().list().length);
+    }
+
+    @Test
+    public void testPreviousMaster() throws Exception {
+        // The master ignores the chunked announcement and sends the previous response format
+        final RemoteFileRequestAndHandler slave = new TestHandler(CHUNKED);
+
+        receive(slave, respond(new TestHandler(PLAIN), request(slave, false)), null);
+
+        assertContent();
+    }
+
+    @Test
+    public void testPreviousSlave() throws Exception {
+        // The slave does not announce the chunked responses and gets the previous response format
+        final RemoteFileRequestAndHandler slave = new TestHandler(PLAIN);
+
+        receive(slave, respond(new TestHandler(CHUNKED), request(slave, false)), null);
+
+        assertContent();
+    }
+
+    @Test
+    public void testContentHashVerified() throws Exception {
+        final RemoteFileRequestAndHandler slave = new TestHandler(CHUNKED);
+        final byte[] hash = MessageDigest.getInstance("SHA-1").digest(content);
+
+        receive(slave, respond(new TestHandler(CHUNKED), request(slave, false)), RemoteFileRequestAndHandler.deploymentContentVerifier(hash));
+
+        assertContent();
+    }
+
+    @Test
+    public void testContentHashMismatch() throws Exception {
+        final RemoteFileRequestAndHandler slave = new TestHandler(CHUNKED);
+        final byte[] hash = MessageDigest.getInstance("SHA-1").digest(small);
+
+        try {
+            receive(slave, respond(new TestHandler(CHUNKED), request(slave, false)), RemoteFileRequestAndHandler.deploymentContentVerifier(hash));
+            Assert.fail("The content was accepted with a wrong hash");
+        } catch (IOException expected) {
+            // expected
+        }
+        Assert.assertFalse(localPath.exists());
+        // Resuming would not help
+        Assert.assertFalse(stagingPath.exists());
+    }
+
+    private byte[] request(final RemoteFileRequestAndHandler slave, final boolean resume) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final FlushableDataOutput output = createOutput(bytes);
+        slave.sendRequest(output, ROOT_ID, "content-root", stagingPath, resume);
+        output.close();
+        return bytes.toByteArray();
+    }
+
+    private byte[] respond(final RemoteFileRequestAndHandler master, final byte[] request) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final RemoteFileRequestAndHandler.RootFileReader reader = new RemoteFileRequestAndHandler.RootFileReader() {
+            @Override
+            public File readRootFile(byte rootId, String filePath) throws RequestProcessingException {
+                Assert.assertEquals(ROOT_ID, rootId);
+                Assert.assertEquals("content-root", filePath);
+                return masterPath;
+            }
+        };
+        master.handleRequest(new DataInputStream(new ByteArrayInputStream(request)), reader, createContext(bytes));
+        return bytes.toByteArray();
+    }
+
+    private void receive(final RemoteFileRequestAndHandler slave, final byte[] response, final RemoteFileRequestAndHandler.ContentVerifier verifier)
+            throws Exception {
+        final File[] received = new File[1];
+        final ActiveOperation.ResultHandler<File> resultHandler = new ActiveOperation.ResultHandler<File>() {
+            @Override
+            public boolean done(File result) {
+                received[0] = result;
+                return true;
+            }
+
+            @Override
+            public boolean failed(Exception e) {
+                return true;
+            }
+
+            @Override
+            public void cancel() {
+            }
+        };
+        slave.handleResponse(new DataInputStream(new ByteArrayInputStream(response)), localPath, stagingPath, verifier, LOG, resultHandler, null);
+        Assert.assertEquals(localPath, received[0]);
+    }
+
+    private void assertContent() throws IOException {
+        Assert.assertTrue(Arrays.equals(content, Files.readAllBytes(new File(localPath, "content").toPath())));
+        Assert.assertTrue(Arrays.equals(small, Files.readAllBytes(new File(localPath, "sub" + File.separator + "small").toPath())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ManagementRequestContext<Void> createContext(final ByteArrayOutputStream bytes) {
+        return (ManagementRequestContext<Void>) Proxy.newProxyInstance(RemoteFileRequestAndHandlerTestCase.class.getClassLoader(),
+                new Class<?>[] {ManagementRequestContext.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+                        switch (method.getName()) {
+                            case "getRequestHeader":
+                                return new ManagementRequestHeader(ManagementProtocol.VERSION, 1, 1, (byte) 0);
+                            case "writeMessage":
+                                return createOutput(bytes);
+                            case "executeAsync": {
+                                final ManagementRequestContext.AsyncTask<Void> task = (ManagementRequestContext.AsyncTask<Void>) args[0];
+                                final Executor executor = args[args.length - 1] instanceof Executor ? (Executor) args[args.length - 1] : INLINE;
+                                executor.execute(new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        try {
+                                            task.execute((ManagementRequestContext<Void>) proxy);
+                                        } catch (Exception e) {
+                                            throw new RuntimeException(e);
+                                        }
+                                    }
+                                });
+                                return null;
+                            }
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    }
+                });
+    }
+
+    private static FlushableDataOutput createOutput(final OutputStream out) {
+        final DataOutputStream delegate = new DataOutputStream(out);
+        return (FlushableDataOutput) Proxy.newProxyInstance(RemoteFileRequestAndHandlerTestCase.class.getClassLoader(),
+                new Class<?>[] {FlushableDataOutput.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+                        try {
+                            return DataOutputStream.class.getMethod(method.getName(), method.getParameterTypes()).invoke(delegate, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    private static void write(final File file, final byte[] bytes, final int length) throws IOException {
+        file.getParentFile().mkdirs();
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(bytes, 0, length);
+        }
+    }
+
+    private static void deleteRecursively(final File file) {
+        if (file.exists()) {
+            final String[] names = file.isDirectory() ? file.list() : null;
+            if (names != null) {
+                for (String name : names) {
+                    deleteRecursively(new File(file, name));
+                }
+            }
+            file.delete();
+        }
+    }
+
+    private static class TestHandler extends RemoteFileRequestAndHandler {
+
+        TestHandler(final RemoteFileProtocolIdMapper protocol) {
+            super(protocol);
+        }
+
+        TestHandler(final RemoteFileProtocolIdMapper protocol, final OutboundFileTransfers transfers) {
+            super(protocol, INLINE, transfers);
+        }
+    }
+
+    private static class PlainMapper implements RemoteFileRequestAndHandler.RemoteFileProtocolIdMapper {
+        public byte paramRootId() {
+            return 0x20;
+        }
+
+        public byte paramNumFiles() {
+            return 0x21;
+        }
+
+        public byte fileStart() {
+            return 0x22;
+        }
+
+        public byte paramFilePath() {
+            return 0x23;
+        }
+
+        public byte paramFileSize() {
+            return 0x24;
+        }
+
+        public byte fileEnd() {
+            return 0x25;
+        }
+    }
+
+    private static class ChunkedMapper extends PlainMapper implements RemoteFileRequestAndHandler.ChunkedProtocolIdMapper {
+        public byte paramChunked() {
+            return 0x26;
+        }
+
+        public byte paramNumFilesChunked() {
+            return 0x27;
+        }
+
+        public byte paramFileOffset() {
+            return 0x28;
+        }
+
+        public byte fileChunk() {
+            return 0x29;
+        }
+    }
+}
@@ -34,6 +34,8 @@ public interface HostConnectionInfo {
     String ADDRESS = "address";
     String CONNECTED = "connected";
     String EVENTS = "events";
+    String MAX_ROUND_TRIP_TIME = "max-round-trip-time";
+    String ROUND_TRIP_TIME = "round-trip-time";
     String TIMESTAMP = "timestamp";
     String TYPE = "type";
 
@@ -58,6 +60,20 @@ public interface HostConnectionInfo {
      */
     List<Event> getEvents();
 
+    /**
+     * Get the smoothed round trip time of the heartbeat sent to the host.
+     *
+     * @return the round trip time in milliseconds, -1 if not known
+     */
+    long getRoundTripTime();
+
+    /**
+     * Get the maximum round trip time of the heartbeat sent to the host.
+     *
+     * @return the round trip time in milliseconds, -1 if not known
+     */
+    long getMaxRoundTripTime();
+
     public interface Event {
 
         /**
@@ -731,4 +731,56 @@ public interface DomainControllerLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 73, value = "%s deployment has been re-deployed, its content will not be removed. You will need to restart it.")
     void undeployingDeploymentHasBeenRedeployed(String deploymentName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 74, value = "Timed out after %d ms awaiting host prepared response(s) -- cancelling updates for hosts %s")
+    void timedOutAwaitingHostPreparedResponse(long timeout, Set<String> hosts);
+
+    @Message(id = 75, value = "Timed out waiting for result from host %s")
+    String timedOutAwaitingResultFromHost(String name);
+
+    @LogMessage(level = WARN)
+    @Message(id = 76, value = "Timed out awaiting final response from host %s; remote process has been notified to cancel operation")
+    void timedOutAwaitingFinalResponse(String hostName);
+
+    /**
+     * A message indicating that the rollout plan is invalid as the value of the property for the server group is not
+     * greater than 0.
+     *
+     * @param name         the name of the server group.
+     * @param propertyName the name of the property.
+     * @param value        the invalid value.
+     *
+     * @return the message.
+     */
+    @Message(id = 77, value = "Invalid rollout plan. Server group %s has a %s value of %s; must be greater than 0.")
+    String invalidRolloutPlanNotPositive(String name, String propertyName, int value);
+
+    /**
+     * A message indicating that the rollout plan is invalid as the value of the plan wide property is not greater than
+     * 0.
+     *
+     * @param propertyName the name of the property.
+     * @param value        the invalid value.
+     *
+     * @return the message.
+     */
+    @Message(id = 78, value = "Invalid rollout plan. The %s value of %s must be greater than 0.")
+    String invalidRolloutPlanValueNotPositive(String propertyName, int value);
+
+    @LogMessage(level = Level.INFO)
+    @Message(id = 79, value = "Server %s of server group %s prepared the operation (%d of %d servers)")
+    void serverPreparedOperation(String serverName, String serverGroupName, int prepared, int total);
+
+    /**
+     * A message indicating that the rollout plan is invalid as the server group combines two properties which
+     * cannot be combined.
+     *
+     * @param propertyName      the name of the property.
+     * @param otherPropertyName the name of the other property.
+     *
+     * @return the message.
+     */
+    @Message(id = 80, value = "Invalid rollout plan. A server group cannot combine %s with %s.")
+    String invalidRolloutPlanCombination(String propertyName, String otherPropertyName);
 }
@@ -46,11 +46,29 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
     protected final String host;
     protected final Transformers transformers;
     protected final DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry;
+    private final TransformedDomainModelCache cache;
+    private final ModelNode cacheKey;
 
     public ReadMasterDomainModelHandler(final String host, final Transformers transformers, DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry) {
+        this(host, transformers, runtimeIgnoreTransformationRegistry, null, null);
+    }
+
+    /**
+     * Creates a handler reusing the transformed domain model of earlier slaves with the same cache key.
+     *
+     * @param host the name of the slave host
+     * @param transformers the transformers for the host
+     * @param runtimeIgnoreTransformationRegistry the domain controller registry of what resources should be ignored for the slave host
+     * @param cache the cache of the transformed domain models, may be {@code null}
+     * @param cacheKey the key describing the transformation, {@code null} if the result cannot be cached
+     */
+    public ReadMasterDomainModelHandler(final String host, final Transformers transformers, DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry,
+                                        final TransformedDomainModelCache cache, final ModelNode cacheKey) {
         this.host = host;
         this.transformers = transformers;
         this.runtimeIgnoreTransformationRegistry = runtimeIgnoreTransformationRegistry;
+        this.cache = cache;
+        this.cacheKey = cacheKey;
     }
 
     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -58,7 +76,7 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
         context.acquireControllerLock();
 
         final Resource rootResource = context.readResource(PathAddress.EMPTY_ADDRESS,true);
-        final ReadMasterDomainModelUtil readUtil = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(context, transformers, rootResource, runtimeIgnoreTransformationRegistry);
+        final ReadMasterDomainModelUtil readUtil = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(context, transformers, rootResource, runtimeIgnoreTransformationRegistry, cache, cacheKey);
         context.getResult().set(readUtil.getDescribedResources());
 
         context.completeStep(new OperationContext.ResultHandler() {
@@ -59,6 +59,13 @@ public class ReadMasterDomainModelUtil {
     private ReadMasterDomainModelUtil() {
     }
 
+    static ReadMasterDomainModelUtil create(final List<ModelNode> describedResources, final Set<PathElement> newRootResources) {
+        final ReadMasterDomainModelUtil util = new ReadMasterDomainModelUtil();
+        util.describedResources = describedResources;
+        util.newRootResources.addAll(newRootResources);
+        return util;
+    }
+
     /**
      * Used to read the domain model when a slave host connects to the DC
      *
@@ -72,9 +79,39 @@ public class ReadMasterDomainModelUtil {
             final OperationContext context, final Transformers transformers, final Resource domainRoot,
             final DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry) throws OperationFailedException {
 
+        return readMasterDomainResourcesForInitialConnect(context, transformers, domainRoot, runtimeIgnoreTransformationRegistry, null, null);
+    }
+
+    /**
+     * Used to read the domain model when a slave host connects to the DC, reusing the result of an earlier slave
+     * which transforms the domain model in the same way.
+     *
+     *  @param context the operation context
+     *  @param transformers the transformers for the host
+     *  @param domainRoot the domain root resource
+     *  @param runtimeIgnoreTransformationRegistry the domain controller registry of what resources should be ignored for the slave host
+     *  @param cache the cache of the transformed domain models, may be {@code null}
+     *  @param cacheKey the key describing the transformation, {@code null} if the result cannot be cached
+     *  @return a read master domain model util instance
+     */
+    static ReadMasterDomainModelUtil readMasterDomainResourcesForInitialConnect(
+            final OperationContext context, final Transformers transformers, final Resource domainRoot,
+            final DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry,
+            final TransformedDomainModelCache cache, final ModelNode cacheKey) throws OperationFailedException {
+
+        final boolean cacheable = cache != null && cacheKey != null;
+        if (cacheable) {
+            final ReadMasterDomainModelUtil cached = cache.get(cacheKey, domainRoot);
+            if (cached != null) {
+                return cached;
+            }
+        }
         Resource transformedResource = transformers.transformRootResource(context, domainRoot);
         ReadMasterDomainModelUtil util = new ReadMasterDomainModelUtil();
         util.describedResources = util.describeAsNodeList(PathAddress.EMPTY_ADDRESS, transformedResource, false);
+        if (cacheable) {
+            cache.put(cacheKey, domainRoot, util);
+        }
         return util;
     }
 
@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Caches the transformed domain model sent to registering slave host controllers, so slaves of the same version which
+ * transform the domain model in the same way do not each transform the complete domain model again.
+ * <p>
+ * The entries are keyed by a description of everything the transformation depends on, i.e. the management version
+ * of the slave, the versions of its subsystems and the resources it ignores. Slaves ignoring unused configuration are
+ * not cached, since the result depends on the servers of the slave. The cache keeps the untransformed domain model the
+ * entries were created from, and drops all entries once the domain model differs.
+ */
+public final class TransformedDomainModelCache {
+
+    // The number of distinct slave configurations kept, e.g. the legacy versions during a rolling upgrade
+    private static final int MAX_ENTRIES = 8;
+
+    private final Map<ModelNode, CachedModel> entries = new LinkedHashMap<ModelNode, CachedModel>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<ModelNode, CachedModel> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private Resource source;
+    private long hits;
+    private long misses;
+
+    /**
+     * Gets the cached result of reading the domain model.
+     *
+     * @param key        the key describing the transformation
+     * @param domainRoot the untransformed domain model
+     *
+     * @return the result or {@code null} if there is no result for the key and domain model
+     */
+    synchronized ReadMasterDomainModelUtil get(final ModelNode key, final Resource domainRoot) {
+        if (source == null || !sameDomainModel(source, domainRoot, true)) {
+            // The model changed, the entries are of no use anymore
+            entries.clear();
+            source = null;
+            misses++;
+            return null;
+        }
+        final CachedModel cached = entries.get(key);
+        if (cached == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return ReadMasterDomainModelUtil.create(cached.describedResources, new HashSet<PathElement>(cached.newRootResources));
+    }
+
+    /**
+     * Caches the result of reading the domain model.
+     *
+     * @param key        the key describing the transformation
+     * @param domainRoot the untransformed domain model, which must not be modified afterwards
+     * @param util       the result
+     */
+    synchronized void put(final ModelNode key, final Resource domainRoot, final ReadMasterDomainModelUtil util) {
+        if (source == null || !sameDomainModel(source, domainRoot, true)) {
+            entries.clear();
+        }
+        source = domainRoot;
+        final ModelNode protectedKey = key.clone();
+        protectedKey.protect();
+        entries.put(protectedKey, new CachedModel(Collections.unmodifiableList(util.getDescribedResources()),
+                new HashSet<PathElement>(util.getNewKnownRootResources())));
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        source = null;
+    }
+
+    /**
+     * Gets the number of requests answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of requests which required the domain model to be transformed.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Compares the parts of two domain models which are sent to the slaves, ignoring the hosts, runtime resources and
+     * proxies.
+     */
+    static boolean sameDomainModel(final Resource original, final Resource other, final boolean root) {
+        if (!original.getModel().equals(other.getModel())) {
+            return false;
+        }
+        final Set<String> childTypes = original.getChildTypes();
+        if (!childTypes.equals(other.getChildTypes())) {
+            return false;
+        }
+        for (final String childType : childTypes) {
+            if (root && ModelDescriptionConstants.HOST.equals(childType)) {
+                continue;
+            }
+            final Set<String> names = original.getChildrenNames(childType);
+            if (!names.equals(other.getChildrenNames(childType))) {
+                return false;
+            }
+            for (final String name : names) {
+                final PathElement element = PathElement.pathElement(childType, name);
+                final Resource child = original.getChild(element);
+                final Resource otherChild = other.getChild(element);
+                if (otherChild == null || child.isProxy() != otherChild.isProxy() || child.isRuntime() != otherChild.isRuntime()) {
+                    return false;
+                }
+                if (!child.isProxy() && !child.isRuntime() && !sameDomainModel(child, otherChild, false)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static class CachedModel {
+        private final List<ModelNode> describedResources;
+        private final Set<PathElement> newRootResources;
+
+        CachedModel(final List<ModelNode> describedResources, final Set<PathElement> newRootResources) {
+            this.describedResources = describedResources;
+            this.newRootResources = newRootResources;
+        }
+    }
+}
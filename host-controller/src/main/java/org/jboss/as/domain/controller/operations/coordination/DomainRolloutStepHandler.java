@@ -30,6 +30,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAI
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST_FAILURE_DESCRIPTIONS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
@@ -375,6 +376,12 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
             rolloutPlan = getDefaultRolloutPlan(opsByGroup);
         }
         else {
+            if (rolloutPlan.hasDefined(MAX_CONCURRENT_SERVERS)) {
+                int max = rolloutPlan.get(MAX_CONCURRENT_SERVERS).asInt();
+                if (max < 1) {
+                    throw new OperationFailedException(DomainControllerLogger.ROOT_LOGGER.invalidRolloutPlanValueNotPositive(MAX_CONCURRENT_SERVERS, max));
+                }
+            }
             // Validate that plan covers all groups
             Set<String> found = new HashSet<String>();
             if (rolloutPlan.hasDefined(IN_SERIES)) {
@@ -423,6 +430,12 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
                 throw new OperationFailedException(DomainControllerLogger.ROOT_LOGGER.invalidRolloutPlanLess(prop.getName(), MAX_FAILED_SERVERS, max));
             }
         }
+        if (plan.hasDefined(MAX_CONCURRENT_SERVERS)) {
+            int max = plan.get(MAX_CONCURRENT_SERVERS).asInt();
+            if (max < 1) {
+                throw new OperationFailedException(DomainControllerLogger.ROOT_LOGGER.invalidRolloutPlanNotPositive(prop.getName(), MAX_CONCURRENT_SERVERS, max));
+            }
+        }
     }
 
     private ModelNode getDefaultRolloutPlan(Map<String, Map<ServerIdentity, ModelNode>> opsByGroup) {
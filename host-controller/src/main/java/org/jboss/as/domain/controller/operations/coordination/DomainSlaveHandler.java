@@ -36,11 +36,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
+import org.jboss.as.controller.BlockingTimeout;
 import org.jboss.as.controller.CompositeOperationHandler;
 import org.jboss.as.controller.CurrentOperationIdHolder;
 import org.jboss.as.controller.OperationContext;
@@ -56,14 +58,28 @@ import org.jboss.as.controller.remote.TransactionalProtocolClient;
 import org.jboss.as.domain.controller.logging.DomainControllerLogger;
 import org.jboss.as.host.controller.mgmt.DomainControllerRuntimeIgnoreTransformationRegistry;
 import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
 
 /**
  * Executes the first phase of a two phase operation on one or more remote, slave host controllers.
+ * <p>
+ * The operation is sent to all hosts at once and their responses are handled in the order they arrive. As any host
+ * failure rolls back the whole domain operation, the updates of the hosts which did not respond yet are cancelled as
+ * soon as one host fails. Hosts not responding within twice the operation's blocking timeout are treated as failed.
+ * If requested through the {@link #HOST_LATENCIES} operation header, the time each host took to prepare and to
+ * complete the operation is recorded in the response header of the same name.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
 public class DomainSlaveHandler implements OperationStepHandler {
 
+    /**
+     * The operation header requesting, and the response header listing, the prepare and commit latencies, in ms, per host.
+     */
+    public static final String HOST_LATENCIES = "host-latencies";
+    static final String PREPARE = "prepare";
+    static final String COMMIT = "commit";
+
     private final DomainOperationContext domainOperationContext;
     private final Map<String, ProxyController> hostProxies;
     private final DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry;
@@ -88,10 +104,15 @@ public class DomainSlaveHandler implements OperationStepHandler {
         // Temporary hack to prevent CompositeOperationHandler throwing away domain failure data
         context.attachIfAbsent(CompositeOperationHandler.DOMAIN_EXECUTION_KEY, Boolean.TRUE);
 
+        final long timeout = BlockingTimeout.getDomainBlockingTimeout(operation);
+        final boolean latenciesRequested = operation.hasDefined(OPERATION_HEADERS, HOST_LATENCIES)
+                && operation.get(OPERATION_HEADERS, HOST_LATENCIES).asBoolean();
         final Set<String> outstanding = new HashSet<String>(hostProxies.keySet());
         final List<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>> results = new ArrayList<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>>();
         final Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults = new HashMap<String, HostControllerUpdateTask.ExecutedHostRequest>();
+        final Map<String, Long> prepareLatencies = latenciesRequested ? new HashMap<String, Long>() : null;
         final HostControllerUpdateTask.ProxyOperationListener listener = new HostControllerUpdateTask.ProxyOperationListener();
+        final long start = System.nanoTime();
         for (Map.Entry<String, ProxyController> entry : hostProxies.entrySet()) {
             // Create the proxy task
             final String host = entry.getKey();
@@ -116,17 +137,39 @@ public class DomainSlaveHandler implements OperationStepHandler {
             finalResults.put(host, finalResult);
         }
 
-        // Wait for all hosts to reach the prepared state
+        // Wait for all hosts to reach the prepared state, handling the responses as they arrive
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
         boolean interrupted = false;
         boolean completeStepCalled = false;
+        boolean cancelled = false;
         try {
             try {
                 while(outstanding.size() > 0) {
-                    final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared = listener.retrievePreparedOperation();
+                    final long remaining = deadline - System.nanoTime();
+                    final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared = remaining > 0
+                            ? listener.retrievePreparedOperation(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (prepared == null) {
+                        // The hosts did not respond in time, fail and cancel them
+                        HOST_CONTROLLER_LOGGER.timedOutAwaitingHostPreparedResponse(timeout, outstanding);
+                        // Set rollback only
+                        domainOperationContext.setFailureReported(true);
+                        for (final String hostName : outstanding) {
+                            final ModelNode failedResult = new ModelNode();
+                            failedResult.get(OUTCOME).set(FAILED);
+                            failedResult.get(FAILURE_DESCRIPTION).set(DomainControllerLogger.ROOT_LOGGER.timedOutAwaitingResultFromHost(hostName));
+                            domainOperationContext.addHostControllerResult(hostName, failedResult);
+                            finalResults.get(hostName).asyncCancel();
+                        }
+                        outstanding.clear();
+                        break;
+                    }
                     final String hostName = prepared.getOperation().getName();
                     if(! outstanding.remove(hostName)) {
                         continue;
                     }
+                    if (prepareLatencies != null) {
+                        prepareLatencies.put(hostName, System.nanoTime() - start);
+                    }
                     final ModelNode preparedResult = prepared.getPreparedResult();
                     HOST_CONTROLLER_LOGGER.tracef("Preliminary result for remote host %s is %s", hostName, preparedResult);
                     // See if we have to reject the result
@@ -147,6 +190,16 @@ public class DomainSlaveHandler implements OperationStepHandler {
                         domainOperationContext.addHostControllerResult(hostName, preparedResult);
                     }
                     results.add(prepared);
+
+                    if (!cancelled && (reject || preparedResult.has(FAILURE_DESCRIPTION)) && outstanding.size() > 0) {
+                        // A host failure rolls back the domain operation, so don't let the other hosts complete
+                        // their updates. Their responses are still awaited, so any prepared update is rolled back.
+                        cancelled = true;
+                        HOST_CONTROLLER_LOGGER.debugf("Remote host %s failed, cancelling the updates for hosts %s", hostName, outstanding);
+                        for (final String outstandingHost : outstanding) {
+                            finalResults.get(outstandingHost).asyncCancel();
+                        }
+                    }
                 }
             } catch (InterruptedException ie) {
                 interrupted = true;
@@ -185,7 +238,7 @@ public class DomainSlaveHandler implements OperationStepHandler {
             context.completeStep(new OperationContext.ResultHandler() {
                 @Override
                 public void handleResult(OperationContext.ResultAction resultAction, OperationContext context, ModelNode operation) {
-                    finalizeOp(results, finalResults, false, context);
+                    finalizeOp(results, finalResults, prepareLatencies, timeout, false, context);
                 }
             });
 
@@ -193,19 +246,21 @@ public class DomainSlaveHandler implements OperationStepHandler {
 
         } finally {
             if (!completeStepCalled) {
-                finalizeOp(results, finalResults, interrupted, context);
+                finalizeOp(results, finalResults, prepareLatencies, timeout, interrupted, context);
             }
         }
     }
 
     private void finalizeOp(final List<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>> results,
                             final Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults,
+                            final Map<String, Long> prepareLatencies, final long timeout,
                             final boolean interrupted, final OperationContext context) {
         boolean interruptThread = Thread.interrupted() || interrupted;
         try {
             // Inform the remote hosts whether to commit or roll back their updates
             // Do this in parallel
             boolean rollback = domainOperationContext.isCompleteRollback();
+            final long start = System.nanoTime();
             for(final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared : results) {
 
                 // Clear any thread interrupted status so we know the commit/rollback message will go out
@@ -220,14 +275,59 @@ public class DomainSlaveHandler implements OperationStepHandler {
                     prepared.rollback();
                 }
             }
-            // Now get the final results from the hosts
-            boolean patient = !interruptThread;
+            // Now get the final results from the hosts, in the order they arrive
+            final BlockingQueue<String> completed = new LinkedBlockingQueue<String>();
+            final CompletionListener completionListener = new CompletionListener(completed);
+            final Set<String> pending = new HashSet<String>();
             for(final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared : results) {
                 final String hostName = prepared.getOperation().getName();
+                if (pending.add(hostName)) {
+                    finalResults.get(hostName).getFinalResult().addListener(completionListener, hostName);
+                }
+            }
+            final Map<String, Long> commitLatencies = prepareLatencies != null ? new HashMap<String, Long>() : null;
+            final long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+            boolean patient = !interruptThread;
+            while (pending.size() > 0) {
+                String hostName = null;
+                if (patient) {
+                    try {
+                        final long remaining = deadline - System.nanoTime();
+                        hostName = remaining > 0 ? completed.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    } catch (InterruptedException e) {
+                        interruptThread = true;
+                    }
+                } else {
+                    hostName = completed.poll();
+                }
+                if (hostName == null) {
+                    // Interrupted or timed out; just grab the responses which are already available
+                    for (final String pendingHost : pending) {
+                        final AsyncFuture<OperationResponse> future = finalResults.get(pendingHost).getFinalResult();
+                        if (!future.isDone()) {
+                            future.cancel(true);
+                            if (interruptThread) {
+                                CONTROLLER_LOGGER.interruptedAwaitingFinalResponse(pendingHost);
+                            } else {
+                                CONTROLLER_LOGGER.timedOutAwaitingFinalResponse(pendingHost);
+                            }
+                        }
+                    }
+                    if (!patient) {
+                        break;
+                    }
+                    patient = false;
+                    continue;
+                }
+                if (!pending.remove(hostName)) {
+                    continue;
+                }
                 final HostControllerUpdateTask.ExecutedHostRequest request = finalResults.get(hostName);
-                final Future<OperationResponse> future = prepared.getFinalResult();
                 try {
-                    final OperationResponse finalResponse = patient ? future.get() : future.get(0, TimeUnit.MILLISECONDS);
+                    final OperationResponse finalResponse = request.getFinalResult().get();
+                    if (commitLatencies != null) {
+                        commitLatencies.put(hostName, System.nanoTime() - start);
+                    }
                     final ModelNode transformedResult = request.transformResult(finalResponse.getResponseNode());
                     domainOperationContext.addHostControllerResult(hostName, transformedResult);
 
@@ -238,21 +338,21 @@ public class DomainSlaveHandler implements OperationStepHandler {
                     HOST_CONTROLLER_LOGGER.tracef("Final result for remote host %s is %s", hostName, finalResponse.getResponseNode());
 
                 } catch (InterruptedException e) {
+                    // Not expected, the response is complete
                     interruptThread = true;
-                    future.cancel(true);
-                    // We suppressed an interrupt, so don't block indefinitely waiting for other responses;
-                    // just grab them if they are already available
                     patient = false;
                     CONTROLLER_LOGGER.interruptedAwaitingFinalResponse(hostName);
                 } catch (ExecutionException e) {
                     CONTROLLER_LOGGER.caughtExceptionAwaitingFinalResponse(e.getCause(), hostName);
-                } catch (TimeoutException e) {
-                    // This only happens if we were interrupted previously, so treat it that way
-                    future.cancel(true);
-                    CONTROLLER_LOGGER.interruptedAwaitingFinalResponse(hostName);
+                } catch (CancellationException e) {
+                    // Cancelled above, already logged
                 }
             }
 
+            if (prepareLatencies != null) {
+                recordLatencies(context, prepareLatencies, commitLatencies);
+            }
+
             if (!rollback) {
                 runtimeIgnoreTransformationRegistry.updateKnownResources(context);
             }
@@ -263,4 +363,42 @@ public class DomainSlaveHandler implements OperationStepHandler {
         }
     }
 
+    private static void recordLatencies(final OperationContext context, final Map<String, Long> prepareLatencies,
+                                        final Map<String, Long> commitLatencies) {
+        if (prepareLatencies.isEmpty()) {
+            return;
+        }
+        final ModelNode latencies = context.getResponseHeaders().get(HOST_LATENCIES);
+        for (Map.Entry<String, Long> entry : prepareLatencies.entrySet()) {
+            latencies.get(entry.getKey(), PREPARE).set(TimeUnit.NANOSECONDS.toMillis(entry.getValue()));
+        }
+        for (Map.Entry<String, Long> entry : commitLatencies.entrySet()) {
+            latencies.get(entry.getKey(), COMMIT).set(TimeUnit.NANOSECONDS.toMillis(entry.getValue()));
+        }
+    }
+
+    private static class CompletionListener implements AsyncFuture.Listener<OperationResponse, String> {
+
+        private final BlockingQueue<String> completed;
+
+        private CompletionListener(final BlockingQueue<String> completed) {
+            this.completed = completed;
+        }
+
+        @Override
+        public void handleComplete(AsyncFuture<? extends OperationResponse> future, String hostName) {
+            completed.add(hostName);
+        }
+
+        @Override
+        public void handleFailed(AsyncFuture<? extends OperationResponse> future, Throwable cause, String hostName) {
+            completed.add(hostName);
+        }
+
+        @Override
+        public void handleCancelled(AsyncFuture<? extends OperationResponse> future, String hostName) {
+            completed.add(hostName);
+        }
+    }
+
 }
@@ -42,7 +42,6 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.Future;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -152,7 +151,7 @@ class HostControllerUpdateTask {
             this(futureResult, transformedOperation, transformedOperation);
         }
 
-        public Future<OperationResponse> getFinalResult() {
+        public AsyncFuture<OperationResponse> getFinalResult() {
             return futureResult;
         }
 
@@ -28,6 +28,7 @@ package org.jboss.as.domain.controller.plan;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONCURRENT_GROUPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GRACEFUL_SHUTDOWN_TIMEOUT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ACROSS_GROUPS;
@@ -42,6 +43,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 
 import javax.security.auth.Subject;
 
@@ -81,6 +83,10 @@ public class RolloutPlanController {
         this.shutdown = rolloutPlan.hasDefined(SHUTDOWN) && rolloutPlan.get(SHUTDOWN).asBoolean();
         this.gracefulShutdownPeriod = rolloutPlan.hasDefined(GRACEFUL_SHUTDOWN_TIMEOUT) ? rolloutPlan.get(GRACEFUL_SHUTDOWN_TIMEOUT).asInt() : -1;
 
+        // Limits the servers in progress across all server groups updated concurrently
+        final Semaphore rolloutPermits = rolloutPlan.hasDefined(MAX_CONCURRENT_SERVERS)
+                ? new Semaphore(rolloutPlan.get(MAX_CONCURRENT_SERVERS).asInt(), true) : null;
+
         final List<Runnable> rollingTasks = new ArrayList<Runnable>();
         this.rootTask = new RollingUpdateTask(rollingTasks);
 
@@ -131,8 +137,15 @@ public class RolloutPlanController {
                     }
                     ServerUpdatePolicy policy = new ServerUpdatePolicy(parent, serverGroupName, servers, maxFailures);
 
-                    seriesTasks.add(rollingGroup ? new RollingServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject)
-                        : new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject));
+                    if (rolloutPermits != null || policyNode.hasDefined(MAX_CONCURRENT_SERVERS)) {
+                        final int maxConcurrentServers = rollingGroup ? 1
+                                : policyNode.hasDefined(MAX_CONCURRENT_SERVERS) ? policyNode.get(MAX_CONCURRENT_SERVERS).asInt() : servers.size();
+                        seriesTasks.add(new WindowedServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject,
+                                maxConcurrentServers, rolloutPermits));
+                    } else {
+                        seriesTasks.add(rollingGroup ? new RollingServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject)
+                            : new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject));
+                    }
 
                     updatePolicies.put(serverGroupName, policy);
 
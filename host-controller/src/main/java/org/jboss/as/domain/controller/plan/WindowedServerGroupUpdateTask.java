@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+import javax.security.auth.Subject;
+
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.as.domain.controller.logging.DomainControllerLogger;
+
+/**
+ * Updates the servers of a server group with a bounded number of servers in progress. The next server is updated as
+ * soon as one of the servers in progress returned its prepared result, so a slow server does not hold back the others.
+ * <p>
+ * Besides the limit of the server group, the servers in progress can be limited across all server groups of the
+ * rollout plan by a shared semaphore.
+ */
+class WindowedServerGroupUpdateTask extends AbstractServerGroupRolloutTask implements Runnable {
+
+    private final int maxConcurrentServers;
+    private final Semaphore rolloutPermits;
+
+    /**
+     * Creates a new task.
+     *
+     * @param tasks                the server update tasks
+     * @param updatePolicy         the update policy of the server group
+     * @param executor             the executor of the server update tasks
+     * @param subject              the subject to run the tasks as
+     * @param maxConcurrentServers the maximum number of servers of the server group in progress
+     * @param rolloutPermits       the permits shared by the server groups of the rollout plan, or {@code null} if the
+     *                             servers in progress are only limited per server group
+     */
+    WindowedServerGroupUpdateTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy, ServerTaskExecutor executor,
+                                  Subject subject, int maxConcurrentServers, Semaphore rolloutPermits) {
+        super(tasks, updatePolicy, executor, subject);
+        assert maxConcurrentServers > 0 : "maxConcurrentServers must be positive";
+        this.maxConcurrentServers = maxConcurrentServers;
+        this.rolloutPermits = rolloutPermits;
+    }
+
+    @Override
+    public void execute() {
+        final Set<ServerIdentity> outstanding = new HashSet<ServerIdentity>();
+        final ServerTaskExecutor.ServerOperationListener listener = new ServerTaskExecutor.ServerOperationListener();
+        final Iterator<ServerUpdateTask> iterator = tasks.iterator();
+        final int total = tasks.size();
+        int prepared = 0;
+        boolean interrupted = false;
+        try {
+            while (iterator.hasNext() || !outstanding.isEmpty()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                // Fill the window. Only block for a shared permit if no server of this group is in progress, otherwise
+                // groups holding permits while waiting for more could wait for each other forever
+                while (iterator.hasNext() && outstanding.size() < maxConcurrentServers && acquirePermit(outstanding.isEmpty())) {
+                    final ServerUpdateTask task = iterator.next();
+                    final ServerIdentity identity = task.getServerIdentity();
+                    boolean executed = false;
+                    try {
+                        if (updatePolicy.canUpdateServer(identity) && executor.executeTask(listener, task)) {
+                            outstanding.add(identity);
+                            executed = true;
+                        } else {
+                            DomainControllerLogger.DOMAIN_DEPLOYMENT_LOGGER.tracef("Skipping server update task for %s", identity);
+                        }
+                    } finally {
+                        if (!executed) {
+                            releasePermits(1);
+                        }
+                    }
+                }
+                if (outstanding.isEmpty()) {
+                    continue;
+                }
+                // Wait for the next prepared result, which frees a slot in the window
+                final TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> preparedOperation = listener.retrievePreparedOperation();
+                final ServerIdentity identity = preparedOperation.getOperation().getIdentity();
+                recordPreparedOperation(identity, preparedOperation);
+                outstanding.remove(identity);
+                releasePermits(1);
+                DomainControllerLogger.DOMAIN_DEPLOYMENT_LOGGER.serverPreparedOperation(identity.getServerName(),
+                        updatePolicy.getServerGroupName(), ++prepared, total);
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        } finally {
+            if (!outstanding.isEmpty()) {
+                // Interrupted or failed, don't leave the servers in progress holding their permits
+                DomainControllerLogger.DOMAIN_DEPLOYMENT_LOGGER.interruptedAwaitingPreparedResponse(getClass().getSimpleName(), outstanding);
+                for (ServerIdentity identity : outstanding) {
+                    executor.cancelTask(identity);
+                }
+                releasePermits(outstanding.size());
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean acquirePermit(final boolean block) throws InterruptedException {
+        if (rolloutPermits == null) {
+            return true;
+        }
+        if (block) {
+            rolloutPermits.acquire();
+            return true;
+        }
+        return rolloutPermits.tryAcquire();
+    }
+
+    private void releasePermits(final int permits) {
+        if (rolloutPermits != null) {
+            rolloutPermits.release(permits);
+        }
+    }
+}
@@ -38,6 +38,7 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
@@ -71,6 +72,16 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
             .setStorageRuntime()
             .build();
 
+    private static final AttributeDefinition ROUND_TRIP_TIME_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.ROUND_TRIP_TIME, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    private static final AttributeDefinition MAX_ROUND_TRIP_TIME_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.MAX_ROUND_TRIP_TIME, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
     private static final ObjectTypeAttributeDefinition EVENT = ObjectTypeAttributeDefinition.Builder.of("event", EVENT_TYPE_DEF, ADDRESS_DEF, TIMESTAMP_DEF)
             .setStorageRuntime()
             .build();
@@ -99,6 +110,8 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerReadOnlyAttribute(CONNECTION_DEF, attributeReadHandler);
         resourceRegistration.registerReadOnlyAttribute(EVENT_LIST, attributeReadHandler);
+        resourceRegistration.registerMetric(ROUND_TRIP_TIME_DEF, attributeReadHandler);
+        resourceRegistration.registerMetric(MAX_ROUND_TRIP_TIME_DEF, attributeReadHandler);
     }
 
     @Override
@@ -136,11 +149,24 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
                     case HostConnectionInfo.EVENTS:
                         processEvents(info, result.setEmptyList());
                         break;
+                    case HostConnectionInfo.ROUND_TRIP_TIME:
+                        setRoundTripTime(info.getRoundTripTime(), result);
+                        break;
+                    case HostConnectionInfo.MAX_ROUND_TRIP_TIME:
+                        setRoundTripTime(info.getMaxRoundTripTime(), result);
+                        break;
                 }
             }
         }
     }
 
+    private static void setRoundTripTime(final long roundTripTime, final ModelNode result) {
+        // Undefined until the first heartbeat response
+        if (roundTripTime >= 0) {
+            result.set(roundTripTime);
+        }
+    }
+
     static void processEvents(final HostConnectionInfo info, final ModelNode list) {
         for (final HostConnectionInfo.Event event : info.getEvents()) {
             event.toModelNode(list.add());
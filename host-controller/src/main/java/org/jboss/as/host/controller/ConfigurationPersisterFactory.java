@@ -31,8 +31,10 @@ import javax.xml.namespace.QName;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.extension.ExtensionRegistry;
+import org.jboss.as.controller.parsing.ExtensionXml;
 import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.as.controller.persistence.BackupXmlConfigurationPersister;
+import org.jboss.as.controller.persistence.BootOperationCache;
 import org.jboss.as.controller.persistence.ConfigurationFile;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
@@ -79,6 +81,10 @@ public class ConfigurationPersisterFactory {
                 persister.registerAdditionalRootElement(new QName(namespace.getUriString(), "domain"), domainXml);
             }
         }
+        if (BootOperationCache.isEnabled()) {
+            persister.setBootOperationCache(new BootOperationCache(file.getBootOperationCacheFile(),
+                    new ExtensionXml(Module.getBootModuleLoader(), executorService, extensionRegistry)));
+        }
         extensionRegistry.setWriterRegistry(persister);
         return persister;
     }
@@ -135,6 +135,7 @@ import org.jboss.as.process.ProcessControllerClient;
 import org.jboss.as.process.ProcessInfo;
 import org.jboss.as.process.ProcessMessageHandler;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
+import org.jboss.as.protocol.mgmt.ManagementHeartbeat;
 import org.jboss.as.remoting.management.ManagementRemotingServices;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.repository.HostFileRepository;
@@ -209,6 +210,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
     private volatile ServerInventory serverInventory;
 
     private volatile ScheduledExecutorService pingScheduler;
+    private volatile ManagementHeartbeat slaveHeartbeat;
 
 
     static ServiceController<ModelController> addService(final ServiceTarget serviceTarget,
@@ -320,6 +322,9 @@ public class DomainModelControllerService extends AbstractControllerService impl
         }
 
         final SlaveHostPinger pinger = remoteConnectionId == null ? null : new SlaveHostPinger(hostName, handler, pingScheduler, remoteConnectionId);
+        if (pinger != null) {
+            pinger.startHeartbeat(slaveHeartbeat);
+        }
         final String address = handler.getRemoteAddress().getHostAddress();
         slaveHostRegistrations.registerHost(hostName, pinger, address);
 
@@ -460,6 +465,9 @@ public class DomainModelControllerService extends AbstractControllerService impl
         prepareStepHandler.setExecutorService(executorService);
         ThreadFactory pingerThreadFactory = new JBossThreadFactory(new ThreadGroup("proxy-pinger-threads"), Boolean.TRUE, null, "%G - %t", null, null, doPrivileged(GetAccessControlContextAction.getInstance()));
         pingScheduler = Executors.newScheduledThreadPool(PINGER_POOL_SIZE, pingerThreadFactory);
+        // A single task sends the heartbeats to all slaves
+        slaveHeartbeat = new ManagementHeartbeat(pingScheduler, executorService, SlaveHostPinger.STD_INTERVAL, SlaveHostPinger.STD_TIMEOUT);
+        slaveHeartbeat.start();
 
         super.start(context);
 
@@ -817,6 +825,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
     }
 
     protected void stopAsynchronous(StopContext context)  {
+        slaveHeartbeat.stop();
         pingScheduler.shutdownNow();
     }
 
@@ -198,6 +198,16 @@ public class DomainSlaveHostRegistrations {
             return events;
         }
 
+        @Override
+        public long getRoundTripTime() {
+            return pinger != null && connected ? pinger.getRoundTripTime() : -1;
+        }
+
+        @Override
+        public long getMaxRoundTripTime() {
+            return pinger != null && connected ? pinger.getMaxRoundTripTime() : -1;
+        }
+
         protected String getAddress() {
             return address;
         }
@@ -28,12 +28,9 @@ import java.net.URI;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 import javax.net.ssl.SSLContext;
 import javax.security.auth.callback.CallbackHandler;
@@ -52,20 +49,18 @@ import org.jboss.as.protocol.ProtocolChannelClient;
 import org.jboss.as.protocol.ProtocolConnectionConfiguration;
 import org.jboss.as.protocol.ProtocolConnectionManager;
 import org.jboss.as.protocol.ProtocolConnectionUtils;
-import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.AbstractManagementRequest;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
 import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.FutureManagementChannel;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
-import org.jboss.as.protocol.mgmt.ManagementPingRequest;
+import org.jboss.as.protocol.mgmt.ManagementHeartbeat;
 import org.jboss.as.protocol.mgmt.ManagementPongRequestHandler;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.remoting.management.ManagementRemotingServices;
 import org.jboss.dmr.ModelNode;
 import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.Connection;
-import org.jboss.threads.AsyncFuture;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
@@ -108,8 +103,8 @@ class RemoteDomainConnection extends FutureManagementChannel {
     private final ProtocolChannelClient.Configuration configuration;
     private final ManagementChannelHandler channelHandler;
     private final ExecutorService executorService;
-    private final ScheduledExecutorService scheduledExecutorService;
     private final ManagementPongRequestHandler pongHandler = new ManagementPongRequestHandler();
+    private final ManagementHeartbeat heartbeat;
     private final List<DiscoveryOption> discoveryOptions;
     private final RunningMode runningMode;
     private URI uri;
@@ -131,7 +126,7 @@ class RemoteDomainConnection extends FutureManagementChannel {
         DiscoveryHostStategy.DEFAULT_STRATEGY.organize(this.discoveryOptions);
         this.executorService = executorService;
         this.channelHandler = new ManagementChannelHandler(this, executorService);
-        this.scheduledExecutorService = scheduledExecutorService;
+        this.heartbeat = new ManagementHeartbeat(scheduledExecutorService, executorService, INTERVAL, TIMEOUT);
         this.runningMode = runningMode;
         this.connectionManager = ProtocolConnectionManager.create(new InitialConnectTask());
     }
@@ -180,6 +175,7 @@ class RemoteDomainConnection extends FutureManagementChannel {
                 }
             }
         } finally {
+            heartbeat.stop();
             try {
                 super.close();
             } finally {
@@ -314,14 +310,21 @@ class RemoteDomainConnection extends FutureManagementChannel {
     }
 
     void registered() {
-//        schedule(new PingTask());
+        try {
+            // Cancelled once the channel is closed
+            heartbeat.register(channelHandler, new ManagementHeartbeat.Listener() {
+                @Override
+                public void heartbeatTimedOut(long timeout) {
+                    HostControllerLogger.DOMAIN_LOGGER.masterHostControllerUnreachable(timeout);
+                }
+            });
+            heartbeat.start();
+        } catch (IOException e) {
+            HostControllerLogger.DOMAIN_LOGGER.debug("Failed to register the heartbeat", e);
+        }
         callback.registrationComplete(channelHandler);
     }
 
-    private void schedule(PingTask task) {
-        scheduledExecutorService.schedule(task, INTERVAL, TimeUnit.MILLISECONDS);
-    }
-
     interface HostRegistrationCallback {
 
         /**
@@ -514,60 +517,6 @@ class RemoteDomainConnection extends FutureManagementChannel {
 
     }
 
-    private class PingTask implements Runnable {
-
-        private Long remoteInstanceID;
-
-        @Override
-        public void run() {
-            if (isConnected()) {
-                boolean fail = false;
-                AsyncFuture<Long> future = null;
-                try {
-                    if (System.currentTimeMillis() - channelHandler.getLastMessageReceivedTime() > INTERVAL) {
-                        future = channelHandler.executeRequest(ManagementPingRequest.INSTANCE, null).getResult();
-                        Long id = future.get(TIMEOUT, TimeUnit.MILLISECONDS);
-                        if (remoteInstanceID != null && !remoteInstanceID.equals(id)) {
-                            HostControllerLogger.DOMAIN_LOGGER.masterHostControllerChanged();
-                            fail = true;
-                        } else {
-                            remoteInstanceID = id;
-                        }
-                    }
-                } catch (IOException e) {
-                    HostControllerLogger.DOMAIN_LOGGER.debug("Caught exception sending ping request", e);
-                } catch (InterruptedException e) {
-                    safeCancel(future);
-                    Thread.currentThread().interrupt();
-                } catch (ExecutionException e) {
-                    HostControllerLogger.DOMAIN_LOGGER.debug("Caught exception sending ping request", e);
-                } catch (TimeoutException e) {
-                    fail = true;
-                    safeCancel(future);
-                    HostControllerLogger.DOMAIN_LOGGER.masterHostControllerUnreachable(TIMEOUT);
-                } finally {
-                    if (fail) {
-                        Channel channel = null;
-                        try {
-                            channel = channelHandler.getChannel();
-                        } catch (IOException e) {
-                            // ignore; shouldn't happen as the channel is already established if this task is running
-                        }
-                        StreamUtils.safeClose(channel);
-                    } else {
-                        schedule(this);
-                    }
-                }
-            }
-        }
-
-        void safeCancel(Future<?> future) {
-            if (future != null) {
-                future.cancel(true);
-            }
-        }
-    }
-
     class InitialConnectTask implements ProtocolConnectionManager.ConnectTask {
 
         @Override
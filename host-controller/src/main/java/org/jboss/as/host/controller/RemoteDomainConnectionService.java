@@ -101,7 +101,9 @@ import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.remoting.management.ManagementRemotingServices;
 import org.jboss.as.repository.ContentReference;
 import org.jboss.as.repository.HostFileRepository;
+import org.jboss.as.repository.RemoteFileRequestAndHandler;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.CannotCreateLocalDirectoryException;
+import org.jboss.as.repository.RemoteFileRequestAndHandler.ContentVerifier;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.DidNotReadEntireFileException;
 import org.jboss.as.version.ProductConfig;
 import org.jboss.dmr.ModelNode;
@@ -134,6 +136,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private static final int CONNECTION_TIMEOUT_DEFAULT = 30000;
     private static final String CONNECTION_TIMEOUT_PROPERTY = "jboss.host.domain.connection.timeout";
     private static final int CONNECTION_TIMEOUT = getSystemProperty(CONNECTION_TIMEOUT_PROPERTY, CONNECTION_TIMEOUT_DEFAULT);
+    private static final int GET_FILE_ATTEMPTS = 3;
 
     private static final ModelNode APPLY_EXTENSIONS = new ModelNode();
     private static final ModelNode APPLY_DOMAIN_MODEL = new ModelNode();
@@ -573,11 +576,13 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         private final byte rootId;
         private final String filePath;
         private final HostFileRepository localFileRepository;
+        private final File stagingPath;
 
         private GetFileRequest(final byte rootId, final String filePath, final HostFileRepository localFileRepository) {
             this.rootId = rootId;
             this.filePath = filePath;
             this.localFileRepository = localFileRepository;
+            this.stagingPath = new File(tempDir, "remote-files" + File.separator + rootId + File.separator + filePath);
         }
 
         @Override
@@ -589,12 +594,15 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         protected void sendRequest(ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
             output.write(DomainControllerProtocol.PARAM_HOST_ID);
             output.writeUTF(localHostInfo.getLocalHostName());
-            DomainRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, rootId, filePath);
+            // Deployment content is identified by its hash and cannot change, so a failed transfer can be resumed
+            final boolean resume = rootId == DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT;
+            DomainRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, rootId, filePath, stagingPath, resume);
         }
 
         @Override
         public void handleRequest(DataInput input, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context) throws IOException {
             final File localPath;
+            ContentVerifier verifier = null;
             switch (rootId) {
                 case DomainControllerProtocol.PARAM_ROOT_ID_FILE: {
                     localPath = localFileRepository.getFile(filePath);
@@ -607,6 +615,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
                     byte[] hash = HashUtil.hexStringToByteArray(filePath);
                     localPath = localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
+                    verifier = RemoteFileRequestAndHandler.deploymentContentVerifier(hash);
                     break;
                 }
                 default: {
@@ -614,7 +623,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 }
             }
             try {
-                DomainRemoteFileRequestAndHandler.INSTANCE.handleResponse(input, localPath, ROOT_LOGGER, resultHandler, context);
+                DomainRemoteFileRequestAndHandler.INSTANCE.handleResponse(input, localPath, stagingPath, verifier, ROOT_LOGGER, resultHandler, context);
             } catch (CannotCreateLocalDirectoryException e) {
                 throw HostControllerLogger.ROOT_LOGGER.cannotCreateLocalDirectory(e.getDir());
             } catch (DidNotReadEntireFileException e) {
@@ -677,10 +686,17 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final RemoteFileRepositoryExecutor remoteFileRepositoryExecutor = new RemoteFileRepositoryExecutor() {
         public File getFile(final String relativePath, final byte repoId, HostFileRepository localFileRepository) {
             if(connection.isConnected()) {
-                try {
-                    return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
-                } catch (Exception e) {
-                    throw HostControllerLogger.ROOT_LOGGER.failedToGetFileFromRemoteRepository(e);
+                int attempt = 1;
+                for (;;) {
+                    try {
+                        return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
+                    } catch (Exception e) {
+                        // The next attempt resumes from the content received so far
+                        if (attempt++ >= GET_FILE_ATTEMPTS || !connection.isConnected()) {
+                            throw HostControllerLogger.ROOT_LOGGER.failedToGetFileFromRemoteRepository(e);
+                        }
+                        ROOT_LOGGER.debugf(e, "Failed to get %s from the remote repository, retrying", relativePath);
+                    }
                 }
             } else {
                 return localFileRepository.getFile(relativePath);
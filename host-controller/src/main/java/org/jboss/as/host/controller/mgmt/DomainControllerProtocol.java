@@ -49,4 +49,8 @@ public interface DomainControllerProtocol extends ModelControllerProtocol {
     byte FILE_START = 0x30;
     byte PARAM_FILE_SIZE = 0x31;
     byte FILE_END = 0x32;
+    byte PARAM_CHUNKED = 0x33;
+    byte PARAM_NUM_FILES_CHUNKED = 0x34;
+    byte PARAM_FILE_OFFSET = 0x35;
+    byte FILE_CHUNK = 0x36;
 }
@@ -23,7 +23,9 @@ package org.jboss.as.host.controller.mgmt;
 
 import java.util.concurrent.Executor;
 
+import org.jboss.as.repository.OutboundFileTransfers;
 import org.jboss.as.repository.RemoteFileRequestAndHandler;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  *
@@ -31,7 +33,7 @@ import org.jboss.as.repository.RemoteFileRequestAndHandler;
  */
 public class DomainRemoteFileRequestAndHandler extends RemoteFileRequestAndHandler {
 
-    public static final RemoteFileProtocolIdMapper MAPPER = new RemoteFileProtocolIdMapper() {
+    public static final ChunkedProtocolIdMapper MAPPER = new ChunkedProtocolIdMapper() {
         public byte paramRootId() {
             return DomainControllerProtocol.PARAM_ROOT_ID;
         }
@@ -55,12 +57,49 @@ public class DomainRemoteFileRequestAndHandler extends RemoteFileRequestAndHandl
         public byte fileEnd() {
             return DomainControllerProtocol.FILE_END;
         }
+
+        public byte paramChunked() {
+            return DomainControllerProtocol.PARAM_CHUNKED;
+        }
+
+        public byte paramNumFilesChunked() {
+            return DomainControllerProtocol.PARAM_NUM_FILES_CHUNKED;
+        }
+
+        public byte paramFileOffset() {
+            return DomainControllerProtocol.PARAM_FILE_OFFSET;
+        }
+
+        public byte fileChunk() {
+            return DomainControllerProtocol.FILE_CHUNK;
+        }
     };
 
+    private static final String MAX_CONCURRENT_FILE_TRANSFERS_PROPERTY = "jboss.as.domain.max-concurrent-file-transfers";
+    private static final int MAX_CONCURRENT_FILE_TRANSFERS_DEFAULT = 8;
+
+    /**
+     * The files sent by the master to all slaves concurrently.
+     */
+    public static final OutboundFileTransfers TRANSFERS = new OutboundFileTransfers(getMaxConcurrentFileTransfers());
+
     public static final DomainRemoteFileRequestAndHandler INSTANCE = new DomainRemoteFileRequestAndHandler(null);
 
     public DomainRemoteFileRequestAndHandler(Executor asyncExecutor) {
         super(MAPPER, asyncExecutor);
     }
 
+    public DomainRemoteFileRequestAndHandler(Executor asyncExecutor, OutboundFileTransfers transfers) {
+        super(MAPPER, asyncExecutor, transfers);
+    }
+
+    private static int getMaxConcurrentFileTransfers() {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(MAX_CONCURRENT_FILE_TRANSFERS_PROPERTY, null);
+        try {
+            final int max = value == null ? MAX_CONCURRENT_FILE_TRANSFERS_DEFAULT : Integer.parseInt(value.trim());
+            return max > 0 ? max : MAX_CONCURRENT_FILE_TRANSFERS_DEFAULT;
+        } catch (NumberFormatException ignored) {
+            return MAX_CONCURRENT_FILE_TRANSFERS_DEFAULT;
+        }
+    }
 }
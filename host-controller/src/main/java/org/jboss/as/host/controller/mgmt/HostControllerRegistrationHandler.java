@@ -25,6 +25,7 @@ package org.jboss.as.host.controller.mgmt;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IGNORED_RESOURCES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.host.controller.logging.HostControllerLogger.DOMAIN_LOGGER;
 import static org.jboss.as.process.protocol.ProtocolUtils.expectHeader;
@@ -62,6 +63,7 @@ import org.jboss.as.domain.controller.HostRegistrations;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
 import org.jboss.as.domain.controller.logging.DomainControllerLogger;
 import org.jboss.as.domain.controller.operations.ReadMasterDomainModelHandler;
+import org.jboss.as.domain.controller.operations.TransformedDomainModelCache;
 import org.jboss.as.host.controller.logging.HostControllerLogger;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
@@ -102,17 +104,25 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
     private final Executor registrationExecutor;
     private final DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry;
     private final HostRegistrations slaveHostRegistrations;
+    private final TransformedDomainModelCache transformedDomainModelCache;
     private final String address;
 
     public HostControllerRegistrationHandler(ManagementChannelHandler handler, DomainController domainController, OperationExecutor operationExecutor,
                                              Executor registrations, DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry,
                                              HostRegistrations slaveHostRegistrations) {
+        this(handler, domainController, operationExecutor, registrations, runtimeIgnoreTransformationRegistry, slaveHostRegistrations, null);
+    }
+
+    public HostControllerRegistrationHandler(ManagementChannelHandler handler, DomainController domainController, OperationExecutor operationExecutor,
+                                             Executor registrations, DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry,
+                                             HostRegistrations slaveHostRegistrations, TransformedDomainModelCache transformedDomainModelCache) {
         this.handler = handler;
         this.operationExecutor = operationExecutor;
         this.domainController = domainController;
         this.registrationExecutor = registrations;
         this.runtimeIgnoreTransformationRegistry = runtimeIgnoreTransformationRegistry;
         this.slaveHostRegistrations = slaveHostRegistrations;
+        this.transformedDomainModelCache = transformedDomainModelCache;
         this.address = HostControllerRegistrationHandler.this.handler.getRemoteAddress().getHostAddress();
     }
 
@@ -290,7 +300,8 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
             // Remotely resolve the subsystem versions and create the transformation
             registrationContext.processSubsystems(transformers, extensions);
             // Now run the read-domain model operation
-            final ReadMasterDomainModelHandler handler = new ReadMasterDomainModelHandler(hostInfo.getHostName(), transformers, runtimeIgnoreTransformationRegistry);
+            final ReadMasterDomainModelHandler handler = new ReadMasterDomainModelHandler(hostInfo.getHostName(), transformers, runtimeIgnoreTransformationRegistry,
+                    transformedDomainModelCache, registrationContext.createTransformationKey());
             context.addStep(READ_DOMAIN_MODEL.getOperation(), handler, OperationContext.Stage.MODEL);
         }
     }
@@ -302,6 +313,8 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
         private final boolean registerProxyController;
         private volatile String hostName;
         private volatile HostInfo hostInfo;
+        private volatile ModelNode ignoredResources;
+        private volatile ModelNode subsystems;
         private ManagementRequestContext<RegistrationContext> responseChannel;
 
         private volatile IOTask<?> task;
@@ -322,6 +335,7 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
         private synchronized void initialize(final String hostName, final ModelNode hostInfo, final ManagementRequestContext<RegistrationContext> responseChannel) {
             this.hostName = hostName;
             this.hostInfo = HostInfo.fromModelNode(hostInfo);
+            this.ignoredResources = hostInfo.hasDefined(IGNORED_RESOURCES) ? hostInfo.get(IGNORED_RESOURCES).clone() : new ModelNode();
             this.responseChannel = responseChannel;
             this.runtimeIgnoreTransformation = DomainControllerRuntimeIgnoreTransformationEntry.create(this.hostInfo, extensionRegistry);
             if (runtimeIgnoreTransformationRegistry != null) {
@@ -435,6 +449,7 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
             if(failed) {
                 throw new OperationFailedException("failed to setup transformers");
             }
+            this.subsystems = subsystems;
             final TransformationTarget target = transformers.getTarget();
             for(final Property subsystem : subsystems.asPropertyList()) {
                 final String subsystemName = subsystem.getName();
@@ -443,6 +458,26 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
             }
         }
 
+        /**
+         * Create the key describing how the domain model gets transformed for this host, so hosts sharing the same
+         * key can share the transformed domain model.
+         *
+         * @return the key, {@code null} if the transformed domain model depends on the host itself
+         */
+        private ModelNode createTransformationKey() {
+            if (hostInfo.isIgnoreUnaffectedConfig()) {
+                // The ignored resources depend on the servers of the host
+                return null;
+            }
+            final ModelNode key = new ModelNode();
+            key.add(hostInfo.getManagementMajorVersion());
+            key.add(hostInfo.getManagementMinorVersion());
+            key.add(hostInfo.getManagementMicroVersion());
+            key.add(subsystems);
+            key.add(ignoredResources);
+            return key;
+        }
+
         protected void setSubsystems(final ModelNode resolved, final ManagementRequestContext<RegistrationContext> responseChannel) {
             this.responseChannel = responseChannel;
             completeTask(resolved);
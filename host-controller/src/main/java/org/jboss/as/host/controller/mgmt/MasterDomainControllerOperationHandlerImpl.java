@@ -91,7 +91,7 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
 
     private class GetFileOperation extends AbstractHostRequestHandler {
 
-        private final DomainRemoteFileRequestAndHandler remoteSupport = new DomainRemoteFileRequestAndHandler(asyncExecutor);
+        private final DomainRemoteFileRequestAndHandler remoteSupport = new DomainRemoteFileRequestAndHandler(asyncExecutor, DomainRemoteFileRequestAndHandler.TRANSFERS);
 
         @Override
         void handleRequest(String hostId, DataInput input, ManagementRequestContext<Void> context) throws IOException {
@@ -28,10 +28,12 @@ import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jboss.as.host.controller.logging.HostControllerLogger;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
+import org.jboss.as.protocol.mgmt.ManagementHeartbeat;
 import org.jboss.as.protocol.mgmt.ManagementPingRequest;
 import org.jboss.remoting3.Channel;
 import org.jboss.threads.AsyncFuture;
@@ -74,6 +76,8 @@ public class SlaveHostPinger {
 
     private volatile Long remoteConnectionID;
     private volatile boolean cancelled;
+    private volatile ManagementHeartbeat.Registration heartbeat;
+    private final AtomicBoolean unreachableReported = new AtomicBoolean();
 
     public SlaveHostPinger(String hostName, ManagementChannelHandler channelHandler, ScheduledExecutorService scheduler, long remoteConnectionID) {
         this.hostName = hostName;
@@ -91,12 +95,63 @@ public class SlaveHostPinger {
         scheduler.schedule(task, delay, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Send a heartbeat to the slave until this pinger is cancelled or the channel is closed. Unlike the pings, the
+     * heartbeat does not check whether the slave was restarted. A slave answering the heartbeat on this channel was
+     * not restarted though, so once the heartbeat is started the pings are only sent after a missed heartbeat.
+     *
+     * @param heartbeat the heartbeat shared by all slaves
+     */
+    public void startHeartbeat(final ManagementHeartbeat heartbeat) {
+        try {
+            this.heartbeat = heartbeat.register(channelHandler, new ManagementHeartbeat.Listener() {
+                @Override
+                public void heartbeatTimedOut(long timeout) {
+                    reportUnreachable(timeout);
+                }
+            });
+        } catch (IOException e) {
+            HostControllerLogger.DOMAIN_LOGGER.debug("Failed to register the heartbeat", e);
+        }
+    }
+
+    /**
+     * Get the smoothed round trip time of the heartbeat.
+     *
+     * @return the round trip time in milliseconds, -1 if not known
+     */
+    public long getRoundTripTime() {
+        final ManagementHeartbeat.Registration heartbeat = this.heartbeat;
+        return heartbeat == null ? -1 : heartbeat.getRoundTripTime();
+    }
+
+    /**
+     * Get the maximum round trip time of the heartbeat.
+     *
+     * @return the round trip time in milliseconds, -1 if not known
+     */
+    public long getMaxRoundTripTime() {
+        final ManagementHeartbeat.Registration heartbeat = this.heartbeat;
+        return heartbeat == null ? -1 : heartbeat.getMaxRoundTripTime();
+    }
+
+    private void reportUnreachable(final long timeout) {
+        // The heartbeat and the ping may both time out on a dead slave
+        if (!cancelled && unreachableReported.compareAndSet(false, true)) {
+            HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerUnreachable(hostName, timeout);
+        }
+    }
+
     public boolean isCancelled() {
         return cancelled;
     }
 
     public void cancel() {
         this.cancelled = true;
+        final ManagementHeartbeat.Registration heartbeat = this.heartbeat;
+        if (heartbeat != null) {
+            heartbeat.cancel();
+        }
     }
 
     private class PingTask implements Runnable {
@@ -115,7 +170,10 @@ public class SlaveHostPinger {
                 boolean fail = false;
                 AsyncFuture<Long> future = null;
                 try {
-                    if (interval < 1 || System.currentTimeMillis() - channelHandler.getLastMessageReceivedTime() > interval) {
+                    final ManagementHeartbeat.Registration heartbeat = SlaveHostPinger.this.heartbeat;
+                    if (heartbeat != null && heartbeat.isResponsive()) {
+                        HostControllerLogger.DOMAIN_LOGGER.tracef("Not pinging %s, it answers the heartbeat", hostName);
+                    } else if (interval < 1 || System.currentTimeMillis() - channelHandler.getLastMessageReceivedTime() > interval) {
                         future = channelHandler.executeRequest(ManagementPingRequest.INSTANCE, null).getResult();
                         Long id = future.get(timeout, TimeUnit.MILLISECONDS);
                         if (!cancelled && remoteConnectionID != null && !remoteConnectionID.equals(id)) {
@@ -135,7 +193,7 @@ public class SlaveHostPinger {
                 } catch (TimeoutException e) {
                     if (!cancelled) {
                         fail = true;
-                        HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerUnreachable(hostName, timeout);
+                        reportUnreachable(timeout);
                     }
                     safeCancel(future);
                 } finally {
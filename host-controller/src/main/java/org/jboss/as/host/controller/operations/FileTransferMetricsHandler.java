@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.host.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.host.controller.mgmt.DomainRemoteFileRequestAndHandler;
+import org.jboss.as.repository.OutboundFileTransfers;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Reads the metrics of the files sent by this host controller, as the domain controller, to the slave host
+ * controllers. The metrics are only registered on the host of the master domain controller, since a slave host
+ * controller does not serve files.
+ */
+public class FileTransferMetricsHandler implements OperationStepHandler {
+
+    static final AttributeDefinition ACTIVE = SimpleAttributeDefinitionBuilder.create("file-transfers-active", ModelType.INT, false)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition QUEUED = SimpleAttributeDefinitionBuilder.create("file-transfers-queued", ModelType.INT, false)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition COMPLETED = SimpleAttributeDefinitionBuilder.create("file-transfers-completed", ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition BYTES_SENT = SimpleAttributeDefinitionBuilder.create("file-transfer-bytes-sent", ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition THROUGHPUT = SimpleAttributeDefinitionBuilder.create("file-transfer-throughput", ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.BYTES_PER_SECOND)
+            .setStorageRuntime()
+            .build();
+
+    private static final FileTransferMetricsHandler INSTANCE = new FileTransferMetricsHandler(DomainRemoteFileRequestAndHandler.TRANSFERS);
+
+    private final OutboundFileTransfers transfers;
+
+    FileTransferMetricsHandler(final OutboundFileTransfers transfers) {
+        this.transfers = transfers;
+    }
+
+    /**
+     * Registers the metrics once this host controller was configured as the master domain controller.
+     *
+     * @param registration the registration of the host resource
+     */
+    public static void registerMetrics(final ManagementResourceRegistration registration) {
+        registration.registerMetric(ACTIVE, INSTANCE);
+        registration.registerMetric(QUEUED, INSTANCE);
+        registration.registerMetric(COMPLETED, INSTANCE);
+        registration.registerMetric(BYTES_SENT, INSTANCE);
+        registration.registerMetric(THROUGHPUT, INSTANCE);
+    }
+
+    @Override
+    public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final String attributeName = operation.require(NAME).asString();
+        final ModelNode result = context.getResult();
+        if (ACTIVE.getName().equals(attributeName)) {
+            result.set(transfers.getActiveTransfers());
+        } else if (QUEUED.getName().equals(attributeName)) {
+            result.set(transfers.getQueuedTransfers());
+        } else if (COMPLETED.getName().equals(attributeName)) {
+            result.set(transfers.getCompletedTransfers());
+        } else if (BYTES_SENT.getName().equals(attributeName)) {
+            result.set(transfers.getBytesSent());
+        } else if (THROUGHPUT.getName().equals(attributeName)) {
+            result.set(transfers.getAverageThroughput());
+        }
+    }
+}
@@ -104,6 +104,8 @@ public class LocalDomainControllerAddHandler implements OperationStepHandler {
         }
 
         if (context.isBooting()) {
+            // Only the master domain controller sends files to the slave host controllers
+            FileTransferMetricsHandler.registerMetrics(context.getResourceRegistrationForUpdate());
             initializeDomain();
         } else {
             context.reloadRequired();
@@ -72,7 +72,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
-import javax.xml.XMLConstants;
 import javax.xml.stream.XMLStreamException;
 
 import org.jboss.as.controller.logging.ControllerLogger;
@@ -87,7 +86,7 @@ import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.as.controller.parsing.ParseUtils;
 import org.jboss.as.controller.parsing.ProfileParsingCompletionHandler;
 import org.jboss.as.controller.persistence.ModelMarshallingContext;
-import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
+import org.jboss.as.controller.persistence.SubsystemXmlMarshaller;
 import org.jboss.as.controller.resource.SocketBindingGroupResourceDefinition;
 import org.jboss.as.domain.controller.resources.DomainRootDefinition;
 import org.jboss.as.domain.controller.resources.ServerGroupResourceDefinition;
@@ -99,7 +98,6 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.Property;
 import org.jboss.modules.ModuleLoader;
-import org.jboss.staxmapper.XMLElementWriter;
 import org.jboss.staxmapper.XMLExtendedStreamReader;
 import org.jboss.staxmapper.XMLExtendedStreamWriter;
 
@@ -113,10 +111,12 @@ public class DomainXml extends CommonXml {
 
     private final ExtensionXml extensionXml;
     private final ExtensionRegistry extensionRegistry;
+    private final SubsystemXmlMarshaller subsystemMarshaller;
 
     public DomainXml(final ModuleLoader loader, ExecutorService executorService, ExtensionRegistry extensionRegistry) {
         super();
         extensionXml = new ExtensionXml(loader, executorService, extensionRegistry);
+        subsystemMarshaller = new SubsystemXmlMarshaller(executorService);
         this.extensionRegistry = extensionRegistry;
     }
 
@@ -189,8 +189,16 @@ public class DomainXml extends CommonXml {
 
         if (modelNode.hasDefined(PROFILE)) {
             writer.writeStartElement(Element.PROFILES.getLocalName());
-            for (final Property profile : modelNode.get(PROFILE).asPropertyList()) {
-                writeProfile(writer, profile.getName(), profile.getValue(), context);
+            final List<Property> profiles = modelNode.get(PROFILE).asPropertyList();
+            final Map<String, ModelNode> subsystems = new LinkedHashMap<String, ModelNode>();
+            for (final Property profile : profiles) {
+                if (profile.getValue().hasDefined(SUBSYSTEM)) {
+                    subsystems.put(profile.getName(), profile.getValue().get(SUBSYSTEM));
+                }
+            }
+            final SubsystemXmlMarshaller.MarshalledSubsystems marshalled = subsystemMarshaller.marshal(writer, subsystems, context);
+            for (final Property profile : profiles) {
+                writeProfile(writer, profile.getName(), profile.getValue(), marshalled);
             }
             writer.writeEndElement();
             writeNewLine(writer);
@@ -990,7 +998,8 @@ public class DomainXml extends CommonXml {
         list.add(addOp);
     }
 
-    private void writeProfile(final XMLExtendedStreamWriter writer, final String profileName, final ModelNode profileNode, final ModelMarshallingContext context) throws XMLStreamException {
+    private void writeProfile(final XMLExtendedStreamWriter writer, final String profileName, final ModelNode profileNode,
+                              final SubsystemXmlMarshaller.MarshalledSubsystems subsystems) throws XMLStreamException {
 
         writer.writeStartElement(Element.PROFILE.getLocalName());
         writer.writeAttribute(Attribute.NAME.getLocalName(), profileName);
@@ -1002,21 +1011,7 @@ public class DomainXml extends CommonXml {
             }
         }
         if (profileNode.hasDefined(SUBSYSTEM)) {
-            final Set<String> subsystemNames = profileNode.get(SUBSYSTEM).keys();
-            if (subsystemNames.size() > 0) {
-                String defaultNamespace = writer.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
-                for (String subsystemName : subsystemNames) {
-                    try {
-                        ModelNode subsystem = profileNode.get(SUBSYSTEM, subsystemName);
-                        XMLElementWriter<SubsystemMarshallingContext> subsystemWriter = context.getSubsystemWriter(subsystemName);
-                        if (subsystemWriter != null) { // FIXME -- remove when extensions are doing the registration
-                            subsystemWriter.writeContent(writer, new SubsystemMarshallingContext(subsystem, writer));
-                        }
-                    } finally {
-                        writer.setDefaultNamespace(defaultNamespace);
-                    }
-                }
-            }
+            subsystems.write(writer, profileName);
         }
         writer.writeEndElement();
     }
@@ -44,6 +44,7 @@ import org.jboss.as.host.controller.HostModelUtil;
 import org.jboss.as.host.controller.operations.LocalHostControllerInfoImpl;
 import org.jboss.as.host.controller.operations.NativeManagementAddHandler;
 import org.jboss.as.host.controller.operations.NativeManagementWriteAttributeHandler;
+import org.jboss.as.remoting.management.ManagementCompressionMetricsHandler;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -104,6 +105,7 @@ public class NativeManagementResourceDefinition extends SimpleResourceDefinition
         for (AttributeDefinition attr : ATTRIBUTE_DEFINITIONS) {
             resourceRegistration.registerReadWriteAttribute(attr, null, NativeManagementWriteAttributeHandler.INSTANCE);
         }
+        ManagementCompressionMetricsHandler.registerMetrics(resourceRegistration);
     }
 
     @Override
@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+
+import java.util.Collections;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link TransformedDomainModelCache}.
+ */
+public class TransformedDomainModelCacheTestCase {
+
+    @Test
+    public void testHitForSameModel() {
+        final TransformedDomainModelCache cache = new TransformedDomainModelCache();
+        final ModelNode key = createKey(1, 8);
+        Assert.assertNull(cache.get(key, createDomainModel("value")));
+        cache.put(key, createDomainModel("value"), createResult());
+
+        final ReadMasterDomainModelUtil util = cache.get(key, createDomainModel("value"));
+        Assert.assertNotNull(util);
+        Assert.assertEquals(createResult().getDescribedResources(), util.getDescribedResources());
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+
+        // A different version is transformed differently
+        Assert.assertNull(cache.get(createKey(1, 7), createDomainModel("value")));
+        Assert.assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testMissForChangedModel() {
+        final TransformedDomainModelCache cache = new TransformedDomainModelCache();
+        final ModelNode key = createKey(1, 8);
+        cache.put(key, createDomainModel("value"), createResult());
+        Assert.assertNull(cache.get(key, createDomainModel("changed")));
+        // The entries got dropped
+        Assert.assertNull(cache.get(key, createDomainModel("value")));
+        Assert.assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testHostsIgnored() {
+        final TransformedDomainModelCache cache = new TransformedDomainModelCache();
+        final ModelNode key = createKey(1, 8);
+        cache.put(key, createDomainModel("value"), createResult());
+
+        final Resource domainModel = createDomainModel("value");
+        final Resource host = Resource.Factory.create();
+        host.getModel().get("name").set("slave");
+        domainModel.registerChild(PathElement.pathElement(HOST, "slave"), host);
+        Assert.assertNotNull(cache.get(key, domainModel));
+    }
+
+    private static ModelNode createKey(final int major, final int minor) {
+        final ModelNode key = new ModelNode();
+        key.add(major);
+        key.add(minor);
+        key.add(0);
+        key.add(new ModelNode().set("test", "1.0.0"));
+        key.add(new ModelNode());
+        return key;
+    }
+
+    private static Resource createDomainModel(final String value) {
+        final Resource root = Resource.Factory.create();
+        final Resource master = Resource.Factory.create();
+        root.registerChild(PathElement.pathElement(HOST, "master"), master);
+        final Resource profile = Resource.Factory.create();
+        profile.getModel().get("attr").set(value);
+        root.registerChild(PathElement.pathElement(PROFILE, "default"), profile);
+        return root;
+    }
+
+    private static ReadMasterDomainModelUtil createResult() {
+        final ModelNode described = new ModelNode();
+        described.get("domain-resource-address").setEmptyList().add(PROFILE, "default");
+        described.get("domain-resource-model").get("attr").set("value");
+        return ReadMasterDomainModelUtil.create(Collections.singletonList(described), Collections.<PathElement>emptySet());
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BLOCKING_TIMEOUT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.CurrentOperationIdHolder;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.ProxyController;
+import org.jboss.as.controller.TransformingProxyController;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.remote.BlockingQueueOperationListener;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.controller.transform.OperationResultTransformer;
+import org.jboss.as.controller.transform.OperationTransformer;
+import org.jboss.as.host.controller.mgmt.DomainControllerRuntimeIgnoreTransformationRegistry;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFutureTask;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link DomainSlaveHandler}.
+ */
+public class DomainSlaveHandlerTestCase {
+
+    private final Map<String, ProxyController> hostProxies = new HashMap<String, ProxyController>();
+    private final DomainOperationContext domainOperationContext = new DomainOperationContext(null);
+    private final ModelNode responseHeaders = new ModelNode();
+
+    @Before
+    public void setCurrentOperationId() throws Exception {
+        setCurrentOperationId(1);
+    }
+
+    @After
+    public void clearCurrentOperationId() throws Exception {
+        setCurrentOperationId(null);
+    }
+
+    @Test
+    public void testPrepareTimeoutFailsOperation() throws Exception {
+        final TestHost prepared = addHost("prepared", Behaviour.PREPARE);
+        final TestHost silent = addHost("silent", Behaviour.SILENT);
+
+        final ModelNode operation = createOperation();
+        operation.get(OPERATION_HEADERS, BLOCKING_TIMEOUT).set(1);
+        final long start = System.nanoTime();
+        execute(operation);
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // The hosts are awaited for twice the blocking timeout
+        Assert.assertTrue(elapsed >= 2000);
+        Assert.assertTrue(elapsed < 10000);
+        Assert.assertTrue(domainOperationContext.isFailureReported());
+        Assert.assertTrue(silent.result.isCancelled());
+        final ModelNode silentResult = domainOperationContext.getHostControllerResults().get("silent");
+        Assert.assertEquals(FAILED, silentResult.get(OUTCOME).asString());
+        Assert.assertTrue(silentResult.hasDefined(FAILURE_DESCRIPTION));
+        // The prepared host got rolled back
+        Assert.assertTrue(prepared.rolledBack);
+    }
+
+    @Test
+    public void testHostFailureCancelsOutstandingHosts() throws Exception {
+        addHost("failed", Behaviour.FAIL);
+        final TestHost silent = addHost("silent", Behaviour.SILENT);
+
+        // The remaining hosts are not awaited until the timeout once a host failed
+        final long start = System.nanoTime();
+        execute(createOperation());
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assert.assertTrue(elapsed < 10000);
+        Assert.assertTrue(silent.result.isCancelled());
+        Assert.assertTrue(domainOperationContext.getHostControllerResults().get("failed").hasDefined(FAILURE_DESCRIPTION));
+        Assert.assertTrue(domainOperationContext.hasHostLevelFailures());
+    }
+
+    @Test
+    public void testLatenciesNotRecordedByDefault() throws Exception {
+        addHost("one", Behaviour.PREPARE);
+        addHost("two", Behaviour.PREPARE);
+
+        execute(createOperation());
+        Assert.assertFalse(responseHeaders.has(DomainSlaveHandler.HOST_LATENCIES));
+    }
+
+    @Test
+    public void testLatenciesRecordedWhenRequested() throws Exception {
+        addHost("one", Behaviour.PREPARE);
+        addHost("two", Behaviour.PREPARE);
+
+        final ModelNode operation = createOperation();
+        operation.get(OPERATION_HEADERS, DomainSlaveHandler.HOST_LATENCIES).set(true);
+        execute(operation);
+
+        final ModelNode latencies = responseHeaders.get(DomainSlaveHandler.HOST_LATENCIES);
+        for (String host : new String[] {"one", "two"}) {
+            Assert.assertTrue(latencies.hasDefined(host, DomainSlaveHandler.PREPARE));
+            Assert.assertTrue(latencies.hasDefined(host, DomainSlaveHandler.COMMIT));
+        }
+    }
+
+    private TestHost addHost(final String name, final Behaviour behaviour) {
+        final TestHost host = new TestHost(name, behaviour);
+        hostProxies.put(name, host.createProxyController());
+        return host;
+    }
+
+    private void execute(final ModelNode operation) throws Exception {
+        final DomainSlaveHandler handler = new DomainSlaveHandler(hostProxies, domainOperationContext,
+                new DomainControllerRuntimeIgnoreTransformationRegistry());
+        handler.execute(createOperationContext(operation), operation);
+    }
+
+    private OperationContext createOperationContext(final ModelNode operation) {
+        return (OperationContext) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {OperationContext.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("getResponseHeaders".equals(method.getName())) {
+                            return responseHeaders;
+                        } else if ("completeStep".equals(method.getName()) && args[0] instanceof OperationContext.ResultHandler) {
+                            ((OperationContext.ResultHandler) args[0]).handleResult(OperationContext.ResultAction.KEEP,
+                                    (OperationContext) proxy, operation);
+                            return null;
+                        }
+                        return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    private static ModelNode createOperation() {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set("test");
+        operation.get(OP_ADDR).setEmptyList();
+        return operation;
+    }
+
+    private static ModelNode createResult(final String outcome) {
+        final ModelNode result = new ModelNode();
+        result.get(OUTCOME).set(outcome);
+        if (SUCCESS.equals(outcome)) {
+            result.get(RESULT).setEmptyObject();
+        } else {
+            result.get(FAILURE_DESCRIPTION).set(outcome);
+        }
+        return result;
+    }
+
+    private static Object defaultValue(final Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    private static void setCurrentOperationId(final Integer id) throws Exception {
+        final Method method = CurrentOperationIdHolder.class.getDeclaredMethod("setCurrentOperationID", Integer.class);
+        method.setAccessible(true);
+        method.invoke(null, id);
+    }
+
+    private enum Behaviour {
+        /** The host prepares the operation. */
+        PREPARE,
+        /** The host fails the operation. */
+        FAIL,
+        /** The host does not respond until cancelled. */
+        SILENT,
+    }
+
+    /**
+     * A remote host, executing the operation as configured by its {@link Behaviour}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static class TestHost {
+
+        private final String name;
+        private final Behaviour behaviour;
+        private final Result result = new Result();
+        private volatile TransactionalProtocolClient.TransactionalOperationListener listener;
+        private volatile TransactionalProtocolClient.Operation operation;
+        private volatile boolean rolledBack;
+
+        private TestHost(final String name, final Behaviour behaviour) {
+            this.name = name;
+            this.behaviour = behaviour;
+        }
+
+        TransformingProxyController createProxyController() {
+            final TransactionalProtocolClient client = (TransactionalProtocolClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {TransactionalProtocolClient.class}, new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            if ("execute".equals(method.getName()) && args.length == 2) {
+                                execute((TransactionalProtocolClient.TransactionalOperationListener) args[0],
+                                        (TransactionalProtocolClient.Operation) args[1]);
+                                return result;
+                            }
+                            return defaultValue(method.getReturnType());
+                        }
+                    });
+            return (TransformingProxyController) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {TransformingProxyController.class}, new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            if ("getProtocolClient".equals(method.getName())) {
+                                return client;
+                            } else if ("transformOperation".equals(method.getName())) {
+                                return new OperationTransformer.TransformedOperation((ModelNode) args[1], OperationResultTransformer.ORIGINAL_RESULT);
+                            }
+                            return defaultValue(method.getReturnType());
+                        }
+                    });
+        }
+
+        private void execute(final TransactionalProtocolClient.TransactionalOperationListener listener,
+                             final TransactionalProtocolClient.Operation operation) {
+            this.listener = listener;
+            this.operation = operation;
+            switch (behaviour) {
+                case PREPARE:
+                    listener.operationPrepared(new Prepared(operation));
+                    break;
+                case FAIL:
+                    final ModelNode failed = createResult(FAILED);
+                    result.complete(failed);
+                    listener.operationPrepared(new BlockingQueueOperationListener.FailedOperation(operation, failed));
+                    break;
+                default:
+                    // Don't respond
+            }
+        }
+
+        private class Prepared implements TransactionalProtocolClient.PreparedOperation {
+
+            private final TransactionalProtocolClient.Operation operation;
+
+            private Prepared(final TransactionalProtocolClient.Operation operation) {
+                this.operation = operation;
+            }
+
+            @Override
+            public TransactionalProtocolClient.Operation getOperation() {
+                return operation;
+            }
+
+            @Override
+            public ModelNode getPreparedResult() {
+                return createResult(SUCCESS);
+            }
+
+            @Override
+            public boolean isFailed() {
+                return false;
+            }
+
+            @Override
+            public boolean isDone() {
+                return result.isDone();
+            }
+
+            @Override
+            public Result getFinalResult() {
+                return result;
+            }
+
+            @Override
+            public void commit() {
+                result.complete(createResult(SUCCESS));
+            }
+
+            @Override
+            public void rollback() {
+                rolledBack = true;
+                result.complete(createResult(SUCCESS));
+            }
+        }
+
+        private class Result extends AsyncFutureTask<OperationResponse> {
+
+            private Result() {
+                super(null);
+            }
+
+            void complete(final ModelNode response) {
+                setResult(OperationResponse.Factory.createSimple(response));
+            }
+
+            @Override
+            public void asyncCancel(final boolean interruptionDesired) {
+                if (behaviour == Behaviour.SILENT && listener != null) {
+                    listener.operationFailed(operation, createResult("cancelled on " + name));
+                }
+                setCancelled();
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.controller.transform.OperationResultTransformer;
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link WindowedServerGroupUpdateTask}.
+ */
+public class WindowedServerGroupUpdateTaskTestCase {
+
+    private static final String GROUP = "group";
+
+    @Test
+    public void testWindow() throws Exception {
+        final TestExecutor executor = new TestExecutor();
+        final Semaphore permits = new Semaphore(10);
+        final Thread thread = start(createTask(executor, 5, 2, permits));
+
+        // Only two servers are in progress at the same time, the next one starts as soon as one prepared
+        final List<ServerIdentity> started = new ArrayList<ServerIdentity>();
+        started.add(executor.awaitExecuted());
+        started.add(executor.awaitExecuted());
+        Assert.assertNull(executor.executed.poll(100, TimeUnit.MILLISECONDS));
+        for (int i = 0; i < 5; i++) {
+            executor.prepare(started.remove(0));
+            if (i < 3) {
+                started.add(executor.awaitExecuted());
+            }
+        }
+        thread.join(5000);
+        Assert.assertFalse(thread.isAlive());
+
+        Assert.assertEquals(2, executor.maxInProgress.get());
+        Assert.assertEquals(5, executor.preparedResults.size());
+        Assert.assertEquals(10, permits.availablePermits());
+    }
+
+    @Test
+    public void testPermitsReleasedForSkippedServers() throws Exception {
+        final TestExecutor executor = new TestExecutor();
+        executor.unavailable.add(server(1));
+        executor.unavailable.add(server(2));
+        final Semaphore permits = new Semaphore(2);
+        final Thread thread = start(createTask(executor, 3, 2, permits));
+
+        // The skipped servers don't hold permits
+        final ServerIdentity identity = executor.awaitExecuted();
+        Assert.assertEquals(server(3), identity);
+        executor.prepare(identity);
+        thread.join(5000);
+        Assert.assertFalse(thread.isAlive());
+        Assert.assertEquals(2, permits.availablePermits());
+    }
+
+    @Test
+    public void testPermitsReleasedOnFailure() throws Exception {
+        final TestExecutor executor = new TestExecutor();
+        executor.failing.add(server(2));
+        final Semaphore permits = new Semaphore(2);
+        try {
+            createTask(executor, 3, 2, permits).execute();
+            Assert.fail("execution did not fail");
+        } catch (IllegalStateException expected) {
+        }
+        // The server in progress got cancelled, neither it nor the failed server holds a permit
+        Assert.assertEquals(Collections.singleton(server(1)), executor.cancelled);
+        Assert.assertEquals(2, permits.availablePermits());
+    }
+
+    @Test
+    public void testPermitsReleasedOnInterrupt() throws Exception {
+        final TestExecutor executor = new TestExecutor();
+        final Semaphore permits = new Semaphore(2);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final WindowedServerGroupUpdateTask task = createTask(executor, 3, 2, permits);
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                task.execute();
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        thread.start();
+
+        executor.awaitExecuted();
+        executor.awaitExecuted();
+        thread.interrupt();
+        thread.join(5000);
+        Assert.assertFalse(thread.isAlive());
+
+        // The servers in progress got cancelled and their permits released
+        Assert.assertTrue(interrupted.get());
+        Assert.assertEquals(2, executor.cancelled.size());
+        Assert.assertEquals(2, permits.availablePermits());
+        Assert.assertNull(executor.executed.poll());
+    }
+
+    private static Thread start(final WindowedServerGroupUpdateTask task) {
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                task.execute();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static WindowedServerGroupUpdateTask createTask(final TestExecutor executor, final int servers,
+                                                            final int maxConcurrentServers, final Semaphore permits) {
+        final Set<ServerIdentity> identities = new LinkedHashSet<ServerIdentity>();
+        for (int i = 1; i <= servers; i++) {
+            identities.add(server(i));
+        }
+        final ConcurrentGroupServerUpdatePolicy parent = new ConcurrentGroupServerUpdatePolicy(null, Collections.singleton(GROUP));
+        final ServerUpdatePolicy policy = new ServerUpdatePolicy(parent, GROUP, identities, servers);
+        final List<ServerUpdateTask> tasks = new ArrayList<ServerUpdateTask>();
+        for (ServerIdentity identity : identities) {
+            tasks.add(new RunningServerUpdateTask(identity, new ModelNode(), policy));
+        }
+        return new WindowedServerGroupUpdateTask(tasks, policy, executor, null, maxConcurrentServers, permits);
+    }
+
+    private static ServerIdentity server(final int index) {
+        return new ServerIdentity("host", GROUP, "server-" + index);
+    }
+
+    private static class TestExecutor extends ServerTaskExecutor {
+
+        private final Set<ServerIdentity> unavailable = new LinkedHashSet<ServerIdentity>();
+        private final Set<ServerIdentity> failing = new LinkedHashSet<ServerIdentity>();
+        private final Set<ServerIdentity> cancelled = Collections.newSetFromMap(new ConcurrentHashMap<ServerIdentity, Boolean>());
+        private final BlockingQueue<ServerIdentity> executed = new LinkedBlockingQueue<ServerIdentity>();
+        private final Map<ServerIdentity, TransactionalProtocolClient.TransactionalOperationListener<ServerOperation>> listeners =
+                new ConcurrentHashMap<ServerIdentity, TransactionalProtocolClient.TransactionalOperationListener<ServerOperation>>();
+        private final AtomicInteger inProgress = new AtomicInteger();
+        private final AtomicInteger maxInProgress = new AtomicInteger();
+        private final List<ServerPreparedResponse> preparedResults;
+
+        private TestExecutor() {
+            this(new ArrayList<ServerPreparedResponse>());
+        }
+
+        private TestExecutor(final List<ServerPreparedResponse> preparedResults) {
+            super(null, new HashMap<ServerIdentity, ExecutedServerRequest>(), preparedResults);
+            this.preparedResults = preparedResults;
+        }
+
+        @Override
+        protected boolean execute(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener,
+                                  final ServerIdentity identity, final ModelNode operation) {
+            if (failing.contains(identity)) {
+                throw new IllegalStateException();
+            } else if (unavailable.contains(identity)) {
+                return false;
+            }
+            final int current = inProgress.incrementAndGet();
+            if (current > maxInProgress.get()) {
+                maxInProgress.set(current);
+            }
+            listeners.put(identity, listener);
+            executed.add(identity);
+            return true;
+        }
+
+        @Override
+        public boolean cancelTask(final ServerIdentity toCancel) {
+            cancelled.add(toCancel);
+            return true;
+        }
+
+        ServerIdentity awaitExecuted() throws InterruptedException {
+            final ServerIdentity identity = executed.poll(5, TimeUnit.SECONDS);
+            Assert.assertNotNull(identity);
+            return identity;
+        }
+
+        void prepare(final ServerIdentity identity) {
+            inProgress.decrementAndGet();
+            final ServerOperation operation = new ServerOperation(identity, new ModelNode(), null, null, OperationResultTransformer.ORIGINAL_RESULT);
+            listeners.get(identity).operationPrepared(new PreparedServerOperation(operation));
+        }
+    }
+
+    private static class PreparedServerOperation implements TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> {
+
+        private final ServerTaskExecutor.ServerOperation operation;
+
+        private PreparedServerOperation(final ServerTaskExecutor.ServerOperation operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public ServerTaskExecutor.ServerOperation getOperation() {
+            return operation;
+        }
+
+        @Override
+        public ModelNode getPreparedResult() {
+            final ModelNode result = new ModelNode();
+            result.get(OUTCOME).set(SUCCESS);
+            result.get(RESULT).setEmptyObject();
+            return result;
+        }
+
+        @Override
+        public boolean isFailed() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public AsyncFuture<OperationResponse> getFinalResult() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public void rollback() {
+        }
+    }
+}
@@ -23,6 +23,7 @@ package org.jboss.as.host.controller;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONCURRENT_GROUPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ACROSS_GROUPS;
@@ -171,6 +172,39 @@ public class RolloutPlanValidationUnitTestCase {
         validateRolloutPlanStructure(rolloutPlan);
     }
 
+    @Test
+    public void testServerGroupWithMaxConcurrentServers() throws Exception {
+        final ModelNode rolloutPlan = new ModelNode();
+        final ModelNode inSeries = rolloutPlan.get(ROLLOUT_PLAN, IN_SERIES);
+        final ModelNode group = inSeries.add().get(SERVER_GROUP).get("group1");
+        group.get(MAX_CONCURRENT_SERVERS).set(10);
+        validateRolloutPlanStructure(rolloutPlan);
+    }
+
+    @Test
+    public void testRollingServerGroupWithMaxConcurrentServers() throws Exception {
+        final ModelNode rolloutPlan = new ModelNode();
+        final ModelNode inSeries = rolloutPlan.get(ROLLOUT_PLAN, IN_SERIES);
+        final ModelNode group = inSeries.add().get(SERVER_GROUP).get("group1");
+        group.get(ROLLING_TO_SERVERS).set(true);
+        group.get(MAX_CONCURRENT_SERVERS).set(10);
+        try {
+            validateRolloutPlanStructure(rolloutPlan);
+            Assert.fail("rolling-to-servers combined with max-concurrent-servers");
+        } catch(OperationFailedException expected) {
+        }
+    }
+
+    @Test
+    public void testMaxConcurrentServers() throws Exception {
+        final ModelNode rolloutPlan = new ModelNode();
+        final ModelNode inSeries = rolloutPlan.get(ROLLOUT_PLAN, IN_SERIES);
+        inSeries.add().get(SERVER_GROUP).get("group1");
+        rolloutPlan.get(ROLLOUT_PLAN, ROLLBACK_ACROSS_GROUPS).set(true);
+        rolloutPlan.get(ROLLOUT_PLAN, MAX_CONCURRENT_SERVERS).set(20);
+        validateRolloutPlanStructure(rolloutPlan);
+    }
+
     @Test
     public void testServerGroupWithUnrecognizedProp() throws Exception {
         final ModelNode rolloutPlan = new ModelNode();
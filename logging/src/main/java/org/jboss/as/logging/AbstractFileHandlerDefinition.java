@@ -31,6 +31,9 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.services.path.ResolvePathHandler;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker.DiscardAttributeValueChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.as.logging.logmanager.PropertySorter.DefaultPropertySorter;
 
 /**
@@ -71,6 +74,29 @@ abstract class AbstractFileHandlerDefinition extends AbstractHandlerDefinition {
             registration.registerOperationHandler(resolvePathHandler.getOperationDefinition(), resolvePathHandler);
     }
 
+    /**
+     * Discards the {@link CommonAttributes#FLUSH_INTERVAL flush-interval} if records are written synchronously,
+     * otherwise rejects it.
+     *
+     * @param resourceBuilder       the builder for the resource
+     * @param loggingProfileBuilder the builder for the logging profile
+     */
+    static void rejectFlushInterval(final ResourceTransformationDescriptionBuilder resourceBuilder, final ResourceTransformationDescriptionBuilder loggingProfileBuilder) {
+        final DiscardAttributeValueChecker discardChecker = new DiscardAttributeValueChecker(false, true, CommonAttributes.FLUSH_INTERVAL.getDefaultValue());
+        resourceBuilder
+                .getAttributeBuilder()
+                .setDiscard(discardChecker, CommonAttributes.FLUSH_INTERVAL)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, CommonAttributes.FLUSH_INTERVAL)
+                .end();
+        if (loggingProfileBuilder != null) {
+            loggingProfileBuilder
+                    .getAttributeBuilder()
+                    .setDiscard(discardChecker, CommonAttributes.FLUSH_INTERVAL)
+                    .addRejectCheck(RejectAttributeChecker.DEFINED, CommonAttributes.FLUSH_INTERVAL)
+                    .end();
+        }
+    }
+
     private static class FileNameLastComparator implements Comparator<String> {
         static final FileNameLastComparator INSTANCE = new FileNameLastComparator();
         static final int EQUAL = 0;
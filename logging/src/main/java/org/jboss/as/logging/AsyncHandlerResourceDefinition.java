@@ -36,8 +36,15 @@ import javax.xml.stream.XMLStreamWriter;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.DefaultAttributeMarshaller;
 import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
@@ -47,10 +54,10 @@ import org.jboss.as.controller.transform.description.AttributeTransformationDesc
 import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
 import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.logging.logmanager.MeteredAsyncHandler;
 import org.jboss.as.logging.resolvers.OverflowActionResolver;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
-import org.jboss.logmanager.handlers.AsyncHandler;
 import org.jboss.logmanager.handlers.AsyncHandler.OverflowAction;
 
 /**
@@ -61,6 +68,7 @@ class AsyncHandlerResourceDefinition extends AbstractHandlerDefinition {
 
     public static final String ADD_SUBHANDLER_OPERATION_NAME = "assign-subhandler";
     public static final String REMOVE_SUBHANDLER_OPERATION_NAME = "unassign-subhandler";
+    public static final String RESET_METRICS_OPERATION_NAME = "reset-metrics";
     public static final String ASYNC_HANDLER = "async-handler";
     static final PathElement ASYNC_HANDLER_PATH = PathElement.pathElement(ASYNC_HANDLER);
 
@@ -98,15 +106,53 @@ class AsyncHandlerResourceDefinition extends AbstractHandlerDefinition {
 
     static final AttributeDefinition[] ATTRIBUTES = {ENABLED, LEVEL, FILTER_SPEC, QUEUE_LENGTH, OVERFLOW_ACTION, SUBHANDLERS};
 
+    static final SimpleAttributeDefinition QUEUE_SIZE = SimpleAttributeDefinitionBuilder.create("queue-size", ModelType.INT, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition PEAK_QUEUE_SIZE = SimpleAttributeDefinitionBuilder.create("peak-queue-size", ModelType.INT, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition ENQUEUED_COUNT = SimpleAttributeDefinitionBuilder.create("enqueued-count", ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition DISCARDED_COUNT = SimpleAttributeDefinitionBuilder.create("discarded-count", ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition BLOCKED_COUNT = SimpleAttributeDefinitionBuilder.create("blocked-count", ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition AVERAGE_ENQUEUE_WAIT = SimpleAttributeDefinitionBuilder.create("average-enqueue-wait", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition[] METRICS = {QUEUE_SIZE, PEAK_QUEUE_SIZE, ENQUEUED_COUNT, DISCARDED_COUNT, BLOCKED_COUNT, AVERAGE_ENQUEUE_WAIT};
 
     public AsyncHandlerResourceDefinition(final boolean includeLegacyAttributes) {
-        super(ASYNC_HANDLER_PATH, AsyncHandler.class, (includeLegacyAttributes ? Logging.join(ATTRIBUTES, LEGACY_ATTRIBUTES) : ATTRIBUTES), QUEUE_LENGTH);
+        super(ASYNC_HANDLER_PATH, MeteredAsyncHandler.class, (includeLegacyAttributes ? Logging.join(ATTRIBUTES, LEGACY_ATTRIBUTES) : ATTRIBUTES), QUEUE_LENGTH);
+    }
+
+    @Override
+    public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        for (AttributeDefinition metric : METRICS) {
+            resourceRegistration.registerMetric(metric, MetricsHandler.INSTANCE);
+        }
     }
 
     @Override
     public void registerOperations(final ManagementResourceRegistration registration) {
         super.registerOperations(registration);
         final ResourceDescriptionResolver resourceDescriptionResolver = getResourceDescriptionResolver();
+        registration.registerOperationHandler(new SimpleOperationDefinitionBuilder(RESET_METRICS_OPERATION_NAME, resourceDescriptionResolver)
+                .setRuntimeOnly()
+                .build(), MetricsHandler.INSTANCE);
+
         registration.registerOperationHandler(new SimpleOperationDefinitionBuilder(ADD_SUBHANDLER_OPERATION_NAME, resourceDescriptionResolver)
                 .setDeprecated(ModelVersion.create(1, 2, 0))
                 .setParameters(CommonAttributes.HANDLER_NAME)
@@ -151,4 +197,48 @@ class AsyncHandlerResourceDefinition extends AbstractHandlerDefinition {
         }
         attributeBuilder.end();
     }
+
+    /**
+     * Reads the metrics of, or resets the metrics for, the async handler in the runtime.
+     */
+    private static class MetricsHandler implements OperationStepHandler {
+        static final MetricsHandler INSTANCE = new MetricsHandler();
+
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                    final String name = MeteredAsyncHandler.createName(LoggingProfileOperations.getLoggingProfileName(context.getCurrentAddress()),
+                            context.getCurrentAddressValue());
+                    final MeteredAsyncHandler handler = MeteredAsyncHandler.getHandler(name);
+                    // The handler may not be active, e.g. on a host controller
+                    if (handler != null) {
+                        final String operationName = operation.get(ModelDescriptionConstants.OP).asString();
+                        if (RESET_METRICS_OPERATION_NAME.equals(operationName)) {
+                            handler.resetMetrics();
+                        } else {
+                            final String attributeName = operation.get(ModelDescriptionConstants.NAME).asString();
+                            final ModelNode result = context.getResult();
+                            if (QUEUE_SIZE.getName().equals(attributeName)) {
+                                result.set(handler.getQueueSize());
+                            } else if (PEAK_QUEUE_SIZE.getName().equals(attributeName)) {
+                                result.set(handler.getPeakQueueSize());
+                            } else if (ENQUEUED_COUNT.getName().equals(attributeName)) {
+                                result.set(handler.getEnqueuedCount());
+                            } else if (DISCARDED_COUNT.getName().equals(attributeName)) {
+                                result.set(handler.getDiscardedCount());
+                            } else if (BLOCKED_COUNT.getName().equals(attributeName)) {
+                                result.set(handler.getBlockedCount());
+                            } else if (AVERAGE_ENQUEUE_WAIT.getName().equals(attributeName)) {
+                                result.set(handler.getAverageEnqueueWait());
+                            }
+                        }
+                    }
+                    context.stepCompleted();
+                }
+            }, OperationContext.Stage.RUNTIME);
+            context.stepCompleted();
+        }
+    }
 }
@@ -40,7 +40,10 @@ enum Attribute {
     CATEGORY(LoggerResourceDefinition.CATEGORY),
     CLASS(CommonAttributes.CLASS),
     COLOR_MAP(PatternFormatterResourceDefinition.COLOR_MAP),
+    DATE_FORMAT(JsonFormatterResourceDefinition.DATE_FORMAT),
     ENABLED(CommonAttributes.ENABLED),
+    FIELDS(JsonFormatterResourceDefinition.FIELDS),
+    FLUSH_INTERVAL(CommonAttributes.FLUSH_INTERVAL),
     MIN_INCLUSIVE(CommonAttributes.MIN_INCLUSIVE),
     MIN_LEVEL(CommonAttributes.MIN_LEVEL),
     MAX_BACKUP_INDEX(SizeRotatingHandlerResourceDefinition.MAX_BACKUP_INDEX),
@@ -37,6 +37,8 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleMapAttributeDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.ObjectTypeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.AttributeAccess.Flag;
@@ -69,6 +71,14 @@ public interface CommonAttributes {
             .setPropertyName("autoFlush")
             .build();
 
+    PropertyAttributeDefinition FLUSH_INTERVAL = PropertyAttributeDefinition.Builder.of("flush-interval", ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(0))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setPropertyName("flushInterval")
+            .setValidator(new IntRangeValidator(0, true, true))
+            .build();
+
     SimpleAttributeDefinition CLASS = SimpleAttributeDefinitionBuilder.create("class", ModelType.STRING)
             .setAllowExpression(false)
             .setFlags(Flag.RESTART_RESOURCE_SERVICES)
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Provides the single thread writing the {@code logging.properties} file in the background. The writes queued when the
+ * service stops are completed before the service is down.
+ */
+class ConfigurationWriterService implements Service<Executor> {
+
+    static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("logging", "configuration-writer");
+
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable r) {
+            final PrivilegedAction<Thread> action = new PrivilegedAction<Thread>() {
+                @Override
+                public Thread run() {
+                    final Thread thread = new Thread(r, "logging-configuration-writer");
+                    thread.setDaemon(true);
+                    thread.setContextClassLoader(null);
+                    return thread;
+                }
+            };
+            return WildFlySecurityManager.isChecking() ? AccessController.doPrivileged(action) : action.run();
+        }
+    };
+
+    private volatile ExecutorService executor;
+
+    static void install(final ServiceTarget target) {
+        target.addService(SERVICE_NAME, new ConfigurationWriterService())
+                .setInitialMode(ServiceController.Mode.ACTIVE)
+                .install();
+    }
+
+    @Override
+    public void start(final StartContext context) throws StartException {
+        executor = Executors.newSingleThreadExecutor(THREAD_FACTORY);
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        final ExecutorService executor = this.executor;
+        this.executor = null;
+        // Complete the stop once the queued writes are done, later writes are rejected and happen on the calling thread
+        context.asynchronous();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                context.complete();
+            }
+        });
+        executor.shutdown();
+    }
+
+    @Override
+    public Executor getValue() throws IllegalStateException, IllegalArgumentException {
+        final Executor executor = this.executor;
+        if (executor == null) {
+            throw new IllegalStateException();
+        }
+        return executor;
+    }
+}
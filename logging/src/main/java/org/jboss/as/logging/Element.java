@@ -56,6 +56,7 @@ enum Element {
     HANDLER(CommonAttributes.HANDLER),
     HANDLERS(CommonAttributes.HANDLERS),
     HOSTNAME(SyslogHandlerResourceDefinition.HOSTNAME),
+    JSON_FORMATTER(JsonFormatterResourceDefinition.JSON_FORMATTER),
     LEVEL(CommonAttributes.LEVEL),
     LEVEL_RANGE(CommonAttributes.LEVEL_RANGE_LEGACY),
     LOGGER(LoggerResourceDefinition.LOGGER),
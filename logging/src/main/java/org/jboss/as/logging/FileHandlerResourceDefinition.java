@@ -25,6 +25,7 @@ package org.jboss.as.logging;
 import static org.jboss.as.logging.CommonAttributes.APPEND;
 import static org.jboss.as.logging.CommonAttributes.AUTOFLUSH;
 import static org.jboss.as.logging.CommonAttributes.FILE;
+import static org.jboss.as.logging.CommonAttributes.FLUSH_INTERVAL;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.PathElement;
@@ -42,7 +43,7 @@ class FileHandlerResourceDefinition extends AbstractFileHandlerDefinition {
     public static final String FILE_HANDLER = "file-handler";
     static final PathElement FILE_HANDLER_PATH = PathElement.pathElement(FILE_HANDLER);
 
-    static final AttributeDefinition[] ATTRIBUTES = Logging.join(DEFAULT_ATTRIBUTES, AUTOFLUSH, APPEND, FILE, NAMED_FORMATTER);
+    static final AttributeDefinition[] ATTRIBUTES = Logging.join(DEFAULT_ATTRIBUTES, AUTOFLUSH, FLUSH_INTERVAL, APPEND, FILE, NAMED_FORMATTER);
 
     public FileHandlerResourceDefinition(final ResolvePathHandler resolvePathHandler, final boolean includeLegacyAttributes) {
         super(FILE_HANDLER_PATH, FileHandler.class, resolvePathHandler, (
@@ -59,6 +60,10 @@ class FileHandlerResourceDefinition extends AbstractFileHandlerDefinition {
                         .end();
                 break;
             }
+            case VERSION_2_0_0: {
+                rejectFlushInterval(resourceBuilder, loggingProfileBuilder);
+                break;
+            }
         }
     }
 }
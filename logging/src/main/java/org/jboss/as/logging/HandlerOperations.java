@@ -32,6 +32,7 @@ import static org.jboss.as.logging.CommonAttributes.ENCODING;
 import static org.jboss.as.logging.CommonAttributes.FILE;
 import static org.jboss.as.logging.CommonAttributes.FILTER;
 import static org.jboss.as.logging.CommonAttributes.FILTER_SPEC;
+import static org.jboss.as.logging.CommonAttributes.FLUSH_INTERVAL;
 import static org.jboss.as.logging.CommonAttributes.HANDLER_NAME;
 import static org.jboss.as.logging.CommonAttributes.LEVEL;
 import static org.jboss.as.logging.CommonAttributes.MODULE;
@@ -57,7 +58,12 @@ import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.logging.logging.LoggingLogger;
+import org.jboss.as.logging.logmanager.GroupCommitFileHandler;
+import org.jboss.as.logging.logmanager.GroupCommitPeriodicRotatingFileHandler;
+import org.jboss.as.logging.logmanager.GroupCommitPeriodicSizeRotatingFileHandler;
+import org.jboss.as.logging.logmanager.GroupCommitSizeRotatingFileHandler;
 import org.jboss.as.logging.logmanager.Log4jAppenderHandler;
+import org.jboss.as.logging.logmanager.MeteredAsyncHandler;
 import org.jboss.as.logging.logmanager.PropertySorter;
 import org.jboss.as.logging.resolvers.ModelNodeResolver;
 import org.jboss.dmr.ModelNode;
@@ -72,6 +78,10 @@ import org.jboss.logmanager.config.LoggerConfiguration;
 import org.jboss.logmanager.config.PojoConfiguration;
 import org.jboss.logmanager.config.PropertyConfigurable;
 import org.jboss.logmanager.formatters.PatternFormatter;
+import org.jboss.logmanager.handlers.FileHandler;
+import org.jboss.logmanager.handlers.PeriodicRotatingFileHandler;
+import org.jboss.logmanager.handlers.PeriodicSizeRotatingFileHandler;
+import org.jboss.logmanager.handlers.SizeRotatingFileHandler;
 import org.jboss.modules.ModuleIdentifier;
 import org.jboss.modules.ModuleLoadException;
 import org.jboss.modules.ModuleLoader;
@@ -82,6 +92,16 @@ import org.jboss.modules.ModuleLoader;
  */
 final class HandlerOperations {
 
+    // The handlers committing records on a background writer, used for file handlers with a flush-interval
+    private static final Map<String, Class<? extends Handler>> GROUP_COMMIT_TYPES = new HashMap<String, Class<? extends Handler>>();
+
+    static {
+        GROUP_COMMIT_TYPES.put(FileHandler.class.getName(), GroupCommitFileHandler.class);
+        GROUP_COMMIT_TYPES.put(PeriodicRotatingFileHandler.class.getName(), GroupCommitPeriodicRotatingFileHandler.class);
+        GROUP_COMMIT_TYPES.put(PeriodicSizeRotatingFileHandler.class.getName(), GroupCommitPeriodicSizeRotatingFileHandler.class);
+        GROUP_COMMIT_TYPES.put(SizeRotatingFileHandler.class.getName(), GroupCommitSizeRotatingFileHandler.class);
+    }
+
     private static final AttachmentKey<Map<String, String>> DISABLED_HANDLERS_KEY = new AttachmentKey<Map<String, String>>();
     private static final Object HANDLER_LOCK = new Object();
 
@@ -136,6 +156,9 @@ final class HandlerOperations {
                         handleProperty(attribute, context, model, logContextConfiguration, configuration);
                         restartRequired = restartRequired || Logging.requiresRestart(attribute.getFlags());
                         reloadRequired = reloadRequired || Logging.requiresReload(attribute.getFlags());
+                        if (attribute.getName().equals(FLUSH_INTERVAL.getName())) {
+                            reloadRequired = reloadRequired || requiresGroupCommitHandler(FLUSH_INTERVAL.resolveModelAttribute(context, model), configuration);
+                        }
                     }
                 }
                 if (restartRequired) {
@@ -209,8 +232,10 @@ final class HandlerOperations {
                 className = CLASS.resolveModelAttribute(context, model).asString();
                 moduleName = MODULE.resolveModelAttribute(context, model).asString();
             } else {
-                className = type.getName();
-                moduleName = null;
+                final Class<? extends Handler> handlerType = getHandlerType(context, model);
+                className = handlerType.getName();
+                // Handlers provided by the subsystem need to be loaded from the subsystem module
+                moduleName = Logging.getSubsystemModuleName(handlerType);
             }
 
             HandlerConfiguration configuration = logContextConfiguration.getHandlerConfiguration(name);
@@ -258,6 +283,14 @@ final class HandlerOperations {
                 }
             }
 
+            // Register the handler by name, so the metrics of the handler can be read
+            if (MeteredAsyncHandler.class.getName().equals(configuration.getClassName())) {
+                final String metricsName = MeteredAsyncHandler.createName(LoggingProfileOperations.getLoggingProfileName(context.getCurrentAddress()), name);
+                if (!metricsName.equals(configuration.getPropertyValueString(MeteredAsyncHandler.NAME_PROPERTY))) {
+                    configuration.setPropertyValueString(MeteredAsyncHandler.NAME_PROPERTY, metricsName);
+                }
+            }
+
             for (AttributeDefinition attribute : attributes) {
                 // CLASS and MODULE should be ignored
                 final boolean skip;
@@ -278,6 +311,25 @@ final class HandlerOperations {
             addOrderPropertiesStep(context, propertySorter, configuration);
         }
 
+        /**
+         * Gets the type of the handler. File handlers with a {@link CommonAttributes#FLUSH_INTERVAL flush-interval}
+         * use a handler committing records on a background writer, otherwise the log manager's handler is used.
+         *
+         * @param context the context of the operation
+         * @param model   the model of the handler
+         *
+         * @return the type of the handler
+         *
+         * @throws OperationFailedException if the flush-interval cannot be resolved
+         */
+        private Class<? extends Handler> getHandlerType(final OperationContext context, final ModelNode model) throws OperationFailedException {
+            final Class<? extends Handler> groupCommitType = GROUP_COMMIT_TYPES.get(type.getName());
+            if (groupCommitType != null && FLUSH_INTERVAL.resolveModelAttribute(context, model).asInt() > 0) {
+                return groupCommitType;
+            }
+            return type;
+        }
+
         protected HandlerConfiguration createHandlerConfiguration(final String className,
                                                                   final String moduleName, final String name,
                                                                   final LogContextConfiguration logContextConfiguration) throws OperationFailedException {
@@ -389,6 +441,9 @@ final class HandlerOperations {
                             restartRequired = true;
                         }
                     }
+                } else if (FLUSH_INTERVAL.getName().equals(attributeName)) {
+                    handleProperty(FLUSH_INTERVAL, context, value, logContextConfiguration, configuration, false);
+                    restartRequired = requiresGroupCommitHandler(value, configuration);
                 } else if (QUEUE_LENGTH.getName().equals(attributeName)) {
                     // queue-length is a construction parameter, runtime changes are not allowed
                     restartRequired = true;
@@ -694,6 +749,8 @@ final class HandlerOperations {
             configuration.setHandlerNames(resolvedValue);
         } else if (attribute.getName().equals(HANDLER_NAME.getName())) {
             // no-op just ignore the name attribute
+        } else if (attribute.getName().equals(FLUSH_INTERVAL.getName()) && !isGroupCommitHandler(configuration)) {
+            // no-op the log manager's handlers write records synchronously
         } else if (attribute.getName().equals(PROPERTIES.getName())) {
             final PropertyConfigurable propertyConfigurable;
             // A POJO configuration will have the same name as the handler
@@ -742,6 +799,36 @@ final class HandlerOperations {
         }
     }
 
+    /**
+     * Checks whether the handler is committing records on a background writer.
+     *
+     * @param configuration the handler configuration
+     *
+     * @return {@code true} if the handler supports a flush-interval, otherwise {@code false}
+     */
+    private static boolean isGroupCommitHandler(final HandlerConfiguration configuration) {
+        final String className = configuration.getClassName();
+        for (Class<? extends Handler> type : GROUP_COMMIT_TYPES.values()) {
+            if (type.getName().equals(className)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the handler needs to be replaced by a handler committing records on a background writer, which
+     * requires a reload.
+     *
+     * @param value         the resolved flush-interval
+     * @param configuration the handler configuration
+     *
+     * @return {@code true} if a reload is required, otherwise {@code false}
+     */
+    private static boolean requiresGroupCommitHandler(final ModelNode value, final HandlerConfiguration configuration) {
+        return value.isDefined() && value.asInt() > 0 && !isGroupCommitHandler(configuration);
+    }
+
     /**
      * Compare the model value with the current value. If the model value equals the currently configured value {@code
      * true} is returned, otherwise {@code false}.
@@ -0,0 +1,186 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import static org.jboss.as.logging.Logging.createOperationFailure;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.DefaultAttributeMarshaller;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.logging.LoggingOperations.LoggingWriteAttributeHandler;
+import org.jboss.as.logging.logging.LoggingLogger;
+import org.jboss.as.logging.logmanager.JsonFormatter;
+import org.jboss.as.logging.validators.RegexValidator;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.logmanager.config.FormatterConfiguration;
+import org.jboss.logmanager.config.LogContextConfiguration;
+
+/**
+ * A formatter writing log records as single line JSON objects.
+ */
+class JsonFormatterResourceDefinition extends TransformerResourceDefinition {
+
+    static final String FIELDS_VALIDATION_PATTERN = "^((timestamp|sequence|level|logger|message|thread|thread-id|ndc|mdc|exception)(,(?!$)|$))*$";
+
+    public static final PropertyAttributeDefinition FIELDS = PropertyAttributeDefinition.Builder.of("fields", ModelType.STRING)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setDefaultValue(new ModelNode(JsonFormatter.DEFAULT_FIELDS))
+            .setValidator(new RegexValidator(ModelType.STRING, true, true, FIELDS_VALIDATION_PATTERN))
+            .build();
+
+    public static final PropertyAttributeDefinition DATE_FORMAT = PropertyAttributeDefinition.Builder.of("date-format", ModelType.STRING)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setDefaultValue(new ModelNode(JsonFormatter.DEFAULT_DATE_FORMAT))
+            .setPropertyName("dateFormat")
+            .build();
+
+    public static final ObjectTypeAttributeDefinition JSON_FORMATTER = ObjectTypeAttributeDefinition.Builder.of("json-formatter", FIELDS, DATE_FORMAT)
+            .setAllowExpression(false)
+            .setAllowNull(true)
+            .setAttributeMarshaller(new DefaultAttributeMarshaller() {
+                @Override
+                public void marshallAsElement(final AttributeDefinition attribute, final ModelNode resourceModel, final boolean marshallDefault, final XMLStreamWriter writer) throws XMLStreamException {
+                    writer.writeStartElement(attribute.getXmlName());
+                    FIELDS.marshallAsAttribute(resourceModel, marshallDefault, writer);
+                    DATE_FORMAT.marshallAsAttribute(resourceModel, marshallDefault, writer);
+                    writer.writeEndElement();
+                }
+
+                @Override
+                public boolean isMarshallable(final AttributeDefinition attribute, final ModelNode resourceModel, final boolean marshallDefault) {
+                    return true;
+                }
+            })
+            .build();
+
+    static final PathElement JSON_FORMATTER_PATH = PathElement.pathElement(JSON_FORMATTER.getName());
+
+    static final PropertyAttributeDefinition[] ATTRIBUTES = {
+            FIELDS,
+            DATE_FORMAT,
+    };
+
+
+    /**
+     * A step handler to add a JSON formatter
+     */
+    static final OperationStepHandler ADD = new LoggingOperations.LoggingAddOperationStepHandler() {
+
+        @Override
+        public void updateModel(final ModelNode operation, final ModelNode model) throws OperationFailedException {
+            for (AttributeDefinition attribute : ATTRIBUTES) {
+                attribute.validateAndSet(operation, model);
+            }
+        }
+
+        @Override
+        public void performRuntime(final OperationContext context, final ModelNode operation, final LogContextConfiguration logContextConfiguration, final String name, final ModelNode model) throws OperationFailedException {
+            FormatterConfiguration configuration = logContextConfiguration.getFormatterConfiguration(name);
+            if (configuration == null) {
+                LoggingLogger.ROOT_LOGGER.tracef("Adding formatter '%s' at '%s'", name, LoggingOperations.getAddress(operation));
+                // The formatter is provided by the subsystem
+                configuration = logContextConfiguration.addFormatterConfiguration(Logging.getSubsystemModuleName(JsonFormatter.class), JsonFormatter.class.getName(), name);
+            }
+
+            for (PropertyAttributeDefinition attribute : ATTRIBUTES) {
+                attribute.setPropertyValue(context, model, configuration);
+            }
+        }
+    };
+
+    static final OperationStepHandler WRITE = new LoggingWriteAttributeHandler(ATTRIBUTES) {
+
+        @Override
+        protected boolean applyUpdate(final OperationContext context, final String attributeName, final String addressName, final ModelNode value, final LogContextConfiguration logContextConfiguration) throws OperationFailedException {
+            final FormatterConfiguration configuration = logContextConfiguration.getFormatterConfiguration(addressName);
+            for (PropertyAttributeDefinition attribute : ATTRIBUTES) {
+                if (attribute.getName().equals(attributeName)) {
+                    final ModelNode resolvedValue = value.isDefined() ? value : attribute.getDefaultValue();
+                    configuration.setPropertyValueString(attribute.getPropertyName(), resolvedValue.asString());
+                    break;
+                }
+            }
+            return false;
+        }
+    };
+
+    /**
+     * A step handler to remove
+     */
+    static final OperationStepHandler REMOVE = new LoggingOperations.LoggingRemoveOperationStepHandler() {
+
+        @Override
+        protected void performRemove(final OperationContext context, final ModelNode operation, final LogContextConfiguration logContextConfiguration, final String name, final ModelNode model) throws OperationFailedException {
+            context.removeResource(PathAddress.EMPTY_ADDRESS);
+        }
+
+        @Override
+        public void performRuntime(final OperationContext context, final ModelNode operation, final LogContextConfiguration logContextConfiguration, final String name, final ModelNode model) throws OperationFailedException {
+            final FormatterConfiguration configuration = logContextConfiguration.getFormatterConfiguration(name);
+            if (configuration == null) {
+                throw createOperationFailure(LoggingLogger.ROOT_LOGGER.formatterNotFound(name));
+            }
+            logContextConfiguration.removeFormatterConfiguration(name);
+        }
+    };
+
+    static final JsonFormatterResourceDefinition INSTANCE = new JsonFormatterResourceDefinition();
+
+    public JsonFormatterResourceDefinition() {
+        super(JSON_FORMATTER_PATH,
+                LoggingExtension.getResourceDescriptionResolver(JSON_FORMATTER.getName()),
+                ADD, REMOVE);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        for (AttributeDefinition def : ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(def, null, WRITE);
+        }
+    }
+
+    @Override
+    public void registerTransformers(final KnownModelVersion modelVersion, final ResourceTransformationDescriptionBuilder resourceBuilder, final ResourceTransformationDescriptionBuilder loggingProfileBuilder) {
+        switch (modelVersion) {
+            case VERSION_2_0_0:
+                resourceBuilder.rejectChildResource(JSON_FORMATTER_PATH);
+                if (loggingProfileBuilder != null) {
+                    loggingProfileBuilder.rejectChildResource(JSON_FORMATTER_PATH);
+                }
+                break;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import java.util.Set;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.registry.AttributeAccess.Flag;
 import org.jboss.dmr.ModelNode;
+import org.jboss.modules.Module;
 
 /**
  * A set of utilities for the logging subsystem.
@@ -111,4 +112,17 @@ public final class Logging {
     static String fixFormatPattern(final String currentPattern) {
         return currentPattern.replaceAll("(%K\\{[a-zA-Z]*?})", "");
     }
+
+    /**
+     * Gets the name of the module a type provided by the subsystem needs to be loaded from by the log manager.
+     *
+     * @param type the type
+     *
+     * @return the module name or {@code null} if the type is not provided by the subsystem module or the subsystem is
+     *         not loaded from a module
+     */
+    static String getSubsystemModuleName(final Class<?> type) {
+        final Module module = Module.forClass(type);
+        return (module != null && module == Module.forClass(Logging.class)) ? module.getIdentifier().getName() : null;
+    }
 }
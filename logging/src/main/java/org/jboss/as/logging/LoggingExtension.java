@@ -249,6 +249,7 @@ public class LoggingExtension implements Extension {
         registration.registerSubModel(SyslogHandlerResourceDefinition.INSTANCE);
         registration.registerSubModel(PatternFormatterResourceDefinition.INSTANCE);
         registration.registerSubModel(CustomFormatterResourceDefinition.INSTANCE);
+        registration.registerSubModel(JsonFormatterResourceDefinition.INSTANCE);
 
         if (registerTransformers) {
             registerTransformers(subsystem,
@@ -264,7 +265,8 @@ public class LoggingExtension implements Extension {
                     customHandlerResourceDefinition,
                     SyslogHandlerResourceDefinition.INSTANCE,
                     PatternFormatterResourceDefinition.INSTANCE,
-                    CustomFormatterResourceDefinition.INSTANCE);
+                    CustomFormatterResourceDefinition.INSTANCE,
+                    JsonFormatterResourceDefinition.INSTANCE);
         }
     }
 
@@ -335,6 +337,10 @@ public class LoggingExtension implements Extension {
                     result = LESS;
                 } else if (CustomFormatterResourceDefinition.CUSTOM_FORMATTER.getName().equals(key2)) {
                     result = GREATER;
+                } else if (JsonFormatterResourceDefinition.JSON_FORMATTER.getName().equals(key1)) {
+                    result = LESS;
+                } else if (JsonFormatterResourceDefinition.JSON_FORMATTER.getName().equals(key2)) {
+                    result = GREATER;
                 } else if (RootLoggerResourceDefinition.ROOT_LOGGER_PATH_NAME.equals(key1)) {
                     result = GREATER;
                 } else if (RootLoggerResourceDefinition.ROOT_LOGGER_PATH_NAME.equals(key2)) {
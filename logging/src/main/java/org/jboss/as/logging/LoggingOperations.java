@@ -24,6 +24,8 @@ package org.jboss.as.logging;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
+import java.util.concurrent.Executor;
+
 import org.jboss.as.controller.AbstractWriteAttributeHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
@@ -36,11 +38,13 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.logging.logging.LoggingLogger;
 import org.jboss.as.logging.logmanager.ConfigurationPersistence;
 import org.jboss.as.server.ServerEnvironment;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logmanager.LogContext;
 import org.jboss.logmanager.config.LogContextConfiguration;
+import org.jboss.msc.service.ServiceController;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
@@ -94,6 +98,18 @@ final class LoggingOperations {
 
         @Override
         public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final Executor writer;
+            if (persistConfig && !LoggingProfileOperations.isLoggingProfileAddress(getAddress(operation))) {
+                // Report a failed background write, the file is written again once this operation succeeds
+                final RuntimeException failure = configurationPersistence.takeBackgroundWriteFailure();
+                if (failure != null) {
+                    final Throwable cause = failure.getCause() == null ? failure : failure.getCause();
+                    throw LoggingLogger.ROOT_LOGGER.backgroundWriteFailed(cause, cause.getMessage());
+                }
+                writer = getWriter(context);
+            } else {
+                writer = null;
+            }
             configurationPersistence.prepare();
             context.completeStep(new ResultHandler() {
                 @Override
@@ -105,7 +121,7 @@ final class LoggingOperations {
                             if (context.getAttachment(WRITTEN_KEY) == null) {
                                 context.attachIfAbsent(WRITTEN_KEY, Boolean.TRUE);
                                 if (persistConfig) {
-                                    configurationPersistence.writeConfiguration(context);
+                                    configurationPersistence.writeConfiguration(context, writer);
                                 }
                             }
                         }
@@ -115,6 +131,18 @@ final class LoggingOperations {
                 }
             });
         }
+
+        private static Executor getWriter(final OperationContext context) {
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(ConfigurationWriterService.SERVICE_NAME);
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                try {
+                    return (Executor) controller.getValue();
+                } catch (IllegalStateException ignore) {
+                    // The writer is stopping, the file is written on the calling thread
+                }
+            }
+            return null;
+        }
     }
 
     public static class ReadFilterOperationStepHandler implements OperationStepHandler {
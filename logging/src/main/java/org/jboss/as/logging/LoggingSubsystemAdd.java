@@ -84,6 +84,9 @@ class LoggingSubsystemAdd extends AbstractAddStepHandler {
             }
         }, Stage.RUNTIME);
 
+        // Writes logging.properties in the background once the server has booted
+        ConfigurationWriterService.install(context.getServiceTarget());
+
         final Resource resource = context.readResource(PathAddress.EMPTY_ADDRESS);
 
         final ConfigurationPersistence configurationPersistence = ConfigurationPersistence.getOrCreateConfigurationPersistence();
@@ -132,6 +135,7 @@ class LoggingSubsystemAdd extends AbstractAddStepHandler {
         final List<String> configuredFormatters = logContextConfiguration.getFormatterNames();
         configuredFormatters.removeAll(resource.getChildrenNames(PatternFormatterResourceDefinition.PATTERN_FORMATTER.getName()));
         configuredFormatters.removeAll(resource.getChildrenNames(CustomFormatterResourceDefinition.CUSTOM_FORMATTER.getName()));
+        configuredFormatters.removeAll(resource.getChildrenNames(JsonFormatterResourceDefinition.JSON_FORMATTER.getName()));
         // Formatter names could also be the name of a handler if the formatter attribute is used rather than a named-formatter
         configuredFormatters.removeAll(subsystemHandlers);
 
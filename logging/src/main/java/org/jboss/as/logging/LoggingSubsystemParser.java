@@ -47,6 +47,7 @@ import static org.jboss.as.logging.CommonAttributes.ENCODING;
 import static org.jboss.as.logging.CommonAttributes.FILE;
 import static org.jboss.as.logging.CommonAttributes.FILTER_PATTERN;
 import static org.jboss.as.logging.CommonAttributes.FILTER_SPEC;
+import static org.jboss.as.logging.CommonAttributes.FLUSH_INTERVAL;
 import static org.jboss.as.logging.CommonAttributes.HANDLERS;
 import static org.jboss.as.logging.CommonAttributes.LEVEL;
 import static org.jboss.as.logging.CommonAttributes.LOGGING_PROFILE;
@@ -226,7 +227,7 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                             if (namespace == Namespace.LOGGING_1_0 || namespace == Namespace.LOGGING_1_1 ||
                                     namespace == Namespace.LOGGING_1_2 || namespace == Namespace.LOGGING_1_3)
                                 throw unexpectedElement(reader);
-                            parseFormatter(reader, address, formatterOperations, formatterNames);
+                            parseFormatter(reader, namespace, address, formatterOperations, formatterNames);
                             break;
                         default: {
                             reader.handleAny(operations);
@@ -523,6 +524,13 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                     AUTOFLUSH.parseAndSetParameter(value, operation, reader);
                     break;
                 }
+                case FLUSH_INTERVAL: {
+                    if (namespace != Namespace.LOGGING_3_0) {
+                        throw unexpectedAttribute(reader, i);
+                    }
+                    FLUSH_INTERVAL.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
                 case ENABLED:
                     if (namespace == Namespace.LOGGING_1_0 || namespace == Namespace.LOGGING_1_1) {
                         throw unexpectedAttribute(reader, i);
@@ -691,6 +699,13 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                     AUTOFLUSH.parseAndSetParameter(value, operation, reader);
                     break;
                 }
+                case FLUSH_INTERVAL: {
+                    if (namespace != Namespace.LOGGING_3_0) {
+                        throw unexpectedAttribute(reader, i);
+                    }
+                    FLUSH_INTERVAL.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
                 case ENABLED:
                     if (namespace == Namespace.LOGGING_1_0 || namespace == Namespace.LOGGING_1_1) {
                         throw unexpectedAttribute(reader, i);
@@ -781,6 +796,13 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                     AUTOFLUSH.parseAndSetParameter(value, operation, reader);
                     break;
                 }
+                case FLUSH_INTERVAL: {
+                    if (namespace != Namespace.LOGGING_3_0) {
+                        throw unexpectedAttribute(reader, i);
+                    }
+                    FLUSH_INTERVAL.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
                 case ENABLED:
                     ENABLED.parseAndSetParameter(value, operation, reader);
                     break;
@@ -875,6 +897,13 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                     AUTOFLUSH.parseAndSetParameter(value, operation, reader);
                     break;
                 }
+                case FLUSH_INTERVAL: {
+                    if (namespace != Namespace.LOGGING_3_0) {
+                        throw unexpectedAttribute(reader, i);
+                    }
+                    FLUSH_INTERVAL.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
                 case ENABLED:
                     if (namespace == Namespace.LOGGING_1_0 || namespace == Namespace.LOGGING_1_1) {
                         throw unexpectedAttribute(reader, i);
@@ -1077,7 +1106,7 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
         requireNoContent(reader);
     }
 
-    private static void parseFormatter(final XMLExtendedStreamReader reader, final PathAddress address, final List<ModelNode> operations, final Set<String> names) throws XMLStreamException {
+    private static void parseFormatter(final XMLExtendedStreamReader reader, final Namespace namespace, final PathAddress address, final List<ModelNode> operations, final Set<String> names) throws XMLStreamException {
         // Attributes
         String name = null;
         final EnumSet<Attribute> required = EnumSet.of(Attribute.NAME);
@@ -1126,6 +1155,17 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                     operations.add(operation);
                     break;
                 }
+                case JSON_FORMATTER: {
+                    if (namespace != Namespace.LOGGING_3_0) {
+                        throw unexpectedElement(reader);
+                    }
+                    final ModelNode operation = Util.createAddOperation();
+                    // Setup the operation address
+                    addOperationAddress(operation, address, JsonFormatterResourceDefinition.JSON_FORMATTER.getName(), name);
+                    parseJsonFormatterElement(reader, operation);
+                    operations.add(operation);
+                    break;
+                }
                 default: {
                     throw unexpectedElement(reader);
                 }
@@ -1192,6 +1232,28 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
         requireNoContent(reader);
     }
 
+    private static void parseJsonFormatterElement(final XMLExtendedStreamReader reader, final ModelNode operation) throws XMLStreamException {
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            switch (attribute) {
+                case FIELDS: {
+                    JsonFormatterResourceDefinition.FIELDS.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
+                case DATE_FORMAT: {
+                    JsonFormatterResourceDefinition.DATE_FORMAT.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        requireNoContent(reader);
+    }
+
     private static void parseCustomFormatterElement(final XMLExtendedStreamReader reader, final ModelNode operation) throws XMLStreamException {
         final EnumSet<Attribute> required = EnumSet.of(Attribute.CLASS, Attribute.MODULE);
         final int count = reader.getAttributeCount();
@@ -1391,7 +1453,7 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                     if (namespace == Namespace.LOGGING_1_0 || namespace == Namespace.LOGGING_1_1 ||
                             namespace == Namespace.LOGGING_1_2 || namespace == Namespace.LOGGING_1_3)
                         throw unexpectedElement(reader);
-                    parseFormatter(reader, profileAddress, formatterOperations, formatterNames);
+                    parseFormatter(reader, namespace, profileAddress, formatterOperations, formatterNames);
                     break;
                 default: {
                     reader.handleAny(operations);
@@ -33,6 +33,7 @@ import static org.jboss.as.logging.CommonAttributes.ENABLED;
 import static org.jboss.as.logging.CommonAttributes.ENCODING;
 import static org.jboss.as.logging.CommonAttributes.FILE;
 import static org.jboss.as.logging.CommonAttributes.FILTER_SPEC;
+import static org.jboss.as.logging.CommonAttributes.FLUSH_INTERVAL;
 import static org.jboss.as.logging.AbstractHandlerDefinition.FORMATTER;
 import static org.jboss.as.logging.CommonAttributes.HANDLERS;
 import static org.jboss.as.logging.CommonAttributes.HANDLER_NAME;
@@ -43,6 +44,7 @@ import static org.jboss.as.logging.CommonAttributes.NAME;
 import static org.jboss.as.logging.ConsoleHandlerResourceDefinition.CONSOLE_HANDLER;
 import static org.jboss.as.logging.ConsoleHandlerResourceDefinition.TARGET;
 import static org.jboss.as.logging.CustomFormatterResourceDefinition.CUSTOM_FORMATTER;
+import static org.jboss.as.logging.JsonFormatterResourceDefinition.JSON_FORMATTER;
 import static org.jboss.as.logging.CommonAttributes.CLASS;
 import static org.jboss.as.logging.CustomHandlerResourceDefinition.CUSTOM_HANDLER;
 import static org.jboss.as.logging.CommonAttributes.MODULE;
@@ -217,6 +219,7 @@ public class LoggingSubsystemWriter implements XMLStreamConstants, XMLElementWri
 
         writeFormatters(writer, PATTERN_FORMATTER, model);
         writeFormatters(writer, CUSTOM_FORMATTER, model);
+        writeFormatters(writer, JSON_FORMATTER, model);
     }
 
     private void writeCommonLogger(final XMLExtendedStreamWriter writer, final ModelNode model) throws XMLStreamException {
@@ -248,6 +251,7 @@ public class LoggingSubsystemWriter implements XMLStreamConstants, XMLElementWri
         writer.writeStartElement(Element.FILE_HANDLER.getLocalName());
         writer.writeAttribute(Attribute.NAME.getLocalName(), name);
         AUTOFLUSH.marshallAsAttribute(model, writer);
+        FLUSH_INTERVAL.marshallAsAttribute(model, false, writer);
         ENABLED.marshallAsAttribute(model, false, writer);
         writeCommonHandler(writer, model);
         FILE.marshallAsElement(model, writer);
@@ -273,6 +277,7 @@ public class LoggingSubsystemWriter implements XMLStreamConstants, XMLElementWri
         writer.writeStartElement(Element.PERIODIC_ROTATING_FILE_HANDLER.getLocalName());
         writer.writeAttribute(HANDLER_NAME.getXmlName(), name);
         AUTOFLUSH.marshallAsAttribute(model, writer);
+        FLUSH_INTERVAL.marshallAsAttribute(model, false, writer);
         ENABLED.marshallAsAttribute(model, false, writer);
         writeCommonHandler(writer, model);
         FILE.marshallAsElement(model, writer);
@@ -286,6 +291,7 @@ public class LoggingSubsystemWriter implements XMLStreamConstants, XMLElementWri
         writer.writeStartElement(Element.PERIODIC_SIZE_ROTATING_FILE_HANDLER.getLocalName());
         writer.writeAttribute(HANDLER_NAME.getXmlName(), name);
         AUTOFLUSH.marshallAsAttribute(model, writer);
+        FLUSH_INTERVAL.marshallAsAttribute(model, false, writer);
         ENABLED.marshallAsAttribute(model, false, writer);
         ROTATE_ON_BOOT.marshallAsAttribute(model, false, writer);
         writeCommonHandler(writer, model);
@@ -302,6 +308,7 @@ public class LoggingSubsystemWriter implements XMLStreamConstants, XMLElementWri
         writer.writeStartElement(Element.SIZE_ROTATING_FILE_HANDLER.getLocalName());
         writer.writeAttribute(HANDLER_NAME.getXmlName(), name);
         AUTOFLUSH.marshallAsAttribute(model, writer);
+        FLUSH_INTERVAL.marshallAsAttribute(model, false, writer);
         ENABLED.marshallAsAttribute(model, false, writer);
         ROTATE_ON_BOOT.marshallAsAttribute(model, false, writer);
         writeCommonHandler(writer, model);
@@ -25,6 +25,7 @@ package org.jboss.as.logging;
 import static org.jboss.as.logging.CommonAttributes.APPEND;
 import static org.jboss.as.logging.CommonAttributes.AUTOFLUSH;
 import static org.jboss.as.logging.CommonAttributes.FILE;
+import static org.jboss.as.logging.CommonAttributes.FLUSH_INTERVAL;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.PathElement;
@@ -50,7 +51,7 @@ class PeriodicHandlerResourceDefinition extends AbstractFileHandlerDefinition {
             .setValidator(new SuffixValidator())
             .build();
 
-    static final AttributeDefinition[] ATTRIBUTES = Logging.join(DEFAULT_ATTRIBUTES, AUTOFLUSH, APPEND, FILE, SUFFIX, NAMED_FORMATTER);
+    static final AttributeDefinition[] ATTRIBUTES = Logging.join(DEFAULT_ATTRIBUTES, AUTOFLUSH, FLUSH_INTERVAL, APPEND, FILE, SUFFIX, NAMED_FORMATTER);
 
     public PeriodicHandlerResourceDefinition(final ResolvePathHandler resolvePathHandler, final boolean includeLegacyAttributes) {
         super(PERIODIC_HANDLER_PATH, PeriodicRotatingFileHandler.class, resolvePathHandler,
@@ -67,6 +68,10 @@ class PeriodicHandlerResourceDefinition extends AbstractFileHandlerDefinition {
                         .end();
                 break;
             }
+            case VERSION_2_0_0: {
+                rejectFlushInterval(resourceBuilder, loggingProfileBuilder);
+                break;
+            }
         }
     }
 }
@@ -897,4 +897,25 @@ public interface LoggingLogger extends BasicLogger {
      */
     @Message(id = 85, value = "Resources of type %s cannot be removed")
     UnsupportedOperationException cannotRemoveResourceOfType(String childType);
+
+    /**
+     * Logs an error message indicating the configuration file could not be written in the background.
+     *
+     * @param cause    the cause of the error
+     * @param fileName the configuration file
+     */
+    @LogMessage(level = ERROR)
+    @Message(id = 86, value = "Failed to write configuration file %s")
+    void errorWritingConfigurationFile(@Cause Throwable cause, File fileName);
+
+    /**
+     * Creates an exception indicating the last background write of the configuration file failed.
+     *
+     * @param cause   the cause of the error
+     * @param message the message of the cause
+     *
+     * @return an {@link OperationFailedException} for the error
+     */
+    @Message(id = 87, value = "The logging configuration was not persisted, the last write failed: %s")
+    OperationFailedException backgroundWriteFailed(@Cause Throwable cause, String message);
 }
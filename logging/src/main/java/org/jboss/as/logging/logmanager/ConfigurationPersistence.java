@@ -22,6 +22,7 @@
 
 package org.jboss.as.logging.logmanager;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -29,6 +30,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.channels.FileLock;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.logging.CommonAttributes;
@@ -56,12 +60,27 @@ import org.jboss.logmanager.config.PojoConfiguration;
  */
 public class ConfigurationPersistence implements Configurator, LogContextConfiguration {
 
+    // Guards the attachment of the configurators to the log contexts
     private static final Object LOCK = new Object();
+    // Serializes writes of the configuration files
+    private static final Object WRITE_LOCK = new Object();
     private static final String PROPERTIES_FILE = "logging.properties";
     private static final byte[] NOTE_MESSAGE = String.format("# Note this file has been generated and will be overwritten if a%n" +
             "# logging subsystem has been defined in the XML configuration.%n%n").getBytes();
     private final PropertyConfigurator config;
     private final LogContextConfiguration delegate;
+    // Each log context has its own configuration, changes to different log contexts do not contend
+    private final Object lock = new Object();
+    // Coalesces the writes of the configuration file, all guarded by the writeLock
+    private final Object writeLock = new Object();
+    private long requestedWrites;
+    private long completedWrites;
+    private boolean writing;
+    private RuntimeException writeFailure;
+    // The file to write by the background write queued and not started yet
+    private final AtomicReference<File> pendingWrite = new AtomicReference<File>();
+    // The failure of a background write not reported to an operation yet
+    private final AtomicReference<RuntimeException> backgroundWriteFailure = new AtomicReference<RuntimeException>();
 
     public ConfigurationPersistence() {
         this(LogContext.getSystemLogContext());
@@ -144,203 +163,203 @@ public class ConfigurationPersistence implements Configurator, LogContextConfigu
 
     @Override
     public void configure(final InputStream inputStream) throws IOException {
-        synchronized (LOCK) {
+        synchronized (lock) {
             config.configure(inputStream);
         }
     }
 
     @Override
     public LogContext getLogContext() {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.getLogContext();
         }
     }
 
     @Override
     public LoggerConfiguration addLoggerConfiguration(final String loggerName) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.addLoggerConfiguration(loggerName);
         }
     }
 
     @Override
     public boolean removeLoggerConfiguration(final String loggerName) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.removeLoggerConfiguration(loggerName);
         }
     }
 
     @Override
     public LoggerConfiguration getLoggerConfiguration(final String loggerName) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.getLoggerConfiguration(loggerName);
         }
     }
 
     @Override
     public List<String> getLoggerNames() {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.getLoggerNames();
         }
     }
 
     @Override
     public HandlerConfiguration addHandlerConfiguration(final String moduleName, final String className, final String handlerName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.addHandlerConfiguration(moduleName, className, handlerName, constructorProperties);
         }
     }
 
     @Override
     public boolean removeHandlerConfiguration(final String handlerName) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.removeHandlerConfiguration(handlerName);
         }
     }
 
     @Override
     public HandlerConfiguration getHandlerConfiguration(final String handlerName) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.getHandlerConfiguration(handlerName);
         }
     }
 
     @Override
     public List<String> getHandlerNames() {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.getHandlerNames();
         }
     }
 
     @Override
     public FormatterConfiguration addFormatterConfiguration(final String moduleName, final String className, final String formatterName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.addFormatterConfiguration(moduleName, className, formatterName, constructorProperties);
         }
     }
 
     @Override
     public boolean removeFormatterConfiguration(final String formatterName) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.removeFormatterConfiguration(formatterName);
         }
     }
 
     @Override
     public FormatterConfiguration getFormatterConfiguration(final String formatterName) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.getFormatterConfiguration(formatterName);
         }
     }
 
     @Override
     public List<String> getFormatterNames() {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.getFormatterNames();
         }
     }
 
     @Override
     public FilterConfiguration addFilterConfiguration(final String moduleName, final String className, final String filterName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.addFilterConfiguration(moduleName, className, filterName, constructorProperties);
         }
     }
 
     @Override
     public boolean removeFilterConfiguration(final String filterName) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.removeFilterConfiguration(filterName);
         }
     }
 
     @Override
     public FilterConfiguration getFilterConfiguration(final String filterName) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.getFilterConfiguration(filterName);
         }
     }
 
     @Override
     public List<String> getFilterNames() {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.getFilterNames();
         }
     }
 
     @Override
     public ErrorManagerConfiguration addErrorManagerConfiguration(final String moduleName, final String className, final String errorManagerName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.addErrorManagerConfiguration(moduleName, className, errorManagerName, constructorProperties);
         }
     }
 
     @Override
     public boolean removeErrorManagerConfiguration(final String errorManagerName) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.removeErrorManagerConfiguration(errorManagerName);
         }
     }
 
     @Override
     public ErrorManagerConfiguration getErrorManagerConfiguration(final String errorManagerName) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.getErrorManagerConfiguration(errorManagerName);
         }
     }
 
     @Override
     public List<String> getErrorManagerNames() {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.getErrorManagerNames();
         }
     }
 
     @Override
     public void prepare() {
-        synchronized (LOCK) {
+        synchronized (lock) {
             delegate.prepare();
         }
     }
 
     @Override
     public PojoConfiguration addPojoConfiguration(final String moduleName, final String className, final String pojoName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.addPojoConfiguration(moduleName, className, pojoName, constructorProperties);
         }
     }
 
     @Override
     public boolean removePojoConfiguration(final String pojoName) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.removePojoConfiguration(pojoName);
         }
     }
 
     @Override
     public PojoConfiguration getPojoConfiguration(final String pojoName) {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.getPojoConfiguration(pojoName);
         }
     }
 
     @Override
     public List<String> getPojoNames() {
-        synchronized (LOCK) {
+        synchronized (lock) {
             return delegate.getPojoNames();
         }
     }
 
     @Override
     public void commit() {
-        synchronized (LOCK) {
+        synchronized (lock) {
             delegate.commit();
         }
     }
 
     @Override
     public void forget() {
-        synchronized (LOCK) {
+        synchronized (lock) {
             delegate.forget();
         }
     }
@@ -367,10 +386,34 @@ public class ConfigurationPersistence implements Configurator, LogContextConfigu
 
     /**
      * Write the logging configuration to the {@code logging.properties} file.
+     * <p/>
+     * The configuration is committed immediately. Writes requested while another write is in progress are coalesced
+     * into a single write of the latest committed configuration once that write completes. The file has been written
+     * when this method returns.
      *
      * @param context the context used to determine the file location.
+     *
+     * @throws RuntimeException if the file could not be written
      */
     public void writeConfiguration(final OperationContext context) {
+        writeConfiguration(context, null);
+    }
+
+    /**
+     * Write the logging configuration to the {@code logging.properties} file.
+     * <p/>
+     * The configuration is committed immediately. If a writer is given and the server is not booting, the file is
+     * written by the writer and a failure is reported by {@link #takeBackgroundWriteFailure()}. Writes requested before
+     * a queued write started are coalesced into that write. Otherwise the file has been written when this method
+     * returns.
+     *
+     * @param context the context used to determine the file location.
+     * @param writer  the executor writing the file in the background or {@code null} to write the file on the calling
+     *                thread
+     *
+     * @throws RuntimeException if the file could not be written on the calling thread
+     */
+    public void writeConfiguration(final OperationContext context, final Executor writer) {
         final String loggingConfig;
         switch (context.getProcessType()) {
             case DOMAIN_SERVER: {
@@ -385,33 +428,149 @@ public class ConfigurationPersistence implements Configurator, LogContextConfigu
             LoggingLogger.ROOT_LOGGER.warn(LoggingLogger.ROOT_LOGGER.pathManagerServiceNotStarted());
         } else {
             final File configFile = new File(loggingConfig);
-            synchronized (LOCK) {
+            synchronized (lock) {
                 try {
                     // Commit the log context configuration
                     commit();
-                    FileOutputStream out = null;
-                    try {
-                        out = new FileOutputStream(configFile);
-                        final FileLock lock = out.getChannel().lock();
+                } finally {
+                    forget();
+                }
+            }
+            if (writer == null || context.isBooting()) {
+                // The file is present as soon as the server has booted
+                writeCoalesced(configFile);
+            } else {
+                writeInBackground(configFile, writer);
+            }
+        }
+    }
+
+    /**
+     * Returns and clears the failure of the last background write, if it failed.
+     *
+     * @return the failure or {@code null} if the background writes succeeded
+     */
+    public RuntimeException takeBackgroundWriteFailure() {
+        return backgroundWriteFailure.getAndSet(null);
+    }
+
+    /**
+     * Queues a write of the configuration file, unless a queued write has not started yet.
+     *
+     * @param configFile the configuration file
+     * @param writer     the executor writing the file
+     */
+    void writeInBackground(final File configFile, final Executor writer) {
+        if (pendingWrite.getAndSet(configFile) != null) {
+            // The queued write serializes the configuration once it starts
+            return;
+        }
+        try {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final File file = pendingWrite.getAndSet(null);
+                    if (file != null) {
                         try {
-                            out.write(NOTE_MESSAGE);
-                            config.writeConfiguration(out);
-                        } finally {
-                            // The write should close the stream which would release the lock this check ensures the
-                            // lock will be released
-                            if (lock.isValid()) {
-                                lock.release();
-                            }
+                            writeCoalesced(file);
+                            backgroundWriteFailure.set(null);
+                        } catch (RuntimeException e) {
+                            LoggingLogger.ROOT_LOGGER.errorWritingConfigurationFile(e.getCause() == null ? e : e.getCause(), file);
+                            backgroundWriteFailure.set(e);
                         }
-                        LoggingLogger.ROOT_LOGGER.tracef("Logging configuration file '%s' successfully written.", configFile.getAbsolutePath());
-                    } catch (IOException e) {
-                        throw LoggingLogger.ROOT_LOGGER.failedToWriteConfigurationFile(e, configFile);
-                    } finally {
-                        safeClose(out);
                     }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The writer has been stopped
+            final File file = pendingWrite.getAndSet(null);
+            if (file != null) {
+                writeCoalesced(file);
+            }
+        }
+    }
+
+    /**
+     * Writes the committed configuration to the file, or waits for a write in progress and a following write.
+     *
+     * @param configFile the configuration file
+     *
+     * @throws RuntimeException if the write which includes the committed configuration failed
+     */
+    void writeCoalesced(final File configFile) {
+        final long requested;
+        final long covered;
+        synchronized (writeLock) {
+            requested = ++requestedWrites;
+            boolean interrupted = false;
+            try {
+                while (writing) {
+                    try {
+                        writeLock.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (completedWrites >= requested) {
+                // Written by a write which started after the configuration was committed
+                if (writeFailure != null) {
+                    throw LoggingLogger.ROOT_LOGGER.failedToWriteConfigurationFile(writeFailure.getCause() == null ? writeFailure : writeFailure.getCause(), configFile);
+                }
+                return;
+            }
+            // The write includes every configuration committed before a write was requested
+            covered = requestedWrites;
+            writing = true;
+        }
+        RuntimeException failure = null;
+        try {
+            writeConfiguration(configFile);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            synchronized (writeLock) {
+                completedWrites = covered;
+                writeFailure = failure;
+                writing = false;
+                writeLock.notifyAll();
+            }
+        }
+    }
+
+    private void writeConfiguration(final File configFile) {
+        // Only the serialization holds the lock, so the file I/O does not block changes to the configuration
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        synchronized (lock) {
+            try {
+                bytes.write(NOTE_MESSAGE);
+                config.writeConfiguration(bytes);
+            } catch (IOException e) {
+                throw LoggingLogger.ROOT_LOGGER.failedToWriteConfigurationFile(e, configFile);
+            }
+        }
+        synchronized (WRITE_LOCK) {
+            FileOutputStream out = null;
+            try {
+                out = new FileOutputStream(configFile);
+                final FileLock fileLock = out.getChannel().lock();
+                try {
+                    bytes.writeTo(out);
                 } finally {
-                    forget();
+                    if (fileLock.isValid()) {
+                        fileLock.release();
+                    }
                 }
+                LoggingLogger.ROOT_LOGGER.tracef("Logging configuration file '%s' successfully written.", configFile.getAbsolutePath());
+            } catch (IOException e) {
+                throw LoggingLogger.ROOT_LOGGER.failedToWriteConfigurationFile(e, configFile);
+            } finally {
+                safeClose(out);
             }
         }
     }
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.util.logging.ErrorManager;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.SizeRotatingFileHandler;
+
+/**
+ * A {@link SizeRotatingFileHandler} which can commit records in batches on a background writer thread.
+ * <p>
+ * With a {@link #setFlushInterval(int) flush interval} of 0, the default, records are written on the publishing thread.
+ * Otherwise records are written and flushed in batches at most the flush interval after they were published.
+ * <p>
+ * Rotation is checked as each record is written, so every record ends up in the same file as if it had been written
+ * synchronously.
+ */
+public class GroupCommitSizeRotatingFileHandler extends SizeRotatingFileHandler {
+
+    private final GroupCommitter committer = new GroupCommitter(new GroupCommitter.Target() {
+        @Override
+        public void commit(final ExtLogRecord record) {
+            GroupCommitSizeRotatingFileHandler.super.doPublish(record);
+        }
+
+        @Override
+        public void flush() {
+            GroupCommitSizeRotatingFileHandler.this.flush();
+        }
+
+        @Override
+        public void setAutoFlush(final boolean autoFlush) {
+            GroupCommitSizeRotatingFileHandler.super.setAutoFlush(autoFlush);
+        }
+
+        @Override
+        public void reportError(final String msg, final Exception ex) {
+            GroupCommitSizeRotatingFileHandler.this.reportError(msg, ex, ErrorManager.WRITE_FAILURE);
+        }
+    });
+
+    /**
+     * Gets the maximum time a record is buffered before it is written.
+     *
+     * @return the flush interval in milliseconds
+     */
+    public int getFlushInterval() {
+        return committer.getInterval();
+    }
+
+    /**
+     * Sets the maximum time a record is buffered before it is written. A value of 0 writes records synchronously.
+     *
+     * @param flushInterval the flush interval in milliseconds
+     */
+    public void setFlushInterval(final int flushInterval) {
+        committer.setInterval(flushInterval);
+    }
+
+    @Override
+    public boolean isAutoFlush() {
+        return committer.isAutoFlush();
+    }
+
+    @Override
+    public void setAutoFlush(final boolean autoFlush) throws SecurityException {
+        committer.setAutoFlush(autoFlush);
+    }
+
+    @Override
+    protected void doPublish(final ExtLogRecord record) {
+        committer.publish(record);
+    }
+
+    @Override
+    public void close() throws SecurityException {
+        // Write the pending records before the file is closed
+        committer.stop();
+        super.close();
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Commits the records published to a file handler in batches on a background writer thread.
+ * <p>
+ * The group commit handlers only forward to a committer, which holds the {@link #setInterval(int) interval} and the
+ * {@link #setAutoFlush(boolean) auto flush} setting of the handler. The writer waits at most the interval after the
+ * first record of a batch was published before the batch is written and flushed, which bounds the time a record is
+ * held in memory. Records are only written by the writer thread, in the order they were published, so the rotation
+ * checks performed while writing a record see the records in order.
+ */
+final class GroupCommitter {
+
+    /**
+     * The handler the records are committed to.
+     */
+    interface Target {
+
+        /**
+         * Writes the record synchronously.
+         *
+         * @param record the record to write
+         */
+        void commit(ExtLogRecord record);
+
+        /**
+         * Flushes the records written.
+         */
+        void flush();
+
+        /**
+         * Sets whether the handler flushes after each record it writes.
+         *
+         * @param autoFlush {@code true} to flush after each record
+         */
+        void setAutoFlush(boolean autoFlush);
+
+        /**
+         * Reports a failure to write or flush records to the error manager of the handler.
+         *
+         * @param msg the message
+         * @param ex  the failure
+         */
+        void reportError(String msg, Exception ex);
+    }
+
+    // Publishing threads block once this many records are pending, so a slow disk does not exhaust the heap
+    static final int MAX_PENDING = 8192;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable r) {
+            final PrivilegedAction<Thread> action = new PrivilegedAction<Thread>() {
+                @Override
+                public Thread run() {
+                    final Thread thread = new Thread(r, "logging-group-commit-writer-" + THREAD_COUNT.incrementAndGet());
+                    thread.setDaemon(true);
+                    // Do not hold on to the class loader of the thread which configured the handler
+                    thread.setContextClassLoader(null);
+                    return thread;
+                }
+            };
+            return WildFlySecurityManager.isChecking() ? AccessController.doPrivileged(action) : action.run();
+        }
+    };
+
+    private final Object lock = new Object();
+    private final Target target;
+    private volatile boolean autoFlush = true;
+    // All guarded by the lock
+    private List<ExtLogRecord> pending = new ArrayList<ExtLogRecord>();
+    private List<ExtLogRecord> spare = new ArrayList<ExtLogRecord>();
+    private int interval;
+    private Thread writer;
+    private boolean stopping;
+
+    GroupCommitter(final Target target) {
+        this.target = target;
+    }
+
+    /**
+     * Gets the maximum time a record is pending before it is written.
+     *
+     * @return the interval in milliseconds, 0 if records are written synchronously
+     */
+    int getInterval() {
+        synchronized (lock) {
+            return interval;
+        }
+    }
+
+    /**
+     * Sets the maximum time a record is pending before it is written. Setting the interval to 0 writes any pending
+     * records and stops the writer thread.
+     *
+     * @param interval the interval in milliseconds
+     */
+    void setInterval(final int interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException(Integer.toString(interval));
+        }
+        synchronized (lock) {
+            this.interval = interval;
+            if (interval > 0 && writer == null) {
+                stopping = false;
+                writer = THREAD_FACTORY.newThread(new Writer());
+                writer.start();
+            }
+        }
+        if (interval == 0) {
+            stop();
+        }
+        updateAutoFlush();
+    }
+
+    /**
+     * Checks whether the records are flushed once they are written.
+     *
+     * @return the auto flush setting of the handler
+     */
+    boolean isAutoFlush() {
+        return autoFlush;
+    }
+
+    /**
+     * Sets whether records are flushed once they are written. Records written by the writer thread are flushed once
+     * per batch.
+     *
+     * @param autoFlush the auto flush setting of the handler
+     */
+    void setAutoFlush(final boolean autoFlush) {
+        this.autoFlush = autoFlush;
+        updateAutoFlush();
+    }
+
+    /**
+     * Queues the record to be written by the writer thread, or writes the record if no writer is active.
+     *
+     * @param record the record to publish
+     */
+    void publish(final ExtLogRecord record) {
+        if (!enqueue(record)) {
+            target.commit(record);
+        }
+    }
+
+    /**
+     * Writes any pending records and stops the writer thread.
+     */
+    void stop() {
+        final Thread writer;
+        synchronized (lock) {
+            writer = this.writer;
+            if (writer == null) {
+                return;
+            }
+            stopping = true;
+            lock.notifyAll();
+        }
+        if (writer != Thread.currentThread()) {
+            boolean interrupted = false;
+            try {
+                while (writer.isAlive()) {
+                    try {
+                        writer.join();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private boolean enqueue(final ExtLogRecord record) {
+        // Capture the thread dependent values, the record is formatted on the writer thread
+        record.copyAll();
+        synchronized (lock) {
+            // Records published while the writer commits, e.g. by a formatter, must not wait for the writer itself
+            if (writer == Thread.currentThread()) {
+                return false;
+            }
+            while (writer != null && pending.size() >= MAX_PENDING) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            if (writer == null) {
+                return false;
+            }
+            pending.add(record);
+            if (pending.size() == 1 || pending.size() >= MAX_PENDING) {
+                lock.notifyAll();
+            }
+            return true;
+        }
+    }
+
+    private void updateAutoFlush() {
+        final boolean active;
+        synchronized (lock) {
+            active = writer != null;
+        }
+        // Batches are flushed once they are written, rather than each record
+        target.setAutoFlush(autoFlush && !active);
+    }
+
+    private void commit(final ExtLogRecord record) {
+        try {
+            target.commit(record);
+        } catch (RuntimeException e) {
+            target.reportError("Failed to write the log record", e);
+        }
+    }
+
+    private class Writer implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                commitBatches();
+            } finally {
+                final List<ExtLogRecord> remaining;
+                synchronized (lock) {
+                    // Also reached if the target failed, publishing threads then write synchronously
+                    writer = null;
+                    remaining = pending;
+                    pending = new ArrayList<ExtLogRecord>();
+                    lock.notifyAll();
+                }
+                // Only records left by a failed batch or published while the writer was stopping
+                for (ExtLogRecord record : remaining) {
+                    commit(record);
+                }
+                updateAutoFlush();
+            }
+        }
+
+        private void commitBatches() {
+            for (;;) {
+                final List<ExtLogRecord> batch;
+                synchronized (lock) {
+                    try {
+                        while (pending.isEmpty()) {
+                            if (stopping) {
+                                return;
+                            }
+                            lock.wait();
+                        }
+                        // Allow records to accumulate, bounded by the interval from the first record of the batch
+                        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(interval);
+                        long remaining;
+                        while (!stopping && pending.size() < MAX_PENDING && (remaining = deadline - System.nanoTime()) > 0) {
+                            TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                        }
+                    } catch (InterruptedException e) {
+                        // Only stop() ends the writer, write what is pending
+                        Thread.interrupted();
+                    }
+                    batch = pending;
+                    pending = spare;
+                    spare = null;
+                    // Release the publishing threads waiting for room in the queue
+                    lock.notifyAll();
+                }
+                int written = 0;
+                try {
+                    for (ExtLogRecord record : batch) {
+                        commit(record);
+                        written++;
+                    }
+                    try {
+                        target.flush();
+                    } catch (RuntimeException e) {
+                        target.reportError("Failed to flush the log records", e);
+                    }
+                } finally {
+                    synchronized (lock) {
+                        if (written < batch.size()) {
+                            // The writer is failing, the records not written are written once the writer has stopped
+                            final List<ExtLogRecord> unwritten = new ArrayList<ExtLogRecord>(batch.subList(written, batch.size()));
+                            unwritten.addAll(pending);
+                            pending = unwritten;
+                        }
+                        batch.clear();
+                        spare = batch;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.logmanager.ExtFormatter;
+import org.jboss.logmanager.ExtLogRecord;
+
+/**
+ * A formatter writing each log record as a single line JSON object.
+ * <p>
+ * The {@link #setFields(String) fields} written are configurable. An exception is written as a structured object
+ * containing the type, message, stack frames and cause of the exception.
+ * <p>
+ * Records are written to a buffer reused by the formatting thread, so formatting a record only allocates the resulting
+ * string.
+ */
+public class JsonFormatter extends ExtFormatter {
+
+    /**
+     * The fields which can be written.
+     */
+    public enum Field {
+        TIMESTAMP("timestamp"),
+        SEQUENCE("sequence"),
+        LEVEL("level"),
+        LOGGER("logger"),
+        MESSAGE("message"),
+        THREAD("thread"),
+        THREAD_ID("thread-id"),
+        NDC("ndc"),
+        MDC("mdc"),
+        EXCEPTION("exception"),
+        ;
+
+        private final String name;
+
+        Field(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * Gets the name of the field in the JSON object.
+         *
+         * @return the name of the field
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the field with the name.
+         *
+         * @param name the name of the field
+         *
+         * @return the field
+         *
+         * @throws IllegalArgumentException if there is no field with the name
+         */
+        public static Field forName(final String name) {
+            for (Field field : values()) {
+                if (field.name.equals(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException(name);
+        }
+    }
+
+    public static final String DEFAULT_FIELDS = "timestamp,level,logger,message,thread,mdc,exception";
+    public static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+
+    // Buffers which grew beyond this size are not kept, so a single large record does not pin memory
+    private static final int MAX_RETAINED_BUFFER = 16384;
+    private static final int INITIAL_BUFFER = 512;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ThreadLocal<Buffer> buffers = new ThreadLocal<Buffer>();
+    private volatile Field[] fields;
+    private volatile String dateFormat = DEFAULT_DATE_FORMAT;
+
+    public JsonFormatter() {
+        setFields(DEFAULT_FIELDS);
+    }
+
+    /**
+     * Gets the comma delimited names of the fields written.
+     *
+     * @return the names of the fields
+     */
+    public String getFields() {
+        final StringBuilder result = new StringBuilder();
+        for (Field field : fields) {
+            if (result.length() > 0) {
+                result.append(',');
+            }
+            result.append(field.getName());
+        }
+        return result.toString();
+    }
+
+    /**
+     * Sets the fields written, in the order they are written.
+     *
+     * @param fields the comma delimited names of the fields
+     */
+    public void setFields(final String fields) {
+        final List<Field> result = new ArrayList<Field>();
+        for (String name : fields.split(",")) {
+            final String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                result.add(Field.forName(trimmed.toLowerCase(Locale.ENGLISH)));
+            }
+        }
+        this.fields = result.toArray(new Field[result.size()]);
+    }
+
+    public String getDateFormat() {
+        return dateFormat;
+    }
+
+    /**
+     * Sets the {@link SimpleDateFormat date format} of the timestamp.
+     *
+     * @param dateFormat the date format
+     */
+    public void setDateFormat(final String dateFormat) {
+        // Validate the format
+        new SimpleDateFormat(dateFormat);
+        this.dateFormat = dateFormat;
+    }
+
+    @Override
+    public String format(final ExtLogRecord record) {
+        Buffer buffer = buffers.get();
+        if (buffer == null) {
+            buffer = new Buffer();
+            buffers.set(buffer);
+        }
+        final StringBuilder sb = buffer.builder;
+        sb.setLength(0);
+        try {
+            sb.append('{');
+            boolean first = true;
+            for (Field field : fields) {
+                final int start = sb.length();
+                if (!first) {
+                    sb.append(',');
+                }
+                if (writeField(buffer, sb, field, record)) {
+                    first = false;
+                } else {
+                    // Nothing written for the field
+                    sb.setLength(start);
+                }
+            }
+            sb.append('}').append('\n');
+            return sb.toString();
+        } finally {
+            if (sb.capacity() > MAX_RETAINED_BUFFER) {
+                buffer.builder = new StringBuilder(INITIAL_BUFFER);
+            }
+        }
+    }
+
+    private boolean writeField(final Buffer buffer, final StringBuilder sb, final Field field, final ExtLogRecord record) {
+        switch (field) {
+            case TIMESTAMP: {
+                writeName(sb, field);
+                writeString(sb, buffer.formatDate(dateFormat, record.getMillis()));
+                return true;
+            }
+            case SEQUENCE: {
+                writeName(sb, field);
+                sb.append(record.getSequenceNumber());
+                return true;
+            }
+            case LEVEL: {
+                writeName(sb, field);
+                writeString(sb, record.getLevel().getName());
+                return true;
+            }
+            case LOGGER: {
+                writeName(sb, field);
+                writeString(sb, record.getLoggerName());
+                return true;
+            }
+            case MESSAGE: {
+                writeName(sb, field);
+                writeString(sb, record.getFormattedMessage());
+                return true;
+            }
+            case THREAD: {
+                writeName(sb, field);
+                writeString(sb, record.getThreadName());
+                return true;
+            }
+            case THREAD_ID: {
+                writeName(sb, field);
+                sb.append(record.getThreadID());
+                return true;
+            }
+            case NDC: {
+                final String ndc = record.getNdc();
+                if (ndc == null || ndc.isEmpty()) {
+                    return false;
+                }
+                writeName(sb, field);
+                writeString(sb, ndc);
+                return true;
+            }
+            case MDC: {
+                final Map<String, String> mdc = record.getMdcCopy();
+                if (mdc == null || mdc.isEmpty()) {
+                    return false;
+                }
+                writeName(sb, field);
+                sb.append('{');
+                boolean first = true;
+                for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                    if (!first) {
+                        sb.append(',');
+                    }
+                    first = false;
+                    writeString(sb, entry.getKey());
+                    sb.append(':');
+                    writeString(sb, entry.getValue());
+                }
+                sb.append('}');
+                return true;
+            }
+            case EXCEPTION: {
+                final Throwable thrown = record.getThrown();
+                if (thrown == null) {
+                    return false;
+                }
+                writeName(sb, field);
+                writeThrowable(sb, thrown, Collections.newSetFromMap(new IdentityHashMap<Throwable, Boolean>()));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeThrowable(final StringBuilder sb, final Throwable throwable, final Set<Throwable> seen) {
+        seen.add(throwable);
+        sb.append("{\"type\":");
+        writeString(sb, throwable.getClass().getName());
+        if (throwable.getMessage() != null) {
+            sb.append(",\"message\":");
+            writeString(sb, throwable.getMessage());
+        }
+        sb.append(",\"frames\":[");
+        final StackTraceElement[] frames = throwable.getStackTrace();
+        for (int i = 0; i < frames.length; i++) {
+            final StackTraceElement frame = frames[i];
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"class\":");
+            writeString(sb, frame.getClassName());
+            sb.append(",\"method\":");
+            writeString(sb, frame.getMethodName());
+            if (frame.getFileName() != null) {
+                sb.append(",\"file\":");
+                writeString(sb, frame.getFileName());
+            }
+            if (frame.getLineNumber() >= 0) {
+                sb.append(",\"line\":").append(frame.getLineNumber());
+            }
+            sb.append('}');
+        }
+        sb.append(']');
+        final Throwable cause = throwable.getCause();
+        // Guard against circular causes
+        if (cause != null && !seen.contains(cause)) {
+            sb.append(",\"cause\":");
+            writeThrowable(sb, cause, seen);
+        }
+        sb.append('}');
+    }
+
+    private static void writeName(final StringBuilder sb, final Field field) {
+        sb.append('"').append(field.getName()).append('"').append(':');
+    }
+
+    private static void writeString(final StringBuilder sb, final String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\b':
+                    sb.append("\\b");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * The per thread state used for formatting.
+     */
+    private static final class Buffer {
+        private StringBuilder builder = new StringBuilder(INITIAL_BUFFER);
+        private final Date date = new Date();
+        private SimpleDateFormat dateFormat;
+        private String pattern;
+
+        String formatDate(final String pattern, final long millis) {
+            if (!pattern.equals(this.pattern)) {
+                dateFormat = new SimpleDateFormat(pattern);
+                this.pattern = pattern;
+            }
+            date.setTime(millis);
+            return dateFormat.format(date);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.LogRecord;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.AsyncHandler;
+
+/**
+ * An {@link AsyncHandler} collecting metrics about its queue.
+ * <p>
+ * The metrics are collected using atomic counters only. As the queue of the {@link AsyncHandler} is not accessible the
+ * queue size is tracked by counting the records enqueued and the records published to the sub-handlers, the values are
+ * therefore approximate while records are concurrently enqueued.
+ * <p>
+ * Handlers are registered by their {@link #setName(String) name}, so the metrics of a handler can be {@link
+ * #getHandler(String) looked up} by the management model.
+ */
+public class MeteredAsyncHandler extends AsyncHandler {
+
+    /**
+     * The name of the property holding the name of the handler.
+     */
+    public static final String NAME_PROPERTY = "name";
+
+    private static final ConcurrentMap<String, MeteredAsyncHandler> HANDLERS = new ConcurrentHashMap<String, MeteredAsyncHandler>();
+
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicInteger peakQueueSize = new AtomicInteger();
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+    private final AtomicLong blockedCount = new AtomicLong();
+    private final AtomicLong enqueueTime = new AtomicLong();
+    private volatile String name;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param queueLength the queue length
+     */
+    public MeteredAsyncHandler(final int queueLength) {
+        super(queueLength);
+    }
+
+    /**
+     * Construct a new instance.
+     */
+    public MeteredAsyncHandler() {
+    }
+
+    /**
+     * Creates the name a handler is registered with.
+     *
+     * @param profileName the name of the logging profile or {@code null} for the default log context
+     * @param handlerName the name of the handler
+     *
+     * @return the name to register the handler with
+     */
+    public static String createName(final String profileName, final String handlerName) {
+        return profileName == null ? handlerName : profileName + '/' + handlerName;
+    }
+
+    /**
+     * Gets the handler registered with the name.
+     *
+     * @param name the name the handler is registered with
+     *
+     * @return the handler or {@code null} if no handler is registered with the name
+     */
+    public static MeteredAsyncHandler getHandler(final String name) {
+        return HANDLERS.get(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name of the handler and registers the handler with the name.
+     *
+     * @param name the name
+     */
+    public void setName(final String name) {
+        final String oldName = this.name;
+        if (oldName != null) {
+            HANDLERS.remove(oldName, this);
+        }
+        this.name = name;
+        if (name != null) {
+            HANDLERS.put(name, this);
+        }
+    }
+
+    @Override
+    public void close() throws SecurityException {
+        final String name = this.name;
+        if (name != null) {
+            HANDLERS.remove(name, this);
+        }
+        super.close();
+    }
+
+    @Override
+    protected void doPublish(final ExtLogRecord record) {
+        final boolean full = queueSize.get() >= getQueueLength();
+        if (full && getOverflowAction() == OverflowAction.DISCARD) {
+            // The record would not be accepted by the queue
+            discardedCount.incrementAndGet();
+            return;
+        }
+        // Count the record before it is enqueued, it could be published before the enqueue returns
+        final int size = queueSize.incrementAndGet();
+        int peak;
+        while (size > (peak = peakQueueSize.get())) {
+            if (peakQueueSize.compareAndSet(peak, size)) {
+                break;
+            }
+        }
+        if (full) {
+            blockedCount.incrementAndGet();
+        }
+        final long start = System.nanoTime();
+        super.doPublish(record);
+        enqueueTime.addAndGet(System.nanoTime() - start);
+        enqueuedCount.incrementAndGet();
+    }
+
+    @Override
+    protected void publishToNestedHandlers(final LogRecord record) {
+        queueSize.decrementAndGet();
+        super.publishToNestedHandlers(record);
+    }
+
+    /**
+     * Gets the number of records currently in the queue.
+     *
+     * @return the queue size
+     */
+    public int getQueueSize() {
+        return Math.max(0, queueSize.get());
+    }
+
+    /**
+     * Gets the highest number of records in the queue since the metrics were last reset.
+     *
+     * @return the peak queue size
+     */
+    public int getPeakQueueSize() {
+        return peakQueueSize.get();
+    }
+
+    /**
+     * Gets the number of records enqueued.
+     *
+     * @return the number of enqueued records
+     */
+    public long getEnqueuedCount() {
+        return enqueuedCount.get();
+    }
+
+    /**
+     * Gets the number of records discarded as the queue was full.
+     *
+     * @return the number of discarded records
+     */
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+
+    /**
+     * Gets the number of records which blocked the caller as the queue was full.
+     *
+     * @return the number of blocked records
+     */
+    public long getBlockedCount() {
+        return blockedCount.get();
+    }
+
+    /**
+     * Gets the average time a caller waited for a record to be enqueued.
+     *
+     * @return the average time in nanoseconds
+     */
+    public long getAverageEnqueueWait() {
+        final long count = enqueuedCount.get();
+        return count == 0 ? 0 : enqueueTime.get() / count;
+    }
+
+    /**
+     * Resets the metrics. The queue size is not reset, as it reflects the records currently in the queue.
+     */
+    public void resetMetrics() {
+        peakQueueSize.set(getQueueSize());
+        enqueuedCount.set(0);
+        discardedCount.set(0);
+        blockedCount.set(0);
+        enqueueTime.set(0);
+    }
+}
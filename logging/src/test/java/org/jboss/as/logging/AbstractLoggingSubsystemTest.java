@@ -234,6 +234,10 @@ public abstract class AbstractLoggingSubsystemTest extends AbstractSubsystemBase
         return createAddress(profileName, PatternFormatterResourceDefinition.PATTERN_FORMATTER_PATH.getKey(), name);
     }
 
+    static PathAddress createJsonFormatterAddress(final String profileName, final String name) {
+        return createAddress(profileName, JsonFormatterResourceDefinition.JSON_FORMATTER_PATH.getKey(), name);
+    }
+
     protected KernelServices boot() throws Exception {
         final KernelServices kernelServices = createKernelServicesBuilder(createAdditionalInitialization()).setSubsystemXml(getSubsystemXml()).build();
         final Throwable bootError = kernelServices.getBootError();
@@ -426,6 +430,11 @@ public abstract class AbstractLoggingSubsystemTest extends AbstractSubsystemBase
                             Assert.assertTrue("Handlers attached to loggers in the configuration that are not attached to loggers in the model. Logger: " + name, handlerHandlerNames.isEmpty());
                         }
                         continue;
+                    } else if (modelPropertyName.equals(CommonAttributes.FLUSH_INTERVAL.getName()) && !configPropertyNames.contains(CommonAttributes.FLUSH_INTERVAL.getPropertyName())) {
+                        // The log manager's handlers are used when records are written synchronously
+                        Assert.assertTrue("Handler writing records synchronously has a flush-interval: " + modelValue,
+                                !modelValue.isDefined() || modelValue.asInt() == 0);
+                        continue;
                     } else if (modelPropertyName.equals(SyslogHandlerResourceDefinition.FACILITY.getName())) {
                         configPropertyName = modelPropertyName;
                         modelStringValue = FacilityAttribute.fromString(modelValue.asString()).getFacility().name();
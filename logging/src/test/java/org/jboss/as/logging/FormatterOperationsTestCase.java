@@ -79,6 +79,8 @@ public class FormatterOperationsTestCase extends AbstractOperationsTestCase {
 
         testPatternFormatter(kernelServices, null);
         testPatternFormatter(kernelServices, PROFILE);
+        testJsonFormatter(kernelServices, null);
+        testJsonFormatter(kernelServices, PROFILE);
     }
 
     private void testPatternFormatter(final KernelServices kernelServices, final String profileName) throws Exception {
@@ -100,4 +102,24 @@ public class FormatterOperationsTestCase extends AbstractOperationsTestCase {
         executeOperation(kernelServices, SubsystemOperations.createRemoveOperation(address));
         verifyRemoved(kernelServices, address);
     }
+
+    private void testJsonFormatter(final KernelServices kernelServices, final String profileName) throws Exception {
+        final ModelNode address = createJsonFormatterAddress(profileName, "JSON").toModelNode();
+
+        // Add the JSON formatter
+        final ModelNode addOp = SubsystemOperations.createAddOperation(address);
+        executeOperation(kernelServices, addOp);
+
+        // Write each attribute and check the value
+        testWrite(kernelServices, address, JsonFormatterResourceDefinition.FIELDS, "timestamp,level,message,exception");
+        testWrite(kernelServices, address, JsonFormatterResourceDefinition.DATE_FORMAT, "HH:mm:ss,SSS");
+
+        // Undefine attributes
+        testUndefine(kernelServices, address, JsonFormatterResourceDefinition.FIELDS);
+        testUndefine(kernelServices, address, JsonFormatterResourceDefinition.DATE_FORMAT);
+
+        // Clean-up
+        executeOperation(kernelServices, SubsystemOperations.createRemoveOperation(address));
+        verifyRemoved(kernelServices, address);
+    }
 }
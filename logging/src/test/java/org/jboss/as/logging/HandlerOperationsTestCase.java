@@ -394,6 +394,7 @@ public class HandlerOperationsTestCase extends AbstractOperationsTestCase {
         testWriteCommonAttributes(kernelServices, address);
         testWrite(kernelServices, address, CommonAttributes.APPEND, false);
         testWrite(kernelServices, address, CommonAttributes.AUTOFLUSH, false);
+        testWrite(kernelServices, address, CommonAttributes.FLUSH_INTERVAL, 100);
 
         final ModelNode newFile = createFileValue("jboss.server.log.dir", newFilename);
         testWrite(kernelServices, address, CommonAttributes.FILE, newFile);
@@ -403,6 +404,7 @@ public class HandlerOperationsTestCase extends AbstractOperationsTestCase {
         testUndefineCommonAttributes(kernelServices, address);
         testUndefine(kernelServices, address, CommonAttributes.APPEND);
         testUndefine(kernelServices, address, CommonAttributes.AUTOFLUSH);
+        testUndefine(kernelServices, address, CommonAttributes.FLUSH_INTERVAL);
 
         // Clean-up
         executeOperation(kernelServices, SubsystemOperations.createRemoveOperation(address));
@@ -430,6 +432,7 @@ public class HandlerOperationsTestCase extends AbstractOperationsTestCase {
         testWriteCommonAttributes(kernelServices, address);
         testWrite(kernelServices, address, CommonAttributes.APPEND, false);
         testWrite(kernelServices, address, CommonAttributes.AUTOFLUSH, false);
+        testWrite(kernelServices, address, CommonAttributes.FLUSH_INTERVAL, 100);
 
         final ModelNode newFile = createFileValue("jboss.server.log.dir", newFilename);
         testWrite(kernelServices, address, CommonAttributes.FILE, newFile);
@@ -441,6 +444,7 @@ public class HandlerOperationsTestCase extends AbstractOperationsTestCase {
         testUndefineCommonAttributes(kernelServices, address);
         testUndefine(kernelServices, address, CommonAttributes.APPEND);
         testUndefine(kernelServices, address, CommonAttributes.AUTOFLUSH);
+        testUndefine(kernelServices, address, CommonAttributes.FLUSH_INTERVAL);
 
         // Clean-up
         executeOperation(kernelServices, SubsystemOperations.createRemoveOperation(address));
@@ -468,6 +472,7 @@ public class HandlerOperationsTestCase extends AbstractOperationsTestCase {
         testWriteCommonAttributes(kernelServices, address);
         testWrite(kernelServices, address, CommonAttributes.APPEND, false);
         testWrite(kernelServices, address, CommonAttributes.AUTOFLUSH, false);
+        testWrite(kernelServices, address, CommonAttributes.FLUSH_INTERVAL, 100);
 
         final ModelNode newFile = createFileValue("jboss.server.log.dir", newFilename);
         testWrite(kernelServices, address, CommonAttributes.FILE, newFile);
@@ -481,6 +486,7 @@ public class HandlerOperationsTestCase extends AbstractOperationsTestCase {
         testUndefineCommonAttributes(kernelServices, address);
         testUndefine(kernelServices, address, CommonAttributes.APPEND);
         testUndefine(kernelServices, address, CommonAttributes.AUTOFLUSH);
+        testUndefine(kernelServices, address, CommonAttributes.FLUSH_INTERVAL);
         testUndefine(kernelServices, address, SizeRotatingHandlerResourceDefinition.MAX_BACKUP_INDEX);
 
         // Clean-up
@@ -508,6 +514,7 @@ public class HandlerOperationsTestCase extends AbstractOperationsTestCase {
         testWriteCommonAttributes(kernelServices, address);
         testWrite(kernelServices, address, CommonAttributes.APPEND, false);
         testWrite(kernelServices, address, CommonAttributes.AUTOFLUSH, false);
+        testWrite(kernelServices, address, CommonAttributes.FLUSH_INTERVAL, 100);
 
         final ModelNode newFile = createFileValue("jboss.server.log.dir", newFilename);
         testWrite(kernelServices, address, CommonAttributes.FILE, newFile);
@@ -521,6 +528,7 @@ public class HandlerOperationsTestCase extends AbstractOperationsTestCase {
         testUndefineCommonAttributes(kernelServices, address);
         testUndefine(kernelServices, address, CommonAttributes.APPEND);
         testUndefine(kernelServices, address, CommonAttributes.AUTOFLUSH);
+        testUndefine(kernelServices, address, CommonAttributes.FLUSH_INTERVAL);
         testUndefine(kernelServices, address, SizeRotatingHandlerResourceDefinition.MAX_BACKUP_INDEX);
         testUndefine(kernelServices, address, SizeRotatingHandlerResourceDefinition.SUFFIX);
 
@@ -0,0 +1,193 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.logmanager.LogContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the writes of the {@link ConfigurationPersistence}.
+ */
+public class ConfigurationPersistenceTestCase {
+
+    private final File dir = new File("target", "configuration-persistence");
+    private final File configFile = new File(dir, "logging.properties");
+
+    @Before
+    public void createDir() {
+        dir.mkdirs();
+    }
+
+    @After
+    public void deleteDir() {
+        configFile.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void testCoalescedWrites() throws Exception {
+        final ConfigurationPersistence persistence = new ConfigurationPersistence(LogContext.create());
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                final String loggerName = "org.jboss.as.logging.test" + i;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        persistence.addLoggerConfiguration(loggerName).setLevel("DEBUG");
+                        persistence.commit();
+                        persistence.writeCoalesced(configFile);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Each write includes the configuration committed before it was requested
+        final Properties properties = load();
+        for (int i = 0; i < 50; i++) {
+            Assert.assertEquals("DEBUG", properties.getProperty("logger.org.jboss.as.logging.test" + i + ".level"));
+        }
+    }
+
+    @Test
+    public void testWriteFailure() throws Exception {
+        final ConfigurationPersistence persistence = new ConfigurationPersistence(LogContext.create());
+        try {
+            // A directory cannot be written as a file
+            persistence.writeCoalesced(dir);
+            Assert.fail("Expected the write to fail");
+        } catch (RuntimeException expected) {
+            Assert.assertTrue(expected.getCause() instanceof IOException);
+        }
+
+        // A later write is not affected by the failure
+        persistence.addLoggerConfiguration("org.jboss.as.logging").setLevel("INFO");
+        persistence.commit();
+        persistence.writeCoalesced(configFile);
+        Assert.assertEquals("INFO", load().getProperty("logger.org.jboss.as.logging.level"));
+    }
+
+    @Test
+    public void testBackgroundWrites() throws Exception {
+        final ConfigurationPersistence persistence = new ConfigurationPersistence(LogContext.create());
+        final ExecutorService writer = Executors.newSingleThreadExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger writes = new AtomicInteger();
+        final Executor countingWriter = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                writes.incrementAndGet();
+                writer.execute(command);
+            }
+        };
+        try {
+            // Block the writer, so the following writes are queued
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            for (int i = 0; i < 10; i++) {
+                persistence.addLoggerConfiguration("org.jboss.as.logging.test" + i).setLevel("DEBUG");
+                persistence.commit();
+                persistence.writeInBackground(configFile, countingWriter);
+            }
+            release.countDown();
+        } finally {
+            writer.shutdown();
+            Assert.assertTrue(writer.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        // The queued write includes every configuration committed before it started
+        Assert.assertEquals(1, writes.get());
+        Assert.assertNull(persistence.takeBackgroundWriteFailure());
+        final Properties properties = load();
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("DEBUG", properties.getProperty("logger.org.jboss.as.logging.test" + i + ".level"));
+        }
+
+        // Once the writer is stopped the file is written on the calling thread
+        persistence.addLoggerConfiguration("org.jboss.as.logging").setLevel("INFO");
+        persistence.commit();
+        persistence.writeInBackground(configFile, writer);
+        Assert.assertEquals("INFO", load().getProperty("logger.org.jboss.as.logging.level"));
+    }
+
+    @Test
+    public void testBackgroundWriteFailure() throws Exception {
+        final ConfigurationPersistence persistence = new ConfigurationPersistence(LogContext.create());
+        final ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            // A directory cannot be written as a file
+            persistence.writeInBackground(dir, writer);
+        } finally {
+            writer.shutdown();
+            Assert.assertTrue(writer.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        // The failure is reported once
+        final RuntimeException failure = persistence.takeBackgroundWriteFailure();
+        Assert.assertNotNull(failure);
+        Assert.assertTrue(failure.getCause() instanceof IOException);
+        Assert.assertNull(persistence.takeBackgroundWriteFailure());
+    }
+
+    private Properties load() throws IOException {
+        final Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(configFile)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.logging.Level;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.formatters.PatternFormatter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the file handlers committing records on a background writer.
+ */
+public class GroupCommitFileHandlerTestCase {
+
+    private File dir;
+
+    @Before
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("group-commit").toFile();
+    }
+
+    @After
+    public void deleteDir() {
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testRecordsWrittenInOrder() throws Exception {
+        final File file = new File(dir, "test.log");
+        final GroupCommitFileHandler handler = new GroupCommitFileHandler();
+        handler.setFormatter(new PatternFormatter("%s%n"));
+        handler.setFile(file);
+        handler.setFlushInterval(50);
+        Assert.assertTrue(handler.isAutoFlush());
+        for (int i = 0; i < 1000; i++) {
+            handler.publish(createRecord("message " + i));
+        }
+        handler.close();
+
+        final List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(1000, lines.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals("message " + i, lines.get(i));
+        }
+    }
+
+    @Test
+    public void testDisableWritesPending() throws Exception {
+        final File file = new File(dir, "test.log");
+        final GroupCommitFileHandler handler = new GroupCommitFileHandler();
+        try {
+            handler.setFormatter(new PatternFormatter("%s%n"));
+            handler.setFile(file);
+            // Long enough that the record is still pending when the group commit is disabled
+            handler.setFlushInterval(60000);
+            handler.publish(createRecord("pending"));
+            handler.setFlushInterval(0);
+            Assert.assertEquals(1, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+
+            // Written synchronously
+            handler.publish(createRecord("synchronous"));
+            Assert.assertEquals(2, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+        } finally {
+            handler.close();
+        }
+    }
+
+    @Test
+    public void testSizeRotation() throws Exception {
+        final File file = new File(dir, "test.log");
+        final GroupCommitSizeRotatingFileHandler handler = new GroupCommitSizeRotatingFileHandler();
+        handler.setFormatter(new PatternFormatter("%s%n"));
+        handler.setRotateSize(100L);
+        handler.setMaxBackupIndex(100);
+        handler.setFile(file);
+        handler.setFlushInterval(50);
+        for (int i = 0; i < 100; i++) {
+            handler.publish(createRecord(String.format("message %03d", i)));
+        }
+        handler.close();
+
+        // Each record is 12 bytes, so each file holds at most 9 records
+        int total = 0;
+        final File[] files = dir.listFiles();
+        Assert.assertNotNull(files);
+        Assert.assertTrue("Expected the file to be rotated", files.length > 1);
+        for (File f : files) {
+            Assert.assertTrue(f.getName() + " exceeds the rotate size", f.length() <= 108L);
+            total += Files.readAllLines(f.toPath(), StandardCharsets.UTF_8).size();
+        }
+        Assert.assertEquals(100, total);
+    }
+
+    private static ExtLogRecord createRecord(final String message) {
+        return new ExtLogRecord(Level.INFO, message, GroupCommitFileHandlerTestCase.class.getName());
+    }
+}
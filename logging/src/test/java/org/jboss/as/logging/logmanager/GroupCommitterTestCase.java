@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link GroupCommitter}.
+ */
+public class GroupCommitterTestCase {
+
+    private final TestTarget target = new TestTarget();
+    private final GroupCommitter committer = new GroupCommitter(target);
+
+    @After
+    public void stop() {
+        committer.stop();
+    }
+
+    @Test
+    public void testAutoFlush() {
+        committer.setAutoFlush(true);
+        Assert.assertTrue(target.autoFlush);
+        committer.setInterval(50);
+        Assert.assertFalse(target.autoFlush);
+        Assert.assertTrue(committer.isAutoFlush());
+        committer.setInterval(0);
+        Assert.assertTrue(target.autoFlush);
+    }
+
+    @Test
+    public void testPublishFromWriter() throws Exception {
+        final CountDownLatch committed = target.expect(2);
+        target.republish = true;
+        committer.setInterval(50);
+        committer.publish(createRecord("first"));
+        // The record published while the first one is written must not wait for the writer
+        Assert.assertTrue(committed.await(10, TimeUnit.SECONDS));
+        committer.stop();
+        Assert.assertEquals(Arrays.asList("nested", "first"), target.messages);
+    }
+
+    @Test
+    public void testCommitFailure() throws Exception {
+        final CountDownLatch committed = target.expect(2);
+        committer.setInterval(50);
+        committer.publish(createRecord("first"));
+        committer.publish(createRecord("fail"));
+        committer.publish(createRecord("second"));
+        Assert.assertTrue(committed.await(10, TimeUnit.SECONDS));
+        committer.stop();
+        Assert.assertEquals(Arrays.asList("first", "second"), target.messages);
+        Assert.assertEquals(1, target.errors.size());
+    }
+
+    @Test
+    public void testErrorStopsWriter() throws Exception {
+        committer.setAutoFlush(true);
+        committer.setInterval(60000);
+        committer.publish(createRecord("first"));
+        committer.publish(createRecord("error"));
+        committer.publish(createRecord("second"));
+        // The writer fails, the records not written are written once it has stopped
+        committer.stop();
+        Assert.assertEquals(Arrays.asList("first", "error", "second"), target.messages);
+        Assert.assertTrue(target.autoFlush);
+
+        // Written synchronously
+        committer.publish(createRecord("third"));
+        Assert.assertEquals(Arrays.asList("first", "error", "second", "third"), target.messages);
+    }
+
+    private static ExtLogRecord createRecord(final String message) {
+        return new ExtLogRecord(Level.INFO, message, GroupCommitterTestCase.class.getName());
+    }
+
+    private class TestTarget implements GroupCommitter.Target {
+        final List<String> messages = Collections.synchronizedList(new ArrayList<String>());
+        final List<Exception> errors = Collections.synchronizedList(new ArrayList<Exception>());
+        volatile boolean autoFlush;
+        volatile boolean republish;
+        private volatile boolean errorThrown;
+        private volatile CountDownLatch committed = new CountDownLatch(0);
+
+        CountDownLatch expect(final int count) {
+            committed = new CountDownLatch(count);
+            return committed;
+        }
+
+        @Override
+        public void commit(final ExtLogRecord record) {
+            final String message = record.getMessage();
+            if ("fail".equals(message)) {
+                throw new IllegalStateException(message);
+            }
+            if ("error".equals(message) && !errorThrown) {
+                errorThrown = true;
+                throw new AssertionError(message);
+            }
+            if (republish) {
+                republish = false;
+                committer.publish(createRecord("nested"));
+            }
+            messages.add(message);
+            committed.countDown();
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void setAutoFlush(final boolean autoFlush) {
+            this.autoFlush = autoFlush;
+        }
+
+        @Override
+        public void reportError(final String msg, final Exception ex) {
+            errors.add(ex);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.util.logging.Level;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.logmanager.ExtLogRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the output of the {@link JsonFormatter}.
+ */
+public class JsonFormatterTestCase {
+
+    @Test
+    public void testFields() {
+        final JsonFormatter formatter = new JsonFormatter();
+        formatter.setFields("level,logger,message");
+        final ExtLogRecord record = new ExtLogRecord(Level.INFO, "a \"quoted\"\nmessage\t", JsonFormatterTestCase.class.getName());
+        record.setLoggerName("org.jboss.test");
+
+        final String result = formatter.format(record);
+        Assert.assertTrue(result.endsWith("}\n"));
+        Assert.assertEquals(result.length() - 1, result.indexOf('\n'));
+        final ModelNode json = ModelNode.fromJSONString(result);
+        Assert.assertEquals(3, json.keys().size());
+        Assert.assertEquals("INFO", json.get("level").asString());
+        Assert.assertEquals("org.jboss.test", json.get("logger").asString());
+        Assert.assertEquals("a \"quoted\"\nmessage\t", json.get("message").asString());
+    }
+
+    @Test
+    public void testException() {
+        final JsonFormatter formatter = new JsonFormatter();
+        formatter.setFields("message,exception");
+        final ExtLogRecord record = new ExtLogRecord(Level.SEVERE, "failure", JsonFormatterTestCase.class.getName());
+        record.setThrown(new IllegalStateException("outer", new IllegalArgumentException("inner")));
+
+        final ModelNode json = ModelNode.fromJSONString(formatter.format(record));
+        final ModelNode exception = json.get("exception");
+        Assert.assertEquals(IllegalStateException.class.getName(), exception.get("type").asString());
+        Assert.assertEquals("outer", exception.get("message").asString());
+        final ModelNode frame = exception.get("frames").get(0);
+        Assert.assertEquals(JsonFormatterTestCase.class.getName(), frame.get("class").asString());
+        Assert.assertEquals("testException", frame.get("method").asString());
+        Assert.assertEquals(IllegalArgumentException.class.getName(), exception.get("cause", "type").asString());
+        Assert.assertFalse(exception.get("cause").has("cause"));
+    }
+
+    @Test
+    public void testUndefinedFieldsOmitted() {
+        final JsonFormatter formatter = new JsonFormatter();
+        formatter.setFields("ndc,message,mdc,exception");
+        final ExtLogRecord record = new ExtLogRecord(Level.INFO, "message", JsonFormatterTestCase.class.getName());
+
+        Assert.assertEquals("{\"message\":\"message\"}\n", formatter.format(record));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidField() {
+        new JsonFormatter().setFields("level,unknown");
+    }
+}
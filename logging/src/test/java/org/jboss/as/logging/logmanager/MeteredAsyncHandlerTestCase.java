@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import org.jboss.logmanager.ExtHandler;
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.AsyncHandler.OverflowAction;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the metrics collected by the {@link MeteredAsyncHandler}.
+ */
+public class MeteredAsyncHandlerTestCase {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch published = new CountDownLatch(3);
+    private final MeteredAsyncHandler handler = new MeteredAsyncHandler(2);
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        handler.close();
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        handler.setName(MeteredAsyncHandler.createName("profile", "async"));
+        Assert.assertSame(handler, MeteredAsyncHandler.getHandler("profile/async"));
+        handler.setOverflowAction(OverflowAction.DISCARD);
+        handler.addHandler(new ExtHandler() {
+            @Override
+            protected void doPublish(final ExtLogRecord record) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                published.countDown();
+            }
+        });
+
+        // The first record blocks the sub-handler, so the following records fill the queue
+        handler.publish(createRecord());
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        handler.publish(createRecord());
+        handler.publish(createRecord());
+        handler.publish(createRecord());
+
+        Assert.assertEquals(2, handler.getQueueSize());
+        Assert.assertEquals(2, handler.getPeakQueueSize());
+        Assert.assertEquals(3, handler.getEnqueuedCount());
+        Assert.assertEquals(1, handler.getDiscardedCount());
+        Assert.assertEquals(0, handler.getBlockedCount());
+
+        release.countDown();
+        Assert.assertTrue(published.await(10, TimeUnit.SECONDS));
+        handler.resetMetrics();
+        Assert.assertEquals(0, handler.getEnqueuedCount());
+        Assert.assertEquals(0, handler.getDiscardedCount());
+        Assert.assertEquals(0, handler.getAverageEnqueueWait());
+
+        handler.close();
+        Assert.assertNull(MeteredAsyncHandler.getHandler("profile/async"));
+    }
+
+    @Test
+    public void testBlockedMetrics() throws Exception {
+        handler.setOverflowAction(OverflowAction.BLOCK);
+        handler.addHandler(new ExtHandler() {
+            @Override
+            protected void doPublish(final ExtLogRecord record) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                published.countDown();
+            }
+        });
+
+        // The first record blocks the sub-handler and the following records fill the queue, so the last one blocks
+        handler.publish(createRecord());
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        handler.publish(createRecord());
+        handler.publish(createRecord());
+        final Thread blocked = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                handler.publish(createRecord());
+            }
+        });
+        blocked.start();
+        final long timeout = System.currentTimeMillis() + 10000;
+        while (blocked.getState() != Thread.State.WAITING && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(Thread.State.WAITING, blocked.getState());
+        release.countDown();
+        blocked.join(10000);
+        Assert.assertFalse(blocked.isAlive());
+
+        Assert.assertEquals(4, handler.getEnqueuedCount());
+        Assert.assertEquals(0, handler.getDiscardedCount());
+        Assert.assertEquals(1, handler.getBlockedCount());
+        Assert.assertTrue(handler.getAverageEnqueueWait() > 0);
+    }
+
+    private static ExtLogRecord createRecord() {
+        return new ExtLogRecord(Level.INFO, "test", MeteredAsyncHandlerTestCase.class.getName());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.network;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The connection metrics of a socket binding, collected by the managed sockets created for the binding.
+ * <p/>
+ * Accepted connections are counted by the managed server sockets, open connections and transferred bytes by the
+ * accepted sockets and by the sockets created by the {@link ManagedSocketFactory}. Each socket counts its own bytes,
+ * so the I/O paths of different connections do not contend on shared counters, the totals are summed when they are
+ * read. A read concurrent with a connection being closed may miss the bytes of that connection. The accept rate is
+ * calculated when it is read.
+ */
+public final class ConnectionMetrics {
+
+    private static final long MIN_SAMPLE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong acceptedConnections = new AtomicLong();
+    private final Set<MeteredSocket> openSockets = Collections.newSetFromMap(new ConcurrentHashMap<MeteredSocket, Boolean>());
+    // The bytes transferred by the closed connections
+    private final AtomicLong closedBytesReceived = new AtomicLong();
+    private final AtomicLong closedBytesSent = new AtomicLong();
+
+    // Guarded by this
+    private long sampleTime = System.nanoTime();
+    private long sampleAccepted;
+    private double acceptRate;
+
+    void connectionAccepted() {
+        acceptedConnections.incrementAndGet();
+    }
+
+    void connectionOpened(final MeteredSocket socket) {
+        openSockets.add(socket);
+    }
+
+    void connectionClosed(final MeteredSocket socket) {
+        if (openSockets.remove(socket)) {
+            closedBytesReceived.addAndGet(socket.getBytesReceived());
+            closedBytesSent.addAndGet(socket.getBytesSent());
+        }
+    }
+
+    /**
+     * Get the number of connections accepted since the socket binding was first bound.
+     *
+     * @return the number of accepted connections
+     */
+    public long getAcceptedConnections() {
+        return acceptedConnections.get();
+    }
+
+    /**
+     * Get the number of connections currently open.
+     *
+     * @return the number of open connections
+     */
+    public long getOpenConnections() {
+        return openSockets.size();
+    }
+
+    /**
+     * Get the number of bytes received by the connections.
+     *
+     * @return the number of bytes received
+     */
+    public long getBytesReceived() {
+        long bytes = closedBytesReceived.get();
+        for (MeteredSocket socket : openSockets) {
+            bytes += socket.getBytesReceived();
+        }
+        return bytes;
+    }
+
+    /**
+     * Get the number of bytes sent by the connections.
+     *
+     * @return the number of bytes sent
+     */
+    public long getBytesSent() {
+        long bytes = closedBytesSent.get();
+        for (MeteredSocket socket : openSockets) {
+            bytes += socket.getBytesSent();
+        }
+        return bytes;
+    }
+
+    /**
+     * Get the average number of connections accepted per second since the previous sample. A new sample is taken
+     * if the previous one is at least one second old, so callers reading the rate at the same time see the same value.
+     *
+     * @return the accept rate in connections per second
+     */
+    public synchronized double getAcceptRate() {
+        final long now = System.nanoTime();
+        final long elapsed = now - sampleTime;
+        if (elapsed >= MIN_SAMPLE_INTERVAL) {
+            final long accepted = acceptedConnections.get();
+            acceptRate = (accepted - sampleAccepted) / ((double) elapsed / TimeUnit.SECONDS.toNanos(1));
+            sampleTime = now;
+            sampleAccepted = accepted;
+        }
+        return acceptRate;
+    }
+}
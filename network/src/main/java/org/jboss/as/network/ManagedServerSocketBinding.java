@@ -26,6 +26,7 @@ import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Managed {@code ServerSocket} binding, automatically registering itself
@@ -38,7 +39,8 @@ public class ManagedServerSocketBinding extends ServerSocket implements ManagedB
     private final String name;
     private final SocketBindingManager socketBindings;
     private final boolean metrics;
-    private volatile long acceptCount = 0;
+    private final ConnectionMetrics connectionMetrics;
+    private final AtomicLong acceptCount = new AtomicLong();
 
     ManagedServerSocketBinding(final SocketBindingManager socketBindings) throws IOException {
         this(null, socketBindings, false);
@@ -56,6 +58,7 @@ public class ManagedServerSocketBinding extends ServerSocket implements ManagedB
         this.name = name;
         this.socketBindings = socketBindings;
         this.metrics = metrics;
+        this.connectionMetrics = name == null ? null : socketBindings.getConnectionMetrics(name);
     }
 
     @Override
@@ -80,10 +83,21 @@ public class ManagedServerSocketBinding extends ServerSocket implements ManagedB
 
     @Override
     public Socket accept() throws IOException {
-        final Socket socket = metrics ? new ManagedSocketBinding(socketBindings.getUnnamedRegistry()) : new Socket();
-        implAccept(socket);
+        final Socket socket;
         if(metrics) {
-            acceptCount++;
+            socket = new ManagedSocketBinding(socketBindings.getUnnamedRegistry(), connectionMetrics);
+        } else if(connectionMetrics != null) {
+            socket = new MeteredSocket(connectionMetrics);
+        } else {
+            socket = new Socket();
+        }
+        implAccept(socket);
+        acceptCount.incrementAndGet();
+        if(connectionMetrics != null) {
+            connectionMetrics.connectionAccepted();
+            if(socket instanceof MeteredSocket) {
+                ((MeteredSocket) socket).connected();
+            }
         }
         return socket;
     }
@@ -102,7 +116,7 @@ public class ManagedServerSocketBinding extends ServerSocket implements ManagedB
     }
 
     public long getAcceptCount() {
-        return acceptCount;
+        return acceptCount.get();
     }
 
 }
@@ -23,7 +23,6 @@ package org.jboss.as.network;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.net.SocketAddress;
 
 /**
@@ -32,16 +31,21 @@ import java.net.SocketAddress;
  *
  * @author Emanuel Muckenhuber
  */
-class ManagedSocketBinding extends Socket implements ManagedBinding {
+class ManagedSocketBinding extends MeteredSocket implements ManagedBinding {
 
     private final String name;
     private final ManagedBindingRegistry socketBindings;
 
     ManagedSocketBinding(final ManagedBindingRegistry socketBindings) {
-        this(null, socketBindings);
+        this(null, socketBindings, null);
     }
 
-    ManagedSocketBinding(final String name, final ManagedBindingRegistry socketBindings) {
+    ManagedSocketBinding(final ManagedBindingRegistry socketBindings, final ConnectionMetrics metrics) {
+        this(null, socketBindings, metrics);
+    }
+
+    ManagedSocketBinding(final String name, final ManagedBindingRegistry socketBindings, final ConnectionMetrics metrics) {
+        super(metrics);
         this.name = name;
         this.socketBindings = socketBindings;
     }
@@ -0,0 +1,134 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.network;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A {@code Socket} recording its connection in the {@link ConnectionMetrics} of a socket binding. The socket counts the
+ * bytes transferred through its streams itself, the metrics sum the counts of the open sockets when they are read.
+ */
+class MeteredSocket extends Socket {
+
+    private static final AtomicLongFieldUpdater<MeteredSocket> bytesReceivedUpdater = AtomicLongFieldUpdater.newUpdater(MeteredSocket.class, "bytesReceived");
+    private static final AtomicLongFieldUpdater<MeteredSocket> bytesSentUpdater = AtomicLongFieldUpdater.newUpdater(MeteredSocket.class, "bytesSent");
+
+    private final ConnectionMetrics metrics;
+    private final AtomicBoolean open = new AtomicBoolean();
+    private volatile long bytesReceived;
+    private volatile long bytesSent;
+
+    MeteredSocket(final ConnectionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void connect(final SocketAddress endpoint, final int timeout) throws IOException {
+        super.connect(endpoint, timeout);
+        connected();
+    }
+
+    /**
+     * Records the connection, called once the socket is connected or accepted.
+     */
+    void connected() {
+        if (metrics != null && open.compareAndSet(false, true)) {
+            metrics.connectionOpened(this);
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        final InputStream in = super.getInputStream();
+        if (metrics == null) {
+            return in;
+        }
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                final int b = super.read();
+                if (b != -1) {
+                    bytesReceivedUpdater.incrementAndGet(MeteredSocket.this);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                final int read = super.read(b, off, len);
+                if (read > 0) {
+                    bytesReceivedUpdater.addAndGet(MeteredSocket.this, read);
+                }
+                return read;
+            }
+        };
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        final OutputStream out = super.getOutputStream();
+        if (metrics == null) {
+            return out;
+        }
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(final int b) throws IOException {
+                out.write(b);
+                bytesSentUpdater.incrementAndGet(MeteredSocket.this);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                // FilterOutputStream writes the array byte by byte
+                out.write(b, off, len);
+                bytesSentUpdater.addAndGet(MeteredSocket.this, len);
+            }
+        };
+    }
+
+    long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    long getBytesSent() {
+        return bytesSent;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (open.compareAndSet(true, false)) {
+                metrics.connectionClosed(this);
+            }
+        }
+    }
+}
@@ -195,6 +195,15 @@ public final class SocketBinding {
         return registry.getManagedBinding(name);
     }
 
+    /**
+     * Get the connection metrics of this {@code SocketBinding}.
+     *
+     * @return the connection metrics
+     */
+    public ConnectionMetrics getConnectionMetrics() {
+        return socketBindings.getConnectionMetrics(name);
+    }
+
     /**
      * Check whether this {@code SocketBinding} is bound. All bound sockets
      * have to be registered at the {@code SocketBindingManager} against which
@@ -120,6 +120,15 @@ public interface SocketBindingManager {
      */
     int getPortOffset();
 
+    /**
+     * Get the connection metrics of a socket binding. The metrics are kept for the lifetime of the manager, so they
+     * survive the socket binding being unbound and bound again.
+     *
+     * @param name the socket binding name
+     * @return the connection metrics
+     */
+    ConnectionMetrics getConnectionMetrics(String name);
+
     /**
      * Get the named binding registry.
      *
@@ -39,6 +39,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
@@ -51,6 +52,7 @@ public abstract class SocketBindingManagerImpl implements SocketBindingManager {
 
     private final NamedManagedBindingRegistry namedRegistry = new NamedRegistryImpl();
     private final UnnamedBindingRegistry unnamedRegistry = new UnnamedRegistryImpl();
+    private final ConcurrentMap<String, ConnectionMetrics> connectionMetrics = new ConcurrentHashMap<String, ConnectionMetrics>();
 
     /** {@inheritDoc} */
     @Override
@@ -88,6 +90,20 @@ public abstract class SocketBindingManagerImpl implements SocketBindingManager {
         return ManagedMulticastSocketBinding.create(null, this.unnamedRegistry, address);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ConnectionMetrics getConnectionMetrics(final String name) {
+        ConnectionMetrics metrics = connectionMetrics.get(name);
+        if (metrics == null) {
+            final ConnectionMetrics newMetrics = new ConnectionMetrics();
+            metrics = connectionMetrics.putIfAbsent(name, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        return metrics;
+    }
+
     /** {@inheritDoc} */
     @Override
     public NamedManagedBindingRegistry getNamedRegistry() {
@@ -134,7 +150,7 @@ public abstract class SocketBindingManagerImpl implements SocketBindingManager {
 
         @Override
         public Socket createSocket(final String name) {
-            return new ManagedSocketBinding(name, SocketBindingManagerImpl.this.namedRegistry);
+            return new ManagedSocketBinding(name, SocketBindingManagerImpl.this.namedRegistry, getConnectionMetrics(name));
         }
 
         @Override
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.network;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the connection metrics collected by the managed sockets.
+ */
+public class ConnectionMetricsTestCase {
+
+    @Test
+    public void testConnectionMetrics() throws Exception {
+        final SocketBindingManager manager = createManager();
+        final ConnectionMetrics server = manager.getConnectionMetrics("server");
+        final ConnectionMetrics client = manager.getConnectionMetrics("client");
+        Assert.assertSame(server, manager.getConnectionMetrics("server"));
+
+        try (ServerSocket serverSocket = manager.getServerSocketFactory().createServerSocket("server")) {
+            serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (Socket clientSocket = manager.getSocketFactory().createSocket("client", InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+                 Socket accepted = serverSocket.accept()) {
+                Assert.assertEquals(1, server.getAcceptedConnections());
+                Assert.assertEquals(1, server.getOpenConnections());
+                Assert.assertEquals(1, client.getOpenConnections());
+
+                transfer(clientSocket, accepted);
+                Assert.assertEquals(4, client.getBytesSent());
+                Assert.assertEquals(4, server.getBytesReceived());
+            }
+            Assert.assertEquals(0, server.getOpenConnections());
+            Assert.assertEquals(0, client.getOpenConnections());
+            Assert.assertEquals(1, server.getAcceptedConnections());
+            // The bytes of the closed connections are still counted
+            Assert.assertEquals(4, client.getBytesSent());
+            Assert.assertEquals(4, server.getBytesReceived());
+        }
+    }
+
+    @Test
+    public void testManagedConnectionMetrics() throws Exception {
+        final SocketBindingManager manager = createManager();
+        final ConnectionMetrics server = manager.getConnectionMetrics("server");
+
+        try (ServerSocket serverSocket = new ManagedServerSocketBinding("server", manager, true)) {
+            serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (Socket clientSocket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+                 Socket accepted = serverSocket.accept()) {
+                Assert.assertTrue(accepted instanceof ManagedSocketBinding);
+                Assert.assertEquals(1, server.getAcceptedConnections());
+                Assert.assertEquals(1, server.getOpenConnections());
+
+                transfer(clientSocket, accepted);
+                Assert.assertEquals(4, server.getBytesReceived());
+            }
+            Assert.assertEquals(0, server.getOpenConnections());
+            Assert.assertEquals(4, server.getBytesReceived());
+        }
+    }
+
+    private static void transfer(final Socket from, final Socket to) throws Exception {
+        final OutputStream out = from.getOutputStream();
+        out.write(new byte[] {1, 2, 3});
+        out.write(4);
+        out.flush();
+        final InputStream in = to.getInputStream();
+        final byte[] buffer = new byte[4];
+        int read = 0;
+        while (read < buffer.length) {
+            read += in.read(buffer, read, buffer.length - read);
+        }
+    }
+
+    private static SocketBindingManager createManager() {
+        return new SocketBindingManagerImpl() {
+            @Override
+            public InetAddress getDefaultInterfaceAddress() {
+                return InetAddress.getLoopbackAddress();
+            }
+
+            @Override
+            public NetworkInterfaceBinding getDefaultInterfaceBinding() {
+                return null;
+            }
+
+            @Override
+            public int getPortOffset() {
+                return 0;
+            }
+        };
+    }
+}
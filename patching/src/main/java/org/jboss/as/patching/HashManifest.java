@@ -0,0 +1,216 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.patching;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.patching.logging.PatchLogger;
+
+/**
+ * Persisted hashes of content roots, so the content of unchanged module and bundle roots does not need to be read
+ * again to calculate their hash.
+ * <p>
+ * For every root the manifest stores the hash as calculated by {@link HashUtils#hashFile(java.io.File)}, along with a
+ * fingerprint of the path, size and last modification time of all hashed files. The stored hash is only reused if the
+ * fingerprint of the root did not change. Roots containing files modified just before the hash was calculated are not
+ * recorded, since a later modification within the timestamp granularity of the file system could not be detected.
+ * <p>
+ * This class is thread-safe, roots can be hashed concurrently.
+ */
+public final class HashManifest {
+
+    /** The name of the manifest file in the installation metadata directory. */
+    public static final String MANIFEST = "content-hashes";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    // 2s covers the timestamp granularity of common file systems
+    private static final long TIMESTAMP_GRANULARITY = 2000;
+
+    private final File file;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    private volatile boolean modified;
+
+    private HashManifest(final File file) {
+        this.file = file;
+    }
+
+    /**
+     * Load the manifest from a file. A missing or unreadable manifest results in an empty manifest.
+     *
+     * @param file the manifest file
+     * @return the manifest
+     */
+    public static HashManifest load(final File file) {
+        final HashManifest manifest = new HashManifest(file);
+        if (file.isFile()) {
+            Reader reader = null;
+            try {
+                reader = new InputStreamReader(new FileInputStream(file), UTF_8);
+                final BufferedReader br = new BufferedReader(reader);
+                String line;
+                while ((line = br.readLine()) != null) {
+                    // <hash> <fingerprint> <path>
+                    final String[] parts = line.split(" ", 3);
+                    if (parts.length == 3) {
+                        manifest.entries.put(parts[2], new Entry(HashUtils.hexStringToByteArray(parts[0]), HashUtils.hexStringToByteArray(parts[1])));
+                    }
+                }
+            } catch (IOException e) {
+                PatchLogger.ROOT_LOGGER.debugf(e, "failed to read %s", file);
+                manifest.entries.clear();
+            } finally {
+                IoUtils.safeClose(reader);
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Get the hash of a file or directory, reusing the recorded hash if the content did not change.
+     *
+     * @param root the file or directory
+     * @return the hash, the same as {@link HashUtils#hashFile(java.io.File)}
+     * @throws IOException
+     */
+    public byte[] hashFile(final File root) throws IOException {
+        if (!root.exists()) {
+            return HashUtils.hashFile(root);
+        }
+        final long start = System.currentTimeMillis();
+        final String path = root.getAbsolutePath();
+        final Fingerprint fingerprint = new Fingerprint();
+        fingerprint.update(root, "");
+        final byte[] current = fingerprint.digest.digest();
+
+        final Entry entry = entries.get(path);
+        if (entry != null && Arrays.equals(entry.fingerprint, current)) {
+            return entry.hash.clone();
+        }
+        final byte[] hash = HashUtils.hashFile(root);
+        if (fingerprint.lastModified < start - TIMESTAMP_GRANULARITY) {
+            entries.put(path, new Entry(hash.clone(), current));
+            modified = true;
+        } else if (entry != null) {
+            entries.remove(path, entry);
+            modified = true;
+        }
+        return hash;
+    }
+
+    /**
+     * Store the manifest, if it was modified.
+     *
+     * @throws IOException
+     */
+    public void store() throws IOException {
+        if (!modified) {
+            return;
+        }
+        final File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException(file.getAbsolutePath());
+        }
+        // Write to a temp file first, so a failure does not leave a truncated manifest
+        final File temp = new File(parent, file.getName() + ".tmp");
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(temp), UTF_8);
+        try {
+            final BufferedWriter bw = new BufferedWriter(writer);
+            for (final Map.Entry<String, Entry> entry : entries.entrySet()) {
+                bw.write(HashUtils.bytesToHexString(entry.getValue().hash));
+                bw.write(' ');
+                bw.write(HashUtils.bytesToHexString(entry.getValue().fingerprint));
+                bw.write(' ');
+                bw.write(entry.getKey());
+                bw.newLine();
+            }
+            bw.flush();
+            writer.close();
+        } finally {
+            IoUtils.safeClose(writer);
+        }
+        if (!temp.renameTo(file)) {
+            // renameTo does not replace existing files on all platforms
+            IoUtils.copyFile(temp, file);
+            temp.delete();
+        }
+        modified = false;
+    }
+
+    private static final class Entry {
+
+        private final byte[] hash;
+        private final byte[] fingerprint;
+
+        private Entry(final byte[] hash, final byte[] fingerprint) {
+            this.hash = hash;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /**
+     * Digest of the path, size and last modification time of the hashed files, in the order they are hashed.
+     */
+    private static final class Fingerprint {
+
+        private final MessageDigest digest = HashUtils.createDigest();
+        private long lastModified;
+
+        void update(final File file, final String path) {
+            if (file.isDirectory()) {
+                for (final File child : HashUtils.getSortedChildren(file)) {
+                    update(child, path + '/' + child.getName());
+                }
+            } else if (!HashUtils.isSkipped(file)) {
+                final long modified = file.lastModified();
+                lastModified = Math.max(lastModified, modified);
+                digest.update(path.getBytes(UTF_8));
+                digest.update(toBytes(file.length()));
+                digest.update(toBytes(modified));
+            }
+        }
+
+        private static byte[] toBytes(long value) {
+            final byte[] bytes = new byte[8];
+            for (int i = 7; i >= 0; i--) {
+                bytes[i] = (byte) value;
+                value >>>= 8;
+            }
+            return bytes;
+        }
+    }
+}
@@ -31,6 +31,8 @@ import java.io.OutputStream;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -43,40 +45,19 @@ public class HashUtils {
 
     private static final char[] TABLE = "0123456789abcdef".toCharArray();
 
-    private static final MessageDigest DIGEST;
-    static {
-        try {
-            DIGEST = MessageDigest.getInstance("SHA-1");
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
     public static byte[] hashFile(File file) throws IOException {
-        synchronized (DIGEST) {
-            DIGEST.reset();
-            updateDigest(DIGEST, file);
-            return DIGEST.digest();
-        }
+        final MessageDigest digest = createDigest();
+        updateDigest(digest, file);
+        return digest.digest();
     }
 
     private static void updateDigest(MessageDigest digest, File file) throws IOException {
         if (file.isDirectory()) {
-            File[] childList = file.listFiles();
-            if (childList != null) {
-                Map<String, File> sortedChildren = new TreeMap<String, File>();
-                for (File child : childList) {
-                    sortedChildren.put(child.getName(), child);
-                }
-                for (File child : sortedChildren.values()) {
-                    updateDigest(digest, child);
-                }
+            for (File child : getSortedChildren(file)) {
+                updateDigest(digest, child);
             }
         } else {
-            // jar index files are generated by JBoss modules at runtime (a pristine AS7 installation does not have them).
-            // they are skipped when computing checksum to avoid different checksum for the same JBoss module depending on
-            // whether the AS7 installation has been started or not.
-            if (file.getName().endsWith(".jar.index")) {
+            if (isSkipped(file)) {
                 return;
             }
             FileInputStream fis = new FileInputStream(file);
@@ -95,16 +76,52 @@ public class HashUtils {
         }
     }
 
+    /**
+     * Get the children of a directory, in the order they are hashed.
+     *
+     * @param directory the directory
+     * @return the sorted children
+     */
+    static Collection<File> getSortedChildren(File directory) {
+        File[] childList = directory.listFiles();
+        if (childList == null) {
+            return Collections.emptyList();
+        }
+        Map<String, File> sortedChildren = new TreeMap<String, File>();
+        for (File child : childList) {
+            sortedChildren.put(child.getName(), child);
+        }
+        return sortedChildren.values();
+    }
+
+    /**
+     * Whether a file is excluded from the hash.
+     *
+     * @param file the file
+     * @return {@code true} if the file is not hashed, {@code false} otherwise
+     */
+    static boolean isSkipped(File file) {
+        // jar index files are generated by JBoss modules at runtime (a pristine AS7 installation does not have them).
+        // they are skipped when computing checksum to avoid different checksum for the same JBoss module depending on
+        // whether the AS7 installation has been started or not.
+        return file.getName().endsWith(".jar.index");
+    }
+
     public static byte[] copyAndGetHash(final InputStream is, final OutputStream os) throws IOException {
-        byte[] sha1Bytes;
-        synchronized (DIGEST) {
-            DIGEST.reset();
-            BufferedInputStream bis = new BufferedInputStream(is);
-            DigestOutputStream dos = new DigestOutputStream(os, DIGEST);
-            IoUtils.copyStream(bis, dos);
-            sha1Bytes = DIGEST.digest();
+        final MessageDigest digest = createDigest();
+        BufferedInputStream bis = new BufferedInputStream(is);
+        DigestOutputStream dos = new DigestOutputStream(os, digest);
+        IoUtils.copyStream(bis, dos);
+        return digest.digest();
+    }
+
+    static MessageDigest createDigest() {
+        // a digest per hash, so files can be hashed concurrently
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
         }
-        return sha1Bytes;
     }
 
     /**
@@ -241,4 +241,8 @@ public interface PatchLogger extends BasicLogger {
 
     @Message(id = 37, value = "Cannot process restore by renaming file %s")
     IllegalStateException cannotRenameFileDuringRestore(String name);
+
+    @LogMessage(level = WARN)
+    @Message(id = 38, value = "Cannot store the content hashes %s, module roots will be hashed again")
+    void cannotStoreContentHashes(String name, @Cause Throwable cause);
 }
@@ -24,9 +24,11 @@ package org.jboss.as.patching.runner;
 
 import static org.jboss.as.patching.IoUtils.NO_CONTENT;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 
+import org.jboss.as.patching.HashUtils;
 import org.jboss.as.patching.logging.PatchLogger;
 import org.jboss.as.patching.metadata.ContentItem;
 import org.jboss.as.patching.metadata.ContentModification;
@@ -85,6 +87,22 @@ abstract class AbstractPatchingTask<T extends ContentItem> implements PatchingTa
      */
     abstract ContentModification createRollbackEntry(ContentModification original, byte[] targetHash, byte[] itemHash);
 
+    /**
+     * Get the hash of a module or bundle root. Patch entries of an {@link IdentityPatchContext} reuse the hash
+     * recorded for unchanged content.
+     *
+     * @param context the patching context
+     * @param root the root
+     * @return the hash
+     * @throws IOException
+     */
+    static byte[] hashRoot(final PatchingTaskContext context, final File root) throws IOException {
+        if (context instanceof IdentityPatchContext.PatchEntry) {
+            return ((IdentityPatchContext.PatchEntry) context).hashRoot(root);
+        }
+        return HashUtils.hashFile(root);
+    }
+
     /**
      * Fail if the copied content is different from the one specified in the metadata. This should be true in most of the
      * cases. Only removing a module does not really match this, since we are creating a removed-module rather than
@@ -3,11 +3,13 @@ package org.jboss.as.patching.runner;
 import static org.jboss.as.patching.runner.PatchUtils.generateTimestamp;
 
 import java.io.File;
+import java.io.IOException;
 
 import org.jboss.as.patching.Constants;
 import org.jboss.as.patching.DirectoryStructure;
 import org.jboss.as.patching.IoUtils;
 import org.jboss.as.patching.installation.InstalledImage;
+import org.jboss.as.patching.logging.PatchLogger;
 import org.jboss.as.patching.metadata.Patch;
 import org.jboss.as.patching.metadata.PatchElement;
 import org.jboss.as.patching.metadata.PatchXml;
@@ -62,7 +64,13 @@ class IdentityApplyCallback implements IdentityPatchContext.FinalizeCallback {
 
     @Override
     public void completed(IdentityPatchContext context) {
-        // nothing to do
+        // Record the time spent invalidating the modules in the patch history
+        final File historyDir = structure.getInstalledImage().getPatchHistoryDir(patchId);
+        try {
+            PatchUtils.writeRef(new File(historyDir, Constants.INVALIDATION_TIME), Long.toString(context.getInvalidationTime()));
+        } catch (IOException e) {
+            PatchLogger.ROOT_LOGGER.debugf(e, "failed to record the invalidation time for %s", patchId);
+        }
     }
 
     @Override
@@ -10,6 +10,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -17,12 +18,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import javax.xml.stream.XMLStreamException;
 
 import org.jboss.as.patching.Constants;
 import org.jboss.as.patching.DirectoryStructure;
+import org.jboss.as.patching.HashManifest;
 import org.jboss.as.patching.IoUtils;
 import org.jboss.as.patching.PatchInfo;
 import org.jboss.as.patching.PatchingException;
@@ -66,6 +76,7 @@ class IdentityPatchContext implements PatchContentProvider {
     private final InstallationManager.InstallationModification modification;
     private final Map<String, PatchContentLoader> contentLoaders = new HashMap<String, PatchContentLoader>();
     private final PatchingHistory history;
+    private final HashManifest hashManifest;
 
     // TODO initialize layers in the correct order
     private final Map<String, PatchEntry> layers = new LinkedHashMap<String, PatchEntry>();
@@ -76,9 +87,13 @@ class IdentityPatchContext implements PatchContentProvider {
     private boolean checkForGarbageOnRestart; // flag to trigger a cleanup on restart
     private static final AtomicReferenceFieldUpdater<IdentityPatchContext, State> stateUpdater = AtomicReferenceFieldUpdater.newUpdater(IdentityPatchContext.class, State.class, "state");
     // The modules we need to invalidate
-    private final List<File> moduleInvalidations = new ArrayList<File>();
+    private final List<File> moduleInvalidations = Collections.synchronizedList(new ArrayList<File>());
 
     private final Map<String, FailedFileRenaming> renames = new LinkedHashMap<String, FailedFileRenaming>();
+    // The time spent invalidating modules
+    private volatile long invalidationTime;
+
+    private static final int INVALIDATION_THREADS = Math.min(Runtime.getRuntime().availableProcessors(), 8);
 
     static enum State {
 
@@ -103,6 +118,7 @@ class IdentityPatchContext implements PatchContentProvider {
         this.modification = modification;
         this.installedImage = installedImage;
         this.history = PatchingHistory.Factory.getHistory(modification.getUnmodifiedInstallationState());
+        this.hashManifest = HashManifest.load(new File(installedImage.getInstallationMetadata(), HashManifest.MANIFEST));
 
         if (backup != null) {
             this.miscBackup = new File(backup, PatchContentLoader.MISC);
@@ -190,7 +206,7 @@ class IdentityPatchContext implements PatchContentProvider {
         PatchLogger.ROOT_LOGGER.cannotDeleteFile(file.getAbsolutePath());
     }
 
-    protected void failedToRenameFile(final File file, final File target) {
+    protected synchronized void failedToRenameFile(final File file, final File target) {
         if (!renames.containsKey(file.getAbsolutePath())) {
             renames.put(file.getAbsolutePath(), new FailedFileRenaming(file, target, getIdentityEntry().applyPatchId));
             PatchLogger.ROOT_LOGGER.cannotRenameFile(file.getAbsolutePath());
@@ -348,17 +364,14 @@ class IdentityPatchContext implements PatchContentProvider {
      * @param callback     the completion callback
      */
     private void complete(final InstallationManager.InstallationModification modification, final FinalizeCallback callback) {
-        final List<File> processed = new ArrayList<File>();
+        final List<File> processed = Collections.synchronizedList(new ArrayList<File>());
         try {
             try {
                 // Update the state to invalidate and process module resources
                 if (stateUpdater.compareAndSet(this, State.PREPARED, State.INVALIDATE)
                         && mode == PatchingTaskContext.Mode.APPLY) {
                     // Only invalidate modules when applying patches; on rollback files are immediately restored
-                    for (final File invalidation : moduleInvalidations) {
-                        processed.add(invalidation);
-                        PatchModuleInvalidationUtils.processFile(this, invalidation, mode);
-                    }
+                    invalidateModules(processed);
                 }
                 modification.complete();
                 callback.completed(this);
@@ -389,10 +402,98 @@ class IdentityPatchContext implements PatchContentProvider {
                 } catch (IOException e) {
                     PatchLogger.ROOT_LOGGER.debugf(e, "failed to create cleanup marker");
                 }
+                try {
+                    hashManifest.store();
+                } catch (IOException e) {
+                    PatchLogger.ROOT_LOGGER.cannotStoreContentHashes(HashManifest.MANIFEST, e);
+                }
             }
         }
     }
 
+    /**
+     * Invalidate the module resources using a bounded number of threads. Each file is recorded as processed before
+     * it gets processed, so that a partially processed file gets restored as well. After a failure no further files
+     * are processed, however the files already being processed are completed before the failure is propagated.
+     *
+     * @param processed the processed files
+     * @throws Exception
+     */
+    private void invalidateModules(final List<File> processed) throws Exception {
+        final long start = System.currentTimeMillis();
+        final List<File> files = new ArrayList<File>(moduleInvalidations);
+        if (files.isEmpty() || !PatchModuleInvalidationUtils.ENABLE_INVALIDATION) {
+            // Processing the files has no effect
+            processed.addAll(files);
+            invalidationTime = System.currentTimeMillis() - start;
+            return;
+        }
+        final PatchingTaskContext.Mode mode = this.mode;
+        final AtomicBoolean failed = new AtomicBoolean();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(INVALIDATION_THREADS, files.size()), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                final Thread thread = new Thread(r, "patching-invalidation-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>(files.size());
+            for (final File file : files) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        if (failed.get()) {
+                            return null;
+                        }
+                        processed.add(file);
+                        try {
+                            PatchModuleInvalidationUtils.processFile(IdentityPatchContext.this, file, mode);
+                        } catch (Exception e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                        return null;
+                    }
+                }));
+            }
+            // Wait for all files, so that no file is still being processed when undoing the changes
+            Exception failure = null;
+            for (final Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    if (failure == null) {
+                        failure = (Exception) cause;
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        invalidationTime = System.currentTimeMillis() - start;
+        PatchLogger.ROOT_LOGGER.debugf("invalidated %d module resources in %d ms", files.size(), invalidationTime);
+    }
+
+    /**
+     * Get the time spent invalidating module resources when completing the patch.
+     *
+     * @return the time in milliseconds
+     */
+    long getInvalidationTime() {
+        return invalidationTime;
+    }
+
     private void storeFailedRenaming() throws IOException {
         if (!renames.isEmpty()) {
             final File failedRenaming = new File(installedImage.getInstallationMetadata(), "cleanup-renaming-files");
@@ -426,8 +527,16 @@ class IdentityPatchContext implements PatchContentProvider {
             // For rollback the files are invalidated as part of the tasks
             final PatchingTaskContext.Mode mode = currentMode == PatchingTaskContext.Mode.APPLY ? PatchingTaskContext.Mode.ROLLBACK : PatchingTaskContext.Mode.APPLY;
             for (final File file : moduleInvalidations) {
+                File target = file;
+                if (mode == PatchingTaskContext.Mode.ROLLBACK && !file.exists()) {
+                    // The invalidated file was renamed when it was backed up
+                    final File renamed = PatchUtils.getRenamedFileName(file);
+                    if (renamed.exists()) {
+                        target = renamed;
+                    }
+                }
                 try {
-                    PatchModuleInvalidationUtils.processFile(this, file, mode);
+                    PatchModuleInvalidationUtils.processFile(this, target, mode);
                 } catch (Exception e) {
                     PatchLogger.ROOT_LOGGER.debugf(e, "failed to restore state for %s", file);
                 }
@@ -783,6 +892,17 @@ class IdentityPatchContext implements PatchContentProvider {
             }
         }
 
+        /**
+         * Get the hash of a module or bundle root, reusing the hash recorded for unchanged content.
+         *
+         * @param root the root
+         * @return the hash
+         * @throws IOException
+         */
+        byte[] hashRoot(final File root) throws IOException {
+            return hashManifest.hashFile(root);
+        }
+
         protected List<File> listFiles(final File... files) {
             final List<File> result = new ArrayList<File>();
             for (File f : files) {
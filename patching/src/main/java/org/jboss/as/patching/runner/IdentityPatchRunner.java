@@ -12,6 +12,14 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.stream.XMLStreamException;
 
@@ -46,6 +54,7 @@ class IdentityPatchRunner implements InstallationManager.ModificationCompletionC
 
     private static final String DIRECTORY_SUFFIX = "jboss-as-patch-";
     private static final File TEMP_DIR = new File(SecurityActions.getSystemProperty("java.io.tmpdir"));
+    private static final int PREPARE_THREADS = Math.min(Runtime.getRuntime().availableProcessors(), 8);
 
     private final InstalledImage installedImage;
 
@@ -499,15 +508,32 @@ class IdentityPatchRunner implements InstallationManager.ModificationCompletionC
     static PatchingResult executeTasks(final IdentityPatchContext context, final IdentityPatchContext.FinalizeCallback callback) throws Exception {
         final List<PreparedTask> tasks = new ArrayList<PreparedTask>();
         final List<ContentItem> conflicts = new ArrayList<ContentItem>();
-        // Identity
-        prepareTasks(context.getIdentityEntry(), context, tasks, conflicts);
-        // Layers
-        for (final IdentityPatchContext.PatchEntry layer : context.getLayers()) {
-            prepareTasks(layer, context, tasks, conflicts);
-        }
-        // AddOns
-        for (final IdentityPatchContext.PatchEntry addOn : context.getAddOns()) {
-            prepareTasks(addOn, context, tasks, conflicts);
+        // Preparing the tasks hashes the affected content, which is done in parallel
+        final ExecutorService executor = Executors.newFixedThreadPool(PREPARE_THREADS, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                final Thread thread = new Thread(r, "patching-prepare-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            // Identity
+            prepareTasks(context.getIdentityEntry(), context, tasks, conflicts, executor);
+            // Layers
+            for (final IdentityPatchContext.PatchEntry layer : context.getLayers()) {
+                prepareTasks(layer, context, tasks, conflicts, executor);
+            }
+            // AddOns
+            for (final IdentityPatchContext.PatchEntry addOn : context.getAddOns()) {
+                prepareTasks(addOn, context, tasks, conflicts, executor);
+            }
+        } finally {
+            executor.shutdownNow();
+            // tasks still running may be writing backups, which must be complete before the patch is finalized or rolled back
+            awaitTermination(executor);
         }
         // If there were problems report them
         if (!conflicts.isEmpty()) {
@@ -526,6 +552,23 @@ class IdentityPatchRunner implements InstallationManager.ModificationCompletionC
         return context.finalize(callback);
     }
 
+    private static void awaitTermination(final ExecutorService executor) {
+        boolean interrupted = false;
+        try {
+            while (!executor.isTerminated()) {
+                try {
+                    executor.awaitTermination(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     /**
      * Prepare all tasks.
      *
@@ -533,24 +576,51 @@ class IdentityPatchRunner implements InstallationManager.ModificationCompletionC
      * @param context   the patch context
      * @param tasks     a list for prepared tasks
      * @param conflicts a list for conflicting content items
+     * @param executor  the executor preparing the tasks
      * @throws PatchingException
      */
-    static void prepareTasks(final IdentityPatchContext.PatchEntry entry, final IdentityPatchContext context, final List<PreparedTask> tasks, final List<ContentItem> conflicts) throws PatchingException {
-        for (final PatchingTasks.ContentTaskDefinition definition : entry.getDefinitions().values()) {
+    static void prepareTasks(final IdentityPatchContext.PatchEntry entry, final IdentityPatchContext context, final List<PreparedTask> tasks,
+                             final List<ContentItem> conflicts, final ExecutorService executor) throws PatchingException {
+        final List<PatchingTasks.ContentTaskDefinition> definitions = new ArrayList<PatchingTasks.ContentTaskDefinition>(entry.getDefinitions().values());
+        final List<PatchingTask> entryTasks = new ArrayList<PatchingTask>(definitions.size());
+        final List<Future<Boolean>> prepared = new ArrayList<Future<Boolean>>(definitions.size());
+        for (final PatchingTasks.ContentTaskDefinition definition : definitions) {
             final PatchingTask task = createTask(definition, context, entry);
-            try {
-                // backup and validate content
-                if (!task.prepare(entry) || definition.hasConflicts()) {
-                    // Unless it a content item was manually ignored (or excluded)
-                    final ContentItem item = task.getContentItem();
-                    if (!context.isIgnored(item)) {
-                        conflicts.add(item);
-                    }
+            entryTasks.add(task);
+            prepared.add(executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    // backup and validate content
+                    return task.prepare(entry);
                 }
-                tasks.add(new PreparedTask(task, entry));
-            } catch (IOException e) {
+            }));
+        }
+        // Collect the results in the order of the definitions
+        for (int i = 0; i < definitions.size(); i++) {
+            final PatchingTask task = entryTasks.get(i);
+            final boolean valid;
+            try {
+                valid = prepared.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 throw new PatchingException(e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new PatchingException(cause);
+            }
+            if (!valid || definitions.get(i).hasConflicts()) {
+                // Unless it a content item was manually ignored (or excluded)
+                final ContentItem item = task.getContentItem();
+                if (!context.isIgnored(item)) {
+                    conflicts.add(item);
+                }
             }
+            tasks.add(new PreparedTask(task, entry));
         }
     }
 
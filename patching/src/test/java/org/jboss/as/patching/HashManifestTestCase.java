@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.patching;
+
+import static org.jboss.as.patching.IoUtils.mkdir;
+import static org.jboss.as.patching.runner.TestUtils.dump;
+import static org.jboss.as.patching.runner.TestUtils.randomString;
+import static org.jboss.as.patching.runner.TestUtils.touch;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the reuse of recorded hashes by the {@link HashManifest}.
+ */
+public class HashManifestTestCase {
+
+    private File tempDir;
+
+    @Before
+    public void setup() throws Exception {
+        tempDir = mkdir(new File(System.getProperty("java.io.tmpdir")), "patching-" + randomString());
+    }
+
+    @After
+    public void tearDown() {
+        if (!IoUtils.recursiveDelete(tempDir)) {
+            tempDir.deleteOnExit();
+        }
+    }
+
+    @Test
+    public void testHashReusedForUnchangedContent() throws Exception {
+        final File root = mkdir(tempDir, "modules", "org", "foo", "main");
+        final File resource = touch(root, "foo.jar");
+        dump(resource, "foo");
+        dump(touch(root, "module.xml"), "<module/>");
+        final long lastModified = System.currentTimeMillis() - 60000;
+        for (final File file : root.listFiles()) {
+            file.setLastModified(lastModified);
+        }
+        final byte[] expected = HashUtils.hashFile(root);
+
+        final File manifestFile = new File(tempDir, HashManifest.MANIFEST);
+        HashManifest manifest = HashManifest.load(manifestFile);
+        Assert.assertArrayEquals(expected, manifest.hashFile(root));
+        manifest.store();
+        Assert.assertTrue(manifestFile.exists());
+
+        // Same size and timestamp, the recorded hash is reused without reading the content
+        dump(resource, "bar");
+        resource.setLastModified(lastModified);
+        manifest = HashManifest.load(manifestFile);
+        Assert.assertArrayEquals(expected, manifest.hashFile(root));
+
+        // A changed timestamp invalidates the recorded hash
+        resource.setLastModified(lastModified + 10000);
+        final byte[] hash = manifest.hashFile(root);
+        Assert.assertArrayEquals(HashUtils.hashFile(root), hash);
+        Assert.assertFalse(HashUtils.bytesToHexString(expected).equals(HashUtils.bytesToHexString(hash)));
+    }
+
+    @Test
+    public void testRecentlyModifiedContentNotRecorded() throws Exception {
+        final File root = mkdir(tempDir, "modules", "org", "bar", "main");
+        final File resource = touch(root, "bar.jar");
+        dump(resource, "bar");
+        final byte[] expected = HashUtils.hashFile(root);
+
+        final File manifestFile = new File(tempDir, HashManifest.MANIFEST);
+        final HashManifest manifest = HashManifest.load(manifestFile);
+        Assert.assertArrayEquals(expected, manifest.hashFile(root));
+        manifest.store();
+        Assert.assertFalse(manifestFile.exists());
+    }
+}
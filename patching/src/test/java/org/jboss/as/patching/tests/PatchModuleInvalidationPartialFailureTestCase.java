@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.patching.tests;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.jboss.as.patching.runner.TestUtils.createModule0;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.jboss.as.patching.Constants;
+import org.jboss.as.patching.HashUtils;
+import org.jboss.as.patching.installation.InstallationManager;
+import org.jboss.as.patching.runner.PatchUtils;
+import org.jboss.as.patching.runner.TestUtils;
+import org.jboss.as.patching.tool.ContentVerificationPolicy;
+import org.jboss.as.patching.tool.PatchTool;
+import org.jboss.as.patching.tool.PatchingResult;
+import org.jboss.byteman.contrib.bmunit.BMRule;
+import org.jboss.byteman.contrib.bmunit.BMUnitRunner;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Tests that module resources invalidated in parallel are restored if the invalidation of one of them fails.
+ */
+@RunWith(BMUnitRunner.class)
+public class PatchModuleInvalidationPartialFailureTestCase extends AbstractPatchingTest {
+
+    private static final Boolean INVALIDATION_ENABLED = Boolean.getBoolean("org.wildfly.patching.jar.invalidation");
+    private static final String MODULE_NAME = "org.jboss.test.module";
+    private static final String[] RESOURCES = {"resource0.jar", "resource1.jar", "resource2.jar", "resource3.jar"};
+
+    private static final TestUtils.ContentTask CONTENT_TASK = new TestUtils.ContentTask() {
+        @Override
+        public String[] writeContent(File target) throws IOException {
+            for (final String resource : RESOURCES) {
+                PatchModuleInvalidationWithRenamingFailureTestCase.writeJar(new File(target, resource));
+            }
+            return RESOURCES;
+        }
+    };
+
+    @BeforeClass
+    public static void checkValidationEnabled() {
+        Assume.assumeTrue(INVALIDATION_ENABLED);
+    }
+
+    @Test
+    @BMRule(name = "Test invalidation failure",
+            targetClass = "org.jboss.as.patching.runner.PatchModuleInvalidationUtils",
+            targetMethod = "backup",
+            targetLocation = "AT ENTRY",
+            condition = "\"resource1.jar\".equals($2.getName())",
+            action = "throw new java.lang.IllegalStateException(\"invalidation failure\")"
+    )
+    public void testPartialFailureRestoresResources() throws Exception {
+        final PatchingTestBuilder test = createDefaultBuilder();
+        final File installation = new File(test.getRoot(), JBOSS_INSTALLATION);
+        final File module0 = createModule0(new File(installation, "modules/system/layers/base".replace('/', File.separatorChar)), MODULE_NAME, CONTENT_TASK);
+        final File main = new File(module0, "main");
+        final byte[] existingHash = HashUtils.hashFile(module0);
+        final byte[] resultingHash = Arrays.copyOf(existingHash, existingHash.length);
+
+        final PatchingTestStepBuilder oop1 = test.createStepBuilder();
+        oop1.setPatchId("oop1")
+                .oneOffPatchIdentity(PRODUCT_VERSION)
+                .oneOffPatchElement("base-oop1", "base", false)
+                .updateModule(MODULE_NAME, existingHash, resultingHash, CONTENT_TASK);
+
+        writePatch(oop1.getPatchDir(), oop1.build());
+        final PatchingResult result = PatchTool.Factory.create(updateInstallationManager()).applyPatch(oop1.getPatchDir(), ContentVerificationPolicy.STRICT);
+        try {
+            result.commit();
+            Assert.fail("the invalidation should have failed");
+        } catch (RuntimeException expected) {
+            // expected
+        }
+
+        // Resources processed before and concurrently with the failing one are restored as well
+        for (final String resource : RESOURCES) {
+            final File file = new File(main, resource);
+            assertThat(resource, file.exists(), is(true));
+            assertThat(resource, PatchUtils.getRenamedFileName(file).exists(), is(false));
+            PatchModuleInvalidationWithRenamingFailureTestCase.assertLoadable(file);
+        }
+        final InstallationManager manager = loadInstallationManager();
+        Assert.assertFalse(manager.getAllInstalledPatches().contains("oop1"));
+    }
+
+    @Test
+    public void testInvalidationTimeRecorded() throws Exception {
+        final PatchingTestBuilder test = createDefaultBuilder();
+        final File installation = new File(test.getRoot(), JBOSS_INSTALLATION);
+        final File module0 = createModule0(new File(installation, "modules/system/layers/base".replace('/', File.separatorChar)), MODULE_NAME, CONTENT_TASK);
+        final byte[] existingHash = HashUtils.hashFile(module0);
+        final byte[] resultingHash = Arrays.copyOf(existingHash, existingHash.length);
+
+        final PatchingTestStepBuilder oop1 = test.createStepBuilder();
+        oop1.setPatchId("oop1")
+                .oneOffPatchIdentity(PRODUCT_VERSION)
+                .oneOffPatchElement("base-oop1", "base", false)
+                .updateModule(MODULE_NAME, existingHash, resultingHash, CONTENT_TASK);
+        apply(oop1);
+
+        final File history = new File(installation, ".installation/patches/oop1".replace('/', File.separatorChar));
+        final File invalidationTime = new File(history, Constants.INVALIDATION_TIME);
+        assertThat(invalidationTime.exists(), is(true));
+        Assert.assertTrue(Long.parseLong(PatchUtils.readRef(invalidationTime)) >= 0);
+    }
+}
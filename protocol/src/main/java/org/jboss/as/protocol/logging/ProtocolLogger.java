@@ -345,4 +345,8 @@ public interface ProtocolLogger extends BasicLogger {
     @Message(id = 58, value = "%s cancelled task before execution began")
     void cancelledAsyncTaskBeforeRun(String asyncTaskRunner);
 
+    @LogMessage(level = WARN)
+    @Message(id = 59, value = "No heartbeat response received on channel %s within %d ms, closing the channel")
+    void noHeartbeatResponse(Channel channel, long timeout);
+
 }
@@ -212,7 +212,7 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
                 @Override
                 public FlushableDataOutput writeMessage(final ManagementProtocolHeader header) throws IOException {
                     final MessageOutputStream os = channel.writeMessage();
-                    return writeHeader(header, os);
+                    return writeHeader(header, os, channel);
                 }
             });
 
@@ -339,7 +339,7 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
                 @Override
                 public FlushableDataOutput writeMessage(final ManagementProtocolHeader header) throws IOException {
                     final MessageOutputStream os = channel.writeMessage();
-                    return writeHeader(header, os);
+                    return writeHeader(header, os, channel);
                 }
 
             });
@@ -445,6 +445,21 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
         return output;
     }
 
+    /**
+     * Write the management protocol header, compressing the message body if supported by the peer.
+     *
+     * @param header the mgmt protocol header
+     * @param os the output stream
+     * @param channel the channel the message is written to
+     * @throws IOException
+     */
+    protected static FlushableDataOutput writeHeader(final ManagementProtocolHeader header, final OutputStream os, final Channel channel) throws IOException {
+        if (ManagementProtocolCompression.isSupported(header, channel)) {
+            return ManagementProtocolCompression.createOutput(header, os, ManagementCompressionStatistics.getStatistics(channel));
+        }
+        return writeHeader(header, os);
+    }
+
     /**
      * Get a fallback handler.
      *
@@ -84,6 +84,10 @@ public final class ManagementChannelHandler extends AbstractMessageHandler imple
         return receiver.getLastMessageTime();
     }
 
+    ManagementChannelReceiver getManagementReceiver() {
+        return receiver;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Channel getChannel() throws IOException {
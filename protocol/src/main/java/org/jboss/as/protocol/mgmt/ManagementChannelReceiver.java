@@ -22,6 +22,7 @@
 
 package org.jboss.as.protocol.mgmt;
 
+import java.io.Closeable;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
@@ -59,14 +60,18 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
     }
 
     private volatile long lastMessageTime;
+    // Written by the thread handling the incoming messages only
+    private volatile long lastPongTime;
+    private volatile int pongCount;
 
     @Override
     public void handleMessage(final Channel channel, final MessageInputStream message) {
         try {
             ProtocolLogger.ROOT_LOGGER.tracef("%s handling incoming data", this);
             lastMessageTime = System.currentTimeMillis();
-            final DataInput input = new DataInputStream(message);
-            final ManagementProtocolHeader header = ManagementProtocolHeader.parse(input);
+            final ManagementProtocolHeader header = ManagementProtocolHeader.parse(new DataInputStream(message));
+            ManagementProtocolCompression.peerVersion(channel, header);
+            final DataInput input = ManagementProtocolCompression.createInput(header, message);
             final byte type = header.getType();
             try {
                 if (type == ManagementProtocol.TYPE_PING) {
@@ -74,8 +79,10 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
                     ProtocolLogger.ROOT_LOGGER.tracef("Received ping on %s", this);
                     handlePing(channel, header);
                 } else if (type == ManagementProtocol.TYPE_PONG) {
-                    // Nothing to do here
-                    ProtocolLogger.ROOT_LOGGER.tracef("Received on on %s", this);
+                    // Record the time for the heartbeat, the count is written last
+                    ProtocolLogger.ROOT_LOGGER.tracef("Received pong on %s", this);
+                    lastPongTime = System.nanoTime();
+                    pongCount++;
                 } else if (type == ManagementProtocol.TYPE_BYE_BYE) {
                     // Close the channel
                     ProtocolLogger.ROOT_LOGGER.tracef("Received bye bye on %s, closing", this);
@@ -92,6 +99,9 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
                 } catch (IOException ignore) {
                     //
                 }
+                if (header.isCompressed()) {
+                    StreamUtils.safeClose((Closeable) input);
+                }
             }
             message.close();
         } catch(IOException e) {
@@ -112,6 +122,24 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
         return lastMessageTime;
     }
 
+    /**
+     * Get the number of pongs received.
+     *
+     * @return the number of pongs
+     */
+    int getPongCount() {
+        return pongCount;
+    }
+
+    /**
+     * Get the {@link System#nanoTime()} the last pong was received.
+     *
+     * @return the time the last pong was received
+     */
+    long getLastPongTime() {
+        return lastPongTime;
+    }
+
     /**
      * Get the next receiver.
      *
@@ -182,6 +210,23 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
         }
     }
 
+    /**
+     * Send a simple ping, the peer responds with a pong without involving any request handler.
+     *
+     * @param channel the channel
+     * @throws IOException for any error
+     */
+    static void sendPing(final Channel channel) throws IOException {
+        final ManagementProtocolHeader header = new ManagementPingHeader(ManagementProtocol.VERSION);
+        final MessageOutputStream output = channel.writeMessage();
+        try {
+            writeHeader(header, output);
+            output.close();
+        } finally {
+            StreamUtils.safeClose(output);
+        }
+    }
+
     /**
      * Write the management protocol header.
      *
@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.remoting3.Attachments;
+import org.jboss.remoting3.Channel;
+import org.jboss.remoting3.Endpoint;
+
+/**
+ * Totals of the management message bodies compressed by the channels of a remoting {@link Endpoint}.
+ */
+public final class ManagementCompressionStatistics {
+
+    private static final Attachments.Key<ManagementCompressionStatistics> KEY = new Attachments.Key<ManagementCompressionStatistics>(ManagementCompressionStatistics.class);
+
+    private final AtomicLong compressedMessages = new AtomicLong();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+    private final AtomicLong compressionTime = new AtomicLong();
+
+    ManagementCompressionStatistics() {
+    }
+
+    /**
+     * Get the statistics of an endpoint.
+     *
+     * @param endpoint the endpoint
+     * @return the statistics
+     */
+    public static ManagementCompressionStatistics getStatistics(final Endpoint endpoint) {
+        final Attachments attachments = endpoint.getAttachments();
+        final ManagementCompressionStatistics statistics = attachments.getAttachment(KEY);
+        if (statistics != null) {
+            return statistics;
+        }
+        final ManagementCompressionStatistics created = new ManagementCompressionStatistics();
+        final ManagementCompressionStatistics existing = attachments.attachIfAbsent(KEY, created);
+        return existing == null ? created : existing;
+    }
+
+    static ManagementCompressionStatistics getStatistics(final Channel channel) {
+        return getStatistics(channel.getConnection().getEndpoint());
+    }
+
+    void record(final long in, final long out, final long time) {
+        compressedMessages.incrementAndGet();
+        bytesIn.addAndGet(in);
+        bytesOut.addAndGet(out);
+        compressionTime.addAndGet(time);
+    }
+
+    /**
+     * Get the number of compressed message bodies.
+     *
+     * @return the number of compressed message bodies
+     */
+    public long getCompressedMessages() {
+        return compressedMessages.get();
+    }
+
+    /**
+     * Get the number of bytes of the message bodies before compression.
+     *
+     * @return the number of uncompressed bytes
+     */
+    public long getBytesIn() {
+        return bytesIn.get();
+    }
+
+    /**
+     * Get the number of bytes of the message bodies after compression.
+     *
+     * @return the number of compressed bytes
+     */
+    public long getBytesOut() {
+        return bytesOut.get();
+    }
+
+    /**
+     * Get the time spent compressing message bodies.
+     *
+     * @return the compression time in nanoseconds
+     */
+    public long getCompressionTime() {
+        return compressionTime.get();
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.protocol.logging.ProtocolLogger;
+import org.jboss.remoting3.Channel;
+import org.jboss.remoting3.CloseHandler;
+
+/**
+ * Sends a heartbeat on a number of management channels from a single scheduled task, and measures the round trip
+ * times of the heartbeats.
+ * <p>
+ * The heartbeat is a bare {@link ManagementProtocol#TYPE_PING ping} header, which the {@link ManagementChannelReceiver}
+ * of the peer answers with a pong header directly. Unlike a {@link ManagementPingRequest} it does not register an
+ * {@link ActiveOperation} on either side. A channel is closed if neither the pong nor any other message was received
+ * within the timeout.
+ * <p>
+ * The scheduled task only dispatches the heartbeats, each channel sends its ping from the executor. A channel blocked
+ * sending a ping does not hold back the others, and is closed once it is blocked for longer than the timeout.
+ */
+public final class ManagementHeartbeat {
+
+    /**
+     * Notified before a channel without a heartbeat response is closed.
+     */
+    public interface Listener {
+
+        /**
+         * Called when no response was received within the timeout.
+         *
+         * @param timeout the timeout in milliseconds
+         */
+        void heartbeatTimedOut(long timeout);
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final long interval;
+    private final long timeout;
+    private final Set<Registration> registrations = Collections.newSetFromMap(new ConcurrentHashMap<Registration, Boolean>());
+    private ScheduledFuture<?> task;
+
+    /**
+     * Creates a new heartbeat.
+     *
+     * @param scheduler the scheduler running the heartbeat task
+     * @param executor  the executor sending the pings
+     * @param interval  the interval between two heartbeats of a channel in milliseconds
+     * @param timeout   the time to wait for a response in milliseconds
+     */
+    public ManagementHeartbeat(final ScheduledExecutorService scheduler, final Executor executor, final long interval, final long timeout) {
+        if (interval < 1) {
+            throw new IllegalArgumentException(Long.toString(interval));
+        }
+        if (timeout < 1) {
+            throw new IllegalArgumentException(Long.toString(timeout));
+        }
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.interval = interval;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Starts sending heartbeats on the registered channels.
+     */
+    public synchronized void start() {
+        if (task == null) {
+            task = scheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    for (Registration registration : registrations) {
+                        registration.dispatch();
+                    }
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops sending heartbeats. The registrations are kept.
+     */
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    /**
+     * Registers the current channel of a handler for heartbeats. The registration is cancelled once the channel is
+     * closed.
+     *
+     * @param handler  the channel handler
+     * @param listener the listener notified before the channel is closed, {@code null} to only log the timeout
+     *
+     * @return the registration
+     * @throws IOException if the handler has no channel
+     */
+    public Registration register(final ManagementChannelHandler handler, final Listener listener) throws IOException {
+        final Channel channel = handler.getChannel();
+        final Registration registration = new Registration(handler, channel, listener);
+        registrations.add(registration);
+        channel.addCloseHandler(new CloseHandler<Channel>() {
+            @Override
+            public void handleClose(final Channel closed, final IOException exception) {
+                registration.cancel();
+            }
+        });
+        return registration;
+    }
+
+    /**
+     * The heartbeat state of a channel.
+     */
+    public final class Registration {
+
+        private final ManagementChannelHandler handler;
+        private final Channel channel;
+        private final Listener listener;
+        // Set while a heartbeat of the channel is executed
+        private final AtomicBoolean inProgress = new AtomicBoolean();
+        private volatile long dispatchTime;
+        // Only accessed by the heartbeat in progress
+        private boolean awaitingPong;
+        private long pingTime;
+        private int pongCountAtPing;
+        // Nanoseconds, -1 until the first response
+        private volatile long roundTripTime = -1;
+        private volatile long maxRoundTripTime = -1;
+        private volatile boolean responsive;
+        private final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    heartbeat();
+                } catch (Exception e) {
+                    ProtocolLogger.ROOT_LOGGER.debugf(e, "failed to send heartbeat");
+                } finally {
+                    inProgress.set(false);
+                }
+            }
+        };
+
+        private Registration(final ManagementChannelHandler handler, final Channel channel, final Listener listener) {
+            this.handler = handler;
+            this.channel = channel;
+            this.listener = listener;
+        }
+
+        /**
+         * Gets the smoothed round trip time of the heartbeat, weighting each new sample with 1/8 as TCP does.
+         *
+         * @return the round trip time in milliseconds, -1 if no response was received yet
+         */
+        public long getRoundTripTime() {
+            final long rtt = roundTripTime;
+            return rtt < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(rtt);
+        }
+
+        /**
+         * Gets the maximum round trip time of the heartbeat.
+         *
+         * @return the round trip time in milliseconds, -1 if no response was received yet
+         */
+        public long getMaxRoundTripTime() {
+            final long max = maxRoundTripTime;
+            return max < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(max);
+        }
+
+        /**
+         * Gets whether the peer answered the last heartbeat, and did not miss the heartbeat sent since.
+         *
+         * @return {@code true} if the peer answers the heartbeats, {@code false} if it missed one or did not answer
+         *         any yet
+         */
+        public boolean isResponsive() {
+            return responsive;
+        }
+
+        /**
+         * Stops sending heartbeats on the channel.
+         */
+        public void cancel() {
+            registrations.remove(this);
+        }
+
+        private void dispatch() {
+            if (inProgress.compareAndSet(false, true)) {
+                dispatchTime = System.nanoTime();
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    inProgress.set(false);
+                    ProtocolLogger.ROOT_LOGGER.debugf(e, "failed to send heartbeat");
+                }
+            } else if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - dispatchTime) >= timeout) {
+                // The previous heartbeat is blocked sending the ping
+                timedOut();
+            }
+        }
+
+        private void heartbeat() throws IOException {
+            final ManagementChannelReceiver receiver = handler.getManagementReceiver();
+            // Read the count first, it is written after the time
+            final int pongCount = receiver.getPongCount();
+            if (awaitingPong) {
+                if (pongCount != pongCountAtPing) {
+                    recordRoundTripTime(receiver.getLastPongTime() - pingTime);
+                    awaitingPong = false;
+                    responsive = true;
+                } else if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pingTime) < timeout) {
+                    responsive = false;
+                    return;
+                } else if (System.currentTimeMillis() - handler.getLastMessageReceivedTime() < timeout) {
+                    // The peer is busy sending other messages, the pong may be queued behind them
+                    awaitingPong = false;
+                } else {
+                    timedOut();
+                    return;
+                }
+            }
+            pongCountAtPing = pongCount;
+            pingTime = System.nanoTime();
+            ManagementChannelReceiver.sendPing(channel);
+            awaitingPong = true;
+        }
+
+        private void recordRoundTripTime(final long sample) {
+            final long rtt = roundTripTime;
+            roundTripTime = rtt < 0 ? sample : rtt + (sample - rtt) / 8;
+            if (sample > maxRoundTripTime) {
+                maxRoundTripTime = sample;
+            }
+        }
+
+        private void timedOut() {
+            if (!registrations.remove(this)) {
+                // Cancelled, or the timeout was already handled
+                return;
+            }
+            if (listener != null) {
+                listener.heartbeatTimedOut(timeout);
+            } else {
+                ProtocolLogger.ROOT_LOGGER.noHeartbeatResponse(channel, timeout);
+            }
+            StreamUtils.safeClose(channel);
+        }
+    }
+}
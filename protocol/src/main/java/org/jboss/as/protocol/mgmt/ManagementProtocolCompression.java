@@ -0,0 +1,224 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.jboss.as.protocol.logging.ProtocolLogger;
+import org.jboss.remoting3.Attachments;
+import org.jboss.remoting3.Channel;
+
+/**
+ * Compression of management message bodies. Peers supporting {@link ManagementProtocol#VERSION_COMPRESSION} can
+ * receive compressed bodies, which are marked using {@link ManagementProtocol#REQUEST_BODY_COMPRESSED} or
+ * {@link ManagementProtocol#RESPONSE_BODY_COMPRESSED} in the message header.
+ * <p>
+ * A response is compressed only if the request it answers was sent using a protocol version supporting compression.
+ * A request is compressed only once a message was received from the peer using such a version, so older peers never
+ * receive compressed messages. Only bodies exceeding the {@link #THRESHOLD_PROPERTY threshold} are compressed.
+ */
+public final class ManagementProtocolCompression {
+
+    /** System property holding the minimal size of a message body to be compressed, a value of 0 disables compression. */
+    public static final String THRESHOLD_PROPERTY = "jboss.management.protocol.compression-threshold";
+
+    private static final int DEFAULT_THRESHOLD = 8192;
+    private static final int THRESHOLD = getThreshold();
+
+    private static final Attachments.Key<Integer> PEER_VERSION = new Attachments.Key<Integer>(Integer.class);
+
+    private ManagementProtocolCompression() {
+    }
+
+    private static int getThreshold() {
+        final String value = SecurityActions.getSystemProperty(THRESHOLD_PROPERTY, Integer.toString(DEFAULT_THRESHOLD));
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            ProtocolLogger.ROOT_LOGGER.debugf("Invalid value %s for %s, using %d", value, THRESHOLD_PROPERTY, DEFAULT_THRESHOLD);
+            return DEFAULT_THRESHOLD;
+        }
+    }
+
+    /**
+     * Record the protocol version used by the peer of a channel.
+     *
+     * @param channel the channel
+     * @param header the header of a message received from the peer
+     */
+    static void peerVersion(final Channel channel, final ManagementProtocolHeader header) {
+        final Integer version = channel.getAttachments().getAttachment(PEER_VERSION);
+        if (version == null || version.intValue() != header.getVersion()) {
+            channel.getAttachments().attach(PEER_VERSION, header.getVersion());
+        }
+    }
+
+    /**
+     * Whether the body of a message may be compressed.
+     *
+     * @param header the message header
+     * @param channel the channel the message is sent on
+     * @return {@code true} if the body can be compressed, {@code false} otherwise
+     */
+    static boolean isSupported(final ManagementProtocolHeader header, final Channel channel) {
+        if (THRESHOLD <= 0) {
+            return false;
+        }
+        final byte type = header.getType();
+        if (type == ManagementProtocol.TYPE_RESPONSE) {
+            return header.getVersion() >= ManagementProtocol.VERSION_COMPRESSION && !((ManagementResponseHeader) header).isFailed();
+        } else if (type == ManagementProtocol.TYPE_REQUEST) {
+            final Integer version = channel.getAttachments().getAttachment(PEER_VERSION);
+            return version != null && version.intValue() >= ManagementProtocol.VERSION_COMPRESSION;
+        }
+        return false;
+    }
+
+    /**
+     * Create the output for a message which may be compressed. The header is written once it is known whether the
+     * body exceeds the threshold.
+     *
+     * @param header the message header
+     * @param os the message output stream
+     * @param statistics the statistics recording the compressed bodies
+     * @return the data output for the body
+     */
+    static FlushableDataOutput createOutput(final ManagementProtocolHeader header, final OutputStream os, final ManagementCompressionStatistics statistics) {
+        return new FlushableDataOutputImpl(new DataOutputStream(new CompressingOutputStream(header, os, statistics)) {
+            @Override
+            public void close() throws IOException {
+                // don't flush before closing, this would write the body uncompressed
+                out.close();
+            }
+        });
+    }
+
+    /**
+     * Get the input for the body of a received message.
+     *
+     * @param header the message header
+     * @param stream the message stream, positioned after the header
+     * @return the input for the body
+     */
+    static DataInput createInput(final ManagementProtocolHeader header, final InputStream stream) {
+        if (!header.isCompressed()) {
+            return new DataInputStream(stream);
+        }
+        // closing the input releases the inflater
+        return new DataInputStream(new InflaterInputStream(stream));
+    }
+
+    private static final class CompressingOutputStream extends OutputStream {
+
+        private final ManagementProtocolHeader header;
+        private final OutputStream target;
+        private final ManagementCompressionStatistics statistics;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream output;
+        private Deflater deflater;
+        private long time;
+
+        private CompressingOutputStream(final ManagementProtocolHeader header, final OutputStream target, final ManagementCompressionStatistics statistics) {
+            this.header = header;
+            this.target = target;
+            this.statistics = statistics;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (output == null) {
+                buffer.write(b, off, len);
+                if (buffer.size() > THRESHOLD) {
+                    start(true);
+                }
+            } else if (deflater != null) {
+                final long start = System.nanoTime();
+                output.write(b, off, len);
+                time += System.nanoTime() - start;
+            } else {
+                output.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (output == null) {
+                start(false);
+            }
+            output.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (output == null) {
+                    start(false);
+                }
+                if (deflater != null) {
+                    final long start = System.nanoTime();
+                    ((DeflaterOutputStream) output).finish();
+                    time += System.nanoTime() - start;
+                    statistics.record(deflater.getBytesRead(), deflater.getBytesWritten(), time);
+                    ProtocolLogger.ROOT_LOGGER.tracef("Compressed message body from %d to %d bytes in %d ms",
+                            deflater.getBytesRead(), deflater.getBytesWritten(), TimeUnit.NANOSECONDS.toMillis(time));
+                }
+                target.close();
+            } finally {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+        }
+
+        private void start(final boolean compress) throws IOException {
+            header.setCompressed(compress);
+            header.write(new DataOutputStream(target));
+            if (compress) {
+                deflater = new Deflater(Deflater.BEST_SPEED);
+                output = new DeflaterOutputStream(target, deflater, 8192, true);
+                final long start = System.nanoTime();
+                buffer.writeTo(output);
+                time += System.nanoTime() - start;
+            } else {
+                output = target;
+                buffer.writeTo(output);
+            }
+            buffer = null;
+        }
+    }
+}
@@ -41,6 +41,7 @@ import org.jboss.as.protocol.logging.ProtocolLogger;
 public abstract class ManagementProtocolHeader {
 
     private int version;
+    private boolean compressed;
 
     /**
      * Construct an instance with the protocol version for the header.
@@ -73,6 +74,19 @@ public abstract class ManagementProtocolHeader {
         return version;
     }
 
+    /**
+     * Whether the body of the message is compressed.
+     *
+     * @return {@code true} if the body is compressed
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    void setCompressed(final boolean compressed) {
+        this.compressed = compressed;
+    }
+
     /**
      * The type
      *
@@ -68,6 +68,8 @@ public class ManagementResponseHeader extends ManagementProtocolHeader {
         if (type == ManagementProtocol.RESPONSE_ERROR) {
             this.failed = true;
             error = input.readUTF();
+        } else if (type == ManagementProtocol.RESPONSE_BODY_COMPRESSED) {
+            setCompressed(true);
         } else if (type != ManagementProtocol.RESPONSE_BODY) {
             throw ProtocolLogger.ROOT_LOGGER.invalidType("RESPONSE_ERROR", "RESPONSE_BODY", type);
         }
@@ -82,7 +84,7 @@ public class ManagementResponseHeader extends ManagementProtocolHeader {
             output.write(ManagementProtocol.RESPONSE_ERROR);
             output.writeUTF(error);
         } else {
-            output.write(ManagementProtocol.RESPONSE_BODY);
+            output.write(isCompressed() ? ManagementProtocol.RESPONSE_BODY_COMPRESSED : ManagementProtocol.RESPONSE_BODY);
         }
     }
 
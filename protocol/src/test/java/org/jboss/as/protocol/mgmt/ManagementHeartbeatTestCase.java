@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol.mgmt;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.protocol.mgmt.support.RemoteChannelPairSetup;
+import org.jboss.as.protocol.mgmt.support.RemotingChannelPairSetup;
+import org.jboss.as.protocol.mgmt.support.SimpleHandlers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the heartbeat sent by {@link ManagementHeartbeat}.
+ */
+public class ManagementHeartbeatTestCase {
+
+    private RemotingChannelPairSetup channels;
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void start() throws Exception {
+        channels = new RemoteChannelPairSetup();
+        channels.setupRemoting(new SimpleHandlers.OperationHandler());
+        channels.startChannels();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void stop() throws Exception {
+        scheduler.shutdownNow();
+        channels.stopChannels();
+        channels.shutdownRemoting();
+    }
+
+    @Test
+    public void testRoundTripTime() throws Exception {
+        final ManagementChannelHandler handler = new ManagementChannelHandler(channels.getClientChannel(), channels.getExecutorService());
+        channels.getClientChannel().receiveMessage(handler.getReceiver());
+
+        final ManagementHeartbeat heartbeat = new ManagementHeartbeat(scheduler, channels.getExecutorService(), 20, 10000);
+        final ManagementHeartbeat.Registration registration = heartbeat.register(handler, null);
+        Assert.assertEquals(-1, registration.getRoundTripTime());
+        Assert.assertFalse(registration.isResponsive());
+        heartbeat.start();
+        try {
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (registration.getRoundTripTime() < 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            Assert.assertTrue(registration.getRoundTripTime() >= 0);
+            Assert.assertTrue(registration.getMaxRoundTripTime() >= registration.getRoundTripTime());
+            Assert.assertTrue(registration.isResponsive());
+        } finally {
+            heartbeat.stop();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the compression of message bodies by {@link ManagementProtocolCompression}.
+ */
+public class ManagementProtocolCompressionTestCase {
+
+    @Test
+    public void testSmallBodyNotCompressed() throws IOException {
+        final String body = createBody(10);
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        final ManagementCompressionStatistics statistics = new ManagementCompressionStatistics();
+        final ManagementResponseHeader header = roundTrip(body, os, statistics);
+        Assert.assertFalse(header.isCompressed());
+        Assert.assertEquals(0, statistics.getCompressedMessages());
+        Assert.assertEquals(0, statistics.getBytesIn());
+    }
+
+    @Test
+    public void testLargeBodyCompressed() throws IOException {
+        final String body = createBody(60000);
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        final ManagementCompressionStatistics statistics = new ManagementCompressionStatistics();
+        final ManagementResponseHeader header = roundTrip(body, os, statistics);
+        Assert.assertTrue(header.isCompressed());
+        Assert.assertTrue(os.size() < body.length());
+        Assert.assertEquals(1, statistics.getCompressedMessages());
+        Assert.assertTrue(statistics.getBytesIn() > body.length());
+        Assert.assertTrue(statistics.getBytesOut() < statistics.getBytesIn());
+        Assert.assertTrue(statistics.getBytesOut() < os.size());
+        Assert.assertTrue(statistics.getCompressionTime() > 0);
+    }
+
+    private static ManagementResponseHeader roundTrip(final String body, final ByteArrayOutputStream os,
+                                              final ManagementCompressionStatistics statistics) throws IOException {
+        final FlushableDataOutput output = ManagementProtocolCompression.createOutput(new ManagementResponseHeader(ManagementProtocol.VERSION, 1, null), os, statistics);
+        output.writeUTF(body);
+        output.writeByte(ManagementProtocol.RESPONSE_END);
+        output.close();
+
+        final ByteArrayInputStream is = new ByteArrayInputStream(os.toByteArray());
+        final ManagementResponseHeader header = (ManagementResponseHeader) ManagementProtocolHeader.parse(new DataInputStream(is));
+        final DataInput input = ManagementProtocolCompression.createInput(header, is);
+        Assert.assertEquals(body, input.readUTF());
+        ProtocolUtils.expectHeader(input, ManagementProtocol.RESPONSE_END);
+        return header;
+    }
+
+    private static String createBody(final int length) {
+        final StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + i % 7));
+        }
+        return builder.toString();
+    }
+}
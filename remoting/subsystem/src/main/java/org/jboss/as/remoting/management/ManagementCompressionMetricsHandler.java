@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.remoting.management;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.protocol.mgmt.ManagementCompressionStatistics;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.remoting3.Endpoint;
+
+/**
+ * Metrics of the management message bodies compressed by the channels of the management endpoint.
+ */
+public final class ManagementCompressionMetricsHandler implements OperationStepHandler {
+
+    public static final SimpleAttributeDefinition COMPRESSED_MESSAGES = new SimpleAttributeDefinitionBuilder("compressed-messages", ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition COMPRESSION_BYTES_IN = new SimpleAttributeDefinitionBuilder("compression-bytes-in", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition COMPRESSION_BYTES_OUT = new SimpleAttributeDefinitionBuilder("compression-bytes-out", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition COMPRESSION_TIME = new SimpleAttributeDefinitionBuilder("compression-time", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    public static final AttributeDefinition[] METRICS = new AttributeDefinition[] {COMPRESSED_MESSAGES, COMPRESSION_BYTES_IN, COMPRESSION_BYTES_OUT, COMPRESSION_TIME};
+
+    private static final ManagementCompressionMetricsHandler INSTANCE = new ManagementCompressionMetricsHandler();
+
+    private ManagementCompressionMetricsHandler() {
+    }
+
+    /**
+     * Register the compression metrics on a management interface resource.
+     *
+     * @param registration the management interface resource registration
+     */
+    public static void registerMetrics(final ManagementResourceRegistration registration) {
+        for (AttributeDefinition metric : METRICS) {
+            registration.registerMetric(metric, INSTANCE);
+        }
+    }
+
+    @Override
+    public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(ManagementRemotingServices.MANAGEMENT_ENDPOINT);
+                if (controller != null && controller.getState() == ServiceController.State.UP) {
+                    final ManagementCompressionStatistics statistics = ManagementCompressionStatistics.getStatistics((Endpoint) controller.getValue());
+                    final String name = operation.require(ModelDescriptionConstants.NAME).asString();
+                    final ModelNode result = context.getResult();
+                    if (COMPRESSED_MESSAGES.getName().equals(name)) {
+                        result.set(statistics.getCompressedMessages());
+                    } else if (COMPRESSION_BYTES_IN.getName().equals(name)) {
+                        result.set(statistics.getBytesIn());
+                    } else if (COMPRESSION_BYTES_OUT.getName().equals(name)) {
+                        result.set(statistics.getBytesOut());
+                    } else if (COMPRESSION_TIME.getName().equals(name)) {
+                        result.set(TimeUnit.NANOSECONDS.toMillis(statistics.getCompressionTime()));
+                    }
+                }
+            }
+        }, OperationContext.Stage.RUNTIME);
+    }
+}
@@ -31,8 +31,10 @@ import org.jboss.as.controller.RunningModeControl;
 import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
 import org.jboss.as.controller.audit.ManagedAuditLogger;
 import org.jboss.as.controller.extension.ExtensionRegistry;
+import org.jboss.as.controller.parsing.ExtensionXml;
 import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.as.controller.persistence.BackupXmlConfigurationPersister;
+import org.jboss.as.controller.persistence.BootOperationCache;
 import org.jboss.as.controller.persistence.ConfigurationFile;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.server.parsing.StandaloneXml;
@@ -180,6 +182,10 @@ public interface Bootstrap {
                                 persister.registerAdditionalRootElement(new QName(namespace.getUriString(), "server"), parser);
                             }
                         }
+                        if (BootOperationCache.isEnabled()) {
+                            persister.setBootOperationCache(new BootOperationCache(configurationFile.getBootOperationCacheFile(),
+                                    new ExtensionXml(Module.getBootModuleLoader(), executorService, extensionRegistry)));
+                        }
                         extensionRegistry.setWriterRegistry(persister);
                         return persister;
                     }
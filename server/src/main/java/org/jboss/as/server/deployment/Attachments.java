@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment;
 
+import java.io.File;
 import java.security.PermissionCollection;
 import java.util.Map;
 import java.util.Set;
@@ -91,6 +92,12 @@ public final class Attachments {
      */
     public static final AttachmentKey<VirtualFile> DEPLOYMENT_CONTENTS = AttachmentKey.create(VirtualFile.class);
 
+    /**
+     * The directory in which indexes of the deployment's resource roots can be persisted. Only attached if the
+     * deployment contents are held in the content repository and thus cannot change.
+     */
+    public static final AttachmentKey<File> DEPLOYMENT_INDEX_DIRECTORY = AttachmentKey.create(File.class);
+
     /**
      * <strong>Deprecated</strong>. The attached object does nothing; this key is only retained for
      * binary compatiblity. The management layer handles service verification internally, with no need
@@ -22,6 +22,8 @@
 
 package org.jboss.as.server.deployment;
 
+import java.io.File;
+
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -40,6 +42,7 @@ import org.jboss.vfs.VirtualFile;
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
+    static final String INDEX_DIRECTORY = "index";
     private final InjectedValue<DeploymentMountProvider> serverDeploymentRepositoryInjector = new InjectedValue<DeploymentMountProvider>();
     private final InjectedValue<PathManager> pathManagerInjector = new InjectedValue<PathManager>();
     private final String name;
@@ -51,6 +54,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
     private Resource resource;
     private final AbstractVaultReader vaultReader;
     private final DeploymentOverlayIndex deploymentOverlays;
+    private final boolean managedContent;
 
     /**
      * Construct a new instance.
@@ -63,8 +67,9 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
      * @param resource the model
      * @param vaultReader the vault reader
      * @param deploymentOverlays the deployment overlays
+     * @param managedContent {@code true} if the deployment contents are held in the content repository
      */
-    public RootDeploymentUnitService(final String name, final String managementName, final DeploymentUnit parent, final ImmutableManagementResourceRegistration registration, final ManagementResourceRegistration mutableRegistration, Resource resource, final AbstractVaultReader vaultReader, DeploymentOverlayIndex deploymentOverlays) {
+    public RootDeploymentUnitService(final String name, final String managementName, final DeploymentUnit parent, final ImmutableManagementResourceRegistration registration, final ManagementResourceRegistration mutableRegistration, Resource resource, final AbstractVaultReader vaultReader, DeploymentOverlayIndex deploymentOverlays, final boolean managedContent) {
         assert name != null : "name is null";
         this.name = name;
         this.managementName = managementName;
@@ -74,13 +79,19 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
         this.resource = resource;
         this.vaultReader = vaultReader;
         this.deploymentOverlays = deploymentOverlays;
+        this.managedContent = managedContent;
     }
 
     protected DeploymentUnit createAndInitializeDeploymentUnit(final ServiceRegistry registry) {
         final DeploymentUnit deploymentUnit = new DeploymentUnitImpl(parent, name, registry);
         deploymentUnit.putAttachment(Attachments.RUNTIME_NAME, name);
         deploymentUnit.putAttachment(Attachments.MANAGEMENT_NAME, managementName);
-        deploymentUnit.putAttachment(Attachments.DEPLOYMENT_CONTENTS, contentsInjector.getValue());
+        final VirtualFile contents = contentsInjector.getValue();
+        deploymentUnit.putAttachment(Attachments.DEPLOYMENT_CONTENTS, contents);
+        if (managedContent && contents != null) {
+            // content repository layout is <hash dir>/content, the indexes are kept next to the content
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_INDEX_DIRECTORY, new File(new File(contents.getPathName()).getParentFile(), INDEX_DIRECTORY));
+        }
         deploymentUnit.putAttachment(DeploymentModelUtils.REGISTRATION_ATTACHMENT, registration);
         deploymentUnit.putAttachment(DeploymentModelUtils.MUTABLE_REGISTRATION_ATTACHMENT, mutableRegistration);
         deploymentUnit.putAttachment(DeploymentModelUtils.DEPLOYMENT_RESOURCE, resource);
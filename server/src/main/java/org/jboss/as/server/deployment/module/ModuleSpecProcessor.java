@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment.module;
 
+import java.io.File;
 import java.io.IOException;
 import java.security.Permission;
 import java.security.Permissions;
@@ -31,6 +32,7 @@ import java.util.HashSet;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.PropertyPermission;
+import java.util.jar.Manifest;
 
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.deployment.Attachments;
@@ -38,7 +40,11 @@ import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.DeploymentUtils;
+import org.jboss.as.server.deployment.ExplodedDeploymentMarker;
+import org.jboss.as.server.deployment.MountExplodedMarker;
 import org.jboss.as.server.deployment.SubDeploymentMarker;
+import org.jboss.as.server.deploymentoverlay.DeploymentOverlayIndex;
 import org.jboss.as.server.moduleservice.ModuleDefinition;
 import org.jboss.as.server.moduleservice.ModuleLoadService;
 import org.jboss.as.server.moduleservice.ModuleResolvePhaseService;
@@ -46,6 +52,7 @@ import org.jboss.as.server.moduleservice.ServiceModuleLoader;
 import org.jboss.modules.DependencySpec;
 import org.jboss.modules.ModuleIdentifier;
 import org.jboss.modules.ModuleSpec;
+import org.jboss.modules.ResourceLoader;
 import org.jboss.modules.ResourceLoaderSpec;
 import org.jboss.modules.filter.MultiplePathFilterBuilder;
 import org.jboss.modules.filter.PathFilter;
@@ -57,8 +64,10 @@ import org.jboss.msc.service.ServiceController.Mode;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ValueService;
 import org.jboss.msc.value.ImmediateValue;
+import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFilePermission;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Processor responsible for creating the module spec service for this deployment. Once the module spec service is created the
@@ -71,6 +80,16 @@ import org.jboss.vfs.VirtualFilePermission;
  */
 public class ModuleSpecProcessor implements DeploymentUnitProcessor {
 
+    /**
+     * System property enabling direct reading of deployment archives by the deployment class loaders, see
+     * {@link ZipResourceLoader}. Can be overridden for a deployment using the {@link #DIRECT_ZIP_LOADING_ATTRIBUTE}
+     * attribute of its manifest.
+     */
+    public static final String DIRECT_ZIP_LOADING_PROPERTY = "jboss.deployment.direct-zip-loading";
+
+    /** Manifest attribute enabling or disabling direct reading of the deployment archive for a single deployment. */
+    public static final String DIRECT_ZIP_LOADING_ATTRIBUTE = "JBoss-Direct-Zip-Loading";
+
     private static final ServerLogger logger = ServerLogger.DEPLOYMENT_LOGGER;
 
     @Override
@@ -84,11 +103,22 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         if (deploymentUnit.hasAttachment(Attachments.OSGI_MANIFEST))
             return;
 
-        deployModuleSpec(phaseContext);
+        try {
+            deployModuleSpec(phaseContext);
+        } catch (DeploymentUnitProcessingException | RuntimeException e) {
+            // undeploy is not called for a failed deploy, so release the archive opened for the deployment here
+            if (deploymentUnit.getParent() == null) {
+                VFSUtils.safeClose(deploymentUnit.removeAttachment(ZipArchiveSource.ATTACHMENT_KEY));
+            }
+            throw e;
+        }
     }
 
     @Override
     public void undeploy(final DeploymentUnit deploymentUnit) {
+        if (deploymentUnit.getParent() == null) {
+            VFSUtils.safeClose(deploymentUnit.removeAttachment(ZipArchiveSource.ATTACHMENT_KEY));
+        }
     }
 
     private void deployModuleSpec(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
@@ -222,9 +252,15 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
             specBuilder.addResourceRoot(resourceLoaderSpec);
         }
 
+        final DeploymentUnit topLevelDeployment = DeploymentUtils.getTopDeploymentUnit(deploymentUnit);
+        final ResourceRoot topLevelRoot = topLevelDeployment.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        final File indexDirectory = getIndexDirectory(topLevelDeployment);
+        final ZipArchiveSource zipSource = topLevelRoot == null ? null : getZipArchiveSource(deploymentUnit, topLevelDeployment);
         for (final ResourceRoot resourceRoot : resourceRoots) {
             logger.debug("Adding resource " + resourceRoot.getRoot() + " to module " + moduleIdentifier);
-            addResourceRoot(specBuilder, resourceRoot, permFactories);
+            final String relativePath = topLevelRoot == null ? null : getRelativePath(topLevelRoot.getRoot(), resourceRoot.getRoot());
+            final File indexFile = indexDirectory == null || relativePath == null ? null : ResourceRootIndex.getIndexFile(indexDirectory, relativePath);
+            addResourceRoot(specBuilder, resourceRoot, permFactories, indexFile, relativePath == null ? null : zipSource, relativePath);
         }
 
         createDependencies(specBuilder, dependencies, false);
@@ -330,20 +366,107 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         }
     }
 
-    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource, final List<PermissionFactory> permFactories)
+    private static File getIndexDirectory(final DeploymentUnit topLevelDeployment) {
+        final File indexDirectory = topLevelDeployment.getAttachment(Attachments.DEPLOYMENT_INDEX_DIRECTORY);
+        if (indexDirectory == null || hasOverlays(topLevelDeployment)) {
+            // overlays change the content of the deployment, so the indexes of the plain content cannot be used
+            return null;
+        }
+        return indexDirectory;
+    }
+
+    private static boolean hasOverlays(final DeploymentUnit topLevelDeployment) {
+        final DeploymentOverlayIndex overlays = topLevelDeployment.getAttachment(Attachments.DEPLOYMENT_OVERLAY_INDEX);
+        return overlays != null && !overlays.getOverlays(topLevelDeployment.getName()).isEmpty();
+    }
+
+    private static String getRelativePath(final VirtualFile deploymentRoot, final VirtualFile root) {
+        if (root.equals(deploymentRoot)) {
+            return "";
+        }
+        try {
+            return root.getPathNameRelativeTo(deploymentRoot);
+        } catch (IllegalArgumentException e) {
+            // not part of the deployment content
+            return null;
+        }
+    }
+
+    private static boolean isDirectZipLoading(final DeploymentUnit topLevelDeployment) {
+        final Manifest manifest = topLevelDeployment.getAttachment(Attachments.DEPLOYMENT_ROOT).getAttachment(Attachments.MANIFEST);
+        final String value = manifest == null ? null : manifest.getMainAttributes().getValue(DIRECT_ZIP_LOADING_ATTRIBUTE);
+        if (value != null) {
+            return Boolean.parseBoolean(value.trim());
+        }
+        return Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(DIRECT_ZIP_LOADING_PROPERTY, "false"));
+    }
+
+    /**
+     * Get the source used by {@link ZipResourceLoader}s to read the deployment archive directly, if the resource roots
+     * of the given deployment can be read that way.
+     */
+    private static ZipArchiveSource getZipArchiveSource(final DeploymentUnit deploymentUnit, final DeploymentUnit topLevelDeployment) {
+        if (ExplodedDeploymentMarker.isExplodedDeployment(topLevelDeployment) || hasOverlays(topLevelDeployment)
+                || !isDirectZipLoading(topLevelDeployment)) {
+            return null;
+        }
+        for (DeploymentUnit unit = deploymentUnit; unit != null; unit = unit.getParent()) {
+            if (MountExplodedMarker.isMountExploded(unit)) {
+                return null;
+            }
+        }
+        synchronized (topLevelDeployment) {
+            ZipArchiveSource source = topLevelDeployment.getAttachment(ZipArchiveSource.ATTACHMENT_KEY);
+            if (source == null) {
+                final VirtualFile contents = topLevelDeployment.getAttachment(Attachments.DEPLOYMENT_CONTENTS);
+                if (contents == null) {
+                    return null;
+                }
+                try {
+                    final File file = contents.getPhysicalFile();
+                    if (!file.isFile()) {
+                        return null;
+                    }
+                    source = ZipArchiveSource.open(file);
+                } catch (IOException e) {
+                    logger.debugf(e, "Cannot read %s directly", contents);
+                    return null;
+                }
+                topLevelDeployment.putAttachment(ZipArchiveSource.ATTACHMENT_KEY, source);
+            }
+            return source;
+        }
+    }
+
+    private static ResourceLoader createResourceLoader(final ResourceRoot resource, final File indexFile, final ZipArchiveSource zipSource,
+                                                       final String relativePath) throws IOException {
+        if (zipSource != null) {
+            try {
+                final ResourceLoader loader = ZipResourceLoader.create(resource.getRootName(), resource.getRoot(), resource.isUsePhysicalCodeSource(), zipSource, relativePath);
+                if (loader != null) {
+                    return loader;
+                }
+            } catch (IOException e) {
+                logger.debugf(e, "Cannot read %s directly", resource.getRoot());
+            }
+        }
+        return new VFSResourceLoader(resource.getRootName(), resource.getRoot(), resource.isUsePhysicalCodeSource(), indexFile);
+    }
+
+    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource, final List<PermissionFactory> permFactories,
+                                 final File indexFile, final ZipArchiveSource zipSource, final String relativePath)
             throws DeploymentUnitProcessingException {
         try {
             final VirtualFile root = resource.getRoot();
+            final ResourceLoader loader = createResourceLoader(resource, indexFile, zipSource, relativePath);
             if (resource.getExportFilters().isEmpty()) {
-                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), root, resource.isUsePhysicalCodeSource())));
+                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(loader));
             } else {
                 final MultiplePathFilterBuilder filterBuilder = PathFilters.multiplePathFilterBuilder(true);
                 for (final FilterSpecification filter : resource.getExportFilters()) {
                     filterBuilder.addFilter(filter.getPathFilter(), filter.isInclude());
                 }
-                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), root, resource.isUsePhysicalCodeSource()), filterBuilder.create()));
+                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(loader, filterBuilder.create()));
             }
             // start with the root
             permFactories.add(new ImmediatePermissionFactory(
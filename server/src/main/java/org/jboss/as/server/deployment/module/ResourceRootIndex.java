@@ -0,0 +1,204 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * Index of the directories and entries of a resource root. As content in the content repository never changes,
+ * the index of a resource root in repository content can be persisted alongside the content and reused for every
+ * subsequent deployment of the same content.
+ */
+final class ResourceRootIndex {
+
+    private static final int MAGIC = 0x50494458; // PIDX
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".index";
+
+    private final List<String> paths;
+    private final Set<String> entries;
+
+    private ResourceRootIndex(final List<String> paths, final Set<String> entries) {
+        this.paths = paths;
+        this.entries = entries;
+    }
+
+    /**
+     * Get the directories of the resource root, relative to the root. The root itself is included as {@code ""}.
+     *
+     * @return the paths
+     */
+    Collection<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Whether the resource root may contain the given entry.
+     *
+     * @param name the canonicalized name of the entry
+     * @return {@code false} if the entry is known not to exist, {@code true} otherwise
+     */
+    boolean mayContain(final String name) {
+        String entry = name;
+        if (entry.startsWith("/")) {
+            entry = entry.substring(1);
+        }
+        if (entry.endsWith("/")) {
+            entry = entry.substring(0, entry.length() - 1);
+        }
+        return entry.isEmpty() || entries.contains(entry);
+    }
+
+    /**
+     * Get the index file for a resource root.
+     *
+     * @param indexDirectory the directory holding the indexes of a deployment
+     * @param relativePath the path of the resource root relative to the deployment root
+     * @return the index file
+     */
+    static File getIndexFile(final File indexDirectory, final String relativePath) {
+        try {
+            return new File(indexDirectory, URLEncoder.encode("/" + relativePath, "UTF-8") + SUFFIX);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Load a persisted index, or create it and persist it if it does not exist yet.
+     *
+     * @param root the resource root
+     * @param indexFile the index file, or {@code null} if the index should not be persisted
+     * @return the index
+     * @throws IOException if the resource root cannot be indexed
+     */
+    static ResourceRootIndex loadOrCreate(final VirtualFile root, final File indexFile) throws IOException {
+        if (indexFile != null && indexFile.exists()) {
+            try {
+                return read(indexFile);
+            } catch (IOException e) {
+                ServerLogger.ROOT_LOGGER.debugf(e, "Ignoring resource root index %s", indexFile);
+            }
+        }
+        final long start = System.currentTimeMillis();
+        final ResourceRootIndex index = create(root);
+        ServerLogger.ROOT_LOGGER.debugf("Indexed %s in [%d] ms", root, System.currentTimeMillis() - start);
+        if (indexFile != null) {
+            try {
+                index.write(indexFile);
+            } catch (IOException e) {
+                ServerLogger.ROOT_LOGGER.debugf(e, "Failed to persist resource root index %s", indexFile);
+            }
+        }
+        return index;
+    }
+
+    private static ResourceRootIndex create(final VirtualFile root) throws IOException {
+        final List<String> paths = new ArrayList<String>();
+        final Set<String> entries = new HashSet<String>();
+        paths.add("");
+        for (final VirtualFile file : root.getChildrenRecursively()) {
+            final String name = file.getPathNameRelativeTo(root);
+            if (file.isDirectory()) {
+                paths.add(name);
+            }
+            entries.add(name);
+        }
+        return new ResourceRootIndex(Collections.unmodifiableList(paths), entries);
+    }
+
+    private static ResourceRootIndex read(final File indexFile) throws IOException {
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+        try {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException(indexFile.getName());
+            }
+            final int pathCount = input.readInt();
+            final List<String> paths = new ArrayList<String>(pathCount);
+            for (int i = 0; i < pathCount; i++) {
+                paths.add(input.readUTF());
+            }
+            final int entryCount = input.readInt();
+            final Set<String> entries = new HashSet<String>(entryCount * 4 / 3 + 1);
+            for (int i = 0; i < entryCount; i++) {
+                entries.add(input.readUTF());
+            }
+            return new ResourceRootIndex(Collections.unmodifiableList(paths), entries);
+        } finally {
+            VFSUtils.safeClose(input);
+        }
+    }
+
+    private void write(final File indexFile) throws IOException {
+        final File directory = indexFile.getParentFile();
+        if (!directory.exists() && !directory.mkdirs() && !directory.exists()) {
+            throw new IOException(directory.getAbsolutePath());
+        }
+        // write to a temp file first, concurrent deployments of the same content may create the same index
+        final File tempFile = File.createTempFile(indexFile.getName(), ".tmp", directory);
+        try {
+            final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            try {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(paths.size());
+                for (final String path : paths) {
+                    output.writeUTF(path);
+                }
+                output.writeInt(entries.size());
+                for (final String entry : entries) {
+                    output.writeUTF(entry);
+                }
+                output.close();
+            } finally {
+                VFSUtils.safeClose(output);
+            }
+            if (!tempFile.renameTo(indexFile) && !indexFile.exists()) {
+                throw new IOException(indexFile.getAbsolutePath());
+            }
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+}
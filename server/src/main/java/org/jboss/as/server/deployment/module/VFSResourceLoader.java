@@ -23,6 +23,7 @@
 package org.jboss.as.server.deployment.module;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -76,6 +77,8 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
     private final String rootName;
     private final Manifest manifest;
     private final URL rootUrl;
+    private final File indexFile;
+    private volatile ResourceRootIndex index;
 
     // protected by {@code this}
     private final Map<CodeSigners, CodeSource> codeSources = new HashMap<>();
@@ -100,6 +103,20 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
      * @throws IOException if the manifest could not be read or the root URL is invalid
      */
     public VFSResourceLoader(final String rootName, final VirtualFile root, final boolean usePhysicalCodeSource) throws IOException {
+        this(rootName, root, usePhysicalCodeSource, null);
+    }
+
+    /**
+     * Construct new instance.
+     *
+     * @param rootName The module root name
+     * @param root The root virtual file
+     * @param usePhysicalCodeSource {@code true} to use the physical root URL for code sources, {@code false} to use the VFS URL
+     * @param indexFile file in which the index of the root is persisted, or {@code null} if the content of the root
+     *                  may change and the root should not be indexed
+     * @throws IOException if the manifest could not be read or the root URL is invalid
+     */
+    public VFSResourceLoader(final String rootName, final VirtualFile root, final boolean usePhysicalCodeSource, final File indexFile) throws IOException {
         final SecurityManager sm = System.getSecurityManager();
         final boolean checking = WildFlySecurityManager.isChecking();
         if (checking) {
@@ -107,6 +124,7 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
         }
         this.root = root;
         this.rootName = rootName;
+        this.indexFile = indexFile;
         try {
             manifest = checking ? doPrivileged(new PrivilegedExceptionAction<Manifest>() {
                 public Manifest run() throws IOException {
@@ -130,6 +148,10 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
         try {
             return doPrivileged(new PrivilegedExceptionAction<ClassSpec>() {
                 public ClassSpec run() throws Exception {
+                    final ResourceRootIndex index = getIndex();
+                    if (index != null && !index.mayContain(name)) {
+                        return null;
+                    }
                     final VirtualFile file = root.getChild(name);
                     if (!file.exists()) {
                         return null;
@@ -204,7 +226,12 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
         return doPrivileged(new PrivilegedAction<Resource>() {
             public Resource run() {
                 try {
-                    final VirtualFile file = root.getChild(PathUtils.canonicalize(name));
+                    final String canonical = PathUtils.canonicalize(name);
+                    final ResourceRootIndex index = getIndex();
+                    if (index != null && !index.mayContain(canonical)) {
+                        return null;
+                    }
+                    final VirtualFile file = root.getChild(canonical);
                     if (!file.exists()) {
                         return null;
                     }
@@ -219,6 +246,10 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
 
     /** {@inheritDoc} */
     public Collection<String> getPaths() {
+        final ResourceRootIndex rootIndex = getIndex();
+        if (rootIndex != null) {
+            return rootIndex.getPaths();
+        }
         final List<String> index = new ArrayList<String>();
         // First check for an index file
         final VirtualFile indexFile = VFS.getChild(root.getPathName() + ".index");
@@ -260,6 +291,32 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
         return index;
     }
 
+    /**
+     * Get the index of the root, creating it on first use.
+     *
+     * @return the index, or {@code null} if the root is not indexed
+     */
+    private ResourceRootIndex getIndex() {
+        if (indexFile == null) {
+            return null;
+        }
+        ResourceRootIndex index = this.index;
+        if (index == null) {
+            synchronized (this) {
+                index = this.index;
+                if (index == null) {
+                    try {
+                        this.index = index = ResourceRootIndex.loadOrCreate(root, indexFile);
+                    } catch (IOException e) {
+                        ServerLogger.ROOT_LOGGER.debugf(e, "Failed to index %s", root);
+                        return null;
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
     @Override
     public Iterator<Resource> iterateResources(String startPath, boolean recursive) {
         VirtualFile child = root.getChild(startPath);
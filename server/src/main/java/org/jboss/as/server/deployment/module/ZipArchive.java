@@ -0,0 +1,353 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * A zip archive read directly from a region of a {@link ZipArchiveSource}, using an index of its central directory.
+ * Nested archives can be opened without extracting them, as long as they are stored uncompressed in the enclosing
+ * archive. Zip64 archives and encrypted entries are not supported.
+ * <p>
+ * Entry names are decoded as UTF-8 if the language encoding flag (general purpose bit 11) is set, and as IBM437
+ * otherwise, as required by the zip specification. An archive holding non ASCII names without the flag is
+ * {@linkplain #hasLegacyNames() marked}, since the JDK and thus the VFS mount decode those names differently.
+ */
+final class ZipArchive {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final Charset IBM437 = Charset.forName("IBM437");
+    private static final int UTF_8_FLAG = 1 << 11;
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int LOCAL_HEADER_LENGTH = 30;
+    private static final int CENTRAL_HEADER_LENGTH = 46;
+    private static final int END_LENGTH = 22;
+    private static final int MAX_COMMENT_LENGTH = 0xffff;
+
+    static final int STORED = 0;
+    static final int DEFLATED = 8;
+
+    private final ZipArchiveSource source;
+    private final long base;
+    private final Map<String, Entry> entries;
+    private final Set<String> directories;
+    private final boolean legacyNames;
+    private volatile boolean closed;
+
+    private ZipArchive(final ZipArchiveSource source, final long base, final Map<String, Entry> entries, final Set<String> directories,
+                       final boolean legacyNames) {
+        this.source = source;
+        this.base = base;
+        this.entries = entries;
+        this.directories = directories;
+        this.legacyNames = legacyNames;
+    }
+
+    /**
+     * Open the archive held in a region of the given source.
+     *
+     * @param source the source
+     * @param base the offset of the archive in the source
+     * @param length the length of the archive
+     * @return the archive
+     * @throws IOException if the archive cannot be read or is not supported
+     */
+    static ZipArchive open(final ZipArchiveSource source, final long base, final long length) throws IOException {
+        final int tailLength = (int) Math.min(length, END_LENGTH + MAX_COMMENT_LENGTH);
+        final ByteBuffer tail = source.read(base + length - tailLength, tailLength);
+        int end = -1;
+        for (int i = tailLength - END_LENGTH; i >= 0; i--) {
+            if (tail.getInt(i) == END_SIGNATURE) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            throw new ZipException("No end of central directory record");
+        }
+        final int total = tail.getShort(end + 10) & 0xffff;
+        final long directorySize = tail.getInt(end + 12) & 0xffffffffL;
+        final long directoryOffset = tail.getInt(end + 16) & 0xffffffffL;
+        if (total == 0xffff || directorySize == 0xffffffffL || directoryOffset == 0xffffffffL) {
+            throw new ZipException("Zip64 archives are not supported");
+        }
+        if (directoryOffset + directorySize > length || directorySize > Integer.MAX_VALUE) {
+            throw new ZipException("Invalid central directory");
+        }
+        final ByteBuffer directory = source.read(base + directoryOffset, (int) directorySize);
+        final Map<String, Entry> entries = new HashMap<String, Entry>(total * 4 / 3 + 1);
+        final Set<String> directories = new HashSet<String>();
+        directories.add("");
+        boolean legacyNames = false;
+        int position = 0;
+        for (int i = 0; i < total; i++) {
+            if (directory.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid central directory header");
+            }
+            final int flags = directory.getShort(position + 8) & 0xffff;
+            final int method = directory.getShort(position + 10) & 0xffff;
+            final long compressedSize = directory.getInt(position + 20) & 0xffffffffL;
+            final long size = directory.getInt(position + 24) & 0xffffffffL;
+            final int nameLength = directory.getShort(position + 28) & 0xffff;
+            final int extraLength = directory.getShort(position + 30) & 0xffff;
+            final int commentLength = directory.getShort(position + 32) & 0xffff;
+            final long localHeaderOffset = directory.getInt(position + 42) & 0xffffffffL;
+            final byte[] nameBytes = new byte[nameLength];
+            directory.position(position + CENTRAL_HEADER_LENGTH);
+            directory.get(nameBytes);
+            final String name;
+            if ((flags & UTF_8_FLAG) != 0) {
+                name = decodeUtf8(nameBytes);
+            } else if (isAscii(nameBytes)) {
+                name = new String(nameBytes, UTF_8);
+            } else {
+                name = new String(nameBytes, IBM437);
+                legacyNames = true;
+            }
+            position += CENTRAL_HEADER_LENGTH + nameLength + extraLength + commentLength;
+
+            if (name.endsWith("/")) {
+                addDirectory(directories, name.substring(0, name.length() - 1));
+                continue;
+            }
+            if ((flags & 1) != 0) {
+                throw new ZipException("Encrypted entries are not supported: " + name);
+            }
+            if (method != STORED && method != DEFLATED) {
+                throw new ZipException("Unsupported compression method " + method + " for " + name);
+            }
+            entries.put(name, new Entry(name, method, compressedSize, size, localHeaderOffset));
+            final int slash = name.lastIndexOf('/');
+            if (slash > 0) {
+                addDirectory(directories, name.substring(0, slash));
+            }
+        }
+        return new ZipArchive(source, base, entries, directories, legacyNames);
+    }
+
+    private static String decodeUtf8(final byte[] bytes) throws ZipException {
+        try {
+            return UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes)).toString();
+        } catch (CharacterCodingException e) {
+            final ZipException ze = new ZipException("Invalid UTF-8 entry name");
+            ze.initCause(e);
+            throw ze;
+        }
+    }
+
+    private static boolean isAscii(final byte[] bytes) {
+        for (final byte b : bytes) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addDirectory(final Set<String> directories, final String name) {
+        String current = name;
+        while (!current.isEmpty() && directories.add(current)) {
+            final int slash = current.lastIndexOf('/');
+            current = slash < 0 ? "" : current.substring(0, slash);
+        }
+    }
+
+    /**
+     * Open a nested archive.
+     *
+     * @param entry the entry holding the nested archive
+     * @return the nested archive, or {@code null} if the entry is compressed and cannot be read in place
+     * @throws IOException if the nested archive cannot be read
+     */
+    ZipArchive openNested(final Entry entry) throws IOException {
+        if (entry.method != STORED || entry.compressedSize != entry.size) {
+            return null;
+        }
+        return open(source, getDataOffset(entry), entry.size);
+    }
+
+    /**
+     * Whether the archive holds non ASCII entry names without the language encoding flag. These names are decoded as
+     * IBM437, whereas the JDK decodes them as UTF-8.
+     *
+     * @return {@code true} if the archive holds such names
+     */
+    boolean hasLegacyNames() {
+        return legacyNames;
+    }
+
+    /**
+     * Close the archive. Entries cannot be read anymore once the archive is closed.
+     */
+    void close() {
+        closed = true;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    Entry getEntry(final String name) {
+        return entries.get(name);
+    }
+
+    boolean isDirectory(final String name) {
+        return directories.contains(name);
+    }
+
+    Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    Collection<String> getDirectories() {
+        return Collections.unmodifiableSet(directories);
+    }
+
+    /**
+     * Whether the archive contains jar signature files, which cannot be verified when reading entries directly.
+     *
+     * @return {@code true} if the archive is signed
+     */
+    boolean isSigned() {
+        for (final String name : entries.keySet()) {
+            if (name.startsWith("META-INF/") && name.indexOf('/', 9) < 0) {
+                final String upper = name.toUpperCase();
+                if (upper.endsWith(".SF") || upper.endsWith(".RSA") || upper.endsWith(".DSA") || upper.endsWith(".EC")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read the uncompressed content of an entry.
+     *
+     * @param entry the entry
+     * @return the content
+     * @throws IOException if the entry cannot be read
+     */
+    byte[] getBytes(final Entry entry) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (entry.size > Integer.MAX_VALUE || entry.compressedSize >= Integer.MAX_VALUE) {
+            throw new ZipException("Entry too large: " + entry.name);
+        }
+        final long offset = getDataOffset(entry);
+        final int size = (int) entry.size;
+        if (entry.method == STORED) {
+            final ByteBuffer data = source.read(offset, size);
+            final byte[] bytes = new byte[size];
+            data.get(bytes);
+            return bytes;
+        }
+        final int compressedSize = (int) entry.compressedSize;
+        final ByteBuffer data = source.read(offset, compressedSize);
+        // the inflater needs an additional dummy byte when reading raw deflate data
+        final byte[] input = new byte[compressedSize + 1];
+        data.get(input, 0, compressedSize);
+        final byte[] bytes = new byte[size];
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            int read = 0;
+            while (read < size && !inflater.finished()) {
+                final int count = inflater.inflate(bytes, read, size - read);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new ZipException("Truncated entry: " + entry.name);
+                }
+                read += count;
+            }
+            if (read != size) {
+                throw new ZipException("Invalid entry size: " + entry.name);
+            }
+        } catch (DataFormatException e) {
+            final ZipException ze = new ZipException("Invalid entry data: " + entry.name);
+            ze.initCause(e);
+            throw ze;
+        } finally {
+            inflater.end();
+        }
+        return bytes;
+    }
+
+    private long getDataOffset(final Entry entry) throws IOException {
+        long dataOffset = entry.dataOffset;
+        if (dataOffset < 0) {
+            final ByteBuffer header = source.read(base + entry.localHeaderOffset, LOCAL_HEADER_LENGTH);
+            if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid local header: " + entry.name);
+            }
+            final int nameLength = header.getShort(26) & 0xffff;
+            final int extraLength = header.getShort(28) & 0xffff;
+            entry.dataOffset = dataOffset = base + entry.localHeaderOffset + LOCAL_HEADER_LENGTH + nameLength + extraLength;
+        }
+        return dataOffset;
+    }
+
+    static final class Entry {
+        private final String name;
+        private final int method;
+        private final long compressedSize;
+        private final long size;
+        private final long localHeaderOffset;
+        private volatile long dataOffset = -1;
+
+        Entry(final String name, final int method, final long compressedSize, final long size, final long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        long getSize() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.server.deployment.AttachmentKey;
+
+/**
+ * Read access to a deployment archive file shared by all the {@link ZipResourceLoader}s of a deployment. Reads use
+ * positional reads on a single {@link FileChannel}, so concurrent class loading does not contend on a lock.
+ * <p>
+ * The file is deliberately not memory mapped, as a mapping cannot be released deterministically when the deployment
+ * is undeployed, which would keep the content file locked on some platforms.
+ */
+final class ZipArchiveSource implements Closeable {
+
+    static final AttachmentKey<ZipArchiveSource> ATTACHMENT_KEY = AttachmentKey.create(ZipArchiveSource.class);
+
+    private final File file;
+    private final Map<String, ZipArchive> archives = new HashMap<String, ZipArchive>();
+    private volatile FileChannel channel;
+    private volatile boolean closed;
+
+    private ZipArchiveSource(final File file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    }
+
+    /**
+     * Open the given archive file.
+     *
+     * @param file the archive file
+     * @return the source
+     * @throws IOException if the file cannot be opened
+     */
+    static ZipArchiveSource open(final File file) throws IOException {
+        return new ZipArchiveSource(file);
+    }
+
+    /**
+     * Get the archive at the given path relative to the root archive, opening nested archives as needed.
+     *
+     * @param path the path of the archive, {@code ""} for the root archive
+     * @return the archive, or {@code null} if the path is not an archive which can be read in place
+     * @throws IOException if an archive cannot be read
+     */
+    synchronized ZipArchive getArchive(final String path) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        ZipArchive archive = archives.get(path);
+        if (archive == null && !archives.containsKey(path)) {
+            if (path.isEmpty()) {
+                archive = ZipArchive.open(this, 0, channel().size());
+            } else {
+                final int slash = path.lastIndexOf('/', path.length() - 1);
+                archive = resolve(slash < 0 ? "" : path.substring(0, slash), slash < 0 ? path : path.substring(slash + 1));
+            }
+            archives.put(path, archive);
+        }
+        return archive;
+    }
+
+    private ZipArchive resolve(final String parentPath, final String name) throws IOException {
+        // the parent path may itself be a directory within an archive, so walk up until an archive is found
+        String archivePath = parentPath;
+        String entryName = name;
+        while (true) {
+            final ZipArchive parent = getArchive(archivePath);
+            if (parent != null) {
+                final ZipArchive.Entry entry = parent.getEntry(entryName);
+                return entry == null ? null : parent.openNested(entry);
+            }
+            if (archivePath.isEmpty()) {
+                return null;
+            }
+            final int slash = archivePath.lastIndexOf('/');
+            entryName = (slash < 0 ? archivePath : archivePath.substring(slash + 1)) + '/' + entryName;
+            archivePath = slash < 0 ? "" : archivePath.substring(0, slash);
+        }
+    }
+
+    /**
+     * Read a region of the file.
+     *
+     * @param position the position in the file
+     * @param length the number of bytes to read
+     * @return a little endian buffer holding the bytes
+     * @throws IOException if the region cannot be read
+     */
+    ByteBuffer read(final long position, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        // an interrupt during a channel operation closes the channel, so never read with the interrupt flag set
+        boolean interrupted = Thread.interrupted();
+        try {
+            while (buffer.hasRemaining()) {
+                final int read;
+                try {
+                    read = channel().read(buffer, position + buffer.position());
+                } catch (ClosedChannelException e) {
+                    // interrupted while reading, clear the flag again before retrying
+                    interrupted |= Thread.interrupted();
+                    reopen(e);
+                    continue;
+                }
+                if (read < 0) {
+                    throw new EOFException(file.getName());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private FileChannel channel() throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        return channel;
+    }
+
+    private synchronized void reopen(final ClosedChannelException cause) throws IOException {
+        if (closed) {
+            throw cause;
+        }
+        if (!channel.isOpen()) {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        // close the nested archives as well, loaders still referencing them must not read from a reopened channel
+        for (final ZipArchive archive : archives.values()) {
+            if (archive != null) {
+                archive.close();
+            }
+        }
+        archives.clear();
+        channel.close();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+}
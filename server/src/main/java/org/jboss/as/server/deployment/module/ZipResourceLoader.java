@@ -0,0 +1,222 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import org.jboss.modules.AbstractResourceLoader;
+import org.jboss.modules.ClassSpec;
+import org.jboss.modules.IterableResourceLoader;
+import org.jboss.modules.PackageSpec;
+import org.jboss.modules.PathUtils;
+import org.jboss.modules.Resource;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * Resource loader reading classes and resources directly from the deployment archive instead of going through the
+ * VFS mount of the archive. The VFS mount is still used for the URLs of resources, so these are the same as the ones
+ * provided by {@link VFSResourceLoader}.
+ */
+final class ZipResourceLoader extends AbstractResourceLoader implements IterableResourceLoader {
+
+    private final String rootName;
+    private final VirtualFile root;
+    private final ZipArchive archive;
+    private final String prefix;
+    private final Manifest manifest;
+    private final URL rootUrl;
+    private final CodeSource codeSource;
+    private final Collection<String> paths;
+
+    private ZipResourceLoader(final String rootName, final VirtualFile root, final ZipArchive archive, final String prefix,
+                              final boolean usePhysicalCodeSource) throws IOException {
+        this.rootName = rootName;
+        this.root = root;
+        this.archive = archive;
+        this.prefix = prefix;
+        final ZipArchive.Entry manifestEntry = archive.getEntry(prefix + JarFile.MANIFEST_NAME);
+        this.manifest = manifestEntry == null ? null : new Manifest(new ByteArrayInputStream(archive.getBytes(manifestEntry)));
+        this.rootUrl = usePhysicalCodeSource ? VFSUtils.getRootURL(root) : root.asFileURL();
+        this.codeSource = new CodeSource(rootUrl, (CodeSigner[]) null);
+        final List<String> paths = new ArrayList<String>();
+        for (final String directory : archive.getDirectories()) {
+            if (prefix.isEmpty()) {
+                paths.add(directory);
+            } else if (directory.startsWith(prefix)) {
+                paths.add(directory.substring(prefix.length()));
+            } else if (directory.length() == prefix.length() - 1 && prefix.startsWith(directory)) {
+                paths.add("");
+            }
+        }
+        this.paths = Collections.unmodifiableList(paths);
+    }
+
+    /**
+     * Create a loader for the resource root at the given path of a deployment archive.
+     *
+     * @param rootName the module root name
+     * @param root the mounted resource root
+     * @param usePhysicalCodeSource {@code true} to use the physical root URL for code sources
+     * @param source the deployment archive
+     * @param path the path of the resource root relative to the deployment archive
+     * @return the loader, or {@code null} if the root cannot be read directly
+     * @throws IOException if the archive cannot be read
+     */
+    static ZipResourceLoader create(final String rootName, final VirtualFile root, final boolean usePhysicalCodeSource,
+                                    final ZipArchiveSource source, final String path) throws IOException {
+        String archivePath = path;
+        String directory = "";
+        while (true) {
+            final ZipArchive archive = source.getArchive(archivePath);
+            if (archive != null) {
+                // the names of archives with legacy names would not match the names of the VFS mount
+                if (archive.isSigned() || archive.hasLegacyNames() || !archive.isDirectory(directory)) {
+                    return null;
+                }
+                return new ZipResourceLoader(rootName, root, archive, directory.isEmpty() ? "" : directory + '/', usePhysicalCodeSource);
+            }
+            if (archivePath.isEmpty()) {
+                return null;
+            }
+            final int slash = archivePath.lastIndexOf('/');
+            final String name = slash < 0 ? archivePath : archivePath.substring(slash + 1);
+            directory = directory.isEmpty() ? name : name + '/' + directory;
+            archivePath = slash < 0 ? "" : archivePath.substring(0, slash);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public String getRootName() {
+        return rootName;
+    }
+
+    /** {@inheritDoc} */
+    public ClassSpec getClassSpec(final String fileName) throws IOException {
+        final ZipArchive.Entry entry = archive.getEntry(prefix + fileName);
+        if (entry == null) {
+            return null;
+        }
+        final ClassSpec spec = new ClassSpec();
+        spec.setBytes(archive.getBytes(entry));
+        spec.setCodeSource(codeSource);
+        return spec;
+    }
+
+    /** {@inheritDoc} */
+    public PackageSpec getPackageSpec(final String name) throws IOException {
+        return getPackageSpec(name, manifest, rootUrl);
+    }
+
+    /** {@inheritDoc} */
+    public Resource getResource(final String name) {
+        String canonical = PathUtils.canonicalize(name);
+        if (canonical.startsWith("/")) {
+            canonical = canonical.substring(1);
+        }
+        final ZipArchive.Entry entry = archive.getEntry(prefix + canonical);
+        if (entry != null) {
+            return new ZipEntryResource(canonical, entry);
+        }
+        final String directory = canonical.endsWith("/") ? canonical.substring(0, canonical.length() - 1) : canonical;
+        if (archive.isDirectory(prefix + directory)) {
+            try {
+                final VirtualFile file = root.getChild(directory);
+                return new VFSResourceLoader.VFSEntryResource(directory, file, file.toURL());
+            } catch (MalformedURLException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    public Collection<String> getPaths() {
+        return paths;
+    }
+
+    @Override
+    public Iterator<Resource> iterateResources(final String startPath, final boolean recursive) {
+        String start = PathUtils.canonicalize(startPath);
+        if (start.startsWith("/")) {
+            start = start.substring(1);
+        }
+        if (!start.isEmpty() && !start.endsWith("/")) {
+            start = start + '/';
+        }
+        final List<Resource> resources = new ArrayList<Resource>();
+        for (final ZipArchive.Entry entry : archive.getEntries()) {
+            final String name = entry.getName();
+            if (name.startsWith(prefix + start)) {
+                final String relative = name.substring(prefix.length());
+                if (recursive || relative.indexOf('/', start.length()) < 0) {
+                    resources.add(new ZipEntryResource(relative, entry));
+                }
+            }
+        }
+        return resources.iterator();
+    }
+
+    private final class ZipEntryResource implements Resource {
+        private final String name;
+        private final ZipArchive.Entry entry;
+
+        private ZipEntryResource(final String name, final ZipArchive.Entry entry) {
+            this.name = name;
+            this.entry = entry;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public URL getURL() {
+            try {
+                return root.getChild(name).toURL();
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public InputStream openStream() throws IOException {
+            return new ByteArrayInputStream(archive.getBytes(entry));
+        }
+
+        public long getSize() {
+            return entry.getSize();
+        }
+    }
+}
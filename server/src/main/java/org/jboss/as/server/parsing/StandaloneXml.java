@@ -65,7 +65,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
-import javax.xml.XMLConstants;
 import javax.xml.stream.XMLStreamException;
 
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
@@ -79,7 +78,7 @@ import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.as.controller.parsing.ParseUtils;
 import org.jboss.as.controller.parsing.ProfileParsingCompletionHandler;
 import org.jboss.as.controller.persistence.ModelMarshallingContext;
-import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
+import org.jboss.as.controller.persistence.SubsystemXmlMarshaller;
 import org.jboss.as.controller.resource.SocketBindingGroupResourceDefinition;
 import org.jboss.as.domain.management.access.AccessAuthorizationResourceDefinition;
 import org.jboss.as.domain.management.parsing.AuditLogXml;
@@ -93,7 +92,6 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.Property;
 import org.jboss.modules.ModuleLoader;
-import org.jboss.staxmapper.XMLElementWriter;
 import org.jboss.staxmapper.XMLExtendedStreamReader;
 import org.jboss.staxmapper.XMLExtendedStreamWriter;
 
@@ -107,10 +105,12 @@ public class StandaloneXml extends CommonXml {
 
     private final ExtensionXml extensionXml;
     private final ExtensionRegistry extensionRegistry;
+    private final SubsystemXmlMarshaller subsystemMarshaller;
 
     public StandaloneXml(final ModuleLoader loader, final ExecutorService executorService, final ExtensionRegistry extensionRegistry) {
         super();
         extensionXml = new ExtensionXml(loader, executorService, extensionRegistry);
+        subsystemMarshaller = new SubsystemXmlMarshaller(executorService);
         this.extensionRegistry = extensionRegistry;
     }
 
@@ -1337,22 +1337,10 @@ public class StandaloneXml extends CommonXml {
             return;
         }
 
+        final SubsystemXmlMarshaller.MarshalledSubsystems subsystems = subsystemMarshaller.marshal(writer,
+                Collections.singletonMap(Element.PROFILE.getLocalName(), profileNode.get(SUBSYSTEM)), context);
         writer.writeStartElement(Element.PROFILE.getLocalName());
-        Set<String> subsystemNames = profileNode.get(SUBSYSTEM).keys();
-        if (subsystemNames.size() > 0) {
-            String defaultNamespace = writer.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
-            for (String subsystemName : subsystemNames) {
-                try {
-                    ModelNode subsystem = profileNode.get(SUBSYSTEM, subsystemName);
-                    XMLElementWriter<SubsystemMarshallingContext> subsystemWriter = context.getSubsystemWriter(subsystemName);
-                    if (subsystemWriter != null) { // FIXME -- remove when extensions are doing the registration
-                        subsystemWriter.writeContent(writer, new SubsystemMarshallingContext(subsystem, writer));
-                    }
-                } finally {
-                    writer.setDefaultNamespace(defaultNamespace);
-                }
-            }
-        }
+        subsystems.write(writer, Element.PROFILE.getLocalName());
         writer.writeEndElement();
     }
 
@@ -34,7 +34,9 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.network.ConnectionMetrics;
 import org.jboss.as.network.ManagedBinding;
 import org.jboss.as.network.NetworkUtils;
 import org.jboss.as.network.SocketBinding;
@@ -153,6 +155,103 @@ public final class BindingMetricHandlers {
         }
     }
 
+    abstract static class AbstractConnectionMetricsHandler extends AbstractBindingMetricsHandler {
+
+        @Override
+        void execute(final ModelNode operation, final SocketBinding binding, final ModelNode result) {
+            execute(binding.getConnectionMetrics(), result);
+        }
+
+        abstract void execute(ConnectionMetrics metrics, ModelNode result);
+
+        ModelNode getNoMetrics() {
+            return new ModelNode();
+        }
+    }
+
+    public static class AcceptedConnectionsHandler extends AbstractConnectionMetricsHandler {
+
+        public static final String ATTRIBUTE_NAME = "accepted-connections";
+        public static final AttributeDefinition ATTRIBUTE_DEFINITION = new SimpleAttributeDefinitionBuilder(ATTRIBUTE_NAME, ModelType.LONG, true).build();
+        public static final OperationStepHandler INSTANCE = new AcceptedConnectionsHandler();
+
+        private AcceptedConnectionsHandler() {
+            //
+        }
+
+        @Override
+        void execute(final ConnectionMetrics metrics, final ModelNode result) {
+            result.set(metrics.getAcceptedConnections());
+        }
+    }
+
+    public static class OpenConnectionsHandler extends AbstractConnectionMetricsHandler {
+
+        public static final String ATTRIBUTE_NAME = "open-connections";
+        public static final AttributeDefinition ATTRIBUTE_DEFINITION = new SimpleAttributeDefinitionBuilder(ATTRIBUTE_NAME, ModelType.LONG, true).build();
+        public static final OperationStepHandler INSTANCE = new OpenConnectionsHandler();
+
+        private OpenConnectionsHandler() {
+            //
+        }
+
+        @Override
+        void execute(final ConnectionMetrics metrics, final ModelNode result) {
+            result.set(metrics.getOpenConnections());
+        }
+    }
+
+    public static class AcceptRateHandler extends AbstractConnectionMetricsHandler {
+
+        public static final String ATTRIBUTE_NAME = "accept-rate";
+        public static final AttributeDefinition ATTRIBUTE_DEFINITION = new SimpleAttributeDefinitionBuilder(ATTRIBUTE_NAME, ModelType.DOUBLE, true)
+                .setMeasurementUnit(MeasurementUnit.PER_SECOND).build();
+        public static final OperationStepHandler INSTANCE = new AcceptRateHandler();
+
+        private AcceptRateHandler() {
+            //
+        }
+
+        @Override
+        void execute(final ConnectionMetrics metrics, final ModelNode result) {
+            result.set(metrics.getAcceptRate());
+        }
+    }
+
+    public static class BytesReceivedHandler extends AbstractConnectionMetricsHandler {
+
+        public static final String ATTRIBUTE_NAME = "bytes-received";
+        public static final AttributeDefinition ATTRIBUTE_DEFINITION = new SimpleAttributeDefinitionBuilder(ATTRIBUTE_NAME, ModelType.LONG, true)
+                .setMeasurementUnit(MeasurementUnit.BYTES).build();
+        public static final OperationStepHandler INSTANCE = new BytesReceivedHandler();
+
+        private BytesReceivedHandler() {
+            //
+        }
+
+        @Override
+        void execute(final ConnectionMetrics metrics, final ModelNode result) {
+            result.set(metrics.getBytesReceived());
+        }
+    }
+
+    public static class BytesSentHandler extends AbstractConnectionMetricsHandler {
+
+        public static final String ATTRIBUTE_NAME = "bytes-sent";
+        public static final AttributeDefinition ATTRIBUTE_DEFINITION = new SimpleAttributeDefinitionBuilder(ATTRIBUTE_NAME, ModelType.LONG, true)
+                .setMeasurementUnit(MeasurementUnit.BYTES).build();
+        public static final OperationStepHandler INSTANCE = new BytesSentHandler();
+
+        private BytesSentHandler() {
+            //
+        }
+
+        @Override
+        void execute(final ConnectionMetrics metrics, final ModelNode result) {
+            result.set(metrics.getBytesSent());
+        }
+    }
+
     private BindingMetricHandlers() {
         //
     }
@@ -55,6 +55,11 @@ public class SocketBindingResourceDefinition extends AbstractSocketBindingResour
         resourceRegistration.registerMetric(BindingMetricHandlers.BoundHandler.ATTRIBUTE_DEFINITION, BindingMetricHandlers.BoundHandler.INSTANCE);
         resourceRegistration.registerMetric(BindingMetricHandlers.BoundAddressHandler.ATTRIBUTE_DEFINITION, BindingMetricHandlers.BoundAddressHandler.INSTANCE);
         resourceRegistration.registerMetric(BindingMetricHandlers.BoundPortHandler.ATTRIBUTE_DEFINITION, BindingMetricHandlers.BoundPortHandler.INSTANCE);
+        resourceRegistration.registerMetric(BindingMetricHandlers.AcceptedConnectionsHandler.ATTRIBUTE_DEFINITION, BindingMetricHandlers.AcceptedConnectionsHandler.INSTANCE);
+        resourceRegistration.registerMetric(BindingMetricHandlers.OpenConnectionsHandler.ATTRIBUTE_DEFINITION, BindingMetricHandlers.OpenConnectionsHandler.INSTANCE);
+        resourceRegistration.registerMetric(BindingMetricHandlers.AcceptRateHandler.ATTRIBUTE_DEFINITION, BindingMetricHandlers.AcceptRateHandler.INSTANCE);
+        resourceRegistration.registerMetric(BindingMetricHandlers.BytesReceivedHandler.ATTRIBUTE_DEFINITION, BindingMetricHandlers.BytesReceivedHandler.INSTANCE);
+        resourceRegistration.registerMetric(BindingMetricHandlers.BytesSentHandler.ATTRIBUTE_DEFINITION, BindingMetricHandlers.BytesSentHandler.INSTANCE);
     }
 
     @Override
@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.module;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link ResourceRootIndex} and its use by the {@link VFSResourceLoader}.
+ */
+public class ResourceRootIndexTestCase {
+
+    private File dir;
+    private File content;
+    private File indexFile;
+
+    @Before
+    public void setup() throws IOException {
+        dir = new File("target", "resource-root-index-test");
+        deleteRecursively(dir);
+        content = new File(dir, "content");
+        write(new File(content, "org/test/Test.class"));
+        write(new File(content, "org/test/resource.txt"));
+        write(new File(content, "META-INF/test.xml"));
+        new File(content, "empty").mkdirs();
+        indexFile = ResourceRootIndex.getIndexFile(new File(dir, "index"), "content");
+    }
+
+    @After
+    public void cleanup() {
+        deleteRecursively(dir);
+    }
+
+    @Test
+    public void testHitsAndMisses() throws IOException {
+        final ResourceRootIndex index = ResourceRootIndex.loadOrCreate(root(), indexFile);
+        Assert.assertTrue(index.mayContain("org/test/Test.class"));
+        Assert.assertTrue(index.mayContain("/org/test/resource.txt"));
+        Assert.assertTrue(index.mayContain("META-INF/test.xml"));
+        Assert.assertTrue(index.mayContain(""));
+        Assert.assertFalse(index.mayContain("org/test/Missing.class"));
+        Assert.assertFalse(index.mayContain("org/other/Test.class"));
+        Assert.assertFalse(index.mayContain("org/test/Test.class/inner"));
+    }
+
+    @Test
+    public void testDirectoryPrefixes() throws IOException {
+        final ResourceRootIndex index = ResourceRootIndex.loadOrCreate(root(), indexFile);
+        Assert.assertTrue(index.mayContain("org"));
+        Assert.assertTrue(index.mayContain("org/test/"));
+        Assert.assertTrue(index.mayContain("/org/test"));
+        Assert.assertTrue(index.mayContain("empty/"));
+        Assert.assertFalse(index.mayContain("org/tes"));
+        Assert.assertTrue(index.getPaths().contains(""));
+        Assert.assertTrue(index.getPaths().contains("org"));
+        Assert.assertTrue(index.getPaths().contains("org/test"));
+        Assert.assertTrue(index.getPaths().contains("empty"));
+        Assert.assertFalse(index.getPaths().contains("org/test/Test.class"));
+    }
+
+    @Test
+    public void testPersistedIndexReused() throws IOException {
+        ResourceRootIndex.loadOrCreate(root(), indexFile);
+        Assert.assertTrue(indexFile.exists());
+        // The content of the repository never changes, so the persisted index is used as is
+        write(new File(content, "org/test/Added.class"));
+        final ResourceRootIndex index = ResourceRootIndex.loadOrCreate(root(), indexFile);
+        Assert.assertTrue(index.mayContain("org/test/Test.class"));
+        Assert.assertFalse(index.mayContain("org/test/Added.class"));
+    }
+
+    @Test
+    public void testCorruptIndexRecreated() throws IOException {
+        indexFile.getParentFile().mkdirs();
+        write(indexFile);
+        final ResourceRootIndex index = ResourceRootIndex.loadOrCreate(root(), indexFile);
+        Assert.assertTrue(index.mayContain("org/test/Test.class"));
+    }
+
+    @Test
+    public void testResourceLoaderLookups() throws IOException {
+        final VFSResourceLoader loader = new VFSResourceLoader("content", root(), false, indexFile);
+        Assert.assertNotNull(loader.getResource("org/test/resource.txt"));
+        Assert.assertNotNull(loader.getResource("/META-INF/test.xml"));
+        Assert.assertNull(loader.getResource("org/test/missing.txt"));
+        Assert.assertNotNull(loader.getClassSpec("org/test/Test.class"));
+        Assert.assertNull(loader.getClassSpec("org/test/Missing.class"));
+        Assert.assertTrue(loader.getPaths().contains("org/test"));
+        Assert.assertTrue(indexFile.exists());
+    }
+
+    @Test
+    public void testResourceLoaderWithoutIndex() throws IOException {
+        final VFSResourceLoader loader = new VFSResourceLoader("content", root(), false, null);
+        Assert.assertNotNull(loader.getResource("org/test/resource.txt"));
+        Assert.assertNull(loader.getResource("org/test/missing.txt"));
+        Assert.assertTrue(loader.getPaths().contains("org/test"));
+        Assert.assertFalse(indexFile.exists());
+    }
+
+    private VirtualFile root() {
+        return VFS.getChild(content.getAbsolutePath());
+    }
+
+    private static void write(final File file) throws IOException {
+        file.getParentFile().mkdirs();
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[] {1, 2, 3});
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
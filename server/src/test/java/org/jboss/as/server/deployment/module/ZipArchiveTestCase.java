@@ -0,0 +1,312 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.Charset;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.modules.ClassSpec;
+import org.jboss.modules.Resource;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link ZipArchive} and the {@link ZipResourceLoader}.
+ */
+public class ZipArchiveTestCase {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private File dir;
+
+    @Before
+    public void setup() {
+        dir = new File("target", "zip-archive-test");
+        deleteRecursively(dir);
+        dir.mkdirs();
+    }
+
+    @After
+    public void cleanup() {
+        deleteRecursively(dir);
+    }
+
+    @Test
+    public void testCentralDirectory() throws IOException {
+        final File file = new File(dir, "test.war");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            out.setComment("archive comment");
+            directory(out, "META-INF/");
+            deflated(out, "META-INF/MANIFEST.MF", "Manifest-Version: 1.0\r\n\r\n");
+            deflated(out, "WEB-INF/classes/org/test/Test.class", "deflated class");
+            stored(out, "WEB-INF/classes/org/test/resource.txt", "stored".getBytes(UTF_8));
+            directory(out, "empty/");
+        }
+        write(file, bytes.toByteArray());
+
+        try (ZipArchiveSource source = ZipArchiveSource.open(file)) {
+            final ZipArchive archive = source.getArchive("");
+            Assert.assertNotNull(archive);
+            Assert.assertEquals(3, archive.getEntries().size());
+            Assert.assertFalse(archive.isSigned());
+            Assert.assertFalse(archive.hasLegacyNames());
+            Assert.assertTrue(archive.isDirectory(""));
+            Assert.assertTrue(archive.isDirectory("META-INF"));
+            Assert.assertTrue(archive.isDirectory("WEB-INF"));
+            Assert.assertTrue(archive.isDirectory("WEB-INF/classes/org/test"));
+            Assert.assertTrue(archive.isDirectory("empty"));
+            Assert.assertFalse(archive.isDirectory("WEB-INF/lib"));
+            Assert.assertNull(archive.getEntry("empty/"));
+            Assert.assertNull(archive.getEntry("missing.txt"));
+
+            final ZipArchive.Entry deflated = archive.getEntry("WEB-INF/classes/org/test/Test.class");
+            Assert.assertEquals("deflated class", new String(archive.getBytes(deflated), UTF_8));
+            final ZipArchive.Entry stored = archive.getEntry("WEB-INF/classes/org/test/resource.txt");
+            Assert.assertEquals("stored", new String(archive.getBytes(stored), UTF_8));
+            Assert.assertEquals(6, stored.getSize());
+        }
+    }
+
+    @Test
+    public void testSignedArchive() throws IOException {
+        final File file = new File(dir, "signed.jar");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            deflated(out, "META-INF/TEST.SF", "signature");
+            deflated(out, "org/test/Test.class", "class");
+        }
+        write(file, bytes.toByteArray());
+
+        try (ZipArchiveSource source = ZipArchiveSource.open(file)) {
+            Assert.assertTrue(source.getArchive("").isSigned());
+            Assert.assertNull(ZipResourceLoader.create("signed.jar", VFS.getChild(file.getAbsolutePath()), false, source, ""));
+        }
+    }
+
+    @Test
+    public void testNestedArchives() throws IOException {
+        final File file = createEar();
+        try (ZipArchiveSource source = ZipArchiveSource.open(file)) {
+            final ZipArchive nested = source.getArchive("lib/stored.jar");
+            Assert.assertNotNull(nested);
+            Assert.assertSame(nested, source.getArchive("lib/stored.jar"));
+            Assert.assertEquals("nested class", new String(nested.getBytes(nested.getEntry("org/test/Nested.class")), UTF_8));
+
+            // a jar within a war within the ear
+            final ZipArchive inner = source.getArchive("test.war/WEB-INF/lib/inner.jar");
+            Assert.assertNotNull(inner);
+            Assert.assertEquals("inner class", new String(inner.getBytes(inner.getEntry("org/test/Inner.class")), UTF_8));
+
+            // compressed nested archives cannot be read in place
+            Assert.assertNull(source.getArchive("lib/deflated.jar"));
+            Assert.assertNull(source.getArchive("lib/missing.jar"));
+        }
+    }
+
+    @Test
+    public void testResourceLoader() throws IOException {
+        final File file = createEar();
+        try (ZipArchiveSource source = ZipArchiveSource.open(file)) {
+            final ZipResourceLoader classes = ZipResourceLoader.create("classes", VFS.getChild(file.getAbsolutePath() + "/test.war/WEB-INF/classes"),
+                    false, source, "test.war/WEB-INF/classes");
+            Assert.assertNotNull(classes);
+            final ClassSpec spec = classes.getClassSpec("org/test/War.class");
+            Assert.assertNotNull(spec);
+            Assert.assertEquals("war class", new String(spec.getBytes(), UTF_8));
+            Assert.assertNull(classes.getClassSpec("org/test/Missing.class"));
+            Assert.assertTrue(classes.getPaths().contains(""));
+            Assert.assertTrue(classes.getPaths().contains("org/test"));
+            Assert.assertFalse(classes.getPaths().contains("WEB-INF"));
+
+            final Resource resource = classes.getResource("/org/test/war.txt");
+            Assert.assertNotNull(resource);
+            Assert.assertEquals("org/test/war.txt", resource.getName());
+            Assert.assertEquals(8, resource.getSize());
+            Assert.assertNull(classes.getResource("org/test/missing.txt"));
+
+            final Set<String> names = new HashSet<>();
+            final Iterator<Resource> iterator = classes.iterateResources("org", true);
+            while (iterator.hasNext()) {
+                names.add(iterator.next().getName());
+            }
+            Assert.assertEquals(2, names.size());
+            Assert.assertTrue(names.contains("org/test/War.class"));
+            Assert.assertTrue(names.contains("org/test/war.txt"));
+            Assert.assertFalse(classes.iterateResources("org", false).hasNext());
+
+            Assert.assertNotNull(ZipResourceLoader.create("stored.jar", VFS.getChild(file.getAbsolutePath() + "/lib/stored.jar"),
+                    false, source, "lib/stored.jar"));
+            Assert.assertNull(ZipResourceLoader.create("deflated.jar", VFS.getChild(file.getAbsolutePath() + "/lib/deflated.jar"),
+                    false, source, "lib/deflated.jar"));
+        }
+    }
+
+    @Test
+    public void testEntryNameEncoding() throws IOException {
+        final String name = "org/test/caf\u00e9.txt";
+        final File utf8 = new File(dir, "utf8.jar");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        // the language encoding flag is set for UTF-8 names
+        try (ZipOutputStream out = new ZipOutputStream(bytes, UTF_8)) {
+            deflated(out, name, "utf8");
+        }
+        write(utf8, bytes.toByteArray());
+        try (ZipArchiveSource source = ZipArchiveSource.open(utf8)) {
+            final ZipArchive archive = source.getArchive("");
+            Assert.assertFalse(archive.hasLegacyNames());
+            Assert.assertNotNull(archive.getEntry(name));
+            Assert.assertNotNull(ZipResourceLoader.create("utf8.jar", VFS.getChild(utf8.getAbsolutePath()), false, source, ""));
+        }
+
+        final File legacy = new File(dir, "legacy.jar");
+        bytes.reset();
+        // the language encoding flag is not set for other charsets
+        try (ZipOutputStream out = new ZipOutputStream(bytes, Charset.forName("IBM437"))) {
+            deflated(out, name, "legacy");
+            deflated(out, "org/test/ascii.txt", "ascii");
+        }
+        write(legacy, bytes.toByteArray());
+        try (ZipArchiveSource source = ZipArchiveSource.open(legacy)) {
+            final ZipArchive archive = source.getArchive("");
+            Assert.assertTrue(archive.hasLegacyNames());
+            Assert.assertNotNull(archive.getEntry(name));
+            Assert.assertNotNull(archive.getEntry("org/test/ascii.txt"));
+            // the VFS mount would decode the name differently, so the archive is not read directly
+            Assert.assertNull(ZipResourceLoader.create("legacy.jar", VFS.getChild(legacy.getAbsolutePath()), false, source, ""));
+        }
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        final File file = createEar();
+        final ZipArchiveSource source = ZipArchiveSource.open(file);
+        final ZipArchive root = source.getArchive("");
+        final ZipArchive nested = source.getArchive("lib/stored.jar");
+        final ZipArchive inner = source.getArchive("test.war/WEB-INF/lib/inner.jar");
+        final ZipArchive.Entry entry = nested.getEntry("org/test/Nested.class");
+        source.close();
+
+        Assert.assertTrue(source.isClosed());
+        Assert.assertTrue(root.isClosed());
+        Assert.assertTrue(nested.isClosed());
+        Assert.assertTrue(inner.isClosed());
+        try {
+            nested.getBytes(entry);
+            Assert.fail("Read from a closed archive");
+        } catch (ClosedChannelException expected) {
+            // expected
+        }
+        try {
+            source.getArchive("lib/stored.jar");
+            Assert.fail("Opened an archive of a closed source");
+        } catch (ClosedChannelException expected) {
+            // expected
+        }
+        // closing again is harmless, as is done by undeploy
+        VFSUtils.safeClose(source);
+        // the file is not held open anymore
+        Assert.assertTrue(file.delete());
+    }
+
+    private File createEar() throws IOException {
+        final ByteArrayOutputStream stored = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(stored)) {
+            deflated(out, "org/test/Nested.class", "nested class");
+        }
+        final ByteArrayOutputStream inner = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(inner)) {
+            deflated(out, "org/test/Inner.class", "inner class");
+        }
+        final ByteArrayOutputStream war = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(war)) {
+            deflated(out, "WEB-INF/classes/org/test/War.class", "war class");
+            deflated(out, "WEB-INF/classes/org/test/war.txt", "war text");
+            stored(out, "WEB-INF/lib/inner.jar", inner.toByteArray());
+        }
+        final ByteArrayOutputStream ear = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(ear)) {
+            stored(out, "lib/stored.jar", stored.toByteArray());
+            deflated(out, "lib/deflated.jar", new String(stored.toByteArray(), "ISO-8859-1"));
+            stored(out, "test.war", war.toByteArray());
+        }
+        final File file = new File(dir, "test.ear");
+        write(file, ear.toByteArray());
+        return file;
+    }
+
+    private static void directory(final ZipOutputStream out, final String name) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.closeEntry();
+    }
+
+    private static void deflated(final ZipOutputStream out, final String name, final String content) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(content.getBytes("ISO-8859-1"));
+        out.closeEntry();
+    }
+
+    private static void stored(final ZipOutputStream out, final String name, final byte[] content) throws IOException {
+        final ZipEntry entry = new ZipEntry(name);
+        final CRC32 crc = new CRC32();
+        crc.update(content);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        entry.setCrc(crc.getValue());
+        out.putNextEntry(entry);
+        out.write(content);
+        out.closeEntry();
+    }
+
+    private static void write(final File file, final byte[] content) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(content);
+        }
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] files = file.listFiles();
+        if (files != null) {
+            for (final File child : files) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}